@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The size of the annotated field must be between {@link #min()} and {@link #max()} inclusive, if it is not null.
+ * Supports {@link CharSequence}, {@link java.util.Collection}, {@link java.util.Map} and array fields.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Size {
+
+    /**
+     * @return The minimum size
+     */
+    int min() default 0;
+
+    /**
+     * @return The maximum size
+     */
+    int max() default Integer.MAX_VALUE;
+
+    /**
+     * @return The validation failure message, or empty to use the default message
+     */
+    String message() default "";
+}
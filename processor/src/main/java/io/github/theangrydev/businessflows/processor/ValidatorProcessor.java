@@ -0,0 +1,386 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Generates a {@code Validator} for each class annotated with {@link GenerateValidator}.
+ * <p>
+ * For a class {@code Person}, the generated {@code PersonValidator} implements {@code Validator<Person, String>} and
+ * checks every constraint of every field in one pass, in declaration order. It also has a static
+ * {@code fieldValidators()} method that returns a separate {@code Validator} for each constrained field, for use with
+ * e.g. {@code ValidationPath.validateFirst}. The generated code only depends on business-flows, so this processor is
+ * only needed at compile time.
+ * </p>
+ * A null field fails {@link NotNull} and {@link NotBlank} and is ignored by every other constraint.
+ */
+@SupportedAnnotationTypes("io.github.theangrydev.businessflows.processor.*")
+public class ValidatorProcessor extends AbstractProcessor {
+    private static final String FAILURE_TYPE = "java.lang.String";
+
+    // The regular expressions of the class currently being processed, which are compiled once in the generated class
+    private final List<String> patterns = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(GenerateValidator.class)) {
+            if (!element.getKind().isClass()) {
+                error(element, "@GenerateValidator can only be used on a class or record");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!type.getTypeParameters().isEmpty()) {
+                error(type, "@GenerateValidator does not support generic classes");
+                continue;
+            }
+            patterns.clear();
+            List<FieldConstraints> fields = fieldConstraints(type);
+            if (fields != null) {
+                generate(type, fields);
+            }
+        }
+        return true;
+    }
+
+    private List<FieldConstraints> fieldConstraints(TypeElement type) {
+        List<FieldConstraints> fields = new ArrayList<>();
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            List<String> checks = new ArrayList<>();
+            for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+                String check = check(field, annotation);
+                if (check == null) {
+                    valid = false;
+                } else if (!check.isEmpty()) {
+                    checks.add(check);
+                }
+            }
+            if (checks.isEmpty()) {
+                continue;
+            }
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                error(field, "Constraints are not supported on static fields");
+                valid = false;
+                continue;
+            }
+            String access = access(type, field);
+            if (access == null) {
+                error(field, "The field '" + field.getSimpleName() + "' is private and has no accessor");
+                valid = false;
+                continue;
+            }
+            fields.add(new FieldConstraints(field, access, checks));
+        }
+        return valid ? fields : null;
+    }
+
+    /**
+     * @return The Java statements that check the constraint, empty if the annotation is not a constraint, or null if
+     * the constraint cannot be used on the field
+     */
+    private String check(VariableElement field, AnnotationMirror annotation) {
+        String name = field.getSimpleName().toString();
+        String annotationName = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+        TypeMirror type = field.asType();
+        if (annotationName.equals(NotNull.class.getName())) {
+            NotNull notNull = field.getAnnotation(NotNull.class);
+            return "if (field == null) {\n"
+                    + "    failures = failure(failures, " + message(notNull.message(), "'" + name + "' must not be null") + ");\n"
+                    + "}\n";
+        }
+        if (annotationName.equals(NotBlank.class.getName())) {
+            NotBlank notBlank = field.getAnnotation(NotBlank.class);
+            if (!isAssignableTo(type, "java.lang.CharSequence")) {
+                return unsupported(field, "@NotBlank");
+            }
+            return "if (field == null || field.toString().trim().isEmpty()) {\n"
+                    + "    failures = failure(failures, " + message(notBlank.message(), "'" + name + "' must not be blank") + ");\n"
+                    + "}\n";
+        }
+        if (annotationName.equals(Size.class.getName())) {
+            Size size = field.getAnnotation(Size.class);
+            String sizeExpression = sizeExpression(type);
+            if (sizeExpression == null) {
+                return unsupported(field, "@Size");
+            }
+            return "if (" + notNull(type) + "(" + sizeExpression + " < " + size.min() + " || " + sizeExpression + " > " + size.max() + ")) {\n"
+                    + "    failures = failure(failures, " + message(size.message(), "'" + name + "' must have a size between " + size.min() + " and " + size.max()) + ");\n"
+                    + "}\n";
+        }
+        if (annotationName.equals(Min.class.getName())) {
+            Min min = field.getAnnotation(Min.class);
+            if (!isIntegral(type)) {
+                return unsupported(field, "@Min");
+            }
+            return "if (" + notNull(type) + "field < " + min.value() + "L) {\n"
+                    + "    failures = failure(failures, " + message(min.message(), "'" + name + "' must be at least " + min.value()) + ");\n"
+                    + "}\n";
+        }
+        if (annotationName.equals(Max.class.getName())) {
+            Max max = field.getAnnotation(Max.class);
+            if (!isIntegral(type)) {
+                return unsupported(field, "@Max");
+            }
+            return "if (" + notNull(type) + "field > " + max.value() + "L) {\n"
+                    + "    failures = failure(failures, " + message(max.message(), "'" + name + "' must be at most " + max.value()) + ");\n"
+                    + "}\n";
+        }
+        if (annotationName.equals(Pattern.class.getName())) {
+            Pattern pattern = field.getAnnotation(Pattern.class);
+            if (!isAssignableTo(type, "java.lang.CharSequence")) {
+                return unsupported(field, "@Pattern");
+            }
+            try {
+                java.util.regex.Pattern.compile(pattern.regexp());
+            } catch (PatternSyntaxException invalidPattern) {
+                error(field, "The @Pattern regular expression is invalid: " + invalidPattern.getDescription());
+                return null;
+            }
+            patterns.add(pattern.regexp());
+            return "if (field != null && !PATTERN_" + (patterns.size() - 1) + ".matcher(field).matches()) {\n"
+                    + "    failures = failure(failures, " + message(pattern.message(), "'" + name + "' must match " + pattern.regexp()) + ");\n"
+                    + "}\n";
+        }
+        return "";
+    }
+
+    private String unsupported(VariableElement field, String constraint) {
+        error(field, constraint + " is not supported on fields of type " + field.asType());
+        return null;
+    }
+
+    private String message(String message, String defaultMessage) {
+        return literal(message.isEmpty() ? defaultMessage : message);
+    }
+
+    private String notNull(TypeMirror type) {
+        return type.getKind().isPrimitive() ? "" : "field != null && ";
+    }
+
+    private String sizeExpression(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "field.length";
+        }
+        if (isAssignableTo(type, "java.lang.CharSequence")) {
+            return "field.length()";
+        }
+        if (isAssignableTo(type, "java.util.Collection") || isAssignableTo(type, "java.util.Map")) {
+            return "field.size()";
+        }
+        return null;
+    }
+
+    private boolean isIntegral(TypeMirror type) {
+        switch (type.getKind()) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                return true;
+            case DECLARED:
+                String name = ((TypeElement) processingEnv.getTypeUtils().asElement(type)).getQualifiedName().toString();
+                return name.equals("java.lang.Byte") || name.equals("java.lang.Short") || name.equals("java.lang.Integer") || name.equals("java.lang.Long");
+            default:
+                return false;
+        }
+    }
+
+    private boolean isAssignableTo(TypeMirror type, String typeName) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement target = processingEnv.getElementUtils().getTypeElement(typeName);
+        return processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(target.asType()));
+    }
+
+    private String access(TypeElement type, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return "value." + name;
+        }
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String accessor : new String[]{"get" + capitalized, "is" + capitalized, name}) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(accessor)
+                        && method.getParameters().isEmpty()
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                    return "value." + accessor + "()";
+                }
+            }
+        }
+        return null;
+    }
+
+    private void generate(TypeElement type, List<FieldConstraints> fields) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String validatorName = validatorName(type);
+        String typeName = type.getQualifiedName().toString();
+        String qualifiedValidatorName = packageName.isEmpty() ? validatorName : packageName + "." + validatorName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedValidatorName, type).openWriter();
+             PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Checks the constraints on {@link " + typeName + "}. Generated by " + ValidatorProcessor.class.getName() + ".");
+            out.println(" */");
+            out.println("public final class " + validatorName + " implements io.github.theangrydev.businessflows.Validator<" + typeName + ", " + FAILURE_TYPE + "> {");
+            for (int pattern = 0; pattern < patterns.size(); pattern++) {
+                out.println("    private static final java.util.regex.Pattern PATTERN_" + pattern + " = java.util.regex.Pattern.compile(" + literal(patterns.get(pattern)) + ");");
+            }
+            out.println();
+            out.println("    @Override");
+            out.println("    public io.github.theangrydev.businessflows.PotentialFailure<java.util.List<" + FAILURE_TYPE + ">> attempt(" + typeName + " value) {");
+            out.println("        java.util.List<" + FAILURE_TYPE + "> failures = null;");
+            for (FieldConstraints field : fields) {
+                out.println("        failures = " + field.methodName() + "(value, failures);");
+            }
+            out.println("        return result(failures);");
+            out.println("    }");
+            out.println();
+            out.println("    /**");
+            out.println("     * @return A separate validator for each constrained field of {@link " + typeName + "}, in declaration order");
+            out.println("     */");
+            out.println("    public static java.util.List<io.github.theangrydev.businessflows.Validator<" + typeName + ", " + FAILURE_TYPE + ">> fieldValidators() {");
+            out.println("        java.util.List<io.github.theangrydev.businessflows.Validator<" + typeName + ", " + FAILURE_TYPE + ">> fieldValidators = new java.util.ArrayList<>(" + fields.size() + ");");
+            for (FieldConstraints field : fields) {
+                out.println("        fieldValidators.add(value -> result(" + field.methodName() + "(value, null)));");
+            }
+            out.println("        return java.util.Collections.unmodifiableList(fieldValidators);");
+            out.println("    }");
+            for (FieldConstraints field : fields) {
+                out.println();
+                out.println("    private static java.util.List<" + FAILURE_TYPE + "> " + field.methodName() + "(" + typeName + " value, java.util.List<" + FAILURE_TYPE + "> failures) {");
+                out.println("        " + field.field.asType() + " field = " + field.access + ";");
+                for (String check : field.checks) {
+                    for (String line : check.split("\n")) {
+                        out.println("        " + line);
+                    }
+                }
+                out.println("        return failures;");
+                out.println("    }");
+            }
+            out.println();
+            out.println("    private static java.util.List<" + FAILURE_TYPE + "> failure(java.util.List<" + FAILURE_TYPE + "> failures, " + FAILURE_TYPE + " failure) {");
+            out.println("        java.util.List<" + FAILURE_TYPE + "> accumulated = failures == null ? new java.util.ArrayList<>() : failures;");
+            out.println("        accumulated.add(failure);");
+            out.println("        return accumulated;");
+            out.println("    }");
+            out.println();
+            out.println("    private static io.github.theangrydev.businessflows.PotentialFailure<java.util.List<" + FAILURE_TYPE + ">> result(java.util.List<" + FAILURE_TYPE + "> failures) {");
+            out.println("        return failures == null ? io.github.theangrydev.businessflows.PotentialFailure.success() : io.github.theangrydev.businessflows.PotentialFailure.failure(failures);");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            error(type, "Could not generate " + qualifiedValidatorName + ": " + e.getMessage());
+        }
+    }
+
+    private String validatorName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing.getKind() != ElementKind.PACKAGE) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append("Validator").toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char character : value.toCharArray()) {
+            switch (character) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (character < 0x20 || character > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        literal.append(character);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class FieldConstraints {
+        private final VariableElement field;
+        private final String access;
+        private final List<String> checks;
+
+        FieldConstraints(VariableElement field, String access, List<String> checks) {
+            this.field = field;
+            this.access = access;
+            this.checks = checks;
+        }
+
+        String methodName() {
+            String name = field.getSimpleName().toString();
+            return "validate" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+}
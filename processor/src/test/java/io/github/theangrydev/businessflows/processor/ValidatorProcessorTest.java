@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows.processor;
+
+import io.github.theangrydev.businessflows.ValidationPath;
+import io.github.theangrydev.businessflows.Validator;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+
+public class ValidatorProcessorTest implements WithAssertions {
+
+    private static final String PERSON = "package example;\n"
+            + "import io.github.theangrydev.businessflows.processor.*;\n"
+            + "import java.util.List;\n"
+            + "@GenerateValidator\n"
+            + "public class Person {\n"
+            + "    @NotBlank String name;\n"
+            + "    @NotNull @Size(min = 1, max = 2) List<String> nicknames;\n"
+            + "    @Min(18) @Max(value = 130, message = \"too \\\"old\\\"\") private final int age;\n"
+            + "    @Pattern(regexp = \"[A-Z]{2}\\\\d\") String code;\n"
+            + "    public Person(String name, List<String> nicknames, int age, String code) {\n"
+            + "        this.name = name; this.nicknames = nicknames; this.age = age; this.code = code;\n"
+            + "    }\n"
+            + "    public int getAge() { return age; }\n"
+            + "}\n";
+
+    private Path directory;
+    private DiagnosticCollector<JavaFileObject> diagnostics;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("validator-processor");
+        diagnostics = new DiagnosticCollector<>();
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void generatedValidatorChecksEveryConstraintInDeclarationOrder() throws Exception {
+        assertThat(compile("example/Person.java", PERSON)).isTrue();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+            Validator<Object, String> validator = newValidator(classLoader);
+            Object invalid = newPerson(classLoader, " ", asList("a", "b", "c"), 150, "ab1");
+            Object valid = newPerson(classLoader, "Liam", asList("a"), 30, "AB1");
+
+            List<String> failures = ValidationPath.validate(invalid, validator).ifSad().get();
+
+            assertThat(failures).containsExactly("'name' must not be blank", "'nicknames' must have a size between 1 and 2", "too \"old\"", "'code' must match [A-Z]{2}\\d");
+            assertThat(ValidationPath.validate(valid, validator).get()).isSameAs(valid);
+        }
+    }
+
+    @Test
+    public void nullFieldsOnlyFailNotNullAndNotBlank() throws Exception {
+        assertThat(compile("example/Person.java", PERSON)).isTrue();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+            Object person = newPerson(classLoader, null, null, 18, null);
+
+            List<String> failures = ValidationPath.validate(person, newValidator(classLoader)).ifSad().get();
+
+            assertThat(failures).containsExactly("'name' must not be blank", "'nicknames' must not be null");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void generatesASeparateValidatorForEachField() throws Exception {
+        assertThat(compile("example/Person.java", PERSON)).isTrue();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+            List<Validator<Object, String>> fieldValidators = (List<Validator<Object, String>>) classLoader.loadClass("example.PersonValidator").getMethod("fieldValidators").invoke(null);
+            Object person = newPerson(classLoader, "", asList("a"), 1, "AB1");
+
+            List<String> failures = ValidationPath.validateFirst(person, fieldValidators).ifSad().get();
+
+            assertThat(fieldValidators).hasSize(4);
+            assertThat(failures).containsExactly("'name' must not be blank");
+        }
+    }
+
+    @Test
+    public void reportsConstraintsOnUnsupportedTypes() throws IOException {
+        boolean compiled = compile("example/Bad.java", "package example;\n"
+                + "@io.github.theangrydev.businessflows.processor.GenerateValidator\n"
+                + "class Bad {\n"
+                + "    @io.github.theangrydev.businessflows.processor.Min(1) String name;\n"
+                + "}\n");
+
+        assertThat(compiled).isFalse();
+        assertThat(errors()).containsExactly("@Min is not supported on fields of type java.lang.String");
+    }
+
+    @Test
+    public void reportsPrivateFieldsWithoutAnAccessor() throws IOException {
+        boolean compiled = compile("example/Hidden.java", "package example;\n"
+                + "@io.github.theangrydev.businessflows.processor.GenerateValidator\n"
+                + "class Hidden {\n"
+                + "    @io.github.theangrydev.businessflows.processor.NotNull private String name;\n"
+                + "}\n");
+
+        assertThat(compiled).isFalse();
+        assertThat(errors()).containsExactly("The field 'name' is private and has no accessor");
+    }
+
+    private boolean compile(String fileName, String source) throws IOException {
+        Path sourceFile = directory.resolve(fileName);
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = asList("-Xlint:all", "-Werror", "-d", directory.toString(), "-s", directory.toString(), "-classpath", System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjects(sourceFile.toFile()));
+            task.setProcessors(asList(new ValidatorProcessor()));
+            return task.call();
+        }
+    }
+
+    private List<String> errors() {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Validator<Object, String> newValidator(ClassLoader classLoader) throws ReflectiveOperationException {
+        return (Validator<Object, String>) classLoader.loadClass("example.PersonValidator").getConstructor().newInstance();
+    }
+
+    private Object newPerson(ClassLoader classLoader, String name, List<String> nicknames, int age, String code) throws ReflectiveOperationException {
+        return classLoader.loadClass("example.Person").getConstructor(String.class, List.class, int.class, String.class).newInstance(name, nicknames, age, code);
+    }
+}
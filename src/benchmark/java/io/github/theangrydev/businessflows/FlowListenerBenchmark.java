@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+
+/**
+ * Measures the cost of {@link FlowListener} support on a short flow.
+ * <p>
+ * With listeners disabled (the default) the flow should be as fast as it was before listeners existed, since every
+ * notification is behind a static final check. The same flow is also measured with listeners enabled but none
+ * registered, and with a listener that does almost nothing, to show what enabling listeners costs.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FlowListenerBenchmark {
+    private static final String ENABLED = "-D" + FlowListeners.ENABLED_PROPERTY + "=true";
+
+    private final FlowListener countingListener = new FlowListener() {
+        private long transitions;
+
+        @Override
+        public void transitioned(FlowOperation operation, BusinessFlow<?, ?, ?> before, BusinessFlow<?, ?, ?> after) {
+            transitions++;
+        }
+    };
+
+    private int input = 42;
+    private long peeked;
+
+    @Benchmark
+    public String listenersDisabled() {
+        return flow(input);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLED)
+    public String listenersEnabledButNoneRegistered() {
+        return flow(input);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLED)
+    public String listenersEnabledWithAScopedListener() {
+        return FlowListener.listen(countingListener, () -> flow(input));
+    }
+
+    private String flow(int input) {
+        return HappyPath.<Integer, String>happyPath(input)
+                .map(happy -> happy * 31)
+                .attempt(happy -> happy % 7 == 0 ? failure("divisible by 7") : success())
+                .peek(happy -> peeked++)
+                .map(String::valueOf)
+                .join(happy -> happy, sad -> sad);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+
+/**
+ * Measures the cost of tracing a short flow with a {@link FlowTracer}.
+ * <p>
+ * A flow that is not sampled should cost little more than running it untraced. Tracing every flow shows the cost of
+ * recording the steps, which sampling amortises.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-D" + FlowListeners.ENABLED_PROPERTY + "=true")
+public class FlowTracerBenchmark {
+    private final FlowTracer neverSampled = FlowTracer.flowTracer(Integer.MAX_VALUE, 1024);
+    private final FlowTracer oneInAThousand = FlowTracer.flowTracer(1000, 1024);
+    private final FlowTracer everyFlow = FlowTracer.flowTracer(1, 1024);
+
+    private int input = 42;
+
+    @Benchmark
+    public String untraced() {
+        return flow(input);
+    }
+
+    @Benchmark
+    public String notSampled() {
+        return neverSampled.trace("flow", () -> flow(input));
+    }
+
+    @Benchmark
+    public String oneInAThousandSampled() {
+        return oneInAThousand.trace("flow", () -> flow(input));
+    }
+
+    @Benchmark
+    public String everyFlowSampled() {
+        return everyFlow.trace("flow", () -> flow(input));
+    }
+
+    private String flow(int input) {
+        return HappyPath.<Integer, String>happyPath(input)
+                .map("multiply", happy -> happy * 31)
+                .attempt("check", happy -> happy % 7 == 0 ? failure("divisible by 7") : success())
+                .map(String::valueOf)
+                .join(happy -> happy, sad -> sad);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+
+/**
+ * Compares the throughput of a {@link PipelinedFlowRunner} against running the whole flow for each input on a thread
+ * pool with one thread per stage.
+ * <p>
+ * The stages are parse, enrich, price and persist. Enrich reads from a lookup table that is larger than a typical L1
+ * cache, which is where giving each stage its own core is expected to help.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PipelinedFlowRunnerBenchmark {
+    private static final int STAGES = 4;
+
+    @Param({"10000"})
+    private int inputCount;
+
+    @Param({"1024"})
+    private int ringBufferSize;
+
+    private final long[] enrichmentTable = new long[64 * 1024];
+    private List<String> inputs;
+    private ExecutorService threadPool;
+    private PipelinedFlowRunner<String, Long, String> pipeline;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (int index = 0; index < enrichmentTable.length; index++) {
+            enrichmentTable[index] = random.nextLong();
+        }
+        inputs = new ArrayList<>(inputCount);
+        for (int input = 0; input < inputCount; input++) {
+            inputs.add(random.nextInt(1000) + "," + random.nextInt(enrichmentTable.length));
+        }
+        threadPool = Executors.newFixedThreadPool(STAGES);
+        pipeline = PipelinedFlowRunner.<String, String>pipeline()
+                .map(this::parse)
+                .map(this::enrich)
+                .attempt(this::validatePrice)
+                .map(this::persist);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        threadPool.shutdownNow();
+    }
+
+    @Benchmark
+    public List<HappyPath<Long, String>> pipelined() throws InterruptedException {
+        return pipeline.run(inputs, Executors.defaultThreadFactory(), ringBufferSize);
+    }
+
+    @Benchmark
+    public List<HappyPath<Long, String>> wholeFlowPerInputOnAThreadPool() throws InterruptedException, ExecutionException {
+        List<Future<HappyPath<Long, String>>> futures = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            futures.add(threadPool.submit(() -> wholeFlow(input)));
+        }
+        List<HappyPath<Long, String>> outcomes = new ArrayList<>(inputs.size());
+        for (Future<HappyPath<Long, String>> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private HappyPath<Long, String> wholeFlow(String input) {
+        return HappyPath.<String, String>happyPath(input)
+                .map(this::parse)
+                .map(this::enrich)
+                .attempt(this::validatePrice)
+                .map(this::persist);
+    }
+
+    private int[] parse(String input) {
+        int comma = input.indexOf(',');
+        return new int[]{Integer.parseInt(input.substring(0, comma)), Integer.parseInt(input.substring(comma + 1))};
+    }
+
+    private long[] enrich(int[] parsed) {
+        long enrichment = 0;
+        for (int offset = 0; offset < 64; offset++) {
+            enrichment ^= enrichmentTable[(parsed[1] + offset * 1021) & (enrichmentTable.length - 1)];
+        }
+        return new long[]{parsed[0], enrichment};
+    }
+
+    private PotentialFailure<String> validatePrice(long[] enriched) {
+        long price = enriched[0];
+        for (int round = 0; round < 100; round++) {
+            price = price * 6364136223846793005L + enriched[1];
+        }
+        enriched[1] = price;
+        return enriched[0] == 0 ? failure("free") : success();
+    }
+
+    private long persist(long[] priced) {
+        return Long.rotateLeft(priced[1], 13) ^ priced[0];
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static io.github.theangrydev.businessflows.FlowOutcome.UNKNOWN;
+import static io.github.theangrydev.businessflows.FlowOutcome.exceptionClassOf;
+
+/**
+ * Collects the steps of a flow that a {@link FlowTracer} sampled, on the thread that runs the flow.
+ * <p>
+ * Named stages report how long they took via {@link #stageEnded(String, long)}, and the operation that ran the stage
+ * is reported straight afterwards as a {@link FlowListener} callback, so the two are combined into one step. Stages
+ * whose operation is never reported, because listeners are disabled, become steps with an unknown outcome.
+ * </p>
+ */
+final class ActiveTrace implements FlowListener {
+    private static final ThreadLocal<ActiveTrace> CURRENT = new ThreadLocal<>();
+
+    private final List<TraceStep> steps = new ArrayList<>();
+    private final LongSupplier nanoClock;
+    private long previousStepEnded;
+    private String pendingStage;
+    private long pendingStageNanos;
+
+    ActiveTrace(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.previousStepEnded = nanoClock.getAsLong();
+    }
+
+    static ActiveTrace current() {
+        return CURRENT.get();
+    }
+
+    static ActiveTrace enter(ActiveTrace trace) {
+        StageDiagnostics.switchedOn();
+        ActiveTrace outer = CURRENT.get();
+        CURRENT.set(trace);
+        return outer;
+    }
+
+    static void exit(ActiveTrace outer) {
+        StageDiagnostics.switchedOff();
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+
+    void stageEnded(String stageName, long nanos) {
+        addPendingStage();
+        pendingStage = stageName;
+        pendingStageNanos = nanos;
+    }
+
+    @Override
+    public void transitioned(FlowOperation operation, BusinessFlow<?, ?, ?> before, BusinessFlow<?, ?, ?> after) {
+        long now = nanoClock.getAsLong();
+        if (pendingStage == null) {
+            steps.add(new TraceStep(operation.name(), operation, now - previousStepEnded, FlowOutcome.of(after), exceptionClassOf(after)));
+        } else {
+            steps.add(new TraceStep(pendingStage, operation, pendingStageNanos, FlowOutcome.of(after), exceptionClassOf(after)));
+            pendingStage = null;
+        }
+        previousStepEnded = now;
+    }
+
+    FlowTrace finish(String flowName, long durationNanos, Object result) {
+        addPendingStage();
+        return new FlowTrace(flowName, durationNanos, true, FlowOutcome.of(result), exceptionClassOf(result), steps);
+    }
+
+    private void addPendingStage() {
+        if (pendingStage != null) {
+            steps.add(new TraceStep(pendingStage, null, pendingStageNanos, UNKNOWN, null));
+            pendingStage = null;
+        }
+    }
+}
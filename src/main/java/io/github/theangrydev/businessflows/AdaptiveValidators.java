@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Wraps a list of {@link Validator} and learns which order to run them in for {@link ValidationPath#validateFirst(List)}.
+ * <p>
+ * Each validator records how many times it ran, how many times it failed and how long it took, using striped
+ * {@link LongAdder} counters so that concurrent validation does not contend on them. Roughly once every
+ * {@code reorderInterval} calls to {@link #inExecutionOrder()} the validators are sorted by their expected cost of
+ * finding a failure (average cost divided by failure rate), so cheap validators that often fail run first.
+ * </p>
+ * For {@link ValidationPath#validate(List)}, every validator runs anyway, so use {@link #inDeclarationOrder()} to have
+ * the failures reported in the order the validators were declared.
+ *
+ * @param <Happy> The type to validate
+ * @param <Sad> The type of validation failure
+ */
+public class AdaptiveValidators<Happy, Sad> {
+    private static final int DEFAULT_REORDER_INTERVAL = 1024;
+
+    private final List<Validator<Happy, Sad>> declarationOrder;
+    private final List<InstrumentedValidator> instrumentedValidators;
+    private final int reorderInterval;
+    private final LongSupplier nanoClock;
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    private volatile List<Validator<Happy, Sad>> executionOrder;
+
+    AdaptiveValidators(List<? extends Validator<Happy, Sad>> validators, int reorderInterval, LongSupplier nanoClock) {
+        this.reorderInterval = reorderInterval;
+        this.nanoClock = nanoClock;
+        this.instrumentedValidators = new ArrayList<>(validators.size());
+        for (Validator<Happy, Sad> validator : validators) {
+            instrumentedValidators.add(new InstrumentedValidator(validator));
+        }
+        this.declarationOrder = unmodifiableList(new ArrayList<>(instrumentedValidators));
+        this.executionOrder = declarationOrder;
+    }
+
+    /**
+     * Produces {@link AdaptiveValidators} that reconsider the execution order roughly every 1024 validations.
+     *
+     * @param validators The validators, in declaration order
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return The adaptive validators
+     */
+    public static <Happy, Sad> AdaptiveValidators<Happy, Sad> adaptiveValidators(List<? extends Validator<Happy, Sad>> validators) {
+        return adaptiveValidators(validators, DEFAULT_REORDER_INTERVAL);
+    }
+
+    /**
+     * Produces {@link AdaptiveValidators} that reconsider the execution order roughly every {@code reorderInterval}
+     * validations.
+     *
+     * @param validators The validators, in declaration order
+     * @param reorderInterval On average, how many calls to {@link #inExecutionOrder()} there are between reorderings
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return The adaptive validators
+     */
+    public static <Happy, Sad> AdaptiveValidators<Happy, Sad> adaptiveValidators(List<? extends Validator<Happy, Sad>> validators, int reorderInterval) {
+        if (reorderInterval < 1) {
+            throw new IllegalArgumentException("The reorder interval must be at least 1 but was " + reorderInterval);
+        }
+        return new AdaptiveValidators<>(validators, reorderInterval, System::nanoTime);
+    }
+
+    /**
+     * The validators in the order that is currently expected to find a failure most cheaply.
+     * Use this with {@link ValidationPath#validateFirst(List)}.
+     *
+     * @return The instrumented validators, in execution order
+     */
+    public List<Validator<Happy, Sad>> inExecutionOrder() {
+        if (ThreadLocalRandom.current().nextInt(reorderInterval) == 0) {
+            reorder();
+        }
+        return executionOrder;
+    }
+
+    /**
+     * The validators in the order they were declared. Use this with {@link ValidationPath#validate(List)}.
+     *
+     * @return The instrumented validators, in declaration order
+     */
+    public List<Validator<Happy, Sad>> inDeclarationOrder() {
+        return declarationOrder;
+    }
+
+    private void reorder() {
+        if (!reordering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<InstrumentedValidator> sorted = new ArrayList<>(instrumentedValidators);
+            for (InstrumentedValidator validator : sorted) {
+                validator.snapshotExpectedCost();
+            }
+            sorted.sort(Comparator.comparingDouble(validator -> validator.expectedCost));
+            executionOrder = unmodifiableList(new ArrayList<>(sorted));
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    private final class InstrumentedValidator implements Validator<Happy, Sad> {
+        private final Validator<Happy, Sad> validator;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        // Only accessed while reordering
+        private double expectedCost;
+
+        InstrumentedValidator(Validator<Happy, Sad> validator) {
+            this.validator = validator;
+        }
+
+        @Override
+        public PotentialFailure<List<Sad>> attempt(Happy happy) throws Exception {
+            long start = nanoClock.getAsLong();
+            PotentialFailure<List<Sad>> potentialFailure = validator.attempt(happy);
+            nanos.add(nanoClock.getAsLong() - start);
+            calls.increment();
+            List<Sad> validationFailures = potentialFailure.sadOrNull();
+            if (validationFailures != null && !validationFailures.isEmpty()) {
+                failures.increment();
+            }
+            return potentialFailure;
+        }
+
+        void snapshotExpectedCost() {
+            long callCount = calls.sum();
+            double averageCost = callCount == 0 ? 0 : (double) nanos.sum() / callCount;
+            // Laplace smoothing keeps validators that have never failed, or never run, from being ruled out forever
+            double failureRate = (failures.sum() + 1.0) / (callCount + 2.0);
+            expectedCost = averageCost / failureRate;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A diagnostic mode that records how many bytes each named flow and each named stage allocates, to find the flows that
+ * generate the most garbage.
+ * <p>
+ * Flows are measured by running them with {@link #measureFlow(String, Supplier)} and stages by using the named
+ * overloads such as {@link HappyPath#map(String, Mapping)}, or the wrappers of a {@link StageRegistry}. The bytes are
+ * counted with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, so they include everything the
+ * thread allocated while the flow or stage ran, and allocations made on other threads are not counted.
+ * </p>
+ * <p>
+ * Accounting is off by default, in which case measuring costs a volatile read. It can be switched on and off at
+ * runtime with {@link #enable()} and {@link #disable()}, or on from startup by starting the JVM with
+ * {@code -Dio.github.theangrydev.businessflows.allocationAccounting=true}. It stays off if the JVM cannot count
+ * allocated bytes per thread, see {@link #supported()}.
+ * </p>
+ */
+public final class AllocationAccounting {
+    static final String ENABLED_PROPERTY = "io.github.theangrydev.businessflows.allocationAccounting";
+
+    private static final ThreadMXBean THREADS = allocationCountingThreads();
+    private static final ConcurrentMap<String, Allocations> FLOWS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Allocations> STAGES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            enable();
+        }
+    }
+
+    private AllocationAccounting() {
+    }
+
+    /**
+     * @return True if the JVM can count the bytes allocated by each thread
+     */
+    public static boolean supported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @return True if allocations are being recorded
+     */
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Start recording allocations, if it is {@link #supported()}.
+     */
+    public static synchronized void enable() {
+        if (THREADS == null || enabled) {
+            return;
+        }
+        ThreadAllocations.enable(THREADS);
+        StageDiagnostics.switchedOn();
+        enabled = true;
+    }
+
+    /**
+     * Stop recording allocations. The allocations recorded so far are kept.
+     */
+    public static synchronized void disable() {
+        if (enabled) {
+            StageDiagnostics.switchedOff();
+        }
+        enabled = false;
+    }
+
+    /**
+     * Run a flow, recording the bytes it allocates on the current thread under the given name if accounting is
+     * {@link #enabled()}.
+     *
+     * @param flowName The name to record the allocations under
+     * @param flow The flow to run
+     * @param <Result> The type of result the flow produces
+     * @return The result of the flow
+     */
+    public static <Result> Result measureFlow(String flowName, Supplier<Result> flow) {
+        long allocatedBefore = allocatedBytes();
+        if (allocatedBefore < 0) {
+            return flow.get();
+        }
+        try {
+            return flow.get();
+        } finally {
+            record(FLOWS, flowName, allocatedBefore);
+        }
+    }
+
+    /**
+     * @return The allocations recorded so far for every flow, by flow name
+     */
+    public static Map<String, AllocationSnapshot> flowSnapshots() {
+        return snapshots(FLOWS);
+    }
+
+    /**
+     * @return The allocations recorded so far for every stage, by stage name
+     */
+    public static Map<String, AllocationSnapshot> stageSnapshots() {
+        return snapshots(STAGES);
+    }
+
+    /**
+     * Forget the allocations recorded so far. Allocations recorded while resetting may or may not be forgotten.
+     */
+    public static void reset() {
+        FLOWS.clear();
+        STAGES.clear();
+    }
+
+    /**
+     * @return The bytes allocated so far by the current thread, or -1 if accounting is not {@link #enabled()}
+     */
+    static long allocatedBytes() {
+        if (!enabled) {
+            return -1;
+        }
+        return ThreadAllocations.allocatedBytes(THREADS, Thread.currentThread().getId());
+    }
+
+    static void recordStage(String stageName, long allocatedBefore) {
+        record(STAGES, stageName, allocatedBefore);
+    }
+
+    private static void record(ConcurrentMap<String, Allocations> allocations, String name, long allocatedBefore) {
+        long allocatedAfter = allocatedBytes();
+        // Accounting may have been disabled while the flow or stage was running
+        if (allocatedAfter >= 0) {
+            allocations.computeIfAbsent(name, ignored -> new Allocations()).record(allocatedAfter - allocatedBefore);
+        }
+    }
+
+    private static Map<String, AllocationSnapshot> snapshots(ConcurrentMap<String, Allocations> allocations) {
+        Map<String, AllocationSnapshot> snapshots = new TreeMap<>();
+        allocations.forEach((name, namedAllocations) -> snapshots.put(name, namedAllocations.snapshot()));
+        return snapshots;
+    }
+
+    private static ThreadMXBean allocationCountingThreads() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            Class<?> allocationCountingThreads = Class.forName("com.sun.management.ThreadMXBean");
+            if (allocationCountingThreads.isInstance(threads) && ThreadAllocations.supported(threads)) {
+                return threads;
+            }
+        } catch (ClassNotFoundException unsupported) {
+            // Not every JVM has the com.sun.management extensions
+        }
+        return null;
+    }
+
+    /**
+     * The only place that refers to {@link com.sun.management.ThreadMXBean}, so that the class is only loaded once it
+     * is known to exist and {@link AllocationAccounting} can still be loaded on JVMs that do not have it.
+     */
+    private static final class ThreadAllocations {
+        static boolean supported(ThreadMXBean threads) {
+            return ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+        }
+
+        static void enable(ThreadMXBean threads) {
+            ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+        }
+
+        static long allocatedBytes(ThreadMXBean threads, long threadId) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId);
+        }
+    }
+
+    private static final class Allocations {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalBytes = new LongAdder();
+        private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+
+        void record(long bytes) {
+            count.increment();
+            totalBytes.add(bytes);
+            maxBytes.accumulate(bytes);
+        }
+
+        AllocationSnapshot snapshot() {
+            return new AllocationSnapshot(count.sum(), totalBytes.sum(), maxBytes.get());
+        }
+    }
+}
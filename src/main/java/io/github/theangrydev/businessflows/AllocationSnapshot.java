@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import static java.lang.String.format;
+
+/**
+ * An immutable copy of the allocations recorded for a flow or stage by {@link AllocationAccounting}.
+ */
+public final class AllocationSnapshot {
+    private final long count;
+    private final long totalBytes;
+    private final long maxBytes;
+
+    AllocationSnapshot(long count, long totalBytes, long maxBytes) {
+        this.count = count;
+        this.totalBytes = totalBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return The number of executions that were measured
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return The total number of bytes allocated by the executions
+     */
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return The most bytes allocated by a single execution
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return The average number of bytes allocated by an execution, or 0 if there were none
+     */
+    public double averageBytes() {
+        return count == 0 ? 0 : (double) totalBytes / count;
+    }
+
+    @Override
+    public String toString() {
+        return format("count=%d, totalBytes=%d, maxBytes=%d", count, totalBytes, maxBytes);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * A {@link Validator} that can validate a whole batch of {@link Happy} objects at once, e.g. by checking a set of IDs
+ * against a database in one query. It is used by {@link ValidationPath#validateAll(List, List)}.
+ *
+ * @param <Happy> The type to validate
+ * @param <Sad> The type of validation failure
+ */
+@FunctionalInterface
+public interface BatchValidator<Happy, Sad> extends Validator<Happy, Sad> {
+
+    /**
+     * Validate each of the {@link Happy} objects in the batch.
+     *
+     * @param batch The objects to validate
+     * @return The result of validating each object, in the same order as the batch
+     * @throws Exception If there is a technical failure, which will apply to every object in the batch
+     */
+    List<PotentialFailure<List<Sad>>> attemptAll(List<? extends Happy> batch) throws Exception;
+
+    /**
+     * Validate a single {@link Happy} object as a batch of one.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    default PotentialFailure<List<Sad>> attempt(Happy happy) throws Exception {
+        return attemptAll(singletonList(happy)).get(0);
+    }
+}
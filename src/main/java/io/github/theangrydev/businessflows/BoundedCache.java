@@ -0,0 +1,327 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrent cache with a maximum size and an optional time to live, using a simplified W-TinyLFU eviction policy.
+ * <p>
+ * New entries go into a small LRU window. When they leave the window they must compete with the least recently used
+ * entry of the main space to stay in the cache: whichever has been used less often, according to a count-min frequency
+ * sketch, is evicted. The main space is split into a probation segment and a protected segment for entries that have
+ * been used again since joining it.
+ * </p>
+ * Reads do not take a lock. They are recorded in a small lossy buffer that is replayed into the policy while holding
+ * the eviction lock, which writes also hold. Null keys and values are not supported.
+ *
+ * @param <Key> The type of the keys
+ * @param <Value> The type of the values
+ */
+class BoundedCache<Key, Value> {
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int DRAIN_INTERVAL = 32;
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final int maximumSize;
+    private final int maximumWindowSize;
+    private final int maximumProtectedSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<Key, Node<Key, Value>> data = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Node<Key, Value>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder evictions = new LongAdder();
+
+    // Only accessed while holding the eviction lock
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque<Key, Value> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<Key, Value> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<Key, Value> protectedSegment = new AccessOrderDeque<>();
+
+    BoundedCache(int maximumSize, long timeToLiveNanos, LongSupplier nanoClock) {
+        this.maximumSize = maximumSize;
+        this.maximumWindowSize = Math.max(1, maximumSize / 100);
+        this.maximumProtectedSize = (int) ((maximumSize - maximumWindowSize) * 0.8);
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.nanoClock = nanoClock;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    Value getIfPresent(Key key) {
+        Node<Key, Value> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (hasExpired(node)) {
+            removeExpired(node);
+            return null;
+        }
+        recordRead(node);
+        return node.value;
+    }
+
+    void put(Key key, Value value) {
+        Node<Key, Value> node = new Node<>(key, value, timeToLiveNanos > 0 ? nanoClock.getAsLong() + timeToLiveNanos : 0);
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            Node<Key, Value> existing = data.put(key, node);
+            if (existing != null) {
+                unlink(existing);
+            }
+            sketch.increment(key);
+            node.segment = WINDOW;
+            window.addLast(node);
+            evictIfNeeded();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    int size() {
+        return data.size();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private boolean hasExpired(Node<Key, Value> node) {
+        return timeToLiveNanos > 0 && nanoClock.getAsLong() - node.expiresAt >= 0;
+    }
+
+    private void recordRead(Node<Key, Value> node) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        readBuffer.lazySet(random.nextInt(READ_BUFFER_SIZE), node);
+        if (random.nextInt(DRAIN_INTERVAL) == 0 && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void removeExpired(Node<Key, Value> node) {
+        evictionLock.lock();
+        try {
+            if (!node.removed) {
+                data.remove(node.key, node);
+                unlink(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void drainReadBuffer() {
+        for (int index = 0; index < READ_BUFFER_SIZE; index++) {
+            Node<Key, Value> node = readBuffer.getAndSet(index, null);
+            if (node != null && !node.removed) {
+                onAccess(node);
+            }
+        }
+    }
+
+    private void onAccess(Node<Key, Value> node) {
+        sketch.increment(node.key);
+        if (node.segment == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.segment == PROBATION) {
+            probation.remove(node);
+            node.segment = PROTECTED;
+            protectedSegment.addLast(node);
+            while (protectedSegment.size > maximumProtectedSize) {
+                Node<Key, Value> demoted = protectedSegment.head;
+                protectedSegment.remove(demoted);
+                demoted.segment = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedSegment.moveToLast(node);
+        }
+    }
+
+    private void evictIfNeeded() {
+        while (window.size > maximumWindowSize) {
+            Node<Key, Value> candidate = window.head;
+            window.remove(candidate);
+            candidate.segment = PROBATION;
+            probation.addLast(candidate);
+        }
+        while (window.size + probation.size + protectedSegment.size > maximumSize) {
+            evict(chooseEvictee());
+        }
+    }
+
+    private Node<Key, Value> chooseEvictee() {
+        Node<Key, Value> victim = probation.head;
+        Node<Key, Value> candidate = probation.tail;
+        if (victim == null) {
+            return protectedSegment.head == null ? window.head : protectedSegment.head;
+        }
+        if (victim == candidate) {
+            return victim;
+        }
+        return sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+    }
+
+    private void evict(Node<Key, Value> node) {
+        data.remove(node.key, node);
+        unlink(node);
+        evictions.increment();
+    }
+
+    private void unlink(Node<Key, Value> node) {
+        node.removed = true;
+        if (node.segment == WINDOW) {
+            window.remove(node);
+        } else if (node.segment == PROBATION) {
+            probation.remove(node);
+        } else {
+            protectedSegment.remove(node);
+        }
+    }
+
+    private static final class Node<Key, Value> {
+        private final Key key;
+        private final Value value;
+        private final long expiresAt;
+
+        // Only accessed while holding the eviction lock
+        private int segment;
+        private boolean removed;
+        private Node<Key, Value> previous;
+        private Node<Key, Value> next;
+
+        Node(Key key, Value value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class AccessOrderDeque<Key, Value> {
+        private Node<Key, Value> head;
+        private Node<Key, Value> tail;
+        private int size;
+
+        void addLast(Node<Key, Value> node) {
+            node.previous = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void remove(Node<Key, Value> node) {
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<Key, Value> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    /**
+     * A count-min sketch of 4 bit counters that is halved periodically, so that old popularity fades.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb3f2c4e1, 0x6b43a9b5, 0xc2b2ae35};
+        private static final int MAXIMUM_COUNT = 15;
+
+        private final int[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+            this.counters = new int[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        void increment(Object key) {
+            int hash = key.hashCode();
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = indexOf(hash, row);
+                if (counters[row][index] < MAXIMUM_COUNT) {
+                    counters[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                halve();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = MAXIMUM_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, counters[row][indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int indexOf(int hash, int row) {
+            int spread = (hash + SEEDS[row]) * SEEDS[row];
+            spread ^= spread >>> 16;
+            return spread & mask;
+        }
+
+        private void halve() {
+            for (int[] row : counters) {
+                for (int index = 0; index < row.length; index++) {
+                    row[index] >>>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
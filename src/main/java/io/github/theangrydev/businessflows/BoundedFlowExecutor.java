@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs flows on an {@link Executor} through a queue with a fixed capacity, shedding load instead of letting the queue
+ * grow when the flows cannot keep up.
+ * <p>
+ * A flow is rejected as soon as it is submitted, with the rejection {@link Sad} object as its outcome, if either:
+ * </p>
+ * <ul>
+ *     <li>The queue is full</li>
+ *     <li>The executor is overloaded: flows have been waiting in the queue for longer than the target delay for at
+ *     least a whole interval (the CoDel approach). A single burst that is drained quickly is not considered overload,
+ *     but a queue that never drains below the target delay is. The overload ends as soon as a flow is taken from the
+ *     queue having waited less than the target delay, or the queue is empty.</li>
+ * </ul>
+ * Accepted flows are run by at most {@code concurrency} threads of the executor at a time. A flow can be submitted in
+ * a {@link FlowContext}, which its outcome carries on in, even if it was rejected.
+ *
+ * @param <Sad> The type of sad object the flows may produce
+ */
+public class BoundedFlowExecutor<Sad> {
+    private final Executor executor;
+    private final int capacity;
+    private final int concurrency;
+    private final long targetDelayNanos;
+    private final long intervalNanos;
+    private final Sad rejection;
+    private final LongSupplier nanoClock;
+
+    private final Queue<QueuedFlow<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger drainers = new AtomicInteger();
+    private final LongAdder rejectedWhenFull = new LongAdder();
+    private final LongAdder rejectedWhenOverloaded = new LongAdder();
+
+    private volatile long firstAboveTargetDelay;
+    private volatile boolean overloaded;
+
+    BoundedFlowExecutor(Executor executor, int capacity, int concurrency, long targetDelayNanos, long intervalNanos, Sad rejection, LongSupplier nanoClock) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.concurrency = concurrency;
+        this.targetDelayNanos = targetDelayNanos;
+        this.intervalNanos = intervalNanos;
+        this.rejection = rejection;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Produces a {@link BoundedFlowExecutor} that runs flows on the given {@link Executor}.
+     *
+     * @param executor Runs the flows
+     * @param capacity The maximum number of flows that may be waiting to run
+     * @param concurrency The maximum number of flows that may be running at the same time
+     * @param targetDelay The longest acceptable time for a flow to wait in the queue
+     * @param interval How long flows must keep waiting longer than the target delay before the executor is overloaded;
+     *                 typically the time a flow normally takes to run
+     * @param timeUnit The unit of the target delay and interval
+     * @param rejection The outcome of a flow that is rejected
+     * @param <Sad> The type of sad object the flows may produce
+     * @return The executor
+     */
+    public static <Sad> BoundedFlowExecutor<Sad> boundedFlowExecutor(Executor executor, int capacity, int concurrency, long targetDelay, long interval, TimeUnit timeUnit, Sad rejection) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1 but was " + capacity);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The concurrency must be at least 1 but was " + concurrency);
+        }
+        return new BoundedFlowExecutor<>(executor, capacity, concurrency, timeUnit.toNanos(targetDelay), timeUnit.toNanos(interval), rejection, System::nanoTime);
+    }
+
+    /**
+     * Submit a flow to run, unless the executor is full or overloaded.
+     *
+     * @param flow The flow to run
+     * @param <Happy> The type of happy object the flow may produce
+     * @return A future that is completed with the outcome of the flow, or immediately with the rejection
+     */
+    public <Happy> CompletableFuture<HappyPath<Happy, Sad>> submit(Attempt<HappyPath<Happy, Sad>> flow) {
+        return submit(FlowContext.emptyContext(), flow);
+    }
+
+    /**
+     * Submit a flow to run in the given context, unless the executor is full or overloaded.
+     *
+     * @param context The context of the flow, which its outcome carries on in
+     * @param flow The flow to run
+     * @param <Happy> The type of happy object the flow may produce
+     * @return A future that is completed with the outcome of the flow, or immediately with the rejection
+     */
+    public <Happy> CompletableFuture<HappyPath<Happy, Sad>> submit(FlowContext context, Attempt<HappyPath<Happy, Sad>> flow) {
+        QueuedFlow<Happy> queuedFlow = new QueuedFlow<>(flow, context);
+        if (overloaded) {
+            rejectedWhenOverloaded.increment();
+            queuedFlow.complete(HappyPath.sadPath(rejection));
+            return queuedFlow.outcome;
+        }
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            rejectedWhenFull.increment();
+            queuedFlow.complete(HappyPath.sadPath(rejection));
+            return queuedFlow.outcome;
+        }
+        queuedFlow.enqueuedAt = nanoClock.getAsLong();
+        queue.add(queuedFlow);
+        startDrainerIfNeeded();
+        return queuedFlow.outcome;
+    }
+
+    /**
+     * @return The number of flows waiting to run
+     */
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return True if flows have been waiting longer than the target delay for at least an interval
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * @return The number of flows rejected because the queue was full
+     */
+    public long rejectedWhenFull() {
+        return rejectedWhenFull.sum();
+    }
+
+    /**
+     * @return The number of flows rejected because the executor was overloaded
+     */
+    public long rejectedWhenOverloaded() {
+        return rejectedWhenOverloaded.sum();
+    }
+
+    private void startDrainerIfNeeded() {
+        int running = drainers.get();
+        while (running < concurrency) {
+            if (drainers.compareAndSet(running, running + 1)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException rejectedExecution) {
+                    drainers.decrementAndGet();
+                    failQueued(rejectedExecution);
+                }
+                return;
+            }
+            running = drainers.get();
+        }
+    }
+
+    private void drain() {
+        do {
+            boolean drained = false;
+            try {
+                runQueuedFlows();
+                drained = true;
+            } finally {
+                drainers.decrementAndGet();
+                // A flow threw an Error, so hand the rest of the queue over to another drainer before passing it on
+                if (!drained) {
+                    startDrainerIfNeeded();
+                }
+            }
+            // A flow may have been queued after the last poll but before this drainer stopped counting itself
+        } while (!queue.isEmpty() && tryRestartDrainer());
+    }
+
+    private void runQueuedFlows() {
+        QueuedFlow<?> queuedFlow = queue.poll();
+        while (queuedFlow != null) {
+            queued.decrementAndGet();
+            updateOverload(nanoClock.getAsLong() - queuedFlow.enqueuedAt);
+            queuedFlow.run();
+            queuedFlow = queue.poll();
+        }
+        // An empty queue means there is no standing queue, so any overload is over
+        firstAboveTargetDelay = 0;
+        overloaded = false;
+    }
+
+    private boolean tryRestartDrainer() {
+        int running = drainers.get();
+        return running < concurrency && drainers.compareAndSet(running, running + 1);
+    }
+
+    private void updateOverload(long queueDelay) {
+        if (queueDelay < targetDelayNanos) {
+            firstAboveTargetDelay = 0;
+            overloaded = false;
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long firstAbove = firstAboveTargetDelay;
+        if (firstAbove == 0) {
+            firstAboveTargetDelay = now;
+        } else if (now - firstAbove >= intervalNanos) {
+            overloaded = true;
+        }
+    }
+
+    private void failQueued(RejectedExecutionException rejectedExecution) {
+        QueuedFlow<?> queuedFlow = queue.poll();
+        while (queuedFlow != null) {
+            queued.decrementAndGet();
+            queuedFlow.complete(HappyPath.technicalFailure(rejectedExecution));
+            queuedFlow = queue.poll();
+        }
+    }
+
+    private final class QueuedFlow<Happy> extends FlowTask<Happy, Sad> {
+        private long enqueuedAt;
+
+        QueuedFlow(Attempt<HappyPath<Happy, Sad>> flow, FlowContext context) {
+            super(flow, context);
+        }
+    }
+}
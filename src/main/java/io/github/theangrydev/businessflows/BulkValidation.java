@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates a batch of {@link Happy} objects one validator at a time, for {@link ValidationPath#validateAll(List, List)}.
+ *
+ * @param <Happy> The type to validate
+ * @param <Sad> The type of validation failure
+ */
+class BulkValidation<Happy, Sad> {
+    private final List<? extends Happy> batch;
+    private final List<List<Sad>> failures;
+    private final Exception[] technicalFailures;
+    private int technicalFailureCount;
+
+    BulkValidation(List<? extends Happy> batch) {
+        this.batch = batch;
+        this.failures = new ArrayList<>(batch.size());
+        for (int index = 0; index < batch.size(); index++) {
+            failures.add(null);
+        }
+        this.technicalFailures = new Exception[batch.size()];
+    }
+
+    void run(Validator<Happy, Sad> validator) {
+        if (validator instanceof BatchValidator) {
+            runBatch((BatchValidator<Happy, Sad>) validator);
+            return;
+        }
+        for (int index = 0; index < batch.size(); index++) {
+            if (technicalFailures[index] == null) {
+                try {
+                    addFailures(index, validator.attempt(batch.get(index)));
+                } catch (Exception technicalFailure) {
+                    addTechnicalFailure(index, technicalFailure);
+                }
+            }
+        }
+    }
+
+    <SadAggregate> List<ValidationPath<Happy, Sad, SadAggregate>> outcomes(Mapping<List<Sad>, SadAggregate> sadAggregateMapping) {
+        List<ValidationPath<Happy, Sad, SadAggregate>> outcomes = new ArrayList<>(batch.size());
+        for (int index = 0; index < batch.size(); index++) {
+            outcomes.add(outcome(index, sadAggregateMapping));
+        }
+        return outcomes;
+    }
+
+    private void runBatch(BatchValidator<Happy, Sad> batchValidator) {
+        List<Happy> remaining = new ArrayList<>(batch.size() - technicalFailureCount);
+        int[] remainingIndexes = new int[batch.size() - technicalFailureCount];
+        for (int index = 0; index < batch.size(); index++) {
+            if (technicalFailures[index] == null) {
+                remainingIndexes[remaining.size()] = index;
+                remaining.add(batch.get(index));
+            }
+        }
+        if (remaining.isEmpty()) {
+            return;
+        }
+        try {
+            List<PotentialFailure<List<Sad>>> results = batchValidator.attemptAll(remaining);
+            if (results.size() != remaining.size()) {
+                throw new IllegalStateException("The batch validator returned " + results.size() + " results for " + remaining.size() + " inputs");
+            }
+            for (int result = 0; result < results.size(); result++) {
+                addFailures(remainingIndexes[result], results.get(result));
+            }
+        } catch (Exception technicalFailure) {
+            for (int index : remainingIndexes) {
+                addTechnicalFailure(index, technicalFailure);
+            }
+        }
+    }
+
+    private void addFailures(int index, PotentialFailure<List<Sad>> potentialFailure) {
+        List<Sad> validationFailures = potentialFailure.sadOrNull();
+        if (validationFailures == null || validationFailures.isEmpty()) {
+            return;
+        }
+        List<Sad> accumulated = failures.get(index);
+        if (accumulated == null) {
+            accumulated = new ArrayList<>(validationFailures.size());
+            failures.set(index, accumulated);
+        }
+        accumulated.addAll(validationFailures);
+    }
+
+    private void addTechnicalFailure(int index, Exception technicalFailure) {
+        technicalFailures[index] = technicalFailure;
+        technicalFailureCount++;
+    }
+
+    private <SadAggregate> ValidationPath<Happy, Sad, SadAggregate> outcome(int index, Mapping<List<Sad>, SadAggregate> sadAggregateMapping) {
+        if (technicalFailures[index] != null) {
+            return ValidationPath.technicalFailure(technicalFailures[index]);
+        }
+        List<Sad> validationFailures = failures.get(index);
+        if (validationFailures == null) {
+            return ValidationPath.validationPathInto(batch.get(index), sadAggregateMapping);
+        }
+        try {
+            return ValidationPath.validationFailure(sadAggregateMapping.map(validationFailures));
+        } catch (Exception technicalFailure) {
+            return ValidationPath.technicalFailure(technicalFailure);
+        }
+    }
+}
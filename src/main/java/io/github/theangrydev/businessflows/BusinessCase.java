@@ -22,12 +22,13 @@ import java.util.function.Function;
 import static java.lang.String.format;
 
 /**
- * A {@link BusinessCase} is either a {@link HappyCase}, a {@link SadCase} or a {@link TechnicalFailure}.
+ * A {@link BusinessCase} is either happy, sad or a technical failure. Every {@link BusinessFlow} is a
+ * {@link BusinessCase}, and a {@link BusinessCase} can always be joined to a common result type.
  *
  * @param <Happy> The type of happy object this case may represent
  * @param <Sad> The type of sad object this case may represent
  */
-interface BusinessCase<Happy, Sad> {
+public interface BusinessCase<Happy, Sad> {
 
     /**
      * Join to a common result type. No matter what the {@link BusinessCase} actually is, the result type is the same.
@@ -52,6 +53,13 @@ interface BusinessCase<Happy, Sad> {
      */
     <Result> Result joinOrThrow(Mapping<Happy, Result> happyJoiner, Mapping<Sad, Result> sadJoiner) throws Exception;
 
+    /**
+     * The {@link FlowContext} of the flow, which every view of the flow and every flow that follows on from it shares.
+     *
+     * @return The context, which is {@link FlowContext#emptyContext()} unless the flow was started in a context
+     */
+    FlowContext context();
+
     /**
      * Same as {@link #join(Mapping, Mapping, Function)} but if the {@link BusinessCase} is a {@link TechnicalFailureCase},
      * then the underlying exception will be thrown as a {@link RuntimeException} instead of joined.
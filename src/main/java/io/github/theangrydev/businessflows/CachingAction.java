@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link ActionThatMightFail} that remembers the {@link PotentialFailure} that another action produced for each
+ * {@link Happy} object, for actions that are expensive and are often repeated with the same input, e.g. a lookup in a
+ * remote service.
+ * <p>
+ * The cache has a maximum size and evicts the entries that are least likely to be used again, based on both how
+ * recently and how often they have been used. Entries can also expire after a fixed time to live. Exceptions thrown
+ * by the action are never cached. Concurrent misses for the same {@link Happy} object may each call the action.
+ * </p>
+ * A null {@link Happy} object is never cached. {@link Happy} objects should have suitable
+ * {@link Object#equals(Object)} and {@link Object#hashCode()} methods.
+ *
+ * @param <Happy> The type of happy object the action acts on
+ * @param <Sad> The type of sad object that represents a failure
+ */
+public class CachingAction<Happy, Sad> implements ActionThatMightFail<Happy, Sad> {
+    private final ActionThatMightFail<Happy, Sad> action;
+    private final BoundedCache<Happy, PotentialFailure<Sad>> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    CachingAction(ActionThatMightFail<Happy, Sad> action, int maximumSize, long timeToLiveNanos, LongSupplier nanoClock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1 but was " + maximumSize);
+        }
+        if (timeToLiveNanos < 0) {
+            throw new IllegalArgumentException("The time to live must not be negative but was " + timeToLiveNanos + "ns");
+        }
+        this.action = action;
+        this.cache = new BoundedCache<>(maximumSize, timeToLiveNanos, nanoClock);
+    }
+
+    /**
+     * Produces a {@link CachingAction} whose entries never expire.
+     *
+     * @param action The action to cache the results of
+     * @param maximumSize The maximum number of results to cache
+     * @param <Happy> The type of happy object the action acts on
+     * @param <Sad> The type of sad object that represents a failure
+     * @return The caching action
+     */
+    public static <Happy, Sad> CachingAction<Happy, Sad> cachingAction(ActionThatMightFail<Happy, Sad> action, int maximumSize) {
+        return new CachingAction<>(action, maximumSize, 0, System::nanoTime);
+    }
+
+    /**
+     * Produces a {@link CachingAction} whose entries expire after the given time to live.
+     *
+     * @param action The action to cache the results of
+     * @param maximumSize The maximum number of results to cache
+     * @param timeToLive How long a result is cached for after it is produced
+     * @param timeUnit The unit of the time to live
+     * @param <Happy> The type of happy object the action acts on
+     * @param <Sad> The type of sad object that represents a failure
+     * @return The caching action
+     */
+    public static <Happy, Sad> CachingAction<Happy, Sad> cachingAction(ActionThatMightFail<Happy, Sad> action, int maximumSize, long timeToLive, TimeUnit timeUnit) {
+        return new CachingAction<>(action, maximumSize, timeUnit.toNanos(timeToLive), System::nanoTime);
+    }
+
+    @Override
+    public PotentialFailure<Sad> attempt(Happy happy) throws Exception {
+        if (happy == null) {
+            return action.attempt(null);
+        }
+        PotentialFailure<Sad> cached = cache.getIfPresent(happy);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        PotentialFailure<Sad> potentialFailure = action.attempt(happy);
+        cache.put(happy, potentialFailure);
+        return potentialFailure;
+    }
+
+    /**
+     * @return The number of times a cached result was used
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of times the action had to be called
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The fraction of calls that used a cached result, or 0 if there have been no calls
+     */
+    public double hitRate() {
+        long hitCount = hits();
+        long calls = hitCount + misses();
+        return calls == 0 ? 0 : (double) hitCount / calls;
+    }
+
+    /**
+     * @return The number of results that were evicted to keep the cache within its maximum size
+     */
+    public long evictions() {
+        return cache.evictions();
+    }
+
+    /**
+     * @return The number of results currently cached
+     */
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link CachingAction} for a {@link Validator}, typically used as one of the validators of a {@link FieldValidator}
+ * so that the cache is keyed by the value of the field.
+ *
+ * @param <Field> The type to validate
+ * @param <Sad> The type of validation failure
+ */
+public class CachingValidator<Field, Sad> extends CachingAction<Field, List<Sad>> implements Validator<Field, Sad> {
+
+    CachingValidator(Validator<Field, Sad> validator, int maximumSize, long timeToLiveNanos, LongSupplier nanoClock) {
+        super(validator, maximumSize, timeToLiveNanos, nanoClock);
+    }
+
+    /**
+     * Produces a {@link CachingValidator} whose entries never expire.
+     *
+     * @param validator The validator to cache the results of
+     * @param maximumSize The maximum number of results to cache
+     * @param <Field> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return The caching validator
+     */
+    public static <Field, Sad> CachingValidator<Field, Sad> cachingValidator(Validator<Field, Sad> validator, int maximumSize) {
+        return new CachingValidator<>(validator, maximumSize, 0, System::nanoTime);
+    }
+
+    /**
+     * Produces a {@link CachingValidator} whose entries expire after the given time to live.
+     *
+     * @param validator The validator to cache the results of
+     * @param maximumSize The maximum number of results to cache
+     * @param timeToLive How long a result is cached for after it is produced
+     * @param timeUnit The unit of the time to live
+     * @param <Field> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return The caching validator
+     */
+    public static <Field, Sad> CachingValidator<Field, Sad> cachingValidator(Validator<Field, Sad> validator, int maximumSize, long timeToLive, TimeUnit timeUnit) {
+        return new CachingValidator<>(validator, maximumSize, timeUnit.toNanos(timeToLive), System::nanoTime);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * A typed slot in a {@link FlowContext}.
+ * <p>
+ * Keys are compared by identity, so they are meant to be created once, e.g. as {@code static final} fields. Two keys
+ * with the same name are different slots.
+ * </p>
+ *
+ * @param <Value> The type of value stored in the slot
+ */
+public final class ContextKey<Value> {
+    private final String name;
+
+    private ContextKey(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Create a new key for its own slot.
+     *
+     * @param name A name for the key, used in error messages
+     * @param <Value> The type of value stored in the slot
+     * @return The key
+     */
+    public static <Value> ContextKey<Value> contextKey(String name) {
+        return new ContextKey<>(name);
+    }
+
+    /**
+     * @return The name of the key
+     */
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
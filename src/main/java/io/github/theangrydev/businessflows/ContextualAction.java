@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * An {@link ActionThatMightFail} that can also read the {@link FlowContext} of the flow it is part of.
+ *
+ * @param <Happy> The type of happy object the action will act on
+ * @param <Sad> The type of sad object that represents a failure
+ */
+@FunctionalInterface
+public interface ContextualAction<Happy, Sad> {
+
+    /**
+     * Attempt an action that might fail.
+     *
+     * @param context The context of the flow
+     * @param happy The happy object to attempt an action on
+     * @return A {@link PotentialFailure} that represents the outcome of the action
+     * @throws Exception If there was a technical failure when attempting
+     */
+    PotentialFailure<Sad> attempt(FlowContext context, Happy happy) throws Exception;
+}
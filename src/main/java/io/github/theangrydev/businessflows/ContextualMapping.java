@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * A {@link Mapping} that can also read the {@link FlowContext} of the flow it is part of.
+ *
+ * @param <Old> The old type (before mapping)
+ * @param <New> The new type (after mapping)
+ */
+@FunctionalInterface
+public interface ContextualMapping<Old, New> {
+
+    /**
+     * Map the {@link Old} object to a {@link New} object.
+     *
+     * @param context The context of the flow
+     * @param old The old argument
+     * @return The new result
+     * @throws Exception If there is a technical failure during the mapping
+     */
+    New map(FlowContext context, Old old) throws Exception;
+}
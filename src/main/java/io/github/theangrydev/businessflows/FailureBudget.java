@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * Limits how many {@link Sad} validation failures a {@link ValidationPath} will accumulate, so that an input that
+ * fails in a huge number of ways cannot make validation use an unbounded amount of memory and time.
+ * <p>
+ * Once the budget is used up the remaining validators are not run, and a single {@code truncated} marker is added
+ * after the failures that were kept. The marker is also added if a validator produced more failures than the budget
+ * allows for a single validator, e.g. a {@link FieldValidator} for a field with a very large number of elements.
+ * A {@link FieldValidator}, including any nested inside it, is told how much of the budget is left and stops running
+ * its field validators once they have produced more failures than that.
+ * </p>
+ *
+ * @param <Sad> The type of validation failure the budget applies to
+ */
+public class FailureBudget<Sad> {
+    private final int maxFailures;
+    private final int maxFailuresPerValidator;
+    private final Sad truncated;
+
+    private FailureBudget(int maxFailures, int maxFailuresPerValidator, Sad truncated) {
+        this.maxFailures = maxFailures;
+        this.maxFailuresPerValidator = maxFailuresPerValidator;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Produces a {@link FailureBudget} that keeps at most {@code maxFailures} failures overall.
+     *
+     * @param maxFailures The maximum number of failures to keep, not counting the truncated marker
+     * @param truncated The failure to add if any failures were dropped or validators were not run
+     * @param <Sad> The type of validation failure the budget applies to
+     * @return The budget
+     */
+    public static <Sad> FailureBudget<Sad> failureBudget(int maxFailures, Sad truncated) {
+        return failureBudget(maxFailures, maxFailures, truncated);
+    }
+
+    /**
+     * Produces a {@link FailureBudget} that keeps at most {@code maxFailures} failures overall and at most
+     * {@code maxFailuresPerValidator} failures from each validator. When each validator checks one field, this is a
+     * limit per field.
+     *
+     * @param maxFailures The maximum number of failures to keep, not counting the truncated marker
+     * @param maxFailuresPerValidator The maximum number of failures to keep from a single validator
+     * @param truncated The failure to add if any failures were dropped or validators were not run
+     * @param <Sad> The type of validation failure the budget applies to
+     * @return The budget
+     */
+    public static <Sad> FailureBudget<Sad> failureBudget(int maxFailures, int maxFailuresPerValidator, Sad truncated) {
+        if (maxFailures < 1) {
+            throw new IllegalArgumentException("The max failures must be at least 1 but was " + maxFailures);
+        }
+        if (maxFailuresPerValidator < 1) {
+            throw new IllegalArgumentException("The max failures per validator must be at least 1 but was " + maxFailuresPerValidator);
+        }
+        return new FailureBudget<>(maxFailures, Math.min(maxFailures, maxFailuresPerValidator), truncated);
+    }
+
+    /**
+     * @return The maximum number of failures to keep, not counting the truncated marker
+     */
+    public int maxFailures() {
+        return maxFailures;
+    }
+
+    /**
+     * @return The maximum number of failures to keep from a single validator
+     */
+    public int maxFailuresPerValidator() {
+        return maxFailuresPerValidator;
+    }
+
+    /**
+     * @return The failure that is added if any failures were dropped or validators were not run
+     */
+    public Sad truncated() {
+        return truncated;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package io.github.theangrydev.businessflows;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -34,10 +35,12 @@ import static java.util.stream.Stream.concat;
  */
 public class FieldValidator<Happy, Sad, Field> implements Validator<Happy, Sad> {
     private final Mapping<Happy, Field> fieldExtractor;
+    private final Object fieldName;
     private final List<? extends Validator<Field, Sad>> fieldValidators;
 
-    private FieldValidator(Mapping<Happy, Field> fieldExtractor, List<? extends Validator<Field, Sad>> fieldValidators) {
+    private FieldValidator(Mapping<Happy, Field> fieldExtractor, Object fieldName, List<? extends Validator<Field, Sad>> fieldValidators) {
         this.fieldExtractor = fieldExtractor;
+        this.fieldName = fieldName;
         this.fieldValidators = fieldValidators;
     }
 
@@ -52,7 +55,7 @@ public class FieldValidator<Happy, Sad, Field> implements Validator<Happy, Sad>
      * @return The validator
      */
     public static <Happy, Sad, Field> FieldValidator<Happy, Sad, Field> fieldValidator(Mapping<Happy, Field> fieldExtractor, List<? extends Validator<Field, Sad>> fieldValidators) {
-        return new FieldValidator<>(fieldExtractor, fieldValidators);
+        return new FieldValidator<>(fieldExtractor, null, fieldValidators);
     }
 
     /**
@@ -89,7 +92,7 @@ public class FieldValidator<Happy, Sad, Field> implements Validator<Happy, Sad>
         List<? extends Validator<Field, Sad>> fieldValidators = fieldValidatorFactories.stream()
                 .map(fieldNameMapping -> fieldNameMapping.apply(fieldName))
                 .collect(toList());
-        return fieldValidator(fieldExtractor, fieldValidators);
+        return new FieldValidator<>(fieldExtractor, fieldName, fieldValidators);
     }
 
     /**
@@ -117,11 +120,81 @@ public class FieldValidator<Happy, Sad, Field> implements Validator<Happy, Sad>
         return concat(Stream.of(first), Stream.of(rest)).collect(toList());
     }
 
+    Mapping<Happy, Field> fieldExtractor() {
+        return fieldExtractor;
+    }
+
+    List<? extends Validator<Field, Sad>> fieldValidators() {
+        return fieldValidators;
+    }
+
+    /**
+     * @param fieldValidators The validators to use instead
+     * @return A {@link FieldValidator} for the same field, with the same name, that uses the given validators
+     */
+    FieldValidator<Happy, Sad, Field> withFieldValidators(List<? extends Validator<Field, Sad>> fieldValidators) {
+        return new FieldValidator<>(fieldExtractor, fieldName, fieldValidators);
+    }
+
+    /**
+     * @return The name given to the factory method, or null if the {@link FieldValidator} was not given a name
+     */
+    Object fieldName() {
+        return fieldName;
+    }
+
     @Override
     public PotentialFailure<List<Sad>> attempt(Happy happy) throws Exception {
-        Field field = fieldExtractor.map(happy);
+        return validateField(fieldExtractor.map(happy));
+    }
+
+    PotentialFailure<List<Sad>> validateField(Field field) {
         return validate(field, fieldValidators)
                 .ifSad().map(PotentialFailure::failure)
                 .orElse(PotentialFailure.success());
     }
+
+    /**
+     * Attempt the validator, but if it is a {@link FieldValidator} then stop running its field validators as soon as
+     * they have produced more than {@code maxFailures} failures, rather than producing failures that will be dropped.
+     * Returning one more failure than the limit lets the caller tell that some were dropped.
+     *
+     * @param validator The validator to attempt
+     * @param happy The object to validate
+     * @param maxFailures The number of failures there is room for
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return The failures, of which there are more than {@code maxFailures} only if some were not produced
+     * @throws Exception If the validator threw
+     */
+    static <Happy, Sad> PotentialFailure<List<Sad>> attemptWithin(Validator<Happy, Sad> validator, Happy happy, int maxFailures) throws Exception {
+        if (validator instanceof FieldValidator) {
+            return ((FieldValidator<Happy, Sad, ?>) validator).attemptWithin(happy, maxFailures);
+        }
+        return validator.attempt(happy);
+    }
+
+    private PotentialFailure<List<Sad>> attemptWithin(Happy happy, int maxFailures) throws Exception {
+        return validateFieldWithin(fieldExtractor.map(happy), maxFailures);
+    }
+
+    private PotentialFailure<List<Sad>> validateFieldWithin(Field field, int maxFailures) {
+        List<Sad> validationFailures = new ArrayList<>();
+        for (Validator<Field, Sad> fieldValidator : fieldValidators) {
+            List<Sad> failures;
+            try {
+                failures = attemptWithin(fieldValidator, field, maxFailures - validationFailures.size()).sadOrNull();
+            } catch (Exception technicalFailure) {
+                // The same as validateField, where a technical failure leaves the field without any failures
+                return PotentialFailure.success();
+            }
+            if (failures != null) {
+                validationFailures.addAll(failures);
+            }
+            if (validationFailures.size() > maxFailures) {
+                break;
+            }
+        }
+        return validationFailures.isEmpty() ? PotentialFailure.success() : PotentialFailure.failure(validationFailures);
+    }
 }
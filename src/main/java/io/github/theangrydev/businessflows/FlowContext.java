@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * An immutable set of request scoped values, e.g. a tenant, correlation id or deadline, that the stages of a flow can
+ * read without the happy object having to carry them and without {@link ThreadLocal}s.
+ * <p>
+ * Values are stored in slots named by {@link ContextKey}s. A flow is started in a context with e.g.
+ * {@link HappyPath#happyPath(Object, FlowContext)} and every flow that follows on from it, including the flows
+ * produced by {@code then} actions, carries the same context, so a stage such as
+ * {@code happyPath.mapWithContext((context, order) -> price(order, context.get(TENANT)))} can read it wherever it
+ * runs. The runners start their flows in the context they are given, e.g.
+ * {@link ParallelFlowRunner#runOrdered(FlowContext, java.util.List)}.
+ * </p>
+ * Adding a value copies the slots, so contexts are meant to be built once per request and then only read. A context
+ * only has as many slots as it has values, and looking up a value compares keys by identity, which for the handful of
+ * values a context usually holds is about as quick as indexing an array by key.
+ */
+public final class FlowContext {
+    private static final FlowContext EMPTY = new FlowContext(new ContextKey<?>[0], new Object[0]);
+
+    private final ContextKey<?>[] keys;
+    private final Object[] values;
+
+    private FlowContext(ContextKey<?>[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @return A context with no values in it
+     */
+    public static FlowContext emptyContext() {
+        return EMPTY;
+    }
+
+    /**
+     * Produce a context with the same values as this one, plus the given value.
+     *
+     * @param key The slot to put the value in, replacing any value that is already there
+     * @param value The value
+     * @param <Value> The type of value
+     * @return A new context
+     */
+    public <Value> FlowContext with(ContextKey<Value> key, Value value) {
+        if (value == null) {
+            throw new IllegalArgumentException(format("The value for '%s' must not be null", key));
+        }
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            Object[] newValues = values.clone();
+            newValues[slot] = value;
+            return new FlowContext(keys, newValues);
+        }
+        ContextKey<?>[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        Object[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new FlowContext(newKeys, newValues);
+    }
+
+    /**
+     * @param key The slot to look in
+     * @return True if there is a value in the slot
+     */
+    public boolean contains(ContextKey<?> key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * @param key The slot to look in
+     * @param <Value> The type of value
+     * @return The value in the slot
+     * @throws IllegalStateException If there is no value in the slot
+     */
+    public <Value> Value get(ContextKey<Value> key) {
+        Value value = getOrElse(key, null);
+        if (value == null) {
+            throw new IllegalStateException(format("Context did not contain a '%s'", key));
+        }
+        return value;
+    }
+
+    /**
+     * @param key The slot to look in
+     * @param alternative The value to use if there is no value in the slot
+     * @param <Value> The type of value
+     * @return The value in the slot, or the alternative
+     */
+    @SuppressWarnings("unchecked")
+    public <Value> Value getOrElse(ContextKey<Value> key, Value alternative) {
+        // Only with(key, value) fills a slot, so the value in the slot for a key always has the key's type
+        int slot = slotOf(key);
+        return slot >= 0 ? (Value) values[slot] : alternative;
+    }
+
+    boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    private int slotOf(ContextKey<?> key) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
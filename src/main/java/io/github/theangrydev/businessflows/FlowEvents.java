@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * Emits JDK Flight Recorder events for flow stages, technical failures and validation rounds.
+ * <p>
+ * This version does nothing, because JFR events need Java 11. The Java 11 multi-release layer replaces it with one
+ * that emits the events while a recording is running.
+ * </p>
+ */
+final class FlowEvents {
+
+    private FlowEvents() {
+    }
+
+    static Object stageStarted() {
+        return null;
+    }
+
+    static <Flow> Flow stageEnded(Object stage, FlowOperation operation, BusinessFlow<?, ?, ?> before, Flow after) {
+        return after;
+    }
+
+    static Object validationStarted() {
+        return null;
+    }
+
+    static <Flow> Flow validationEnded(Object validation, int validators, int failures, Flow after) {
+        return after;
+    }
+}
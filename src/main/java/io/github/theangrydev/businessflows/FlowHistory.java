@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.function.Supplier;
+
+/**
+ * An opt-in mode that remembers the most recent named stages of each flow, e.g. {@link HappyPath#map(String, Mapping)},
+ * so that when a flow ends in a technical failure, the technical failure says what the earlier stages did.
+ * <p>
+ * Flows are recorded by running them with {@link #record(String, Supplier)}. For each stage, the history holds the
+ * stage name, the outcome of the stage, how long it took and, optionally, the {@link Object#toString()} of the value
+ * it produced, truncated to a maximum length. If the flow ends in a technical failure, the history is attached to
+ * the technical failure as a suppressed {@link FlowHistoryException}.
+ * </p>
+ * <p>
+ * Each thread keeps the history in a buffer with a fixed capacity that is allocated the first time the thread records
+ * a flow and is reused for every flow after that, so recording the history of a flow that does not fail does not
+ * allocate anything unless the values of stages are recorded. The named stages themselves still allocate, see
+ * {@link StageRegistry}. While the mode is disabled, recording a flow costs a volatile read.
+ * </p>
+ */
+public final class FlowHistory {
+    private static final ThreadLocal<HistoryBuffer> BUFFER = new ThreadLocal<>();
+
+    private static volatile Settings settings;
+
+    private FlowHistory() {
+    }
+
+    /**
+     * Start recording the history of flows, or change the size of the histories.
+     *
+     * @param capacity How many of the most recent stages of a flow to remember
+     * @param maxValueChars How many characters of the value each stage produced to remember, or 0 to not call
+     *                      {@link Object#toString()} on the values at all
+     */
+    public static synchronized void enable(int capacity, int maxValueChars) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1 but was " + capacity);
+        }
+        if (maxValueChars < 0) {
+            throw new IllegalArgumentException("The max value chars must be at least 0 but was " + maxValueChars);
+        }
+        if (settings == null) {
+            StageDiagnostics.switchedOn();
+        }
+        settings = new Settings(capacity, maxValueChars);
+    }
+
+    /**
+     * Stop recording the history of flows.
+     */
+    public static synchronized void disable() {
+        if (settings != null) {
+            StageDiagnostics.switchedOff();
+        }
+        settings = null;
+    }
+
+    /**
+     * @return True if the history of flows is being recorded
+     */
+    public static boolean enabled() {
+        return settings != null;
+    }
+
+    /**
+     * Run a flow, recording its history if the mode is {@link #enabled()}. Flows recorded inside another recorded
+     * flow on the same thread are part of the history of the outer flow.
+     *
+     * @param flowName The name of the flow, which is the first line of the history
+     * @param flow The flow to run
+     * @param <Result> The type of result the flow produces, typically a {@link BusinessFlow}
+     * @return The result of the flow, with the history attached to its technical failure if it has one
+     */
+    public static <Result> Result record(String flowName, Supplier<Result> flow) {
+        Settings current = settings;
+        if (current == null) {
+            return flow.get();
+        }
+        HistoryBuffer buffer = BUFFER.get();
+        if (buffer == null || buffer.depth == 0 && !current.fits(buffer)) {
+            buffer = new HistoryBuffer(current.capacity, current.maxValueChars);
+            BUFFER.set(buffer);
+        }
+        if (buffer.depth == 0) {
+            buffer.clear();
+        }
+        buffer.depth++;
+        Result result;
+        try {
+            result = flow.get();
+        } finally {
+            buffer.depth--;
+        }
+        if (buffer.depth == 0 && result instanceof TechnicalFailureCase) {
+            ((TechnicalFailureCase<?, ?>) result).technicalFailure.addSuppressed(new FlowHistoryException(buffer.history(flowName)));
+        }
+        return result;
+    }
+
+    /**
+     * @return The buffer of the flow the current thread is recording, or null if it is not recording one
+     */
+    static HistoryBuffer current() {
+        if (settings == null) {
+            return null;
+        }
+        HistoryBuffer buffer = BUFFER.get();
+        return buffer == null || buffer.depth == 0 ? null : buffer;
+    }
+
+    private static final class Settings {
+        private final int capacity;
+        private final int maxValueChars;
+
+        Settings(int capacity, int maxValueChars) {
+            this.capacity = capacity;
+            this.maxValueChars = maxValueChars;
+        }
+
+        boolean fits(HistoryBuffer buffer) {
+            return buffer.capacity == capacity && buffer.maxValueChars == maxValueChars;
+        }
+    }
+}
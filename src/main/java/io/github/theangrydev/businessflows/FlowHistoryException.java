@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * The history of the stages of a flow that ended in a technical failure, attached to the technical failure as a
+ * suppressed exception by {@link FlowHistory}. The history is the message of the exception, which has no stack trace
+ * of its own.
+ */
+public final class FlowHistoryException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    FlowHistoryException(String history) {
+        super(history, null, false, false);
+    }
+}
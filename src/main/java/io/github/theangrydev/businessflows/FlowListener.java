@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.function.Supplier;
+
+/**
+ * Receives callbacks as {@link BusinessFlow}s are created, transformed and joined, e.g. to record where flows turn sad
+ * or fail without wrapping every lambda in the flow.
+ * <p>
+ * Listeners are disabled by default, in which case registering a listener has no effect and the only cost to a flow
+ * is a check of a static final field that the JIT compiler removes. To enable them, start the JVM with
+ * {@code -Dio.github.theangrydev.businessflows.listeners=true}.
+ * </p>
+ * <p>
+ * Callbacks are made on the thread that is running the flow, so listeners must be thread safe and should be quick.
+ * Exceptions thrown by a listener are ignored, and operations performed by a listener on a flow (e.g. joining it) do
+ * not cause further callbacks.
+ * </p>
+ */
+public interface FlowListener {
+
+    /**
+     * Called when a flow is created by one of the static factory methods, e.g. {@link HappyPath#happyPath(Object)}.
+     *
+     * @param flow The flow that was created
+     */
+    default void created(BusinessFlow<?, ?, ?> flow) {
+        // Not interested by default
+    }
+
+    /**
+     * Called when an operation has run on a flow. Operations that do not run because the flow does not have the
+     * operation's bias (e.g. {@link HappyPath#map} of a sad flow) are not reported.
+     *
+     * @param operation The operation that ran
+     * @param before The flow the operation ran on
+     * @param after The flow the operation produced
+     */
+    default void transitioned(FlowOperation operation, BusinessFlow<?, ?, ?> before, BusinessFlow<?, ?, ?> after) {
+        // Not interested by default
+    }
+
+    /**
+     * Called after {@link #transitioned} if the operation changed the outcome of the flow, e.g. from happy to sad or
+     * from anything to a technical failure.
+     *
+     * @param operation The operation that ran
+     * @param before The flow the operation ran on
+     * @param after The flow the operation produced, which has a different outcome
+     */
+    default void outcomeChanged(FlowOperation operation, BusinessFlow<?, ?, ?> before, BusinessFlow<?, ?, ?> after) {
+        // Not interested by default
+    }
+
+    /**
+     * Called when a flow is about to be joined.
+     *
+     * @param flow The flow that is being joined
+     */
+    default void joined(BusinessFlow<?, ?, ?> flow) {
+        // Not interested by default
+    }
+
+    /**
+     * @return True if the JVM was started with listeners enabled
+     */
+    static boolean enabled() {
+        return FlowListeners.ENABLED;
+    }
+
+    /**
+     * Register a listener for every flow on every thread, if listeners are {@link #enabled()}.
+     *
+     * @param listener The listener to register
+     */
+    static void register(FlowListener listener) {
+        FlowListeners.register(listener);
+    }
+
+    /**
+     * Stop a listener that was registered with {@link #register(FlowListener)} from receiving callbacks.
+     *
+     * @param listener The listener to unregister
+     */
+    static void unregister(FlowListener listener) {
+        FlowListeners.unregister(listener);
+    }
+
+    /**
+     * Run a pipeline with a listener that only receives callbacks for the flows run by the pipeline on the current
+     * thread, if listeners are {@link #enabled()}.
+     *
+     * @param listener The listener for the pipeline
+     * @param pipeline The pipeline to run
+     * @param <Result> The type of result the pipeline produces
+     * @return The result of the pipeline
+     */
+    static <Result> Result listen(FlowListener listener, Supplier<Result> pipeline) {
+        return FlowListeners.listen(listener, pipeline);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches callbacks to the {@link FlowListener}s that are registered globally and for the current thread.
+ * <p>
+ * Every notification checks {@link #ENABLED} first, so when listeners are disabled the JIT compiler folds each call
+ * site down to nothing.
+ * </p>
+ */
+final class FlowListeners {
+    static final String ENABLED_PROPERTY = "io.github.theangrydev.businessflows.listeners";
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final FlowListener[] NO_LISTENERS = new FlowListener[0];
+    private static final ThreadLocal<ListenerScope> SCOPE = ThreadLocal.withInitial(ListenerScope::new);
+
+    private static volatile FlowListener[] globalListeners = NO_LISTENERS;
+
+    private FlowListeners() {
+    }
+
+    static synchronized void register(FlowListener listener) {
+        if (!ENABLED) {
+            return;
+        }
+        FlowListener[] listeners = Arrays.copyOf(globalListeners, globalListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        globalListeners = listeners;
+    }
+
+    static synchronized void unregister(FlowListener listener) {
+        FlowListener[] listeners = globalListeners;
+        for (int index = 0; index < listeners.length; index++) {
+            if (listeners[index] == listener) {
+                FlowListener[] remaining = new FlowListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, index);
+                System.arraycopy(listeners, index + 1, remaining, index, remaining.length - index);
+                globalListeners = remaining;
+                return;
+            }
+        }
+    }
+
+    static <Result> Result listen(FlowListener listener, Supplier<Result> pipeline) {
+        if (!ENABLED) {
+            return pipeline.get();
+        }
+        ListenerScope scope = SCOPE.get();
+        FlowListener[] outerListeners = scope.listeners;
+        FlowListener[] listeners = Arrays.copyOf(outerListeners, outerListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        scope.listeners = listeners;
+        try {
+            return pipeline.get();
+        } finally {
+            scope.listeners = outerListeners;
+        }
+    }
+
+    static <Flow extends BusinessFlow<?, ?, ?>> Flow created(Flow flow) {
+        if (ENABLED) {
+            dispatch(listener -> listener.created(flow));
+        }
+        return flow;
+    }
+
+    static <Flow extends BusinessFlow<?, ?, ?>> Flow transitioned(FlowOperation operation, BusinessFlow<?, ?, ?> before, Flow after) {
+        if (ENABLED) {
+            dispatch(listener -> listener.transitioned(operation, before, after));
+            if (outcome(before) != outcome(after)) {
+                dispatch(listener -> listener.outcomeChanged(operation, before, after));
+            }
+        }
+        return after;
+    }
+
+    static void joined(BusinessCase<?, ?> flow) {
+        if (ENABLED && flow instanceof BusinessFlow) {
+            dispatch(listener -> listener.joined((BusinessFlow<?, ?, ?>) flow));
+        }
+    }
+
+    private static int outcome(BusinessFlow<?, ?, ?> flow) {
+        if (flow instanceof HappyCase) {
+            return 0;
+        }
+        if (flow instanceof SadCase) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static void dispatch(Notification notification) {
+        ListenerScope scope = SCOPE.get();
+        if (scope.dispatching) {
+            return;
+        }
+        scope.dispatching = true;
+        try {
+            sendToEach(globalListeners, notification);
+            sendToEach(scope.listeners, notification);
+        } finally {
+            scope.dispatching = false;
+        }
+    }
+
+    private static void sendToEach(FlowListener[] listeners, Notification notification) {
+        for (FlowListener listener : listeners) {
+            try {
+                notification.send(listener);
+            } catch (RuntimeException ignored) {
+                // A faulty listener must not break the flow it listens to
+            }
+        }
+    }
+
+    private interface Notification {
+        void send(FlowListener listener);
+    }
+
+    private static final class ListenerScope {
+        private FlowListener[] listeners = NO_LISTENERS;
+        private boolean dispatching;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * The operations on a {@link BusinessFlow} that a {@link FlowListener} is told about.
+ */
+public enum FlowOperation {
+    /**
+     * {@link HappyPath#map}, {@link SadPath#map} or {@link TechnicalFailure#map}
+     */
+    MAP,
+    /**
+     * {@link HappyPath#then}, {@link SadPath#then} or {@link TechnicalFailure#then}
+     */
+    THEN,
+    /**
+     * {@link HappyPath#attempt}
+     */
+    ATTEMPT,
+    /**
+     * {@link HappyPath#peek}, {@link SadPath#peek} or {@link TechnicalFailure#peek}
+     */
+    PEEK,
+    /**
+     * {@link SadPath#recover} or {@link TechnicalFailure#recover}
+     */
+    RECOVER,
+    /**
+     * {@link TechnicalFailure#mapToSadPath}
+     */
+    MAP_TO_SAD_PATH,
+    /**
+     * A round of validation on a {@link ValidationPath}
+     */
+    VALIDATE
+}
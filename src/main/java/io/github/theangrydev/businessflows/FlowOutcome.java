@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * Which track a {@link BusinessFlow} is on, as recorded by a {@link FlowTracer} or {@link FlowHistory}.
+ */
+public enum FlowOutcome {
+    /**
+     * The flow is happy
+     */
+    HAPPY,
+    /**
+     * The flow is sad
+     */
+    SAD,
+    /**
+     * The flow is a technical failure
+     */
+    TECHNICAL_FAILURE,
+    /**
+     * The outcome was not observed, e.g. for a named stage when {@link FlowListener}s are disabled
+     */
+    UNKNOWN;
+
+    static FlowOutcome of(Object flow) {
+        if (flow instanceof HappyCase) {
+            return HAPPY;
+        }
+        if (flow instanceof SadCase) {
+            return SAD;
+        }
+        if (flow instanceof TechnicalFailureCase) {
+            return TECHNICAL_FAILURE;
+        }
+        return UNKNOWN;
+    }
+
+    static FlowOutcome ofStageResult(Object result, FlowOutcome track) {
+        if (result instanceof BusinessFlow) {
+            return of(result);
+        }
+        if (result instanceof PotentialFailure) {
+            return ((PotentialFailure<?>) result).sadOrNull() == null ? HAPPY : SAD;
+        }
+        return track;
+    }
+
+    static String exceptionClassOf(Object flow) {
+        if (flow instanceof TechnicalFailureCase) {
+            return ((TechnicalFailureCase<?, ?>) flow).technicalFailure.getClass().getName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A flow that has been submitted to run later in a {@link FlowContext}, along with the future that will be completed
+ * with its outcome in that context.
+ *
+ * @param <Happy> The type of happy object the flow may produce
+ * @param <Sad> The type of sad object the flow may produce
+ */
+class FlowTask<Happy, Sad> {
+    final CompletableFuture<HappyPath<Happy, Sad>> outcome = new CompletableFuture<>();
+    private final Attempt<HappyPath<Happy, Sad>> flow;
+    private final FlowContext context;
+
+    FlowTask(Attempt<HappyPath<Happy, Sad>> flow, FlowContext context) {
+        this.flow = flow;
+        this.context = context;
+    }
+
+    /**
+     * Run the flow and complete the future with its outcome. Exceptions become technical failures, but anything else
+     * the flow throws, e.g. an {@link Error}, completes the future exceptionally and is then rethrown.
+     */
+    void run() {
+        try {
+            outcome.complete(HappyPath.happyPathAttempt(flow, context));
+        } catch (Throwable throwable) {
+            outcome.completeExceptionally(throwable);
+            throw throwable;
+        }
+    }
+
+    void complete(HappyPath<Happy, Sad> happyPath) {
+        outcome.complete(happyPath.withContext(context));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The steps a flow took, recorded by a {@link FlowTracer}.
+ */
+public final class FlowTrace {
+    private final String flowName;
+    private final long durationNanos;
+    private final boolean sampled;
+    private final FlowOutcome outcome;
+    private final String exceptionClass;
+    private final List<TraceStep> steps;
+
+    FlowTrace(String flowName, long durationNanos, boolean sampled, FlowOutcome outcome, String exceptionClass, List<TraceStep> steps) {
+        this.flowName = flowName;
+        this.durationNanos = durationNanos;
+        this.sampled = sampled;
+        this.outcome = outcome;
+        this.exceptionClass = exceptionClass;
+        this.steps = unmodifiableList(steps);
+    }
+
+    /**
+     * @return The name the flow was traced under
+     */
+    public String flowName() {
+        return flowName;
+    }
+
+    /**
+     * @return How long the whole flow took, in nanoseconds
+     */
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return True if the flow was sampled and so has {@link #steps()}; false if it was only recorded because it
+     * was slower than the threshold
+     */
+    public boolean sampled() {
+        return sampled;
+    }
+
+    /**
+     * @return The track the flow ended on
+     */
+    public FlowOutcome outcome() {
+        return outcome;
+    }
+
+    /**
+     * @return The class of the exception if the flow ended in a technical failure, otherwise null
+     */
+    public String exceptionClass() {
+        return exceptionClass;
+    }
+
+    /**
+     * @return The steps the flow took, in order, which is empty if the flow was not {@link #sampled()}
+     */
+    public List<TraceStep> steps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        String trace = format("%s %dns %s", flowName, durationNanos, outcome);
+        if (exceptionClass != null) {
+            trace += " " + exceptionClass;
+        }
+        return sampled ? trace + " " + steps : trace;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static io.github.theangrydev.businessflows.FlowOutcome.exceptionClassOf;
+import static java.util.Collections.emptyList;
+
+/**
+ * Records {@link FlowTrace}s of a sample of flows, to find out what happened in the flows that were slow or failed
+ * without the cost of tracing every flow.
+ * <p>
+ * A flow is traced by running it with {@link #trace(String, Supplier)}. One in every {@code sampleInterval} flows on
+ * each thread is sampled and has every step recorded: the named stages, e.g. {@link HappyPath#map(String, Mapping)},
+ * with how long they took, and, if {@link FlowListener}s are enabled, every other operation with the track the flow
+ * was on afterwards. A flow that is not sampled only costs a thread local counter, unless there is a slow threshold,
+ * in which case it is also timed and flows slower than the threshold are recorded without their steps.
+ * </p>
+ * <p>
+ * Traces are kept in a fixed size, lock-free ring buffer that holds the most recent traces, which can be read with
+ * {@link #dump()} or handed to a consumer whenever a traced flow ends in a technical failure, see
+ * {@link #dumpOnTechnicalFailure(Consumer)}.
+ * </p>
+ */
+public final class FlowTracer {
+    private final int sampleInterval;
+    private final long slowThresholdNanos;
+    private final boolean timeUnsampledFlows;
+    private final LongSupplier nanoClock;
+    private final AtomicReferenceArray<RingEntry> ring;
+    private final AtomicLong written = new AtomicLong();
+    private final ThreadLocal<int[]> untilNextSample;
+    private volatile Consumer<? super List<FlowTrace>> technicalFailureDump = traces -> {};
+
+    FlowTracer(int sampleInterval, long slowThresholdNanos, boolean timeUnsampledFlows, int capacity, LongSupplier nanoClock) {
+        this.sampleInterval = sampleInterval;
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.timeUnsampledFlows = timeUnsampledFlows;
+        this.nanoClock = nanoClock;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        // Each thread starts at a random point so that threads running similar workloads sample different flows
+        this.untilNextSample = ThreadLocal.withInitial(() -> new int[] {ThreadLocalRandom.current().nextInt(sampleInterval)});
+    }
+
+    /**
+     * Produces a {@link FlowTracer} that only records sampled flows.
+     *
+     * @param sampleInterval How many flows there are on each thread for each one that is sampled
+     * @param capacity How many of the most recent traces to keep
+     * @return The tracer
+     */
+    public static FlowTracer flowTracer(int sampleInterval, int capacity) {
+        checkArguments(sampleInterval, capacity);
+        return new FlowTracer(sampleInterval, 0, false, capacity, System::nanoTime);
+    }
+
+    /**
+     * Produces a {@link FlowTracer} that records sampled flows and flows that are slower than a threshold.
+     *
+     * @param sampleInterval How many flows there are on each thread for each one that is sampled
+     * @param slowThreshold Flows that take at least this long are recorded even if they are not sampled
+     * @param timeUnit The unit of the slow threshold
+     * @param capacity How many of the most recent traces to keep
+     * @return The tracer
+     */
+    public static FlowTracer flowTracer(int sampleInterval, long slowThreshold, TimeUnit timeUnit, int capacity) {
+        checkArguments(sampleInterval, capacity);
+        if (slowThreshold < 0) {
+            throw new IllegalArgumentException("The slow threshold must be at least 0 but was " + slowThreshold);
+        }
+        return new FlowTracer(sampleInterval, timeUnit.toNanos(slowThreshold), true, capacity, System::nanoTime);
+    }
+
+    /**
+     * Hand the most recent traces to the given consumer every time a traced flow ends in a technical failure. The
+     * failed flow is the last trace if it was sampled or slow. Exceptions thrown by the consumer are ignored.
+     *
+     * @param dump What to do with the traces, e.g. log them
+     */
+    public void dumpOnTechnicalFailure(Consumer<? super List<FlowTrace>> dump) {
+        this.technicalFailureDump = dump;
+    }
+
+    /**
+     * Run a flow, tracing it if it is sampled.
+     *
+     * @param flowName The name to record the trace under
+     * @param flow The flow to run
+     * @param <Result> The type of result the flow produces, typically a {@link BusinessFlow}
+     * @return The result of the flow
+     */
+    public <Result> Result trace(String flowName, Supplier<Result> flow) {
+        if (sampleNext()) {
+            return traceSteps(flowName, flow);
+        }
+        if (!timeUnsampledFlows) {
+            return dumpIfTechnicalFailure(flow.get());
+        }
+        long start = nanoClock.getAsLong();
+        Result result = flow.get();
+        long durationNanos = nanoClock.getAsLong() - start;
+        if (durationNanos >= slowThresholdNanos) {
+            record(new FlowTrace(flowName, durationNanos, false, FlowOutcome.of(result), exceptionClassOf(result), emptyList()));
+        }
+        return dumpIfTechnicalFailure(result);
+    }
+
+    /**
+     * @return The most recent traces, oldest first
+     */
+    public List<FlowTrace> dump() {
+        long end = written.get();
+        long begin = Math.max(0, end - ring.length());
+        List<FlowTrace> traces = new ArrayList<>((int) (end - begin));
+        for (long sequence = begin; sequence < end; sequence++) {
+            RingEntry entry = ring.get(slot(sequence));
+            // Skip slots that have been claimed but not written yet, or already overwritten by a newer trace
+            if (entry != null && entry.sequence == sequence) {
+                traces.add(entry.trace);
+            }
+        }
+        return traces;
+    }
+
+    private boolean sampleNext() {
+        int[] countdown = untilNextSample.get();
+        if (--countdown[0] < 0) {
+            countdown[0] = sampleInterval - 1;
+            return true;
+        }
+        return false;
+    }
+
+    private <Result> Result traceSteps(String flowName, Supplier<Result> flow) {
+        ActiveTrace trace = new ActiveTrace(nanoClock);
+        ActiveTrace outer = ActiveTrace.enter(trace);
+        long start = nanoClock.getAsLong();
+        Result result;
+        try {
+            result = FlowListeners.listen(trace, flow);
+        } finally {
+            ActiveTrace.exit(outer);
+        }
+        record(trace.finish(flowName, nanoClock.getAsLong() - start, result));
+        return dumpIfTechnicalFailure(result);
+    }
+
+    private <Result> Result dumpIfTechnicalFailure(Result result) {
+        if (result instanceof TechnicalFailureCase) {
+            try {
+                technicalFailureDump.accept(dump());
+            } catch (RuntimeException ignored) {
+                // Dumping the traces must not break the flow that failed
+            }
+        }
+        return result;
+    }
+
+    private void record(FlowTrace trace) {
+        long sequence = written.getAndIncrement();
+        ring.set(slot(sequence), new RingEntry(sequence, trace));
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length());
+    }
+
+    private static void checkArguments(int sampleInterval, int capacity) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("The sample interval must be at least 1 but was " + sampleInterval);
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1 but was " + capacity);
+        }
+    }
+
+    private static final class RingEntry {
+        private final long sequence;
+        private final FlowTrace trace;
+
+        RingEntry(long sequence, FlowTrace trace) {
+            this.sequence = sequence;
+            this.trace = trace;
+        }
+    }
+}
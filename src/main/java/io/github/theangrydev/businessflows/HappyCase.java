@@ -27,13 +27,21 @@ import java.util.function.Function;
 class HappyCase<Happy, Sad> implements BusinessCase<Happy, Sad> {
 
     final Happy happy;
+    final FlowContext context;
 
-    HappyCase(Happy happy) {
+    HappyCase(Happy happy, FlowContext context) {
         this.happy = happy;
+        this.context = context;
+    }
+
+    @Override
+    public FlowContext context() {
+        return context;
     }
 
     @Override
     public <Result> Result join(Mapping<Happy, Result> happyJoiner, Mapping<Sad, Result> sadJoiner, Function<Exception, Result> technicalFailureJoiner) {
+        FlowListeners.joined(this);
         try {
             return happyJoiner.map(happy);
         } catch (Exception technicalFailure) {
@@ -43,6 +51,7 @@ class HappyCase<Happy, Sad> implements BusinessCase<Happy, Sad> {
 
     @Override
     public <Result> Result joinOrThrow(Mapping<Happy, Result> happyJoiner, Mapping<Sad, Result> sadJoiner) throws Exception {
+        FlowListeners.joined(this);
         return happyJoiner.map(happy);
     }
 
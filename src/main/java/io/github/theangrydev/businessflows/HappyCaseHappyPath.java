@@ -19,6 +19,14 @@ package io.github.theangrydev.businessflows;
 
 import java.util.Optional;
 
+import static io.github.theangrydev.businessflows.FlowEvents.stageEnded;
+import static io.github.theangrydev.businessflows.FlowEvents.stageStarted;
+import static io.github.theangrydev.businessflows.FlowListeners.transitioned;
+import static io.github.theangrydev.businessflows.FlowOperation.ATTEMPT;
+import static io.github.theangrydev.businessflows.FlowOperation.MAP;
+import static io.github.theangrydev.businessflows.FlowOperation.PEEK;
+import static io.github.theangrydev.businessflows.FlowOperation.THEN;
+
 /**
  * A {@link HappyCaseHappyPath} is a {@link HappyPath} that is actually a {@link HappyCase}.
  *
@@ -26,8 +34,8 @@ import java.util.Optional;
  */
 class HappyCaseHappyPath<Happy, Sad> extends HappyCase<Happy, Sad> implements HappyPath<Happy, Sad> {
 
-    HappyCaseHappyPath(Happy happy) {
-        super(happy);
+    HappyCaseHappyPath(Happy happy, FlowContext context) {
+        super(happy, context);
     }
 
     @Override
@@ -37,48 +45,121 @@ class HappyCaseHappyPath<Happy, Sad> extends HappyCase<Happy, Sad> implements Ha
 
     @Override
     public TechnicalFailure<Happy, Sad> ifTechnicalFailure() {
-        return TechnicalFailure.happyPath(happy);
+        return new HappyCaseTechnicalFailure<>(happy, context);
     }
 
     @Override
     public SadPath<Happy, Sad> ifSad() {
-        return SadPath.happyPath(happy);
+        return new HappyCaseSadPath<>(happy, context);
     }
 
     @Override
     public <NewHappy> HappyPath<NewHappy, Sad> then(Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        Object stage = stageStarted();
         try {
-            return action.map(happy).ifHappy();
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, inThisContext(action.map(happy).ifHappy())));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, new TechnicalFailureCaseHappyPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> then(String stageName, Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, inThisContext(StageRegistry.globalStageRegistry().timedMap(stageName, FlowOutcome.HAPPY, action, happy).ifHappy())));
+        } catch (Exception e) {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, new TechnicalFailureCaseHappyPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> thenWithContext(ContextualMapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, inThisContext(action.map(context, happy).ifHappy())));
+        } catch (Exception e) {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
 
     @Override
     public <NewHappy> HappyPath<NewHappy, Sad> map(Mapping<Happy, NewHappy> mapping) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new HappyCaseHappyPath<>(mapping.map(happy), context)));
+        } catch (Exception e) {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseHappyPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> map(String stageName, Mapping<Happy, NewHappy> mapping) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new HappyCaseHappyPath<>(StageRegistry.globalStageRegistry().timedMap(stageName, FlowOutcome.HAPPY, mapping, happy), context)));
+        } catch (Exception e) {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseHappyPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> mapWithContext(ContextualMapping<Happy, NewHappy> mapping) {
+        Object stage = stageStarted();
         try {
-            return HappyPath.happyPath(mapping.map(happy));
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new HappyCaseHappyPath<>(mapping.map(context, happy), context)));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
 
     @Override
     public HappyPath<Happy, Sad> peek(Peek<Happy> peek) {
+        Object stage = stageStarted();
         try {
             peek.peek(happy);
-            return this;
+            return transitioned(PEEK, this, stageEnded(stage, PEEK, this, this));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(PEEK, this, stageEnded(stage, PEEK, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
 
     @Override
     public HappyPath<Happy, Sad> attempt(ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        Object stage = stageStarted();
         try {
-            return actionThatMightFail.attempt(happy).toHappyPath(happy);
+            return transitioned(ATTEMPT, this, stageEnded(stage, ATTEMPT, this, actionThatMightFail.attempt(happy).toHappyPath(happy, context)));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(ATTEMPT, this, stageEnded(stage, ATTEMPT, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
+
+    @Override
+    public HappyPath<Happy, Sad> attempt(String stageName, ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(ATTEMPT, this, stageEnded(stage, ATTEMPT, this, StageRegistry.globalStageRegistry().timedAttempt(stageName, actionThatMightFail, happy).toHappyPath(happy, context)));
+        } catch (Exception e) {
+            return transitioned(ATTEMPT, this, stageEnded(stage, ATTEMPT, this, new TechnicalFailureCaseHappyPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public HappyPath<Happy, Sad> attemptWithContext(ContextualAction<Happy, Sad> actionThatMightFail) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(ATTEMPT, this, stageEnded(stage, ATTEMPT, this, actionThatMightFail.attempt(context, happy).toHappyPath(happy, context)));
+        } catch (Exception e) {
+            return transitioned(ATTEMPT, this, stageEnded(stage, ATTEMPT, this, new TechnicalFailureCaseHappyPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public HappyPath<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new HappyCaseHappyPath<>(happy, context);
+    }
+
+    private <NewHappy> HappyPath<NewHappy, Sad> inThisContext(HappyPath<NewHappy, Sad> next) {
+        return next.context().isEmpty() ? next.withContext(context) : next;
+    }
 }
@@ -26,8 +26,8 @@ import java.util.Optional;
  */
 class HappyCaseSadPath<Happy, Sad> extends HappyCase<Happy, Sad> implements SadPath<Happy, Sad> {
 
-    HappyCaseSadPath(Happy happy) {
-        super(happy);
+    HappyCaseSadPath(Happy happy, FlowContext context) {
+        super(happy, context);
     }
 
     @Override
@@ -37,12 +37,12 @@ class HappyCaseSadPath<Happy, Sad> extends HappyCase<Happy, Sad> implements SadP
 
     @Override
     public TechnicalFailure<Happy, Sad> ifTechnicalFailure() {
-        return TechnicalFailure.happyPath(happy);
+        return new HappyCaseTechnicalFailure<>(happy, context);
     }
 
     @Override
     public HappyPath<Happy, Sad> ifHappy() {
-        return HappyPath.happyPath(happy);
+        return new HappyCaseHappyPath<>(happy, context);
     }
 
     @SuppressWarnings("unchecked") // Only the Sad changes and it is not present so all that changes is the types
@@ -51,24 +51,39 @@ class HappyCaseSadPath<Happy, Sad> extends HappyCase<Happy, Sad> implements SadP
         return (SadPath<Happy, NewSad>) this;
     }
 
+    @Override
+    public <NewSad> SadPath<Happy, NewSad> then(String stageName, Mapping<Sad, SadPath<Happy, NewSad>> action) {
+        return then(action);
+    }
+
     @SuppressWarnings("unchecked") // Only the Sad changes and it is not present so all that changes is the types
     @Override
     public <NewSad> SadPath<Happy, NewSad> map(Mapping<Sad, NewSad> mapping) {
         return (SadPath<Happy, NewSad>) this;
     }
 
+    @Override
+    public <NewSad> SadPath<Happy, NewSad> map(String stageName, Mapping<Sad, NewSad> mapping) {
+        return map(mapping);
+    }
+
     @Override
     public HappyPath<Happy, Sad> recover(Mapping<Sad, Happy> recovery) {
-        return HappyPath.happyPath(happy);
+        return new HappyCaseHappyPath<>(happy, context);
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Attempt<Happy> recovery) {
-        return HappyPath.happyPath(happy);
+        return new HappyCaseHappyPath<>(happy, context);
     }
 
     @Override
     public SadPath<Happy, Sad> peek(Peek<Sad> peek) {
         return this;
     }
+
+    @Override
+    public SadPath<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new HappyCaseSadPath<>(happy, context);
+    }
 }
@@ -26,8 +26,8 @@ import java.util.Optional;
  */
 class HappyCaseTechnicalFailure<Happy, Sad> extends HappyCase<Happy, Sad> implements TechnicalFailure<Happy, Sad> {
 
-    HappyCaseTechnicalFailure(Happy happy) {
-        super(happy);
+    HappyCaseTechnicalFailure(Happy happy, FlowContext context) {
+        super(happy, context);
     }
 
     @Override
@@ -40,29 +40,39 @@ class HappyCaseTechnicalFailure<Happy, Sad> extends HappyCase<Happy, Sad> implem
         return this;
     }
 
+    @Override
+    public TechnicalFailure<Happy, Sad> then(String stageName, Mapping<Exception, TechnicalFailure<Happy, Sad>> action) {
+        return then(action);
+    }
+
     @Override
     public TechnicalFailure<Happy, Sad> map(Mapping<Exception, Exception> mapping) {
         return this;
     }
 
+    @Override
+    public TechnicalFailure<Happy, Sad> map(String stageName, Mapping<Exception, Exception> mapping) {
+        return map(mapping);
+    }
+
     @Override
     public HappyPath<Happy, Sad> recover(Mapping<Exception, Happy> recovery) {
-        return HappyPath.happyPath(happy);
+        return new HappyCaseHappyPath<>(happy, context);
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Attempt<Happy> recovery) {
-        return HappyPath.happyPath(happy);
+        return new HappyCaseHappyPath<>(happy, context);
     }
 
     @Override
     public SadPath<Happy, Sad> mapToSadPath(Mapping<Exception, Sad> mapping) {
-        return SadPath.happyPath(happy);
+        return new HappyCaseSadPath<>(happy, context);
     }
 
     @Override
     public SadPath<Happy, Sad> mapToSadPath(Attempt<Sad> mapping) {
-        return SadPath.happyPath(happy);
+        return new HappyCaseSadPath<>(happy, context);
     }
 
     @Override
@@ -72,11 +82,16 @@ class HappyCaseTechnicalFailure<Happy, Sad> extends HappyCase<Happy, Sad> implem
 
     @Override
     public HappyPath<Happy, Sad> ifHappy() {
-        return HappyPath.happyPath(happy);
+        return new HappyCaseHappyPath<>(happy, context);
     }
 
     @Override
     public SadPath<Happy, Sad> ifSad() {
-        return SadPath.happyPath(happy);
+        return new HappyCaseSadPath<>(happy, context);
+    }
+
+    @Override
+    public TechnicalFailure<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new HappyCaseTechnicalFailure<>(happy, context);
     }
 }
@@ -18,8 +18,14 @@
 package io.github.theangrydev.businessflows;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
+import static io.github.theangrydev.businessflows.FlowEvents.validationEnded;
+import static io.github.theangrydev.businessflows.FlowEvents.validationStarted;
+import static io.github.theangrydev.businessflows.FlowListeners.transitioned;
+import static io.github.theangrydev.businessflows.FlowOperation.VALIDATE;
+
 /**
  * A {@link HappyCaseValidationPath} is a {@link ValidationPath} that is actually a {@link HappyCase}.
  *
@@ -29,8 +35,8 @@ class HappyCaseValidationPath<Happy, Sad, SadAggregate> extends HappyCaseHappyPa
 
     private final Mapping<List<Sad>, SadAggregate> sadAggregateMapping;
 
-    HappyCaseValidationPath(Happy happy, Mapping<List<Sad>, SadAggregate> sadAggregateMapping) {
-        super(happy);
+    HappyCaseValidationPath(Happy happy, Mapping<List<Sad>, SadAggregate> sadAggregateMapping, FlowContext context) {
+        super(happy, context);
         this.sadAggregateMapping = sadAggregateMapping;
     }
 
@@ -41,22 +47,103 @@ class HappyCaseValidationPath<Happy, Sad, SadAggregate> extends HappyCaseHappyPa
 
     @Override
     public ValidationPath<Happy, Sad, SadAggregate> validateInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        Object validation = validationStarted();
+        int validatorsRun = 0;
         List<Sad> validationFailures = new ArrayList<>(validators.size());
         for (Validator<Happy, Sad> validator : validators) {
+            validatorsRun++;
             try {
                 validator.attempt(happy).ifSad(validationFailures::addAll);
             } catch (Exception technicalFailure) {
-                return ValidationPath.technicalFailure(technicalFailure);
+                return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, 0, new TechnicalFailureCaseValidationPath<>(technicalFailure, context)));
+            }
+        }
+        if (validationFailures.isEmpty()) {
+            return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, 0, new HappyCaseValidationPath<>(happy, sadAggregateMapping, context)));
+        }
+        return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, validationFailures.size(), validationFailure(sadAggregateMapping, validationFailures)));
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateFirst(List<? extends Validator<Happy, Sad>> validators) {
+        return validateFirstInto(sadAggregateMapping, validators);
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateFirstInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        Object validation = validationStarted();
+        int validatorsRun = 0;
+        for (Validator<Happy, Sad> validator : validators) {
+            validatorsRun++;
+            List<Sad> validationFailures;
+            try {
+                validationFailures = validator.attempt(happy).sadOrNull();
+            } catch (Exception technicalFailure) {
+                return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, 0, new TechnicalFailureCaseValidationPath<>(technicalFailure, context)));
+            }
+            if (validationFailures != null && !validationFailures.isEmpty()) {
+                return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, validationFailures.size(), validationFailure(sadAggregateMapping, validationFailures)));
+            }
+        }
+        return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, 0, new HappyCaseValidationPath<>(happy, sadAggregateMapping, context)));
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateWithin(FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators) {
+        return validateWithinInto(sadAggregateMapping, failureBudget, validators);
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateWithinInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators) {
+        Object validation = validationStarted();
+        int validatorsRun = 0;
+        int maxFailures = failureBudget.maxFailures();
+        List<Sad> validationFailures = new ArrayList<>(Math.min(validators.size(), maxFailures) + 1);
+        boolean truncated = false;
+        Iterator<? extends Validator<Happy, Sad>> remainingValidators = validators.iterator();
+        while (remainingValidators.hasNext()) {
+            validatorsRun++;
+            int room = Math.min(failureBudget.maxFailuresPerValidator(), maxFailures - validationFailures.size());
+            List<Sad> failures;
+            try {
+                failures = FieldValidator.attemptWithin(remainingValidators.next(), happy, room).sadOrNull();
+            } catch (Exception technicalFailure) {
+                return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, 0, new TechnicalFailureCaseValidationPath<>(technicalFailure, context)));
+            }
+            if (failures == null) {
+                continue;
+            }
+            if (failures.size() > room) {
+                validationFailures.addAll(failures.subList(0, room));
+                truncated = true;
+            } else {
+                validationFailures.addAll(failures);
+            }
+            if (validationFailures.size() == maxFailures) {
+                truncated |= remainingValidators.hasNext();
+                break;
             }
         }
+        if (truncated) {
+            validationFailures.add(failureBudget.truncated());
+        }
         if (validationFailures.isEmpty()) {
-            return ValidationPath.validationPathInto(happy, sadAggregateMapping);
+            return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, 0, new HappyCaseValidationPath<>(happy, sadAggregateMapping, context)));
         }
+        return transitioned(VALIDATE, this, validationEnded(validation, validatorsRun, validationFailures.size(), validationFailure(sadAggregateMapping, validationFailures)));
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> withContext(FlowContext context) {
+        return context == this.context ? this : new HappyCaseValidationPath<>(happy, sadAggregateMapping, context);
+    }
+
+    private ValidationPath<Happy, Sad, SadAggregate> validationFailure(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<Sad> validationFailures) {
         try {
             SadAggregate sadAggregate = sadAggregateMapping.map(validationFailures);
-            return ValidationPath.validationFailure(sadAggregate);
+            return new SadCaseValidationPath<>(sadAggregate, context);
         } catch (Exception e) {
-            return ValidationPath.technicalFailure(e);
+            return new TechnicalFailureCaseValidationPath<>(e, context);
         }
     }
 }
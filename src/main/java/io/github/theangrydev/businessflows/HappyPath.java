@@ -40,6 +40,26 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
         }
     }
 
+    /**
+     * Same as {@link #happyPathAttempt(Attempt)}, carrying on in the given context. A technical failure is in the
+     * context, and so is the {@link HappyPath} produced by the action unless it is already in a context of its own.
+     *
+     * @param happyPathAttempt The {@link Attempt} to execute
+     * @param context The context to carry on in
+     * @param <Happy> The type of happy object this {@link HappyPath} may represent
+     * @param <Sad> The type of sad object this {@link HappyPath} may represent
+     * @return A {@link HappyPath} that is happy or sad or a technical failure on the inside
+     */
+    static <Happy, Sad> HappyPath<Happy, Sad> happyPathAttempt(Attempt<HappyPath<Happy, Sad>> happyPathAttempt, FlowContext context) {
+        HappyPath<Happy, Sad> happyPath;
+        try {
+            happyPath = happyPathAttempt.attempt();
+        } catch (Exception technicalFailure) {
+            return FlowListeners.created(new TechnicalFailureCaseHappyPath<>(technicalFailure, context));
+        }
+        return happyPath.context().isEmpty() ? happyPath.withContext(context) : happyPath;
+    }
+
     /**
      * Attempt an action that produces a {@link Happy}.
      *
@@ -86,7 +106,21 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
      * @return A {@link HappyPath} that is happy on the inside
      */
     static <Happy, Sad> HappyPath<Happy, Sad> happyPath(Happy happy) {
-        return new HappyCaseHappyPath<>(happy);
+        return FlowListeners.created(new HappyCaseHappyPath<>(happy, FlowContext.emptyContext()));
+    }
+
+    /**
+     * Provides a {@link HappyPath} view over a known {@link Happy} object, in a context that every stage of the flow
+     * can read.
+     *
+     * @param happy The happy object to initiate the flow with
+     * @param context The context of the flow
+     * @param <Happy> The type of happy object the resulting {@link HappyPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link HappyPath} may represent
+     * @return A {@link HappyPath} that is happy on the inside
+     */
+    static <Happy, Sad> HappyPath<Happy, Sad> happyPath(Happy happy, FlowContext context) {
+        return FlowListeners.created(new HappyCaseHappyPath<>(happy, context));
     }
 
     /**
@@ -98,7 +132,7 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
      * @return A {@link HappyPath} that is sad on the inside
      */
     static <Happy, Sad> HappyPath<Happy, Sad> sadPath(Sad sad) {
-        return new SadCaseHappyPath<>(sad);
+        return FlowListeners.created(new SadCaseHappyPath<>(sad, FlowContext.emptyContext()));
     }
 
     /**
@@ -110,11 +144,12 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
      * @return A {@link HappyPath} that is a technical failure on the inside
      */
     static <Happy, Sad> HappyPath<Happy, Sad> technicalFailure(Exception technicalFailure) {
-        return new TechnicalFailureCaseHappyPath<>(technicalFailure);
+        return FlowListeners.created(new TechnicalFailureCaseHappyPath<>(technicalFailure, FlowContext.emptyContext()));
     }
 
     /**
      * If the underlying business case is happy, then apply the given action, otherwise do nothing to the underlying case.
+     * The flow produced by the action carries on in the context of this one, unless it is in a context of its own.
      *
      * @param action The action to apply to an existing happy case
      * @param <NewHappy> The type of happy object that will be present after the action is applied to an existing happy object
@@ -122,6 +157,27 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
      */
     <NewHappy> HappyPath<NewHappy, Sad> then(Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action);
 
+    /**
+     * Same as {@link #then(Mapping)}, recording how long the action takes in the {@link StageRegistry#globalStageRegistry()}.
+     *
+     * @param stageName The name to record the execution time of the action under
+     * @param action The action to apply to an existing happy case
+     * @param <NewHappy> The type of happy object that will be present after the action is applied to an existing happy object
+     * @return The result of applying the action to the existing happy path, if applicable
+     */
+    default <NewHappy> HappyPath<NewHappy, Sad> then(String stageName, Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        return then(StageRegistry.globalStageRegistry().timedMapping(stageName, FlowOutcome.HAPPY, action));
+    }
+
+    /**
+     * Same as {@link #then(Mapping)}, giving the action the context of the flow.
+     *
+     * @param action The action to apply to an existing happy case
+     * @param <NewHappy> The type of happy object that will be present after the action is applied to an existing happy object
+     * @return The result of applying the action to the existing happy path, if applicable
+     */
+    <NewHappy> HappyPath<NewHappy, Sad> thenWithContext(ContextualMapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action);
+
     /**
      * If the underlying business case is happy, then apply the given mapping, otherwise do nothing to the underlying case.
      *
@@ -131,6 +187,27 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
      */
     <NewHappy> HappyPath<NewHappy, Sad> map(Mapping<Happy, NewHappy> mapping);
 
+    /**
+     * Same as {@link #map(Mapping)}, recording how long the mapping takes in the {@link StageRegistry#globalStageRegistry()}.
+     *
+     * @param stageName The name to record the execution time of the mapping under
+     * @param mapping The action to apply to an existing happy case
+     * @param <NewHappy> The type of happy object that will be present after the mapping is applied to an existing happy object
+     * @return The result of applying the mapping to the existing happy path, if applicable
+     */
+    default <NewHappy> HappyPath<NewHappy, Sad> map(String stageName, Mapping<Happy, NewHappy> mapping) {
+        return map(StageRegistry.globalStageRegistry().timedMapping(stageName, FlowOutcome.HAPPY, mapping));
+    }
+
+    /**
+     * Same as {@link #map(Mapping)}, giving the mapping the context of the flow.
+     *
+     * @param mapping The action to apply to an existing happy case
+     * @param <NewHappy> The type of happy object that will be present after the mapping is applied to an existing happy object
+     * @return The result of applying the mapping to the existing happy path, if applicable
+     */
+    <NewHappy> HappyPath<NewHappy, Sad> mapWithContext(ContextualMapping<Happy, NewHappy> mapping);
+
     /**
      * Attempt an action that might fail and be mapped to a {@link Sad} object.
      *
@@ -139,6 +216,26 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
      */
     HappyPath<Happy, Sad> attempt(ActionThatMightFail<Happy, Sad> actionThatMightFail);
 
+    /**
+     * Same as {@link #attempt(ActionThatMightFail)}, recording how long the action takes in the
+     * {@link StageRegistry#globalStageRegistry()}.
+     *
+     * @param stageName The name to record the execution time of the action under
+     * @param actionThatMightFail The {@link ActionThatMightFail} to apply if the underlying business case is happy
+     * @return The same {@link HappyPath} if the action did not fail; if the action failure then a {@link HappyPath} that is now sad inside
+     */
+    default HappyPath<Happy, Sad> attempt(String stageName, ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        return attempt(StageRegistry.globalStageRegistry().timedAction(stageName, actionThatMightFail));
+    }
+
+    /**
+     * Same as {@link #attempt(ActionThatMightFail)}, giving the action the context of the flow.
+     *
+     * @param actionThatMightFail The {@link ContextualAction} to apply if the underlying business case is happy
+     * @return The same {@link HappyPath} if the action did not fail; if the action failure then a {@link HappyPath} that is now sad inside
+     */
+    HappyPath<Happy, Sad> attemptWithContext(ContextualAction<Happy, Sad> actionThatMightFail);
+
     /**
      * Take a look at the happy case (if there really is one).
      *
@@ -147,6 +244,14 @@ public interface HappyPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Happy> {
      */
     HappyPath<Happy, Sad> peek(Peek<Happy> peek);
 
+    /**
+     * Carry on the flow in the given context, which every stage after this one can read.
+     *
+     * @param context The context to carry on in
+     * @return A {@link HappyPath} with the same underlying business case, in the given context
+     */
+    HappyPath<Happy, Sad> withContext(FlowContext context);
+
     /**
      * {@inheritDoc}
      */
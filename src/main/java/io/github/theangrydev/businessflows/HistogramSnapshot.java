@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * An immutable copy of the counts in a latency histogram, e.g. the execution times of a named stage in a
+ * {@link StageRegistry}. Values are durations in nanoseconds and are accurate to within 1/16 of themselves.
+ */
+public final class HistogramSnapshot {
+    private static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[StageHistogram.BUCKETS]);
+
+    private final long[] counts;
+    private final long count;
+
+    HistogramSnapshot(long[] counts) {
+        this.counts = counts;
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        this.count = count;
+    }
+
+    /**
+     * @return A snapshot with no recorded values
+     */
+    public static HistogramSnapshot emptySnapshot() {
+        return EMPTY;
+    }
+
+    /**
+     * @return The number of values recorded
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * The value that the given percentage of recorded values are less than or equal to, e.g. 50 for the median or
+     * 99.9 for the 99.9th percentile.
+     *
+     * @param percentile The percentage of recorded values, between 0 and 100
+     * @return The highest value that is equivalent to the value at the percentile, or 0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100 but was " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return StageHistogram.highestValueInBucket(bucket);
+            }
+        }
+        return max();
+    }
+
+    /**
+     * @return The highest value that is equivalent to the largest recorded value, or 0 if nothing was recorded
+     */
+    public long max() {
+        for (int bucket = counts.length - 1; bucket >= 0; bucket--) {
+            if (counts[bucket] > 0) {
+                return StageHistogram.highestValueInBucket(bucket);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Combines two snapshots, e.g. of the same stage from different registries or of different intervals.
+     *
+     * @param other The snapshot to combine with this one
+     * @return A snapshot with the values recorded in both snapshots
+     */
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        long[] merged = Arrays.copyOf(counts, counts.length);
+        for (int bucket = 0; bucket < merged.length; bucket++) {
+            merged[bucket] += other.counts[bucket];
+        }
+        return new HistogramSnapshot(merged);
+    }
+
+    @Override
+    public String toString() {
+        return format("count=%d, p50=%dns, p99=%dns, p999=%dns, max=%dns", count, valueAtPercentile(50), valueAtPercentile(99), valueAtPercentile(99.9), max());
+    }
+}
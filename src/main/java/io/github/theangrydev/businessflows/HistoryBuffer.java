@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import static java.lang.String.format;
+
+/**
+ * The most recent stages of the flow that a thread is running, for a {@link FlowHistory}. A buffer is allocated once
+ * per thread and reused for every flow the thread runs, so recording a stage only allocates if the values of stages
+ * are recorded, in which case it costs a {@link Object#toString()}.
+ */
+final class HistoryBuffer {
+    private static final int NO_VALUE = -1;
+
+    final int capacity;
+    final int maxValueChars;
+    private final String[] stageNames;
+    private final FlowOutcome[] outcomes;
+    private final long[] nanos;
+    private final char[] values;
+    private final int[] valueLengths;
+    private final boolean[] valuesTruncated;
+    private long recorded;
+    int depth;
+
+    HistoryBuffer(int capacity, int maxValueChars) {
+        this.capacity = capacity;
+        this.maxValueChars = maxValueChars;
+        this.stageNames = new String[capacity];
+        this.outcomes = new FlowOutcome[capacity];
+        this.nanos = new long[capacity];
+        this.values = new char[capacity * maxValueChars];
+        this.valueLengths = new int[capacity];
+        this.valuesTruncated = new boolean[capacity];
+    }
+
+    void clear() {
+        recorded = 0;
+    }
+
+    void stageEnded(String stageName, FlowOutcome outcome, long stageNanos, boolean hasValue, Object value) {
+        int slot = (int) (recorded++ % capacity);
+        stageNames[slot] = stageName;
+        outcomes[slot] = outcome;
+        nanos[slot] = stageNanos;
+        valueLengths[slot] = NO_VALUE;
+        if (hasValue && maxValueChars > 0) {
+            String text = describe(value);
+            int length = Math.min(text.length(), maxValueChars);
+            text.getChars(0, length, values, slot * maxValueChars);
+            valueLengths[slot] = length;
+            valuesTruncated[slot] = length < text.length();
+        }
+    }
+
+    String history(String flowName) {
+        long first = Math.max(0, recorded - capacity);
+        StringBuilder history = new StringBuilder(format("History of flow '%s'", flowName));
+        if (first > 0) {
+            history.append(format(" (the last %d of %d stages)", capacity, recorded));
+        }
+        history.append(':');
+        for (long stage = first; stage < recorded; stage++) {
+            int slot = (int) (stage % capacity);
+            history.append(System.lineSeparator()).append(format("\t%s %s %dns", stageNames[slot], outcomes[slot], nanos[slot]));
+            if (valueLengths[slot] != NO_VALUE) {
+                history.append(' ').append(values, slot * maxValueChars, valueLengths[slot]);
+                if (valuesTruncated[slot]) {
+                    history.append("...");
+                }
+            }
+        }
+        return history.toString();
+    }
+
+    private static String describe(Object value) {
+        try {
+            return String.valueOf(value);
+        } catch (RuntimeException toStringFailed) {
+            // A broken toString must not turn a stage that worked into a technical failure
+            return value.getClass().getName();
+        }
+    }
+}
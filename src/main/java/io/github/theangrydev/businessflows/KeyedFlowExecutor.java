@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs flows in the order they were submitted for the same key, while flows for different keys can run in parallel.
+ * <p>
+ * Each key is hashed to one of a fixed number of lanes. A lane is a lock-free queue with a single consumer that runs
+ * its flows one at a time on the given {@link Executor}, so flows in the same lane never overlap and always run in
+ * submission order. A lane only occupies an executor thread while it has work to do.
+ * </p>
+ * Each lane holds at most {@code laneCapacity} flows (including the one that is running). A flow submitted to a full
+ * lane is not queued; its outcome is the rejection {@link Sad} object instead.
+ * <p>
+ * A flow can be submitted in a {@link FlowContext}, which its outcome carries on in, even if it was rejected.
+ * </p>
+ *
+ * @param <Key> The type of key that determines which flows must run in order
+ * @param <Sad> The type of sad object the flows may produce
+ */
+public class KeyedFlowExecutor<Key, Sad> {
+    private static final int MAX_FLOWS_PER_TURN = 64;
+
+    private final Executor executor;
+    private final Lane[] lanes;
+    private final int laneCapacity;
+    private final Sad rejection;
+
+    private KeyedFlowExecutor(Executor executor, int lanes, int laneCapacity, Sad rejection) {
+        this.executor = executor;
+        this.laneCapacity = laneCapacity;
+        this.rejection = rejection;
+        this.lanes = newLanes(lanes);
+    }
+
+    /**
+     * Produces a {@link KeyedFlowExecutor} that runs flows on the given {@link Executor}.
+     *
+     * @param executor Runs the lanes; the number of lanes that can make progress at once is limited by its threads
+     * @param lanes The number of lanes to hash keys to
+     * @param laneCapacity The maximum number of flows each lane will hold before rejecting new flows
+     * @param rejection The outcome of a flow that is rejected because its lane is full
+     * @param <Key> The type of key that determines which flows must run in order
+     * @param <Sad> The type of sad object the flows may produce
+     * @return The executor
+     */
+    public static <Key, Sad> KeyedFlowExecutor<Key, Sad> keyedFlowExecutor(Executor executor, int lanes, int laneCapacity, Sad rejection) {
+        if (lanes < 1) {
+            throw new IllegalArgumentException("The number of lanes must be at least 1 but was " + lanes);
+        }
+        if (laneCapacity < 1) {
+            throw new IllegalArgumentException("The lane capacity must be at least 1 but was " + laneCapacity);
+        }
+        return new KeyedFlowExecutor<>(executor, lanes, laneCapacity, rejection);
+    }
+
+    /**
+     * Submit a flow that must run after all the flows previously submitted for the same key.
+     *
+     * @param key The key that determines which flows this one must run in order with
+     * @param flow The flow to run
+     * @param <Happy> The type of happy object the flow may produce
+     * @return A future that is completed with the outcome of the flow, or the rejection if the lane was full
+     */
+    public <Happy> CompletableFuture<HappyPath<Happy, Sad>> submit(Key key, Attempt<HappyPath<Happy, Sad>> flow) {
+        return submit(key, FlowContext.emptyContext(), flow);
+    }
+
+    /**
+     * Submit a flow that must run after all the flows previously submitted for the same key, in the given context.
+     *
+     * @param key The key that determines which flows this one must run in order with
+     * @param context The context of the flow, which its outcome carries on in
+     * @param flow The flow to run
+     * @param <Happy> The type of happy object the flow may produce
+     * @return A future that is completed with the outcome of the flow, or the rejection if the lane was full
+     */
+    public <Happy> CompletableFuture<HappyPath<Happy, Sad>> submit(Key key, FlowContext context, Attempt<HappyPath<Happy, Sad>> flow) {
+        Lane lane = lanes[laneFor(key)];
+        FlowTask<Happy, Sad> task = new FlowTask<>(flow, context);
+        int depth;
+        // Reserve a place in the lane without ever counting past the capacity, since the running lane stops when the
+        // count reaches zero and a count for a flow that is then rejected would leave it waiting for a flow that never comes
+        do {
+            depth = lane.depth.get();
+            if (depth >= laneCapacity) {
+                lane.rejections.increment();
+                task.complete(HappyPath.sadPath(rejection));
+                return task.outcome;
+            }
+        } while (!lane.depth.compareAndSet(depth, depth + 1));
+        lane.tasks.offer(task);
+        if (depth == 0) {
+            lane.schedule();
+        }
+        return task.outcome;
+    }
+
+    /**
+     * @param key The key of a flow
+     * @return The index of the lane that flows with the given key will run in
+     */
+    public int laneFor(Key key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * @return The number of lanes
+     */
+    public int lanes() {
+        return lanes.length;
+    }
+
+    /**
+     * @param lane The index of a lane
+     * @return The number of flows in the lane that have not yet finished, including the one that is running
+     */
+    public int laneDepth(int lane) {
+        return lanes[lane].depth.get();
+    }
+
+    /**
+     * @return The depth of every lane, indexed by lane
+     * @see #laneDepth(int)
+     */
+    public int[] laneDepths() {
+        int[] laneDepths = new int[lanes.length];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            laneDepths[lane] = laneDepth(lane);
+        }
+        return laneDepths;
+    }
+
+    /**
+     * @param lane The index of a lane
+     * @return The number of flows that were rejected because the lane was full
+     */
+    public long laneRejections(int lane) {
+        return lanes[lane].rejections.sum();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Generic arrays cannot be created, but every element is a Lane of this executor
+    private Lane[] newLanes(int count) {
+        Lane[] newLanes = new KeyedFlowExecutor.Lane[count];
+        for (int lane = 0; lane < count; lane++) {
+            newLanes[lane] = new Lane();
+        }
+        return newLanes;
+    }
+
+    private final class Lane implements Runnable {
+        private final MpscQueue<FlowTask<?, Sad>> tasks = new MpscQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final LongAdder rejections = new LongAdder();
+
+        void schedule() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException rejectedExecution) {
+                failAll(rejectedExecution);
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean moreTasks = true;
+            try {
+                for (int turn = 0; turn < MAX_FLOWS_PER_TURN && moreTasks; turn++) {
+                    try {
+                        nextTask().run();
+                    } finally {
+                        moreTasks = depth.decrementAndGet() != 0;
+                    }
+                }
+            } finally {
+                // Give other lanes sharing the executor a fair chance before carrying on, or hand the lane over to
+                // another thread if a flow threw an Error that is on its way out of this one
+                if (moreTasks) {
+                    schedule();
+                }
+            }
+        }
+
+        private void failAll(RejectedExecutionException rejectedExecution) {
+            do {
+                nextTask().complete(HappyPath.technicalFailure(rejectedExecution));
+            } while (depth.decrementAndGet() != 0);
+        }
+
+        private FlowTask<?, Sad> nextTask() {
+            FlowTask<?, Sad> task = tasks.poll();
+            while (task == null) {
+                // A producer has counted its flow but not linked it into the queue yet
+                Thread.yield();
+                task = tasks.poll();
+            }
+            return task;
+        }
+    }
+}
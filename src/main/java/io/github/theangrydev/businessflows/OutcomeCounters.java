@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many flows with each name end happy, sad or in a technical failure, and how many end sad or in a
+ * technical failure with each class of sad object or exception.
+ * <p>
+ * Counters are striped ({@link LongAdder}s), so flows that end on many threads at once do not contend on a single
+ * counter. The number of different classes counted for each flow is capped, so that a flow producing an unbounded
+ * variety of classes cannot grow the registry without limit; classes beyond the cap are counted as
+ * {@link OutcomeCounts#OTHER}.
+ * </p>
+ */
+public final class OutcomeCounters {
+    private static final int DEFAULT_MAX_CLASSES_PER_FLOW = 32;
+    private static final OutcomeCounters GLOBAL = new OutcomeCounters(DEFAULT_MAX_CLASSES_PER_FLOW);
+
+    private final int maxClassesPerFlow;
+    private final ConcurrentMap<String, FlowCounters> flows = new ConcurrentHashMap<>();
+
+    private OutcomeCounters(int maxClassesPerFlow) {
+        this.maxClassesPerFlow = maxClassesPerFlow;
+    }
+
+    /**
+     * @return A registry shared by the whole application, with a cap of {@value #DEFAULT_MAX_CLASSES_PER_FLOW} classes
+     * per flow
+     */
+    public static OutcomeCounters globalOutcomeCounters() {
+        return GLOBAL;
+    }
+
+    /**
+     * Produces a new, empty {@link OutcomeCounters}.
+     *
+     * @param maxClassesPerFlow The maximum number of different sad object classes, and separately of exception
+     *                          classes, that are counted for each flow
+     * @return The registry
+     */
+    public static OutcomeCounters outcomeCounters(int maxClassesPerFlow) {
+        if (maxClassesPerFlow < 1) {
+            throw new IllegalArgumentException("The max classes per flow must be at least 1 but was " + maxClassesPerFlow);
+        }
+        return new OutcomeCounters(maxClassesPerFlow);
+    }
+
+    /**
+     * Count the track that a flow ended on, e.g. just before it is joined.
+     *
+     * @param flowName The name to count the flow under
+     * @param flow The flow that has ended
+     * @param <Flow> The type of flow
+     * @return The same flow
+     */
+    public <Flow extends BusinessFlow<?, ?, ?>> Flow count(String flowName, Flow flow) {
+        FlowCounters counters = flows.get(flowName);
+        if (counters == null) {
+            counters = flows.computeIfAbsent(flowName, name -> new FlowCounters());
+        }
+        if (flow instanceof HappyCase) {
+            counters.happy.increment();
+        } else if (flow instanceof SadCase) {
+            counters.sad.increment(((SadCase<?, ?>) flow).sad);
+        } else {
+            counters.technicalFailures.increment(((TechnicalFailureCase<?, ?>) flow).technicalFailure);
+        }
+        return flow;
+    }
+
+    /**
+     * @param flowName The name the flows were counted under
+     * @return The counts for the flow so far, which are all zero if no flows with that name have been counted
+     */
+    public OutcomeCounts snapshot(String flowName) {
+        FlowCounters counters = flows.get(flowName);
+        return counters == null ? new FlowCounters().snapshot(false) : counters.snapshot(false);
+    }
+
+    /**
+     * @return The counts for every flow so far, by flow name
+     */
+    public Map<String, OutcomeCounts> snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Take a snapshot of the counts and reset them to zero, e.g. each time the counts are scraped. A flow that ends
+     * while the snapshot is being taken may be counted in this snapshot, the next one or neither; scrapers that need
+     * exact totals should use the cumulative {@link #snapshot()} instead.
+     *
+     * @return The counts for every flow since the last reset, by flow name
+     */
+    public Map<String, OutcomeCounts> snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    private Map<String, OutcomeCounts> snapshot(boolean reset) {
+        Map<String, OutcomeCounts> snapshot = new TreeMap<>();
+        flows.forEach((flowName, counters) -> snapshot.put(flowName, counters.snapshot(reset)));
+        return snapshot;
+    }
+
+    private final class FlowCounters {
+        private final LongAdder happy = new LongAdder();
+        private final ClassCounters sad = new ClassCounters();
+        private final ClassCounters technicalFailures = new ClassCounters();
+
+        OutcomeCounts snapshot(boolean reset) {
+            return new OutcomeCounts(sum(happy, reset), sad.snapshot(reset), technicalFailures.snapshot(reset));
+        }
+    }
+
+    private final class ClassCounters {
+        private final ConcurrentMap<Class<?>, LongAdder> byClass = new ConcurrentHashMap<>();
+        private final LongAdder other = new LongAdder();
+
+        void increment(Object value) {
+            Class<?> valueClass = value == null ? Void.class : value.getClass();
+            LongAdder counter = byClass.get(valueClass);
+            if (counter == null) {
+                // Once the cap is reached, new classes go straight to the other counter without taking the lock
+                counter = byClass.size() >= maxClassesPerFlow ? other : newCounter(valueClass);
+            }
+            counter.increment();
+        }
+
+        private synchronized LongAdder newCounter(Class<?> valueClass) {
+            LongAdder counter = byClass.get(valueClass);
+            if (counter != null) {
+                return counter;
+            }
+            if (byClass.size() >= maxClassesPerFlow) {
+                return other;
+            }
+            counter = new LongAdder();
+            byClass.put(valueClass, counter);
+            return counter;
+        }
+
+        Map<String, Long> snapshot(boolean reset) {
+            Map<String, Long> snapshot = new TreeMap<>();
+            byClass.forEach((valueClass, counter) -> snapshot.put(valueClass.getName(), sum(counter, reset)));
+            long otherCount = sum(other, reset);
+            if (otherCount > 0) {
+                snapshot.put(OutcomeCounts.OTHER, otherCount);
+            }
+            return snapshot;
+        }
+    }
+
+    private static long sum(LongAdder counter, boolean reset) {
+        return reset ? counter.sumThenReset() : counter.sum();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * An immutable copy of the number of flows with a given name that ended on each track, as counted by
+ * {@link OutcomeCounters}.
+ */
+public final class OutcomeCounts {
+    /**
+     * The class name under which sad objects and technical failures are counted once a flow has seen too many
+     * different classes.
+     */
+    public static final String OTHER = "other";
+
+    private final long happy;
+    private final Map<String, Long> sadByClass;
+    private final Map<String, Long> technicalFailuresByClass;
+    private final long sad;
+    private final long technicalFailures;
+
+    OutcomeCounts(long happy, Map<String, Long> sadByClass, Map<String, Long> technicalFailuresByClass) {
+        this.happy = happy;
+        this.sadByClass = Collections.unmodifiableMap(sadByClass);
+        this.technicalFailuresByClass = Collections.unmodifiableMap(technicalFailuresByClass);
+        this.sad = sum(sadByClass);
+        this.technicalFailures = sum(technicalFailuresByClass);
+    }
+
+    /**
+     * @return The number of flows that ended happy
+     */
+    public long happy() {
+        return happy;
+    }
+
+    /**
+     * @return The number of flows that ended sad
+     */
+    public long sad() {
+        return sad;
+    }
+
+    /**
+     * @return The number of flows that ended in a technical failure
+     */
+    public long technicalFailures() {
+        return technicalFailures;
+    }
+
+    /**
+     * @return The number of flows that ended, on any track
+     */
+    public long total() {
+        return happy + sad + technicalFailures;
+    }
+
+    /**
+     * @return The fraction of flows that ended in a technical failure, or 0 if no flows ended
+     */
+    public double technicalFailureRatio() {
+        long total = total();
+        return total == 0 ? 0 : (double) technicalFailures / total;
+    }
+
+    /**
+     * @return The number of flows that ended sad by the name of the class of the sad object, with classes beyond the
+     * cardinality cap counted as {@link #OTHER}
+     */
+    public Map<String, Long> sadByClass() {
+        return sadByClass;
+    }
+
+    /**
+     * @return The number of flows that ended in a technical failure by the name of the class of the exception, with
+     * classes beyond the cardinality cap counted as {@link #OTHER}
+     */
+    public Map<String, Long> technicalFailuresByClass() {
+        return technicalFailuresByClass;
+    }
+
+    @Override
+    public String toString() {
+        return format("happy=%d, sad=%s, technicalFailures=%s", happy, sadByClass, technicalFailuresByClass);
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        long sum = 0;
+        for (long count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Applies a flow to every element of a large batch of inputs, splitting the work across a {@link ForkJoinPool}.
+ * <p>
+ * The batch is recursively split in half until a slice is no bigger than the split threshold, at which point the
+ * slice is processed sequentially by a single worker. Idle workers steal the larger, not yet split, slices.
+ * Each slice writes into its own buffer, so no two workers ever contend over where to put an outcome.
+ * </p>
+ * Any {@link Exception} thrown by the flow for an element becomes a technical failure for that element only.
+ * <p>
+ * A batch can be run in a {@link FlowContext}, which a flow made with a {@link ContextualMapping} is given for every
+ * element; every outcome carries on in the context, whichever worker produced it.
+ * </p>
+ *
+ * @param <In> The type of the inputs
+ * @param <Out> The type of happy object each flow may produce
+ * @param <Sad> The type of sad object each flow may produce
+ */
+public class ParallelFlowRunner<In, Out, Sad> {
+    private final ContextualMapping<In, HappyPath<Out, Sad>> flow;
+    private final ForkJoinPool forkJoinPool;
+    private final int splitThreshold;
+
+    private ParallelFlowRunner(ContextualMapping<In, HappyPath<Out, Sad>> flow, ForkJoinPool forkJoinPool, int splitThreshold) {
+        this.flow = flow;
+        this.forkJoinPool = forkJoinPool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    /**
+     * Produces a {@link ParallelFlowRunner} that runs the given flow in the given {@link ForkJoinPool}.
+     *
+     * @param flow The flow to apply to each input
+     * @param forkJoinPool The pool to run in; use a dedicated pool to isolate CPU heavy flows from the common pool
+     * @param splitThreshold Slices of at most this many inputs are processed sequentially rather than split further
+     * @param <In> The type of the inputs
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return The runner
+     */
+    public static <In, Out, Sad> ParallelFlowRunner<In, Out, Sad> parallelFlowRunner(Mapping<In, HappyPath<Out, Sad>> flow, ForkJoinPool forkJoinPool, int splitThreshold) {
+        return parallelFlowRunner((context, input) -> flow.map(input), forkJoinPool, splitThreshold);
+    }
+
+    /**
+     * Produces a {@link ParallelFlowRunner} that runs the given flow in the given {@link ForkJoinPool}, giving it the
+     * context that the batch is run in.
+     *
+     * @param flow The flow to apply to each input, e.g. one that starts with {@link HappyPath#happyPath(Object, FlowContext)}
+     * @param forkJoinPool The pool to run in; use a dedicated pool to isolate CPU heavy flows from the common pool
+     * @param splitThreshold Slices of at most this many inputs are processed sequentially rather than split further
+     * @param <In> The type of the inputs
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return The runner
+     */
+    public static <In, Out, Sad> ParallelFlowRunner<In, Out, Sad> parallelFlowRunner(ContextualMapping<In, HappyPath<Out, Sad>> flow, ForkJoinPool forkJoinPool, int splitThreshold) {
+        if (splitThreshold < 1) {
+            throw new IllegalArgumentException("The split threshold must be at least 1 but was " + splitThreshold);
+        }
+        return new ParallelFlowRunner<>(flow, forkJoinPool, splitThreshold);
+    }
+
+    /**
+     * Produces a {@link ParallelFlowRunner} that runs the given flow in the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param flow The flow to apply to each input
+     * @param splitThreshold Slices of at most this many inputs are processed sequentially rather than split further
+     * @param <In> The type of the inputs
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return The runner
+     */
+    public static <In, Out, Sad> ParallelFlowRunner<In, Out, Sad> parallelFlowRunner(Mapping<In, HappyPath<Out, Sad>> flow, int splitThreshold) {
+        return parallelFlowRunner(flow, ForkJoinPool.commonPool(), splitThreshold);
+    }
+
+    /**
+     * Produces a {@link ParallelFlowRunner} that runs the given flow in the {@link ForkJoinPool#commonPool()}, giving it
+     * the context that the batch is run in.
+     *
+     * @param flow The flow to apply to each input, e.g. one that starts with {@link HappyPath#happyPath(Object, FlowContext)}
+     * @param splitThreshold Slices of at most this many inputs are processed sequentially rather than split further
+     * @param <In> The type of the inputs
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return The runner
+     */
+    public static <In, Out, Sad> ParallelFlowRunner<In, Out, Sad> parallelFlowRunner(ContextualMapping<In, HappyPath<Out, Sad>> flow, int splitThreshold) {
+        return parallelFlowRunner(flow, ForkJoinPool.commonPool(), splitThreshold);
+    }
+
+    /**
+     * Apply the flow to every input.
+     *
+     * @param inputs The inputs to apply the flow to
+     * @return The outcome for each input, in the same order as the inputs
+     */
+    public List<HappyPath<Out, Sad>> runOrdered(List<? extends In> inputs) {
+        return runOrdered(FlowContext.emptyContext(), inputs);
+    }
+
+    /**
+     * Apply the flow to every input, in the given context.
+     *
+     * @param context The context to run the flows in
+     * @param inputs The inputs to apply the flow to
+     * @return The outcome for each input, in the same order as the inputs
+     */
+    public List<HappyPath<Out, Sad>> runOrdered(FlowContext context, List<? extends In> inputs) {
+        HappyPath<Out, Sad>[] outcomes = newOutcomes(inputs.size());
+        forkJoinPool.invoke(new OrderedSlice(context, inputs, outcomes, 0, inputs.size()));
+        return unmodifiableList(Arrays.asList(outcomes));
+    }
+
+    /**
+     * Apply the flow to every input.
+     *
+     * @param inputs The inputs to apply the flow to
+     * @return The outcome for each input, in the same order as the inputs
+     */
+    public List<HappyPath<Out, Sad>> runOrdered(In[] inputs) {
+        return runOrdered(Arrays.asList(inputs));
+    }
+
+    /**
+     * Apply the flow to every input, without preserving the order of the inputs.
+     * <p>
+     * This skips the bookkeeping needed to place each outcome at the index of its input. Outcomes for inputs in the
+     * same slice stay together, but the slices are concatenated in the order they finished.
+     * </p>
+     *
+     * @param inputs The inputs to apply the flow to
+     * @return The outcome for each input, in no particular order
+     */
+    public List<HappyPath<Out, Sad>> runUnordered(List<? extends In> inputs) {
+        return runUnordered(FlowContext.emptyContext(), inputs);
+    }
+
+    /**
+     * Apply the flow to every input, in the given context, without preserving the order of the inputs.
+     *
+     * @param context The context to run the flows in
+     * @param inputs The inputs to apply the flow to
+     * @return The outcome for each input, in no particular order
+     * @see #runUnordered(List)
+     */
+    public List<HappyPath<Out, Sad>> runUnordered(FlowContext context, List<? extends In> inputs) {
+        Queue<List<HappyPath<Out, Sad>>> finishedSlices = new ConcurrentLinkedQueue<>();
+        forkJoinPool.invoke(new UnorderedSlice(context, inputs, finishedSlices, 0, inputs.size()));
+        List<HappyPath<Out, Sad>> outcomes = new ArrayList<>(inputs.size());
+        for (List<HappyPath<Out, Sad>> finishedSlice : finishedSlices) {
+            outcomes.addAll(finishedSlice);
+        }
+        return unmodifiableList(outcomes);
+    }
+
+    /**
+     * Apply the flow to every input, without preserving the order of the inputs.
+     *
+     * @param inputs The inputs to apply the flow to
+     * @return The outcome for each input, in no particular order
+     * @see #runUnordered(List)
+     */
+    public List<HappyPath<Out, Sad>> runUnordered(In[] inputs) {
+        return runUnordered(Arrays.asList(inputs));
+    }
+
+    /**
+     * Apply the flow to every input, holding at most {@code maxOutcomesInMemory} outcomes at a time.
+     * <p>
+     * The inputs are processed as consecutive windows of {@code maxOutcomesInMemory} inputs. Each window is run in
+     * parallel and its outcomes are handed to the consumer, in input order, before the next window starts.
+     * </p>
+     *
+     * @param inputs The inputs to apply the flow to
+     * @param maxOutcomesInMemory The maximum number of outcomes that will be held before they are handed over
+     * @param outcomeConsumer Receives each window of outcomes, in the same order as the inputs
+     * @throws Exception If the consumer throws one; windows after the failing one are not run
+     */
+    public void runInWindows(List<? extends In> inputs, int maxOutcomesInMemory, Peek<List<HappyPath<Out, Sad>>> outcomeConsumer) throws Exception {
+        runInWindows(FlowContext.emptyContext(), inputs, maxOutcomesInMemory, outcomeConsumer);
+    }
+
+    /**
+     * Apply the flow to every input, in the given context, holding at most {@code maxOutcomesInMemory} outcomes at a time.
+     *
+     * @param context The context to run the flows in
+     * @param inputs The inputs to apply the flow to
+     * @param maxOutcomesInMemory The maximum number of outcomes that will be held before they are handed over
+     * @param outcomeConsumer Receives each window of outcomes, in the same order as the inputs
+     * @throws Exception If the consumer throws one; windows after the failing one are not run
+     * @see #runInWindows(List, int, Peek)
+     */
+    public void runInWindows(FlowContext context, List<? extends In> inputs, int maxOutcomesInMemory, Peek<List<HappyPath<Out, Sad>>> outcomeConsumer) throws Exception {
+        if (maxOutcomesInMemory < 1) {
+            throw new IllegalArgumentException("The maximum number of outcomes in memory must be at least 1 but was " + maxOutcomesInMemory);
+        }
+        for (int windowStart = 0; windowStart < inputs.size(); windowStart += maxOutcomesInMemory) {
+            int windowEnd = Math.min(inputs.size(), windowStart + maxOutcomesInMemory);
+            outcomeConsumer.peek(runOrdered(context, inputs.subList(windowStart, windowEnd)));
+        }
+    }
+
+    private HappyPath<Out, Sad> applyFlow(FlowContext context, In input) {
+        return HappyPath.happyPathAttempt(() -> flow.map(context, input), context);
+    }
+
+    @SuppressWarnings("unchecked") // The array is never exposed as anything other than a HappyPath<Out, Sad>[]
+    private HappyPath<Out, Sad>[] newOutcomes(int size) {
+        return (HappyPath<Out, Sad>[]) new HappyPath<?, ?>[size];
+    }
+
+    private final class OrderedSlice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FlowContext context;
+        private final transient List<? extends In> inputs;
+        private final transient HappyPath<Out, Sad>[] outcomes;
+        private final int start;
+        private final int end;
+
+        OrderedSlice(FlowContext context, List<? extends In> inputs, HappyPath<Out, Sad>[] outcomes, int start, int end) {
+            this.context = context;
+            this.inputs = inputs;
+            this.outcomes = outcomes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= splitThreshold) {
+                for (int index = start; index < end; index++) {
+                    outcomes[index] = applyFlow(context, inputs.get(index));
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new OrderedSlice(context, inputs, outcomes, start, middle), new OrderedSlice(context, inputs, outcomes, middle, end));
+        }
+    }
+
+    private final class UnorderedSlice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FlowContext context;
+        private final transient List<? extends In> inputs;
+        private final transient Queue<List<HappyPath<Out, Sad>>> finishedSlices;
+        private final int start;
+        private final int end;
+
+        UnorderedSlice(FlowContext context, List<? extends In> inputs, Queue<List<HappyPath<Out, Sad>>> finishedSlices, int start, int end) {
+            this.context = context;
+            this.inputs = inputs;
+            this.finishedSlices = finishedSlices;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= splitThreshold) {
+                List<HappyPath<Out, Sad>> sliceOutcomes = new ArrayList<>(end - start);
+                for (In input : inputs.subList(start, end)) {
+                    sliceOutcomes.add(applyFlow(context, input));
+                }
+                finishedSlices.add(sliceOutcomes);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new UnorderedSlice(context, inputs, finishedSlices, start, middle), new UnorderedSlice(context, inputs, finishedSlices, middle, end));
+        }
+    }
+}
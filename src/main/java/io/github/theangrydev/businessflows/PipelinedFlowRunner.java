@@ -0,0 +1,357 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Runs a flow that is made of several stages over a batch of inputs, with each stage running on its own thread.
+ * <p>
+ * Stages are connected by preallocated single producer, single consumer ring buffers, so while one stage is working on
+ * an input the previous stage can already be working on the next input. This suits CPU heavy flows where each stage
+ * benefits from keeping its own code and data hot in the cache of the core it runs on.
+ * </p>
+ * An input that becomes sad or a technical failure in one stage skips all the remaining stages and goes straight to
+ * the output. The outcomes are always returned in the same order as the inputs.
+ * <p>
+ * The inputs can be run in a {@link FlowContext}, which every stage can read, e.g. with
+ * {@link #mapWithContext(ContextualMapping)}, on whichever thread it runs.
+ * </p>
+ *
+ * @param <In> The type of the inputs
+ * @param <Happy> The type of happy object produced by the last stage
+ * @param <Sad> The type of sad object the stages may produce
+ */
+public class PipelinedFlowRunner<In, Happy, Sad> {
+    private static final int DEFAULT_RING_BUFFER_SIZE = 1024;
+
+    private final List<Mapping<HappyPath<Object, Sad>, HappyPath<Object, Sad>>> stages;
+
+    private PipelinedFlowRunner(List<Mapping<HappyPath<Object, Sad>, HappyPath<Object, Sad>>> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Start describing a pipeline. Each input starts out happy.
+     *
+     * @param <In> The type of the inputs
+     * @param <Sad> The type of sad object the stages may produce
+     * @return A pipeline with no stages
+     */
+    public static <In, Sad> PipelinedFlowRunner<In, In, Sad> pipeline() {
+        return new PipelinedFlowRunner<>(new ArrayList<>());
+    }
+
+    /**
+     * Add a stage that is equivalent to {@link HappyPath#map(Mapping)}.
+     *
+     * @param mapping The mapping to apply to each happy object
+     * @param <NewHappy> The type of happy object that will be present after the mapping
+     * @return The pipeline with the new stage added to the end
+     */
+    public <NewHappy> PipelinedFlowRunner<In, NewHappy, Sad> map(Mapping<Happy, NewHappy> mapping) {
+        return withStage(happyPath -> happyPath.map(mapping));
+    }
+
+    /**
+     * Add a stage that is equivalent to {@link HappyPath#mapWithContext(ContextualMapping)}.
+     *
+     * @param mapping The mapping to apply to each happy object
+     * @param <NewHappy> The type of happy object that will be present after the mapping
+     * @return The pipeline with the new stage added to the end
+     */
+    public <NewHappy> PipelinedFlowRunner<In, NewHappy, Sad> mapWithContext(ContextualMapping<Happy, NewHappy> mapping) {
+        return withStage(happyPath -> happyPath.mapWithContext(mapping));
+    }
+
+    /**
+     * Add a stage that is equivalent to {@link HappyPath#then(Mapping)}.
+     *
+     * @param action The action to apply to each happy object
+     * @param <NewHappy> The type of happy object that will be present after the action
+     * @return The pipeline with the new stage added to the end
+     */
+    public <NewHappy> PipelinedFlowRunner<In, NewHappy, Sad> then(Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        return withStage(happyPath -> happyPath.then(action));
+    }
+
+    /**
+     * Add a stage that is equivalent to {@link HappyPath#thenWithContext(ContextualMapping)}.
+     *
+     * @param action The action to apply to each happy object
+     * @param <NewHappy> The type of happy object that will be present after the action
+     * @return The pipeline with the new stage added to the end
+     */
+    public <NewHappy> PipelinedFlowRunner<In, NewHappy, Sad> thenWithContext(ContextualMapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        return withStage(happyPath -> happyPath.thenWithContext(action));
+    }
+
+    /**
+     * Add a stage that is equivalent to {@link HappyPath#attempt(ActionThatMightFail)}.
+     *
+     * @param actionThatMightFail The action to attempt on each happy object
+     * @return The pipeline with the new stage added to the end
+     */
+    public PipelinedFlowRunner<In, Happy, Sad> attempt(ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        return withStage(happyPath -> happyPath.attempt(actionThatMightFail));
+    }
+
+    /**
+     * Add a stage that is equivalent to {@link HappyPath#attemptWithContext(ContextualAction)}.
+     *
+     * @param actionThatMightFail The action to attempt on each happy object
+     * @return The pipeline with the new stage added to the end
+     */
+    public PipelinedFlowRunner<In, Happy, Sad> attemptWithContext(ContextualAction<Happy, Sad> actionThatMightFail) {
+        return withStage(happyPath -> happyPath.attemptWithContext(actionThatMightFail));
+    }
+
+    /**
+     * Run the pipeline over the inputs, with each stage on a new thread made by {@link Executors#defaultThreadFactory()}.
+     *
+     * @param inputs The inputs to run through the pipeline
+     * @return The outcome for each input, in the same order as the inputs
+     * @throws InterruptedException If interrupted while waiting for the stages to finish
+     * @see #run(List, ThreadFactory, int)
+     */
+    public List<HappyPath<Happy, Sad>> run(List<? extends In> inputs) throws InterruptedException {
+        return run(FlowContext.emptyContext(), inputs);
+    }
+
+    /**
+     * Run the pipeline over the inputs in the given context, with each stage on a new thread made by
+     * {@link Executors#defaultThreadFactory()}.
+     *
+     * @param context The context to run the inputs in
+     * @param inputs The inputs to run through the pipeline
+     * @return The outcome for each input, in the same order as the inputs
+     * @throws InterruptedException If interrupted while waiting for the stages to finish
+     * @see #run(FlowContext, List, ThreadFactory, int)
+     */
+    public List<HappyPath<Happy, Sad>> run(FlowContext context, List<? extends In> inputs) throws InterruptedException {
+        return run(context, inputs, Executors.defaultThreadFactory(), DEFAULT_RING_BUFFER_SIZE);
+    }
+
+    /**
+     * Run the pipeline over the inputs.
+     * <p>
+     * The calling thread feeds the inputs into the first stage. Each stage runs on its own thread from the given
+     * {@link ThreadFactory} and the threads finish when all the inputs have passed through.
+     * </p>
+     * <p>
+     * Exceptions thrown by a stage become technical failures, but anything else it throws, e.g. a
+     * {@link StackOverflowError}, stops that stage from processing any more inputs. The remaining inputs are skipped,
+     * the other stages finish, and then the first thing a stage threw is rethrown. If the calling thread is interrupted,
+     * the stages are told to stop and are waited for before the {@link InterruptedException} is thrown.
+     * </p>
+     *
+     * @param inputs The inputs to run through the pipeline
+     * @param threadFactory Makes a thread for each stage
+     * @param ringBufferSize How many inputs can be waiting between two stages (rounded up to a power of two)
+     * @return The outcome for each input, in the same order as the inputs
+     * @throws InterruptedException If interrupted while waiting for the stages to finish
+     * @throws Error If a stage threw an {@link Error}
+     */
+    public List<HappyPath<Happy, Sad>> run(List<? extends In> inputs, ThreadFactory threadFactory, int ringBufferSize) throws InterruptedException {
+        return run(FlowContext.emptyContext(), inputs, threadFactory, ringBufferSize);
+    }
+
+    /**
+     * Run the pipeline over the inputs in the given context, which every input starts out in.
+     *
+     * @param context The context to run the inputs in
+     * @param inputs The inputs to run through the pipeline
+     * @param threadFactory Makes a thread for each stage
+     * @param ringBufferSize How many inputs can be waiting between two stages (rounded up to a power of two)
+     * @return The outcome for each input, in the same order as the inputs
+     * @throws InterruptedException If interrupted while waiting for the stages to finish
+     * @throws Error If a stage threw an {@link Error}
+     * @see #run(List, ThreadFactory, int)
+     */
+    public List<HappyPath<Happy, Sad>> run(FlowContext context, List<? extends In> inputs, ThreadFactory threadFactory, int ringBufferSize) throws InterruptedException {
+        HappyPath<Object, Sad>[] outcomes = newOutcomes(inputs.size());
+        if (stages.isEmpty()) {
+            for (int index = 0; index < inputs.size(); index++) {
+                outcomes[index] = HappyPath.happyPath(inputs.get(index), context);
+            }
+            return outcomesAsList(outcomes);
+        }
+        List<SpscRingBuffer<HappyPath<Object, Sad>>> ringBuffers = new ArrayList<>(stages.size());
+        for (int stage = 0; stage < stages.size(); stage++) {
+            ringBuffers.add(new SpscRingBuffer<>(ringBufferSize));
+        }
+        AtomicReference<Throwable> stageFailure = new AtomicReference<>();
+        List<Thread> stageThreads = new ArrayList<>(stages.size());
+        try {
+            for (int stage = 0; stage < stages.size(); stage++) {
+                SpscRingBuffer<HappyPath<Object, Sad>> nextRingBuffer = stage + 1 < stages.size() ? ringBuffers.get(stage + 1) : null;
+                Thread stageThread = threadFactory.newThread(new Stage<>(stages.get(stage), ringBuffers.get(stage), nextRingBuffer, outcomes, stageFailure));
+                stageThreads.add(stageThread);
+                stageThread.start();
+            }
+            SpscRingBuffer<HappyPath<Object, Sad>> firstRingBuffer = ringBuffers.get(0);
+            for (int index = 0; index < inputs.size(); index++) {
+                firstRingBuffer.put(index, HappyPath.happyPath(inputs.get(index), context));
+            }
+            firstRingBuffer.put(Stage.END_OF_INPUTS, null);
+            for (Thread stageThread : stageThreads) {
+                stageThread.join();
+            }
+        } catch (InterruptedException | RuntimeException | Error abandoned) {
+            stopStages(ringBuffers, stageThreads);
+            throw abandoned;
+        }
+        rethrowIfFailed(stageFailure.get());
+        return outcomesAsList(outcomes);
+    }
+
+    private static void stopStages(List<? extends SpscRingBuffer<?>> ringBuffers, List<Thread> stageThreads) {
+        for (SpscRingBuffer<?> ringBuffer : ringBuffers) {
+            ringBuffer.abandon();
+        }
+        for (Thread stageThread : stageThreads) {
+            stageThread.interrupt();
+        }
+        boolean interrupted = false;
+        for (Thread stageThread : stageThreads) {
+            while (stageThread.isAlive()) {
+                try {
+                    stageThread.join();
+                } catch (InterruptedException ignored) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrowIfFailed(Throwable stageFailure) {
+        if (stageFailure instanceof Error) {
+            throw (Error) stageFailure;
+        }
+        if (stageFailure instanceof RuntimeException) {
+            throw (RuntimeException) stageFailure;
+        }
+        if (stageFailure != null) {
+            throw new IllegalStateException("A stage of the pipeline failed", stageFailure);
+        }
+    }
+
+    private <NewHappy> PipelinedFlowRunner<In, NewHappy, Sad> withStage(Mapping<HappyPath<Happy, Sad>, HappyPath<NewHappy, Sad>> stage) {
+        List<Mapping<HappyPath<Object, Sad>, HappyPath<Object, Sad>>> newStages = new ArrayList<>(stages);
+        newStages.add(eraseTypes(stage));
+        return new PipelinedFlowRunner<>(newStages);
+    }
+
+    @SuppressWarnings("unchecked") // Each stage consumes the type produced by the stage before it, which the builder methods guarantee
+    private static <Sad, Old, New> Mapping<HappyPath<Object, Sad>, HappyPath<Object, Sad>> eraseTypes(Mapping<HappyPath<Old, Sad>, HappyPath<New, Sad>> stage) {
+        return (Mapping<HappyPath<Object, Sad>, HappyPath<Object, Sad>>) (Mapping<?, ?>) stage;
+    }
+
+    @SuppressWarnings("unchecked") // The array is never exposed as anything other than a HappyPath<Object, Sad>[]
+    private static <Sad> HappyPath<Object, Sad>[] newOutcomes(int size) {
+        return (HappyPath<Object, Sad>[]) new HappyPath<?, ?>[size];
+    }
+
+    @SuppressWarnings("unchecked") // The last stage produces a Happy
+    private List<HappyPath<Happy, Sad>> outcomesAsList(HappyPath<Object, Sad>[] outcomes) {
+        return unmodifiableList(Arrays.asList((HappyPath<Happy, Sad>[]) (HappyPath<?, ?>[]) outcomes));
+    }
+
+    private static final class Stage<Sad> implements Runnable {
+        static final int END_OF_INPUTS = -1;
+
+        private final Mapping<HappyPath<Object, Sad>, HappyPath<Object, Sad>> stage;
+        private final SpscRingBuffer<HappyPath<Object, Sad>> input;
+        private final SpscRingBuffer<HappyPath<Object, Sad>> output;
+        private final HappyPath<Object, Sad>[] outcomes;
+        private final AtomicReference<Throwable> stageFailure;
+
+        Stage(Mapping<HappyPath<Object, Sad>, HappyPath<Object, Sad>> stage, SpscRingBuffer<HappyPath<Object, Sad>> input, SpscRingBuffer<HappyPath<Object, Sad>> output, HappyPath<Object, Sad>[] outcomes, AtomicReference<Throwable> stageFailure) {
+            this.stage = stage;
+            this.input = input;
+            this.output = output;
+            this.outcomes = outcomes;
+            this.stageFailure = stageFailure;
+        }
+
+        @Override
+        public void run() {
+            boolean abandoned = false;
+            try {
+                processInputs();
+            } catch (InterruptedException interrupted) {
+                abandoned = true;
+            } catch (Throwable failure) {
+                stageFailure.compareAndSet(null, failure);
+                abandoned = !skipRemainingInputs();
+            } finally {
+                // The next stage must always be told there are no more inputs, unless the whole run has been abandoned
+                if (!abandoned && output != null) {
+                    forwardEndOfInputs();
+                }
+            }
+        }
+
+        private void processInputs() throws InterruptedException {
+            int index = input.takeIndex();
+            while (index != END_OF_INPUTS) {
+                HappyPath<Object, Sad> happyPath = input.takeElement();
+                HappyPath<Object, Sad> outcome = HappyPath.happyPathAttempt(() -> stage.map(happyPath), happyPath.context());
+                // A happy object may be null, so check the case rather than whether there is a value
+                if (output != null && outcome instanceof HappyCase) {
+                    output.put(index, outcome);
+                } else {
+                    outcomes[index] = outcome;
+                }
+                index = input.takeIndex();
+            }
+            input.takeElement();
+        }
+
+        // Keep taking inputs so that whoever is feeding this stage is never left waiting for space
+        private boolean skipRemainingInputs() {
+            try {
+                while (input.takeIndex() != END_OF_INPUTS) {
+                    input.takeElement();
+                }
+                input.takeElement();
+                return true;
+            } catch (InterruptedException interrupted) {
+                return false;
+            }
+        }
+
+        private void forwardEndOfInputs() {
+            try {
+                output.put(END_OF_INPUTS, null);
+            } catch (InterruptedException interrupted) {
+                // The run has been abandoned, so there is nobody left to tell
+            }
+        }
+    }
+}
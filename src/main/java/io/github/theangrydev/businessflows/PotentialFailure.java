@@ -64,11 +64,12 @@ public abstract class PotentialFailure<Sad> {
      * Convert the {@link PotentialFailure} to a {@link HappyPath}.
      *
      * @param happy The happy object the {@link PotentialFailure} is about
+     * @param context The context of the flow the {@link PotentialFailure} is part of
      * @param <Happy> The type of the happy object the {@link PotentialFailure} is about
      * @return A {@link HappyPath} that is happy if the {@link PotentialFailure} is a {@link PotentialFailure#success()}
      * or sad inside if the {@link PotentialFailure} is a {@link PotentialFailure#failure(Object)}
      */
-    abstract <Happy> HappyPath<Happy, Sad> toHappyPath(Happy happy);
+    abstract <Happy> HappyPath<Happy, Sad> toHappyPath(Happy happy, FlowContext context);
 
     /**
      * Take a look at the sad case (if there really is one).
@@ -77,4 +78,12 @@ public abstract class PotentialFailure<Sad> {
      * @throws Exception If the {@link Peek} throws one
      */
     abstract void ifSad(Peek<Sad> peek) throws Exception;
+
+    /**
+     * Get the sad object without allocating a {@link Peek}, for use in loops that run many validators.
+     *
+     * @return The sad object if this is a {@link PotentialFailure#failure(Object)} or null if it is a
+     * {@link PotentialFailure#success()}
+     */
+    abstract Sad sadOrNull();
 }
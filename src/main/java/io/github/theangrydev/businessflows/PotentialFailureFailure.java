@@ -31,12 +31,17 @@ class PotentialFailureFailure<Sad> extends PotentialFailure<Sad> {
     }
 
     @Override
-    <Happy> HappyPath<Happy, Sad> toHappyPath(Happy happy) {
-        return HappyPath.sadPath(sad);
+    <Happy> HappyPath<Happy, Sad> toHappyPath(Happy happy, FlowContext context) {
+        return new SadCaseHappyPath<>(sad, context);
     }
 
     @Override
     void ifSad(Peek<Sad> peek) throws Exception {
         peek.peek(sad);
     }
+
+    @Override
+    Sad sadOrNull() {
+        return sad;
+    }
 }
@@ -25,12 +25,17 @@ package io.github.theangrydev.businessflows;
 class PotentialFailureSuccess<Sad> extends PotentialFailure<Sad> {
 
     @Override
-    <Happy> HappyPath<Happy, Sad> toHappyPath(Happy happy) {
-        return HappyPath.happyPath(happy);
+    <Happy> HappyPath<Happy, Sad> toHappyPath(Happy happy, FlowContext context) {
+        return new HappyCaseHappyPath<>(happy, context);
     }
 
     @Override
     void ifSad(Peek<Sad> peek) throws Exception {
         // Nothing to do
     }
+
+    @Override
+    Sad sadOrNull() {
+        return null;
+    }
 }
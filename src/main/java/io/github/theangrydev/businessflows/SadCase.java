@@ -27,13 +27,21 @@ import java.util.function.Function;
 class SadCase<Happy, Sad> implements BusinessCase<Happy, Sad> {
 
     final Sad sad;
+    final FlowContext context;
 
-    SadCase(Sad sad) {
+    SadCase(Sad sad, FlowContext context) {
         this.sad = sad;
+        this.context = context;
+    }
+
+    @Override
+    public FlowContext context() {
+        return context;
     }
 
     @Override
     public <Result> Result join(Mapping<Happy, Result> happyJoiner, Mapping<Sad, Result> sadJoiner, Function<Exception, Result> technicalFailureJoiner) {
+        FlowListeners.joined(this);
         try {
             return sadJoiner.map(sad);
         } catch (Exception technicalFailure) {
@@ -43,6 +51,7 @@ class SadCase<Happy, Sad> implements BusinessCase<Happy, Sad> {
 
     @Override
     public <Result> Result joinOrThrow(Mapping<Happy, Result> happyJoiner, Mapping<Sad, Result> sadJoiner) throws Exception {
+        FlowListeners.joined(this);
         return sadJoiner.map(sad);
     }
 
@@ -26,8 +26,8 @@ import java.util.Optional;
  */
 class SadCaseHappyPath<Happy, Sad> extends SadCase<Happy, Sad> implements HappyPath<Happy, Sad> {
 
-    SadCaseHappyPath(Sad sad) {
-        super(sad);
+    SadCaseHappyPath(Sad sad, FlowContext context) {
+        super(sad, context);
     }
 
     @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
@@ -36,12 +36,34 @@ class SadCaseHappyPath<Happy, Sad> extends SadCase<Happy, Sad> implements HappyP
         return (HappyPath<NewHappy, Sad>) this;
     }
 
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> then(String stageName, Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        return then(action);
+    }
+
+    @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> thenWithContext(ContextualMapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        return (HappyPath<NewHappy, Sad>) this;
+    }
+
     @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
     @Override
     public <NewHappy> HappyPath<NewHappy, Sad> map(Mapping<Happy, NewHappy> mapping) {
         return (HappyPath<NewHappy, Sad>) this;
     }
 
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> map(String stageName, Mapping<Happy, NewHappy> mapping) {
+        return map(mapping);
+    }
+
+    @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> mapWithContext(ContextualMapping<Happy, NewHappy> mapping) {
+        return (HappyPath<NewHappy, Sad>) this;
+    }
+
     @Override
     public HappyPath<Happy, Sad> peek(Peek<Happy> peek) {
         return this;
@@ -52,6 +74,16 @@ class SadCaseHappyPath<Happy, Sad> extends SadCase<Happy, Sad> implements HappyP
         return this;
     }
 
+    @Override
+    public HappyPath<Happy, Sad> attempt(String stageName, ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        return attempt(actionThatMightFail);
+    }
+
+    @Override
+    public HappyPath<Happy, Sad> attemptWithContext(ContextualAction<Happy, Sad> actionThatMightFail) {
+        return this;
+    }
+
     @Override
     public Optional<Happy> toOptional() {
         return Optional.empty();
@@ -59,11 +91,16 @@ class SadCaseHappyPath<Happy, Sad> extends SadCase<Happy, Sad> implements HappyP
 
     @Override
     public TechnicalFailure<Happy, Sad> ifTechnicalFailure() {
-        return TechnicalFailure.sadPath(sad);
+        return new SadCaseTechnicalFailure<>(sad, context);
     }
 
     @Override
     public SadPath<Happy, Sad> ifSad() {
-        return SadPath.sadPath(sad);
+        return new SadCaseSadPath<>(sad, context);
+    }
+
+    @Override
+    public HappyPath<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new SadCaseHappyPath<>(sad, context);
     }
 }
@@ -19,6 +19,14 @@ package io.github.theangrydev.businessflows;
 
 import java.util.Optional;
 
+import static io.github.theangrydev.businessflows.FlowEvents.stageEnded;
+import static io.github.theangrydev.businessflows.FlowEvents.stageStarted;
+import static io.github.theangrydev.businessflows.FlowListeners.transitioned;
+import static io.github.theangrydev.businessflows.FlowOperation.MAP;
+import static io.github.theangrydev.businessflows.FlowOperation.PEEK;
+import static io.github.theangrydev.businessflows.FlowOperation.RECOVER;
+import static io.github.theangrydev.businessflows.FlowOperation.THEN;
+
 /**
  * A {@link SadCaseSadPath} is a {@link SadPath} that is actually a {@link SadCase}.
  *
@@ -26,8 +34,8 @@ import java.util.Optional;
  */
 class SadCaseSadPath<Happy, Sad> extends SadCase<Happy, Sad> implements SadPath<Happy, Sad> {
 
-    SadCaseSadPath(Sad sad) {
-        super(sad);
+    SadCaseSadPath(Sad sad, FlowContext context) {
+        super(sad, context);
     }
 
     @Override
@@ -37,57 +45,91 @@ class SadCaseSadPath<Happy, Sad> extends SadCase<Happy, Sad> implements SadPath<
 
     @Override
     public TechnicalFailure<Happy, Sad> ifTechnicalFailure() {
-        return TechnicalFailure.sadPath(sad);
+        return new SadCaseTechnicalFailure<>(sad, context);
     }
 
     @Override
     public HappyPath<Happy, Sad> ifHappy() {
-        return HappyPath.sadPath(sad);
+        return new SadCaseHappyPath<>(sad, context);
     }
 
     @Override
     public <NewSad> SadPath<Happy, NewSad> then(Mapping<Sad, SadPath<Happy, NewSad>> action) {
+        Object stage = stageStarted();
         try {
-            return action.map(sad);
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, inThisContext(action.map(sad))));
         } catch (Exception e) {
-            return SadPath.technicalFailure(e);
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, new TechnicalFailureCaseSadPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public <NewSad> SadPath<Happy, NewSad> then(String stageName, Mapping<Sad, SadPath<Happy, NewSad>> action) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, inThisContext(StageRegistry.globalStageRegistry().timedMap(stageName, FlowOutcome.SAD, action, sad))));
+        } catch (Exception e) {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, new TechnicalFailureCaseSadPath<>(e, context)));
         }
     }
 
     @Override
     public <NewSad> SadPath<Happy, NewSad> map(Mapping<Sad, NewSad> mapping) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new SadCaseSadPath<>(mapping.map(sad), context)));
+        } catch (Exception e) {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseSadPath<>(e, context)));
+        }
+    }
+
+    @Override
+    public <NewSad> SadPath<Happy, NewSad> map(String stageName, Mapping<Sad, NewSad> mapping) {
+        Object stage = stageStarted();
         try {
-            return SadPath.sadPath(mapping.map(sad));
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new SadCaseSadPath<>(StageRegistry.globalStageRegistry().timedMap(stageName, FlowOutcome.SAD, mapping, sad), context)));
         } catch (Exception e) {
-            return SadPath.technicalFailure(e);
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseSadPath<>(e, context)));
         }
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Mapping<Sad, Happy> recovery) {
+        Object stage = stageStarted();
         try {
-            return HappyPath.happyPath(recovery.map(sad));
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new HappyCaseHappyPath<>(recovery.map(sad), context)));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Attempt<Happy> recovery) {
+        Object stage = stageStarted();
         try {
-            return HappyPath.happyPath(recovery.attempt());
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new HappyCaseHappyPath<>(recovery.attempt(), context)));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
 
     @Override
     public SadPath<Happy, Sad> peek(Peek<Sad> peek) {
+        Object stage = stageStarted();
         try {
             peek.peek(sad);
-            return this;
+            return transitioned(PEEK, this, stageEnded(stage, PEEK, this, this));
         } catch (Exception e) {
-            return SadPath.technicalFailure(e);
+            return transitioned(PEEK, this, stageEnded(stage, PEEK, this, new TechnicalFailureCaseSadPath<>(e, context)));
         }
     }
+
+    @Override
+    public SadPath<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new SadCaseSadPath<>(sad, context);
+    }
+
+    private <NewSad> SadPath<Happy, NewSad> inThisContext(SadPath<Happy, NewSad> next) {
+        return next.context().isEmpty() ? next.withContext(context) : next;
+    }
 }
@@ -26,8 +26,8 @@ import java.util.Optional;
  */
 class SadCaseTechnicalFailure<Happy, Sad> extends SadCase<Happy, Sad> implements TechnicalFailure<Happy, Sad> {
 
-    SadCaseTechnicalFailure(Sad sad) {
-        super(sad);
+    SadCaseTechnicalFailure(Sad sad, FlowContext context) {
+        super(sad, context);
     }
 
     @Override
@@ -40,29 +40,39 @@ class SadCaseTechnicalFailure<Happy, Sad> extends SadCase<Happy, Sad> implements
         return this;
     }
 
+    @Override
+    public TechnicalFailure<Happy, Sad> then(String stageName, Mapping<Exception, TechnicalFailure<Happy, Sad>> action) {
+        return then(action);
+    }
+
     @Override
     public TechnicalFailure<Happy, Sad> map(Mapping<Exception, Exception> mapping) {
         return this;
     }
 
+    @Override
+    public TechnicalFailure<Happy, Sad> map(String stageName, Mapping<Exception, Exception> mapping) {
+        return map(mapping);
+    }
+
     @Override
     public HappyPath<Happy, Sad> recover(Mapping<Exception, Happy> recovery) {
-        return HappyPath.sadPath(sad);
+        return new SadCaseHappyPath<>(sad, context);
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Attempt<Happy> recovery) {
-        return HappyPath.sadPath(sad);
+        return new SadCaseHappyPath<>(sad, context);
     }
 
     @Override
     public SadPath<Happy, Sad> mapToSadPath(Mapping<Exception, Sad> mapping) {
-        return SadPath.sadPath(sad);
+        return new SadCaseSadPath<>(sad, context);
     }
 
     @Override
     public SadPath<Happy, Sad> mapToSadPath(Attempt<Sad> mapping) {
-        return SadPath.sadPath(sad);
+        return new SadCaseSadPath<>(sad, context);
     }
 
     @Override
@@ -72,11 +82,16 @@ class SadCaseTechnicalFailure<Happy, Sad> extends SadCase<Happy, Sad> implements
 
     @Override
     public HappyPath<Happy, Sad> ifHappy() {
-        return HappyPath.sadPath(sad);
+        return new SadCaseHappyPath<>(sad, context);
     }
 
     @Override
     public SadPath<Happy, Sad> ifSad() {
-        return SadPath.sadPath(sad);
+        return new SadCaseSadPath<>(sad, context);
+    }
+
+    @Override
+    public TechnicalFailure<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new SadCaseTechnicalFailure<>(sad, context);
     }
 }
@@ -26,8 +26,8 @@ import java.util.List;
  */
 class SadCaseValidationPath<Happy, Sad, SadAggregate> extends SadCaseHappyPath<Happy, SadAggregate> implements ValidationPath<Happy, Sad, SadAggregate> {
 
-    SadCaseValidationPath(SadAggregate sadList) {
-        super(sadList);
+    SadCaseValidationPath(SadAggregate sadList, FlowContext context) {
+        super(sadList, context);
     }
 
     @Override
@@ -39,4 +39,29 @@ class SadCaseValidationPath<Happy, Sad, SadAggregate> extends SadCaseHappyPath<H
     public ValidationPath<Happy, Sad, SadAggregate> validateInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
         return this;
     }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateFirst(List<? extends Validator<Happy, Sad>> validators) {
+        return this;
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateFirstInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        return this;
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateWithin(FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators) {
+        return this;
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> validateWithinInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators) {
+        return this;
+    }
+
+    @Override
+    public ValidationPath<Happy, Sad, SadAggregate> withContext(FlowContext context) {
+        return context == this.context ? this : new SadCaseValidationPath<>(sad, context);
+    }
 }
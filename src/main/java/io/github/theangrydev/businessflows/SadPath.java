@@ -33,7 +33,7 @@ public interface SadPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Sad> {
      * @return A {@link SadPath} that is sad on the inside
      */
     static <Happy, Sad> SadPath<Happy, Sad> sadPath(Sad sad) {
-        return new SadCaseSadPath<>(sad);
+        return FlowListeners.created(new SadCaseSadPath<>(sad, FlowContext.emptyContext()));
     }
 
     /**
@@ -45,7 +45,7 @@ public interface SadPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Sad> {
      * @return A {@link SadPath} that is happy on the inside
      */
     static <Happy, Sad> SadPath<Happy, Sad> happyPath(Happy happy) {
-        return new HappyCaseSadPath<>(happy);
+        return FlowListeners.created(new HappyCaseSadPath<>(happy, FlowContext.emptyContext()));
     }
 
     /**
@@ -57,11 +57,12 @@ public interface SadPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Sad> {
      * @return A {@link SadPath} that is a technical failure on the inside
      */
     static <Happy, Sad> SadPath<Happy, Sad> technicalFailure(Exception technicalFailure) {
-        return new TechnicalFailureCaseSadPath<>(technicalFailure);
+        return FlowListeners.created(new TechnicalFailureCaseSadPath<>(technicalFailure, FlowContext.emptyContext()));
     }
 
     /**
      * If the underlying business case is sad, then apply the given action, otherwise do nothing to the underlying case.
+     * The flow produced by the action carries on in the context of this one, unless it is in a context of its own.
      *
      * @param action The action to apply to an existing sad case
      * @param <NewSad> The type of sad object that will be present after the action is applied to an existing sad object
@@ -69,6 +70,18 @@ public interface SadPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Sad> {
      */
     <NewSad> SadPath<Happy, NewSad> then(Mapping<Sad, SadPath<Happy, NewSad>> action);
 
+    /**
+     * Same as {@link #then(Mapping)}, recording how long the action takes in the {@link StageRegistry#globalStageRegistry()}.
+     *
+     * @param stageName The name to record the execution time of the action under
+     * @param action The action to apply to an existing sad case
+     * @param <NewSad> The type of sad object that will be present after the action is applied to an existing sad object
+     * @return The result of applying the action to the existing sad path, if applicable
+     */
+    default <NewSad> SadPath<Happy, NewSad> then(String stageName, Mapping<Sad, SadPath<Happy, NewSad>> action) {
+        return then(StageRegistry.globalStageRegistry().timedMapping(stageName, FlowOutcome.SAD, action));
+    }
+
     /**
      * If the underlying business case is sad, then apply the given mapping, otherwise do nothing to the underlying case.
      *
@@ -78,6 +91,18 @@ public interface SadPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Sad> {
      */
     <NewSad> SadPath<Happy, NewSad> map(Mapping<Sad, NewSad> mapping);
 
+    /**
+     * Same as {@link #map(Mapping)}, recording how long the mapping takes in the {@link StageRegistry#globalStageRegistry()}.
+     *
+     * @param stageName The name to record the execution time of the mapping under
+     * @param mapping The action to apply to an existing sad case
+     * @param <NewSad> The type of sad object that will be present after the mapping is applied to an existing sad object
+     * @return The result of applying the mapping to the existing sad path, if applicable
+     */
+    default <NewSad> SadPath<Happy, NewSad> map(String stageName, Mapping<Sad, NewSad> mapping) {
+        return map(StageRegistry.globalStageRegistry().timedMapping(stageName, FlowOutcome.SAD, mapping));
+    }
+
     /**
      * If the underlying business case is sad, recover to a happy path using the given recovery mapping.
      *
@@ -102,6 +127,14 @@ public interface SadPath<Happy, Sad> extends BusinessFlow<Happy, Sad, Sad> {
      */
     SadPath<Happy, Sad> peek(Peek<Sad> peek);
 
+    /**
+     * Carry on the flow in the given context, which every stage after this one can read.
+     *
+     * @param context The context to carry on in
+     * @return A {@link SadPath} with the same underlying business case, in the given context
+     */
+    SadPath<Happy, Sad> withContext(FlowContext context);
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * A named field of a {@link Happy} object, that can be used as the field extractor of a {@link FieldValidator}.
+ * <p>
+ * When a {@link ValidationPlan} runs, the value of each {@link SharedField} is extracted at most once and is shared by
+ * every {@link FieldValidator} on that field. A {@link SharedField} can be derived from another one using
+ * {@link #derive(String, Mapping)}, in which case the derivation starts from the shared value of the other field. This
+ * is useful when extracting a field is expensive, e.g. parsing a phone number or a date that several validators check.
+ * </p>
+ * Used on its own, e.g. by {@link FieldValidator#attempt(Object)}, a {@link SharedField} is just a {@link Mapping} and
+ * extracts the value every time.
+ *
+ * @param <Happy> The type that contains the {@link Field}
+ * @param <Field> The type of the field
+ */
+public class SharedField<Happy, Field> implements Mapping<Happy, Field> {
+    private final String name;
+    private final SharedField<Happy, ?> parent;
+    private final Mapping<Object, Object> fieldExtractor;
+
+    @SuppressWarnings("unchecked") // The extractor takes either the Happy object or the value of the parent field
+    private SharedField(String name, SharedField<Happy, ?> parent, Mapping<?, ? extends Field> fieldExtractor) {
+        this.name = name;
+        this.parent = parent;
+        this.fieldExtractor = (Mapping<Object, Object>) fieldExtractor;
+    }
+
+    /**
+     * Produces a {@link SharedField} that is extracted from the {@link Happy} object.
+     *
+     * @param name The name of the field
+     * @param fieldExtractor Extracts the {@link Field} from the {@link Happy}
+     * @param <Happy> The type that contains the {@link Field}
+     * @param <Field> The type of the field
+     * @return The shared field
+     */
+    public static <Happy, Field> SharedField<Happy, Field> sharedField(String name, Mapping<Happy, Field> fieldExtractor) {
+        return new SharedField<>(name, null, fieldExtractor);
+    }
+
+    /**
+     * Produces a {@link SharedField} that is derived from the value of this field.
+     *
+     * @param name The name of the derived field
+     * @param derivation Derives the {@link DerivedField} from the {@link Field}
+     * @param <DerivedField> The type of the derived field
+     * @return The derived shared field
+     */
+    public <DerivedField> SharedField<Happy, DerivedField> derive(String name, Mapping<Field, DerivedField> derivation) {
+        return new SharedField<>(name, this, derivation);
+    }
+
+    /**
+     * @return The name of the field
+     */
+    public String name() {
+        return name;
+    }
+
+    SharedField<Happy, ?> parent() {
+        return parent;
+    }
+
+    Mapping<Object, Object> fieldExtractor() {
+        return fieldExtractor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // The extractor produces the Field
+    public Field map(Happy happy) throws Exception {
+        Object input = parent == null ? happy : parent.map(happy);
+        return (Field) fieldExtractor.map(input);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
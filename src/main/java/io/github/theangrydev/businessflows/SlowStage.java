@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import static java.lang.String.format;
+
+/**
+ * A stage that a {@link StageWatchdog} found still running after its threshold.
+ */
+public final class SlowStage {
+    private final String stageName;
+    private final String threadName;
+    private final long elapsedNanos;
+    private final long thresholdNanos;
+    private final StackTraceElement[] stackTrace;
+
+    SlowStage(String stageName, String threadName, long elapsedNanos, long thresholdNanos, StackTraceElement[] stackTrace) {
+        this.stageName = stageName;
+        this.threadName = threadName;
+        this.elapsedNanos = elapsedNanos;
+        this.thresholdNanos = thresholdNanos;
+        this.stackTrace = stackTrace;
+    }
+
+    /**
+     * @return The name of the stage
+     */
+    public String stageName() {
+        return stageName;
+    }
+
+    /**
+     * @return The name of the thread that is running the stage
+     */
+    public String threadName() {
+        return threadName;
+    }
+
+    /**
+     * @return How long the stage had been running when it was found, in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The threshold the stage exceeded, in nanoseconds
+     */
+    public long thresholdNanos() {
+        return thresholdNanos;
+    }
+
+    /**
+     * @return The stack of the thread running the stage, captured when the stage was found
+     */
+    public StackTraceElement[] stackTrace() {
+        return stackTrace.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(format("Stage '%s' on thread '%s' has been running for %dns, longer than %dns", stageName, threadName, elapsedNanos, thresholdNanos));
+        for (StackTraceElement element : stackTrace) {
+            report.append(System.lineSeparator()).append("\tat ").append(element);
+        }
+        return report.toString();
+    }
+}
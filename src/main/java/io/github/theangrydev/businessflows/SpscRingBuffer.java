@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded ring buffer that hands over indexed elements from exactly one producer thread to exactly one consumer thread.
+ * <p>
+ * The slots are allocated once, up front. The producer and consumer each publish their position with an ordered
+ * (lazy) write and keep a cached copy of the other side's position, so they only read each other's cache line when
+ * the buffer looks full or empty. A side that has to wait spins briefly, then yields, then parks, and gives up with an
+ * {@link InterruptedException} if it is interrupted or the buffer is {@link #abandon() abandoned} while it is parked.
+ * The consumer also gives up before taking the next element once the buffer is abandoned.
+ * </p>
+ *
+ * @param <T> The type of the elements
+ */
+class SpscRingBuffer<T> {
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+
+    private final Object[] elements;
+    private final int[] indices;
+    private final int mask;
+
+    private final AtomicLong produced = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    // Only accessed by the producer
+    private long producerPosition;
+    private long cachedConsumed;
+
+    // Only accessed by the consumer
+    private long consumerPosition;
+    private long cachedProduced;
+
+    private volatile boolean abandoned;
+
+    SpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.elements = new Object[size];
+        this.indices = new int[size];
+        this.mask = size - 1;
+    }
+
+    void put(int index, T element) throws InterruptedException {
+        long wrapPoint = producerPosition - elements.length;
+        int idle = 0;
+        while (cachedConsumed <= wrapPoint) {
+            cachedConsumed = consumed.get();
+            if (cachedConsumed <= wrapPoint) {
+                idle = backOff(idle);
+            }
+        }
+        int slot = (int) producerPosition & mask;
+        elements[slot] = element;
+        indices[slot] = index;
+        producerPosition++;
+        produced.lazySet(producerPosition);
+    }
+
+    /**
+     * Wait for the next element.
+     *
+     * @return The index that was put with the element; the element itself can then be taken with {@link #takeElement()}
+     * @throws InterruptedException If abandoned, or interrupted or abandoned while waiting
+     */
+    int takeIndex() throws InterruptedException {
+        // Checked even when an element is ready, so a consumer whose work swallowed the interrupt still stops
+        if (abandoned) {
+            throw new InterruptedException();
+        }
+        int idle = 0;
+        while (cachedProduced <= consumerPosition) {
+            cachedProduced = produced.get();
+            if (cachedProduced <= consumerPosition) {
+                idle = backOff(idle);
+            }
+        }
+        return indices[(int) consumerPosition & mask];
+    }
+
+    @SuppressWarnings("unchecked") // Only T is ever put into the elements
+    T takeElement() {
+        int slot = (int) consumerPosition & mask;
+        T element = (T) elements[slot];
+        elements[slot] = null;
+        consumerPosition++;
+        consumed.lazySet(consumerPosition);
+        return element;
+    }
+
+    /**
+     * Make the producer and consumer stop waiting, e.g. because the other side has stopped and will never come back.
+     */
+    void abandon() {
+        abandoned = true;
+    }
+
+    private int backOff(int idle) throws InterruptedException {
+        if (idle < SPINS) {
+            return idle + 1;
+        }
+        if (idle < SPINS + YIELDS) {
+            Thread.yield();
+            return idle + 1;
+        }
+        LockSupport.parkNanos(1000);
+        if (abandoned || Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return idle;
+    }
+}
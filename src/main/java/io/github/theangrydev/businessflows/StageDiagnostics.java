@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the diagnostics that watch named stages and are currently switched on: traces that a {@link FlowTracer} is
+ * collecting, {@link FlowHistory} and {@link AllocationAccounting}. A named stage that is not sampled by its
+ * {@link StageRegistry} finds out that there is nothing else to do with a single volatile read, before looking up any
+ * thread locals.
+ */
+final class StageDiagnostics {
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+    private StageDiagnostics() {
+    }
+
+    /**
+     * @return True if any diagnostics might want to know about a stage that runs on any thread
+     */
+    static boolean active() {
+        return ACTIVE.get() != 0;
+    }
+
+    static void switchedOn() {
+        ACTIVE.incrementAndGet();
+    }
+
+    static void switchedOff() {
+        ACTIVE.decrementAndGet();
+    }
+}
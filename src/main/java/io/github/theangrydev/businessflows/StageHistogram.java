@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free histogram of durations in nanoseconds with a fixed number of logarithmic buckets, in the style of an
+ * HDR histogram.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so a recorded value is known to within
+ * 1/{@value #SUB_BUCKETS} of itself whatever its magnitude, and values below {@value #SUB_BUCKETS} are exact.
+ * Recording is a single atomic increment, so many threads can record into the same histogram.
+ * </p>
+ * <p>
+ * The counts are striped by thread, so that threads recording into the histogram of a hot stage at the same time
+ * increment different arrays instead of contending on the same cache lines. There is one stripe per available
+ * processor, up to {@value #MAX_STRIPES}, and each stripe is only allocated once a thread records into it, so a stage
+ * that only ever runs on one thread costs one stripe. A snapshot adds the stripes together.
+ * </p>
+ */
+final class StageHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    static final int MAX_STRIPES = 16;
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    void record(long value) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray counts = stripes.get(stripe);
+        if (counts == null) {
+            counts = newStripe(stripe);
+        }
+        counts.getAndIncrement(bucket(Math.max(0, value)));
+    }
+
+    private AtomicLongArray newStripe(int stripe) {
+        stripes.compareAndSet(stripe, null, new AtomicLongArray(BUCKETS));
+        return stripes.get(stripe);
+    }
+
+    HistogramSnapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            AtomicLongArray counts = stripes.get(stripe);
+            if (counts != null) {
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    snapshot[bucket] += counts.get(bucket);
+                }
+            }
+        }
+        return new HistogramSnapshot(snapshot);
+    }
+
+    void reset() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            AtomicLongArray counts = stripes.get(stripe);
+            if (counts != null) {
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    counts.set(bucket, 0);
+                }
+            }
+        }
+    }
+
+    int stripesInUse() {
+        int inUse = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            if (stripes.get(stripe) != null) {
+                inUse++;
+            }
+        }
+        return inUse;
+    }
+
+    // The number of stripes is a power of two, so that a thread's stripe is a mask of its id
+    static int stripes(int processors) {
+        return processors <= 1 ? 1 : Math.min(MAX_STRIPES, Integer.highestOneBit(processors - 1) << 1);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long highestValueInBucket(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
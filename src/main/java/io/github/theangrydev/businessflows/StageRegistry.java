@@ -0,0 +1,214 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records how long each named stage of a flow takes to execute, in a lock-free histogram per stage name.
+ * <p>
+ * The named overloads such as {@link HappyPath#map(String, Mapping)} record into the
+ * {@link #globalStageRegistry()}. Other registries can time a stage with e.g.
+ * {@code happyPath.map(registry.timedMapping("parse", this::parse))}.
+ * </p>
+ * <p>
+ * Timing a stage costs a pair of {@link System#nanoTime()} calls, a lookup of the stage's histogram and an atomic
+ * increment in the histogram's stripe for the current thread, so threads timing the same stage rarely contend. For stages that run very often, a registry can time a random sample of executions instead, see
+ * {@link #sampleOneIn(int)}. Executions that are not sampled cost a random number and a volatile read, to find out if
+ * any of the diagnostics that watch stages are switched on: a {@link FlowTracer} collecting a trace on any thread,
+ * {@link FlowHistory} or {@link AllocationAccounting}. Only then does the stage look up the current thread's trace and
+ * history, in which case it is always timed, and record its allocations.
+ * </p>
+ * <p>
+ * The named overloads time the stage in place rather than wrapping it, so they allocate nothing beyond what the
+ * unnamed operation would. Wrapping a stage with e.g. {@link #timedMapping(String, Mapping)} allocates the wrapper, so
+ * wrappers are best built once, e.g. in a field, rather than per flow.
+ * </p>
+ */
+public final class StageRegistry {
+    private static final StageRegistry GLOBAL = new StageRegistry();
+
+    private final ConcurrentMap<String, StageHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile int sampleInterval = 1;
+
+    private StageRegistry() {
+    }
+
+    /**
+     * @return The registry that the named overloads of the flow operations record into
+     */
+    public static StageRegistry globalStageRegistry() {
+        return GLOBAL;
+    }
+
+    /**
+     * @return A new, empty registry
+     */
+    public static StageRegistry stageRegistry() {
+        return new StageRegistry();
+    }
+
+    /**
+     * Time one in every {@code sampleInterval} executions of each stage, chosen at random, instead of every execution.
+     * The percentiles of a stage that runs often enough are still representative, but the counts are lower.
+     *
+     * @param sampleInterval On average, how many executions there are for each one that is timed
+     */
+    public void sampleOneIn(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("The sample interval must be at least 1 but was " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Wrap a {@link Mapping} so that its execution time is recorded under the given stage name. The wrapper can be
+     * built once and reused for every flow.
+     *
+     * @param stageName The name of the stage
+     * @param mapping The stage
+     * @param <Old> The type the mapping maps from
+     * @param <New> The type the mapping maps to
+     * @return A {@link Mapping} that times the given mapping
+     */
+    public <Old, New> Mapping<Old, New> timedMapping(String stageName, Mapping<Old, New> mapping) {
+        return timedMapping(stageName, FlowOutcome.UNKNOWN, mapping);
+    }
+
+    /**
+     * Wrap an {@link ActionThatMightFail} so that its execution time is recorded under the given stage name.
+     *
+     * @param stageName The name of the stage
+     * @param actionThatMightFail The stage
+     * @param <Happy> The type of happy object the action acts on
+     * @param <Sad> The type of failure the action may produce
+     * @return An {@link ActionThatMightFail} that times the given action
+     */
+    public <Happy, Sad> ActionThatMightFail<Happy, Sad> timedAction(String stageName, ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        return happy -> timedAttempt(stageName, actionThatMightFail, happy);
+    }
+
+    /**
+     * Same as {@link #timedMapping(String, Mapping)}, for a stage on the given track, which is the outcome recorded in
+     * a {@link FlowHistory} if the stage produces a plain value rather than a flow or {@link PotentialFailure}.
+     */
+    <Old, New> Mapping<Old, New> timedMapping(String stageName, FlowOutcome track, Mapping<Old, New> mapping) {
+        return old -> timedMap(stageName, track, mapping, old);
+    }
+
+    /**
+     * Apply a {@link Mapping} now and record its execution time under the given stage name, without wrapping it.
+     */
+    <Old, New> New timedMap(String stageName, FlowOutcome track, Mapping<Old, New> mapping, Old old) throws Exception {
+        return timed(stageName, track, mapping, Mapping::map, old);
+    }
+
+    /**
+     * Attempt an {@link ActionThatMightFail} now and record its execution time under the given stage name, without
+     * wrapping it.
+     */
+    <Happy, Sad> PotentialFailure<Sad> timedAttempt(String stageName, ActionThatMightFail<Happy, Sad> actionThatMightFail, Happy happy) throws Exception {
+        return timed(stageName, FlowOutcome.HAPPY, actionThatMightFail, ActionThatMightFail::attempt, happy);
+    }
+
+    private <Stage, Old, New> New timed(String stageName, FlowOutcome track, Stage stage, StageCall<Stage, Old, New> call, Old old) throws Exception {
+        boolean sampled = sampled();
+        boolean diagnosed = StageDiagnostics.active();
+        if (!sampled && !diagnosed) {
+            return call.call(stage, old);
+        }
+        ActiveTrace trace = diagnosed ? ActiveTrace.current() : null;
+        HistoryBuffer history = diagnosed ? FlowHistory.current() : null;
+        long allocatedBefore = diagnosed ? AllocationAccounting.allocatedBytes() : -1;
+        long start = System.nanoTime();
+        New result = null;
+        boolean completed = false;
+        try {
+            result = call.call(stage, old);
+            completed = true;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            stageEnded(stageName, nanos, sampled, trace, allocatedBefore);
+            if (history != null) {
+                history.stageEnded(stageName, completed ? FlowOutcome.ofStageResult(result, track) : FlowOutcome.TECHNICAL_FAILURE, nanos, completed, result);
+            }
+        }
+    }
+
+    /**
+     * @param stageName The name of the stage
+     * @return The execution times recorded for the stage so far, which is empty if the stage has not run
+     */
+    public HistogramSnapshot snapshot(String stageName) {
+        StageHistogram histogram = histograms.get(stageName);
+        return histogram == null ? HistogramSnapshot.emptySnapshot() : histogram.snapshot();
+    }
+
+    /**
+     * @return The execution times recorded so far for every stage that has run, by stage name
+     */
+    public Map<String, HistogramSnapshot> snapshots() {
+        Map<String, HistogramSnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((stageName, histogram) -> snapshots.put(stageName, histogram.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Forget the execution times recorded so far, e.g. after reporting them for an interval.
+     * Times that are recorded while the registry is being reset may or may not be forgotten.
+     */
+    public void reset() {
+        histograms.values().forEach(StageHistogram::reset);
+    }
+
+    void record(String stageName, long nanos) {
+        StageHistogram histogram = histograms.get(stageName);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(stageName, name -> new StageHistogram());
+        }
+        histogram.record(nanos);
+    }
+
+    private void stageEnded(String stageName, long nanos, boolean sampled, ActiveTrace trace, long allocatedBefore) {
+        if (sampled) {
+            record(stageName, nanos);
+        }
+        if (trace != null) {
+            trace.stageEnded(stageName, nanos);
+        }
+        if (allocatedBefore >= 0) {
+            AllocationAccounting.recordStage(stageName, allocatedBefore);
+        }
+    }
+
+    private boolean sampled() {
+        int interval = sampleInterval;
+        return interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0;
+    }
+
+    // Both kinds of stage are called through a method reference that captures nothing, so timing one allocates nothing
+    @FunctionalInterface
+    private interface StageCall<Stage, Old, New> {
+        New call(Stage stage, Old old) throws Exception;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Reports stages that are still running after a threshold, with the stack of the thread that is running them, to find
+ * out which stage of which flow is stuck without taking thread dumps.
+ * <p>
+ * Stages are watched by wrapping them, e.g. {@code happyPath.then(watchdog.watchedMapping("charge", this::charge))}.
+ * A watched stage costs a clock read and a few writes to a slot that belongs to the current thread; there are no
+ * timers per call. Once {@link #start(long, TimeUnit)} has been called, a background thread scans the slots of all
+ * the threads and reports each execution of a stage that has been running for longer than its threshold once, by
+ * calling the reporter on the background thread. To keep the cost of capturing stacks down, a stage name is reported
+ * at most once per minimum report interval, however many executions of it are slow.
+ * </p>
+ */
+public final class StageWatchdog {
+    private final long defaultThresholdNanos;
+    private final long minReportIntervalNanos;
+    private final Consumer<? super SlowStage> reporter;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<String, Long> thresholds = new ConcurrentHashMap<>();
+    private final Queue<StageSlot> slots = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<StageSlot> currentSlot = ThreadLocal.withInitial(this::newSlot);
+    private final Map<String, Long> lastReported = new HashMap<>();
+    private ScheduledExecutorService scanner;
+
+    StageWatchdog(long defaultThresholdNanos, long minReportIntervalNanos, Consumer<? super SlowStage> reporter, LongSupplier nanoClock) {
+        this.defaultThresholdNanos = defaultThresholdNanos;
+        this.minReportIntervalNanos = minReportIntervalNanos;
+        this.reporter = reporter;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Produces a {@link StageWatchdog}, which does not scan for slow stages until it is started.
+     *
+     * @param defaultThreshold How long a stage may run for before it is reported, unless it has its own threshold
+     * @param minReportInterval The minimum time between two reports of stages with the same name
+     * @param timeUnit The unit of the default threshold and the minimum report interval
+     * @param reporter What to do with a slow stage, e.g. log it
+     * @return The watchdog
+     */
+    public static StageWatchdog stageWatchdog(long defaultThreshold, long minReportInterval, TimeUnit timeUnit, Consumer<? super SlowStage> reporter) {
+        if (defaultThreshold < 1) {
+            throw new IllegalArgumentException("The default threshold must be at least 1 but was " + defaultThreshold);
+        }
+        return new StageWatchdog(timeUnit.toNanos(defaultThreshold), timeUnit.toNanos(minReportInterval), reporter, System::nanoTime);
+    }
+
+    /**
+     * Give the stages with the given name their own threshold.
+     *
+     * @param stageName The name of the stages
+     * @param threshold How long the stages may run for before they are reported
+     * @param timeUnit The unit of the threshold
+     */
+    public void threshold(String stageName, long threshold, TimeUnit timeUnit) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The threshold must be at least 1 but was " + threshold);
+        }
+        thresholds.put(stageName, timeUnit.toNanos(threshold));
+    }
+
+    /**
+     * Wrap a {@link Mapping} so that it is reported if it runs for too long.
+     *
+     * @param stageName The name of the stage
+     * @param mapping The stage
+     * @param <Old> The type the mapping maps from
+     * @param <New> The type the mapping maps to
+     * @return A {@link Mapping} that is watched
+     */
+    public <Old, New> Mapping<Old, New> watchedMapping(String stageName, Mapping<Old, New> mapping) {
+        return old -> {
+            StageSlot slot = currentSlot.get();
+            String outerStage = slot.stageName;
+            long outerStartedAt = slot.startedAt;
+            long outerExecution = slot.execution;
+            slot.write(stageName, nanoClock.getAsLong(), ++slot.executions);
+            try {
+                return mapping.map(old);
+            } finally {
+                slot.write(outerStage, outerStartedAt, outerExecution);
+            }
+        };
+    }
+
+    /**
+     * Wrap an {@link ActionThatMightFail} so that it is reported if it runs for too long.
+     *
+     * @param stageName The name of the stage
+     * @param actionThatMightFail The stage
+     * @param <Happy> The type of happy object the action acts on
+     * @param <Sad> The type of failure the action may produce
+     * @return An {@link ActionThatMightFail} that is watched
+     */
+    public <Happy, Sad> ActionThatMightFail<Happy, Sad> watchedAction(String stageName, ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        Mapping<Happy, PotentialFailure<Sad>> watched = watchedMapping(stageName, actionThatMightFail::attempt);
+        return watched::map;
+    }
+
+    /**
+     * Wrap an {@link Attempt}, e.g. the entry point of a flow, so that it is reported if it runs for too long.
+     *
+     * @param stageName The name of the stage
+     * @param attempt The stage
+     * @param <Result> The type of result the attempt produces
+     * @return An {@link Attempt} that is watched
+     */
+    public <Result> Attempt<Result> watchedAttempt(String stageName, Attempt<Result> attempt) {
+        Mapping<Object, Result> watched = watchedMapping(stageName, ignored -> attempt.attempt());
+        return () -> watched.map(null);
+    }
+
+    /**
+     * Start scanning for slow stages on a daemon thread.
+     *
+     * @param scanInterval How often to scan
+     * @param timeUnit The unit of the scan interval
+     */
+    public synchronized void start(long scanInterval, TimeUnit timeUnit) {
+        if (scanner != null) {
+            throw new IllegalStateException("The watchdog has already been started");
+        }
+        scanner = Executors.newSingleThreadScheduledExecutor(scan -> {
+            Thread thread = new Thread(scan, "stage-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scanner.scheduleWithFixedDelay(this::scan, scanInterval, scanInterval, timeUnit);
+    }
+
+    /**
+     * Stop scanning for slow stages. Stages that are running are still tracked, so the watchdog can be started again.
+     */
+    public synchronized void stop() {
+        if (scanner != null) {
+            scanner.shutdownNow();
+            scanner = null;
+        }
+    }
+
+    synchronized void scan() {
+        long now = nanoClock.getAsLong();
+        for (Iterator<StageSlot> iterator = slots.iterator(); iterator.hasNext(); ) {
+            StageSlot slot = iterator.next();
+            if (!slot.thread.isAlive()) {
+                iterator.remove();
+                continue;
+            }
+            long version = slot.version;
+            if ((version & 1) != 0) {
+                continue;
+            }
+            String stageName = slot.stageName;
+            long elapsedNanos = now - slot.startedAt;
+            long execution = slot.execution;
+            if (stageName == null || version != slot.version || execution == slot.reportedExecution) {
+                continue;
+            }
+            long thresholdNanos = thresholds.getOrDefault(stageName, defaultThresholdNanos);
+            if (elapsedNanos < thresholdNanos) {
+                continue;
+            }
+            slot.reportedExecution = execution;
+            Long reportedAt = lastReported.get(stageName);
+            if (reportedAt != null && now - reportedAt < minReportIntervalNanos) {
+                continue;
+            }
+            StackTraceElement[] stackTrace = slot.thread.getStackTrace();
+            // The stack is only worth reporting if the thread is still running the same execution of the stage
+            if (execution == slot.execution) {
+                lastReported.put(stageName, now);
+                report(new SlowStage(stageName, slot.thread.getName(), elapsedNanos, thresholdNanos, stackTrace));
+            }
+        }
+    }
+
+    /**
+     * @return How many threads have a slot, including threads that have ended since the slots were last pruned
+     */
+    int watchedThreads() {
+        return slots.size();
+    }
+
+    private void report(SlowStage slowStage) {
+        try {
+            reporter.accept(slowStage);
+        } catch (RuntimeException ignored) {
+            // A faulty reporter must not stop the watchdog from scanning
+        }
+    }
+
+    private StageSlot newSlot() {
+        // The scanner also removes them, but it might never be started
+        slots.removeIf(slot -> !slot.thread.isAlive());
+        StageSlot slot = new StageSlot(Thread.currentThread());
+        slots.add(slot);
+        return slot;
+    }
+
+    /**
+     * The stage a thread is running, written only by that thread and read by the scanner. The version is odd while
+     * the stage is being written and changes with every write, so the scanner can tell when it has read a stage name
+     * and start time from different writes. The execution identifies one execution of a stage, and is restored along
+     * with the stage name when a nested stage ends, so an execution that has already been reported is not reported
+     * again.
+     */
+    private static final class StageSlot {
+        private final Thread thread;
+        private volatile long version;
+        private volatile String stageName;
+        private volatile long startedAt;
+        private volatile long execution;
+        private long executions;
+        private long reportedExecution = -1;
+
+        StageSlot(Thread thread) {
+            this.thread = thread;
+        }
+
+        void write(String stageName, long startedAt, long execution) {
+            version++;
+            this.stageName = stageName;
+            this.startedAt = startedAt;
+            this.execution = execution;
+            version++;
+        }
+    }
+}
@@ -33,7 +33,7 @@ public interface TechnicalFailure<Happy, Sad> extends BusinessFlow<Happy, Sad, E
      * @return A {@link TechnicalFailure} that is a technical failure on the inside
      */
     static <Happy, Sad> TechnicalFailure<Happy, Sad> technicalFailure(Exception technicalFailure) {
-        return new TechnicalFailureCaseTechnicalFailure<>(technicalFailure);
+        return FlowListeners.created(new TechnicalFailureCaseTechnicalFailure<>(technicalFailure, FlowContext.emptyContext()));
     }
 
     /**
@@ -45,7 +45,7 @@ public interface TechnicalFailure<Happy, Sad> extends BusinessFlow<Happy, Sad, E
      * @return A {@link TechnicalFailure} that is sad on the inside
      */
     static <Happy, Sad> TechnicalFailure<Happy, Sad> sadPath(Sad sad) {
-        return new SadCaseTechnicalFailure<>(sad);
+        return FlowListeners.created(new SadCaseTechnicalFailure<>(sad, FlowContext.emptyContext()));
     }
 
     /**
@@ -57,18 +57,30 @@ public interface TechnicalFailure<Happy, Sad> extends BusinessFlow<Happy, Sad, E
      * @return A {@link TechnicalFailure} that is happy on the inside
      */
     static <Happy, Sad> TechnicalFailure<Happy, Sad> happyPath(Happy happy) {
-        return new HappyCaseTechnicalFailure<>(happy);
+        return FlowListeners.created(new HappyCaseTechnicalFailure<>(happy, FlowContext.emptyContext()));
     }
 
     /**
      * If the underlying business case is a technical failure, then apply the given action, otherwise do nothing to the
-     * underlying case.
+     * underlying case. The flow produced by the action carries on in the context of this one, unless it is in a context
+     * of its own.
      *
      * @param action The action to apply to an existing technical failure
      * @return The result of applying the action to the existing technical failure, if applicable
      */
     TechnicalFailure<Happy, Sad> then(Mapping<Exception, TechnicalFailure<Happy, Sad>> action);
 
+    /**
+     * Same as {@link #then(Mapping)}, recording how long the action takes in the {@link StageRegistry#globalStageRegistry()}.
+     *
+     * @param stageName The name to record the execution time of the action under
+     * @param action The action to apply to an existing technical failure
+     * @return The result of applying the action to the existing technical failure, if applicable
+     */
+    default TechnicalFailure<Happy, Sad> then(String stageName, Mapping<Exception, TechnicalFailure<Happy, Sad>> action) {
+        return then(StageRegistry.globalStageRegistry().timedMapping(stageName, FlowOutcome.TECHNICAL_FAILURE, action));
+    }
+
     /**
      * If the underlying business case is a technical failure, then apply the given mapping, otherwise do nothing to the
      * underlying case.
@@ -78,6 +90,17 @@ public interface TechnicalFailure<Happy, Sad> extends BusinessFlow<Happy, Sad, E
      */
     TechnicalFailure<Happy, Sad> map(Mapping<Exception, Exception> mapping);
 
+    /**
+     * Same as {@link #map(Mapping)}, recording how long the mapping takes in the {@link StageRegistry#globalStageRegistry()}.
+     *
+     * @param stageName The name to record the execution time of the mapping under
+     * @param mapping The mapping to apply to an existing technical failure
+     * @return The result of applying the mapping to the existing technical failure, if applicable
+     */
+    default TechnicalFailure<Happy, Sad> map(String stageName, Mapping<Exception, Exception> mapping) {
+        return map(StageRegistry.globalStageRegistry().timedMapping(stageName, FlowOutcome.TECHNICAL_FAILURE, mapping));
+    }
+
     /**
      * If the underlying business case is a technical failure, recover to a {@link Happy} path using the given recovery mapping.
      *
@@ -118,6 +141,14 @@ public interface TechnicalFailure<Happy, Sad> extends BusinessFlow<Happy, Sad, E
      */
     TechnicalFailure<Happy, Sad> peek(Peek<Exception> peek);
 
+    /**
+     * Carry on the flow in the given context, which every stage after this one can read.
+     *
+     * @param context The context to carry on in
+     * @return A {@link TechnicalFailure} with the same underlying business case, in the given context
+     */
+    TechnicalFailure<Happy, Sad> withContext(FlowContext context);
+
     /**
      * {@inheritDoc}
      */
@@ -27,18 +27,27 @@ import java.util.function.Function;
 class TechnicalFailureCase<Happy, Sad> implements BusinessCase<Happy, Sad> {
 
     final Exception technicalFailure;
+    final FlowContext context;
 
-    TechnicalFailureCase(Exception technicalFailure) {
+    TechnicalFailureCase(Exception technicalFailure, FlowContext context) {
         this.technicalFailure = technicalFailure;
+        this.context = context;
+    }
+
+    @Override
+    public FlowContext context() {
+        return context;
     }
 
     @Override
     public <Result> Result join(Mapping<Happy, Result> happyJoiner, Mapping<Sad, Result> sadJoiner, Function<Exception, Result> technicalFailureJoiner) {
+        FlowListeners.joined(this);
         return technicalFailureJoiner.apply(technicalFailure);
     }
 
     @Override
     public <Result> Result joinOrThrow(Mapping<Happy, Result> happyJoiner, Mapping<Sad, Result> sadJoiner) throws Exception {
+        FlowListeners.joined(this);
         throw technicalFailure;
     }
 
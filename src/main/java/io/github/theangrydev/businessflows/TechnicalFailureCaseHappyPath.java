@@ -26,8 +26,8 @@ import java.util.Optional;
  */
 class TechnicalFailureCaseHappyPath<Happy, Sad> extends TechnicalFailureCase<Happy, Sad> implements HappyPath<Happy, Sad> {
 
-    TechnicalFailureCaseHappyPath(Exception technicalFailure) {
-        super(technicalFailure);
+    TechnicalFailureCaseHappyPath(Exception technicalFailure, FlowContext context) {
+        super(technicalFailure, context);
     }
 
     @Override
@@ -35,18 +35,50 @@ class TechnicalFailureCaseHappyPath<Happy, Sad> extends TechnicalFailureCase<Hap
         return this;
     }
 
+    @Override
+    public HappyPath<Happy, Sad> attempt(String stageName, ActionThatMightFail<Happy, Sad> actionThatMightFail) {
+        return attempt(actionThatMightFail);
+    }
+
+    @Override
+    public HappyPath<Happy, Sad> attemptWithContext(ContextualAction<Happy, Sad> actionThatMightFail) {
+        return this;
+    }
+
     @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
     @Override
     public <NewHappy> HappyPath<NewHappy, Sad> then(Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
         return (HappyPath<NewHappy, Sad>) this;
     }
 
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> then(String stageName, Mapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        return then(action);
+    }
+
+    @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> thenWithContext(ContextualMapping<Happy, BusinessFlow<NewHappy, Sad, ?>> action) {
+        return (HappyPath<NewHappy, Sad>) this;
+    }
+
     @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
     @Override
     public <NewHappy> HappyPath<NewHappy, Sad> map(Mapping<Happy, NewHappy> mapping) {
         return (HappyPath<NewHappy, Sad>) this;
     }
 
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> map(String stageName, Mapping<Happy, NewHappy> mapping) {
+        return map(mapping);
+    }
+
+    @SuppressWarnings("unchecked") // Only the Happy changes and it is not present so all that changes is the types
+    @Override
+    public <NewHappy> HappyPath<NewHappy, Sad> mapWithContext(ContextualMapping<Happy, NewHappy> mapping) {
+        return (HappyPath<NewHappy, Sad>) this;
+    }
+
     @Override
     public HappyPath<Happy, Sad> peek(Peek<Happy> peek) {
         return this;
@@ -59,11 +91,16 @@ class TechnicalFailureCaseHappyPath<Happy, Sad> extends TechnicalFailureCase<Hap
 
     @Override
     public TechnicalFailure<Happy, Sad> ifTechnicalFailure() {
-        return TechnicalFailure.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseTechnicalFailure<>(technicalFailure, context);
     }
 
     @Override
     public SadPath<Happy, Sad> ifSad() {
-        return SadPath.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseSadPath<>(technicalFailure, context);
+    }
+
+    @Override
+    public HappyPath<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new TechnicalFailureCaseHappyPath<>(technicalFailure, context);
     }
 }
@@ -26,8 +26,8 @@ import java.util.Optional;
  */
 class TechnicalFailureCaseSadPath<Happy, Sad> extends TechnicalFailureCase<Happy, Sad> implements SadPath<Happy, Sad> {
 
-    TechnicalFailureCaseSadPath(Exception technicalFailure) {
-        super(technicalFailure);
+    TechnicalFailureCaseSadPath(Exception technicalFailure, FlowContext context) {
+        super(technicalFailure, context);
     }
 
     @Override
@@ -37,12 +37,12 @@ class TechnicalFailureCaseSadPath<Happy, Sad> extends TechnicalFailureCase<Happy
 
     @Override
     public TechnicalFailure<Happy, Sad> ifTechnicalFailure() {
-        return TechnicalFailure.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseTechnicalFailure<>(technicalFailure, context);
     }
 
     @Override
     public HappyPath<Happy, Sad> ifHappy() {
-        return HappyPath.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseHappyPath<>(technicalFailure, context);
     }
 
     @SuppressWarnings("unchecked") // Only the Sad changes and it is not present so all that changes is the types
@@ -51,24 +51,39 @@ class TechnicalFailureCaseSadPath<Happy, Sad> extends TechnicalFailureCase<Happy
         return (SadPath<Happy, NewSad>) this;
     }
 
+    @Override
+    public <NewSad> SadPath<Happy, NewSad> then(String stageName, Mapping<Sad, SadPath<Happy, NewSad>> action) {
+        return then(action);
+    }
+
     @SuppressWarnings("unchecked") // Only the Sad changes and it is not present so all that changes is the types
     @Override
     public <NewSad> SadPath<Happy, NewSad> map(Mapping<Sad, NewSad> mapping) {
         return (SadPath<Happy, NewSad>) this;
     }
 
+    @Override
+    public <NewSad> SadPath<Happy, NewSad> map(String stageName, Mapping<Sad, NewSad> mapping) {
+        return map(mapping);
+    }
+
     @Override
     public HappyPath<Happy, Sad> recover(Mapping<Sad, Happy> recovery) {
-        return HappyPath.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseHappyPath<>(technicalFailure, context);
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Attempt<Happy> recovery) {
-        return HappyPath.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseHappyPath<>(technicalFailure, context);
     }
 
     @Override
     public SadPath<Happy, Sad> peek(Peek<Sad> peek) {
         return this;
     }
+
+    @Override
+    public SadPath<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new TechnicalFailureCaseSadPath<>(technicalFailure, context);
+    }
 }
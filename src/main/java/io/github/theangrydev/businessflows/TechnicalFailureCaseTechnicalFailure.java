@@ -19,6 +19,15 @@ package io.github.theangrydev.businessflows;
 
 import java.util.Optional;
 
+import static io.github.theangrydev.businessflows.FlowEvents.stageEnded;
+import static io.github.theangrydev.businessflows.FlowEvents.stageStarted;
+import static io.github.theangrydev.businessflows.FlowListeners.transitioned;
+import static io.github.theangrydev.businessflows.FlowOperation.MAP;
+import static io.github.theangrydev.businessflows.FlowOperation.MAP_TO_SAD_PATH;
+import static io.github.theangrydev.businessflows.FlowOperation.PEEK;
+import static io.github.theangrydev.businessflows.FlowOperation.RECOVER;
+import static io.github.theangrydev.businessflows.FlowOperation.THEN;
+
 /**
  * A {@link TechnicalFailureCaseTechnicalFailure} is a {@link TechnicalFailure} that is actually a {@link TechnicalFailureCase}.
  *
@@ -26,8 +35,8 @@ import java.util.Optional;
  */
 class TechnicalFailureCaseTechnicalFailure<Happy, Sad> extends TechnicalFailureCase<Happy, Sad> implements TechnicalFailure<Happy, Sad> {
 
-    TechnicalFailureCaseTechnicalFailure(Exception technicalFailure) {
-        super(technicalFailure);
+    TechnicalFailureCaseTechnicalFailure(Exception technicalFailure, FlowContext context) {
+        super(technicalFailure, context);
     }
 
     @Override
@@ -37,75 +46,111 @@ class TechnicalFailureCaseTechnicalFailure<Happy, Sad> extends TechnicalFailureC
 
     @Override
     public SadPath<Happy, Sad> ifSad() {
-        return SadPath.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseSadPath<>(technicalFailure, context);
     }
 
     @Override
     public TechnicalFailure<Happy, Sad> then(Mapping<Exception, TechnicalFailure<Happy, Sad>> action) {
+        Object stage = stageStarted();
         try {
-            return action.map(technicalFailure);
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, inThisContext(action.map(technicalFailure))));
         } catch (Exception e) {
-            return TechnicalFailure.technicalFailure(e);
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, new TechnicalFailureCaseTechnicalFailure<>(e, context)));
+        }
+    }
+
+    @Override
+    public TechnicalFailure<Happy, Sad> then(String stageName, Mapping<Exception, TechnicalFailure<Happy, Sad>> action) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, inThisContext(StageRegistry.globalStageRegistry().timedMap(stageName, FlowOutcome.TECHNICAL_FAILURE, action, technicalFailure))));
+        } catch (Exception e) {
+            return transitioned(THEN, this, stageEnded(stage, THEN, this, new TechnicalFailureCaseTechnicalFailure<>(e, context)));
         }
     }
 
     @Override
     public TechnicalFailure<Happy, Sad> map(Mapping<Exception, Exception> mapping) {
+        Object stage = stageStarted();
+        try {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseTechnicalFailure<>(mapping.map(technicalFailure), context)));
+        } catch (Exception e) {
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseTechnicalFailure<>(e, context)));
+        }
+    }
+
+    @Override
+    public TechnicalFailure<Happy, Sad> map(String stageName, Mapping<Exception, Exception> mapping) {
+        Object stage = stageStarted();
         try {
-            return TechnicalFailure.technicalFailure(mapping.map(technicalFailure));
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseTechnicalFailure<>(StageRegistry.globalStageRegistry().timedMap(stageName, FlowOutcome.TECHNICAL_FAILURE, mapping, technicalFailure), context)));
         } catch (Exception e) {
-            return TechnicalFailure.technicalFailure(e);
+            return transitioned(MAP, this, stageEnded(stage, MAP, this, new TechnicalFailureCaseTechnicalFailure<>(e, context)));
         }
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Mapping<Exception, Happy> recovery) {
+        Object stage = stageStarted();
         try {
-            return HappyPath.happyPath(recovery.map(technicalFailure));
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new HappyCaseHappyPath<>(recovery.map(technicalFailure), context)));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
 
     @Override
     public HappyPath<Happy, Sad> recover(Attempt<Happy> recovery) {
+        Object stage = stageStarted();
         try {
-            return HappyPath.happyPath(recovery.attempt());
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new HappyCaseHappyPath<>(recovery.attempt(), context)));
         } catch (Exception e) {
-            return HappyPath.technicalFailure(e);
+            return transitioned(RECOVER, this, stageEnded(stage, RECOVER, this, new TechnicalFailureCaseHappyPath<>(e, context)));
         }
     }
 
     @Override
     public SadPath<Happy, Sad> mapToSadPath(Mapping<Exception, Sad> mapping) {
+        Object stage = stageStarted();
         try {
-            return SadPath.sadPath(mapping.map(technicalFailure));
+            return transitioned(MAP_TO_SAD_PATH, this, stageEnded(stage, MAP_TO_SAD_PATH, this, new SadCaseSadPath<>(mapping.map(technicalFailure), context)));
         } catch (Exception e) {
-            return SadPath.technicalFailure(e);
+            return transitioned(MAP_TO_SAD_PATH, this, stageEnded(stage, MAP_TO_SAD_PATH, this, new TechnicalFailureCaseSadPath<>(e, context)));
         }
     }
 
     @Override
     public SadPath<Happy, Sad> mapToSadPath(Attempt<Sad> mapping) {
+        Object stage = stageStarted();
         try {
-            return SadPath.sadPath(mapping.attempt());
+            return transitioned(MAP_TO_SAD_PATH, this, stageEnded(stage, MAP_TO_SAD_PATH, this, new SadCaseSadPath<>(mapping.attempt(), context)));
         } catch (Exception e) {
-            return SadPath.technicalFailure(e);
+            return transitioned(MAP_TO_SAD_PATH, this, stageEnded(stage, MAP_TO_SAD_PATH, this, new TechnicalFailureCaseSadPath<>(e, context)));
         }
     }
 
     @Override
     public TechnicalFailure<Happy, Sad> peek(Peek<Exception> peek) {
+        Object stage = stageStarted();
         try {
             peek.peek(technicalFailure);
-            return this;
+            return transitioned(PEEK, this, stageEnded(stage, PEEK, this, this));
         } catch (Exception e) {
-            return TechnicalFailure.technicalFailure(e);
+            return transitioned(PEEK, this, stageEnded(stage, PEEK, this, new TechnicalFailureCaseTechnicalFailure<>(e, context)));
         }
     }
 
     @Override
     public HappyPath<Happy, Sad> ifHappy() {
-        return HappyPath.technicalFailure(technicalFailure);
+        return new TechnicalFailureCaseHappyPath<>(technicalFailure, context);
+    }
+
+    @Override
+    public TechnicalFailure<Happy, Sad> withContext(FlowContext context) {
+        return context == this.context ? this : new TechnicalFailureCaseTechnicalFailure<>(technicalFailure, context);
+    }
+
+    private TechnicalFailure<Happy, Sad> inThisContext(TechnicalFailure<Happy, Sad> next) {
+        return next.context().isEmpty() ? next.withContext(context) : next;
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import static java.lang.String.format;
+
+/**
+ * One step of a {@link FlowTrace}: either a named stage, e.g. {@link HappyPath#map(String, Mapping)}, or an operation
+ * reported to {@link FlowListener}s.
+ */
+public final class TraceStep {
+    private final String name;
+    private final FlowOperation operation;
+    private final long nanos;
+    private final FlowOutcome outcome;
+    private final String exceptionClass;
+
+    TraceStep(String name, FlowOperation operation, long nanos, FlowOutcome outcome, String exceptionClass) {
+        this.name = name;
+        this.operation = operation;
+        this.nanos = nanos;
+        this.outcome = outcome;
+        this.exceptionClass = exceptionClass;
+    }
+
+    /**
+     * @return The name of the stage, or the name of the operation if the step was not a named stage
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return The operation, or null if it was not observed because {@link FlowListener}s are disabled
+     */
+    public FlowOperation operation() {
+        return operation;
+    }
+
+    /**
+     * @return How long a named stage took, or for other operations the time since the previous step, in nanoseconds
+     */
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * @return The track the flow was on after the step
+     */
+    public FlowOutcome outcome() {
+        return outcome;
+    }
+
+    /**
+     * @return The class of the exception that made the step a technical failure, or null if it did not fail
+     */
+    public String exceptionClass() {
+        return exceptionClass;
+    }
+
+    @Override
+    public String toString() {
+        String step = format("%s %dns %s", name, nanos, outcome);
+        return exceptionClass == null ? step : step + " " + exceptionClass;
+    }
+}
@@ -44,7 +44,7 @@ public interface ValidationPath<Happy, Sad, SadAggregate> extends HappyPath<Happ
      * @return A {@link ValidationPath} that is happy on the inside
      */
     static <Happy, Sad, SadAggregate> ValidationPath<Happy, Sad, SadAggregate> validationPathInto(Happy happy, Mapping<List<Sad>, SadAggregate> sadAggregateMapping) {
-        return new HappyCaseValidationPath<>(happy, sadAggregateMapping);
+        return FlowListeners.created(new HappyCaseValidationPath<>(happy, sadAggregateMapping, FlowContext.emptyContext()));
     }
 
     /**
@@ -69,7 +69,7 @@ public interface ValidationPath<Happy, Sad, SadAggregate> extends HappyPath<Happ
      * @return A {@link ValidationPath} that has failed validation
      */
     static <Happy, Sad, SadAggregate> ValidationPath<Happy, Sad, SadAggregate> validationFailure(SadAggregate validationFailures) {
-        return new SadCaseValidationPath<>(validationFailures);
+        return FlowListeners.created(new SadCaseValidationPath<>(validationFailures, FlowContext.emptyContext()));
     }
 
     /**
@@ -82,7 +82,7 @@ public interface ValidationPath<Happy, Sad, SadAggregate> extends HappyPath<Happ
      * @return A {@link ValidationPath} that is a technical failure
      */
     static <Happy, Sad, SadAggregate> ValidationPath<Happy, Sad, SadAggregate> technicalFailure(Exception technicalFailure) {
-        return new TechnicalFailureCaseValidationPath<>(technicalFailure);
+        return FlowListeners.created(new TechnicalFailureCaseValidationPath<>(technicalFailure, FlowContext.emptyContext()));
     }
 
     /**
@@ -153,6 +153,188 @@ public interface ValidationPath<Happy, Sad, SadAggregate> extends HappyPath<Happ
         return validate(happy, Arrays.asList(validators));
     }
 
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, stopping at the first
+     * validator that fails. Only the failures from that validator will be mapped into the {@link SadAggregate} result.
+     * This is cheaper than {@link #validateInto(Object, Mapping, List)} when most inputs are invalid and only the first
+     * reason for rejecting them is needed.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return The result of applying the validators up to and including the first one that fails
+     */
+    static <Happy, Sad, SadAggregate> ValidationPath<Happy, Sad, SadAggregate> validateFirstInto(Happy happy, Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        ValidationPath<Happy, Sad, SadAggregate> happyPath = ValidationPath.validationPathInto(happy, sadAggregateMapping);
+        return happyPath.validateFirst(validators);
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, stopping at the first
+     * validator that fails. Only the failures from that validator will be in the list of {@link Sad} results.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @return The result of applying the validators up to and including the first one that fails
+     */
+    static <Happy, Sad> ValidationPath<Happy, Sad, List<Sad>> validateFirst(Happy happy, List<? extends Validator<Happy, Sad>> validators) {
+        return validateFirstInto(happy, identity(), validators);
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, stopping at the first
+     * validator that fails. Only the failures from that validator will be mapped into the {@link SadAggregate} result.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return The result of applying the validators up to and including the first one that fails
+     */
+    @SafeVarargs
+    static <Happy, Sad, SadAggregate> ValidationPath<Happy, Sad, SadAggregate> validateFirstInto(Happy happy, Mapping<List<Sad>, SadAggregate> sadAggregateMapping, Validator<Happy, Sad>... validators) {
+        return validateFirstInto(happy, sadAggregateMapping, Arrays.asList(validators));
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, stopping at the first
+     * validator that fails. Only the failures from that validator will be in the list of {@link Sad} results.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @return The result of applying the validators up to and including the first one that fails
+     */
+    @SafeVarargs
+    static <Happy, Sad> ValidationPath<Happy, Sad, List<Sad>> validateFirst(Happy happy, Validator<Happy, Sad>... validators) {
+        return validateFirst(happy, Arrays.asList(validators));
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, keeping failures only
+     * until the {@link FailureBudget} is used up. The kept failures, followed by the truncated marker if any were
+     * dropped or validators were not run, will be mapped into the {@link SadAggregate} result.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param failureBudget Limits how many {@link Sad} validation errors are kept
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return The result of applying the validators until the failure budget is used up
+     */
+    static <Happy, Sad, SadAggregate> ValidationPath<Happy, Sad, SadAggregate> validateWithinInto(Happy happy, Mapping<List<Sad>, SadAggregate> sadAggregateMapping, FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators) {
+        ValidationPath<Happy, Sad, SadAggregate> happyPath = ValidationPath.validationPathInto(happy, sadAggregateMapping);
+        return happyPath.validateWithin(failureBudget, validators);
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, keeping failures only
+     * until the {@link FailureBudget} is used up. The kept failures will be in the list of {@link Sad} results,
+     * followed by the truncated marker if any were dropped or validators were not run.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param failureBudget Limits how many {@link Sad} validation errors are kept
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @return The result of applying the validators until the failure budget is used up
+     */
+    static <Happy, Sad> ValidationPath<Happy, Sad, List<Sad>> validateWithin(Happy happy, FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators) {
+        return validateWithinInto(happy, identity(), failureBudget, validators);
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, keeping failures only
+     * until the {@link FailureBudget} is used up. The kept failures, followed by the truncated marker if any were
+     * dropped or validators were not run, will be mapped into the {@link SadAggregate} result.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param failureBudget Limits how many {@link Sad} validation errors are kept
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return The result of applying the validators until the failure budget is used up
+     */
+    @SafeVarargs
+    static <Happy, Sad, SadAggregate> ValidationPath<Happy, Sad, SadAggregate> validateWithinInto(Happy happy, Mapping<List<Sad>, SadAggregate> sadAggregateMapping, FailureBudget<Sad> failureBudget, Validator<Happy, Sad>... validators) {
+        return validateWithinInto(happy, sadAggregateMapping, failureBudget, Arrays.asList(validators));
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the given list of validators over it, keeping failures only
+     * until the {@link FailureBudget} is used up. The kept failures will be in the list of {@link Sad} results,
+     * followed by the truncated marker if any were dropped or validators were not run.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param failureBudget Limits how many {@link Sad} validation errors are kept
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath} may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath} may represent
+     * @return The result of applying the validators until the failure budget is used up
+     */
+    @SafeVarargs
+    static <Happy, Sad> ValidationPath<Happy, Sad, List<Sad>> validateWithin(Happy happy, FailureBudget<Sad> failureBudget, Validator<Happy, Sad>... validators) {
+        return validateWithin(happy, failureBudget, Arrays.asList(validators));
+    }
+
+    /**
+     * Validate each of the given {@link Happy} objects by running the given list of validators over the whole batch,
+     * one validator at a time. The outcome for each object is the same as {@link #validateInto(Object, Mapping, List)}
+     * would produce, except that a {@link BatchValidator} validates the whole batch at once and a technical failure
+     * from it applies to every object it was validating.
+     *
+     * @param batch The {@link Happy} objects to validate
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param validators Actions that act on the happy objects and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath}s may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath}s may represent
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return The result of applying all the validators to each object, in the same order as the batch
+     */
+    static <Happy, Sad, SadAggregate> List<ValidationPath<Happy, Sad, SadAggregate>> validateAllInto(List<? extends Happy> batch, Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        BulkValidation<Happy, Sad> bulkValidation = new BulkValidation<>(batch);
+        for (Validator<Happy, Sad> validator : validators) {
+            bulkValidation.run(validator);
+        }
+        return bulkValidation.outcomes(sadAggregateMapping);
+    }
+
+    /**
+     * Validate each of the given {@link Happy} objects by running the given list of validators over the whole batch,
+     * one validator at a time. The outcome for each object is the same as {@link #validate(Object, List)} would produce,
+     * except that a {@link BatchValidator} validates the whole batch at once and a technical failure from it applies to
+     * every object it was validating.
+     *
+     * @param batch The {@link Happy} objects to validate
+     * @param validators Actions that act on the happy objects and may indicate a validation failure by returning {@link Sad}
+     * @param <Happy> The type of happy  object the resulting {@link ValidationPath}s may represent
+     * @param <Sad> The type of sad object the resulting {@link ValidationPath}s may represent
+     * @return The result of applying all the validators to each object, in the same order as the batch
+     */
+    static <Happy, Sad> List<ValidationPath<Happy, Sad, List<Sad>>> validateAll(List<? extends Happy> batch, List<? extends Validator<Happy, Sad>> validators) {
+        return validateAllInto(batch, identity(), validators);
+    }
+
     /**
      * Perform a subsequent round of validation, which will take place if the previous one succeeded.
      * This can be useful when you want e.g. expensive validators to run after cheap ones, or if you want to group validators together.
@@ -175,6 +357,58 @@ public interface ValidationPath<Happy, Sad, SadAggregate> extends HappyPath<Happ
      */
     ValidationPath<Happy, Sad, SadAggregate> validateInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators);
 
+    /**
+     * Perform a subsequent round of validation, which will take place if the previous one succeeded.
+     * The round stops at the first validator that fails and only the failures from that validator are aggregated.
+     *
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @return The result of applying the validators up to and including the first one that fails
+     */
+    ValidationPath<Happy, Sad, SadAggregate> validateFirst(List<? extends Validator<Happy, Sad>> validators);
+
+    /**
+     * Perform a subsequent round of validation, which will take place if the previous one succeeded.
+     * The round stops at the first validator that fails and only the failures from that validator are aggregated.
+     *
+     * This method changes the {@link SadAggregate} mapping.
+     *
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @return The result of applying the validators up to and including the first one that fails
+     */
+    ValidationPath<Happy, Sad, SadAggregate> validateFirstInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators);
+
+    /**
+     * Perform a subsequent round of validation, which will take place if the previous one succeeded.
+     * The round keeps failures only until the {@link FailureBudget} is used up, then stops running validators and adds
+     * the truncated marker.
+     *
+     * @param failureBudget Limits how many {@link Sad} validation errors are kept
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @return The result of applying the validators until the failure budget is used up
+     */
+    ValidationPath<Happy, Sad, SadAggregate> validateWithin(FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators);
+
+    /**
+     * Perform a subsequent round of validation, which will take place if the previous one succeeded.
+     * The round keeps failures only until the {@link FailureBudget} is used up, then stops running validators and adds
+     * the truncated marker.
+     *
+     * This method changes the {@link SadAggregate} mapping.
+     *
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param failureBudget Limits how many {@link Sad} validation errors are kept
+     * @param validators Actions that act on the happy object and may indicate a validation failure by returning {@link Sad}
+     * @return The result of applying the validators until the failure budget is used up
+     */
+    ValidationPath<Happy, Sad, SadAggregate> validateWithinInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, FailureBudget<Sad> failureBudget, List<? extends Validator<Happy, Sad>> validators);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    ValidationPath<Happy, Sad, SadAggregate> withContext(FlowContext context);
+
     /**
      * Helper method to turn an array of {@link Validator} into a list of {@link Validator}.
      *
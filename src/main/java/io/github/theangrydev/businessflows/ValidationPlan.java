@@ -0,0 +1,254 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static io.github.theangrydev.businessflows.Mapping.identity;
+
+/**
+ * A list of validators that has been compiled ahead of time so that validating is cheap.
+ * <p>
+ * Any {@link FieldValidator} in the list, including ones nested inside other {@link FieldValidator}s, is flattened
+ * into a single array of steps that extract fields and run validators. Running the plan does not create any
+ * intermediate {@link ValidationPath} objects for the fields and collects every failure into a single list.
+ * </p>
+ * <p>
+ * Each field is extracted at most once per validation: {@link FieldValidator}s with the same (or equal) field extractor
+ * applied to the same object share the extracted value, as do all the {@link SharedField}s derived from the same
+ * {@link SharedField}.
+ * </p>
+ * The result of {@link #validate(Object)} is the same as {@link ValidationPath#validateInto(Object, Mapping, List)}
+ * with the same validators, including the failure order. This includes the existing behaviour of {@link FieldValidator}
+ * when a validator of the field has a technical failure: the field is treated as valid.
+ *
+ * @param <Happy> The type to validate
+ * @param <Sad> The type of validation failure
+ * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+ */
+public class ValidationPlan<Happy, Sad, SadAggregate> {
+    private static final int TOP_LEVEL = 0;
+    private static final int VALIDATION = -1;
+
+    private final Mapping<List<Sad>, SadAggregate> sadAggregateMapping;
+    private final Step[] steps;
+    private final Group[] groups;
+    private final Slot[] slots;
+
+    private ValidationPlan(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, Step[] steps, Group[] groups, Slot[] slots) {
+        this.sadAggregateMapping = sadAggregateMapping;
+        this.steps = steps;
+        this.groups = groups;
+        this.slots = slots;
+    }
+
+    /**
+     * Compile a {@link ValidationPlan} that aggregates failures into the {@link SadAggregate}.
+     *
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param validators The validators to compile
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return The compiled plan
+     */
+    public static <Happy, Sad, SadAggregate> ValidationPlan<Happy, Sad, SadAggregate> validationPlanInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        Compiler compiler = new Compiler();
+        compiler.compile(compiler.addGroup(TOP_LEVEL), validators);
+        return new ValidationPlan<>(sadAggregateMapping, compiler.steps.toArray(new Step[0]), compiler.groups.toArray(new Group[0]), compiler.slots.toArray(new Slot[0]));
+    }
+
+    /**
+     * Compile a {@link ValidationPlan} that aggregates failures into a list of {@link Sad}.
+     *
+     * @param validators The validators to compile
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return The compiled plan
+     */
+    public static <Happy, Sad> ValidationPlan<Happy, Sad, List<Sad>> validationPlan(List<? extends Validator<Happy, Sad>> validators) {
+        return validationPlanInto(identity(), validators);
+    }
+
+    /**
+     * Validate the given {@link Happy} object by running the plan over it.
+     * All validators that fail will be accumulated into the {@link SadAggregate} result.
+     * The first technical failure encountered will result in a technical failure overall.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @return The result of applying all the validators
+     */
+    @SuppressWarnings("unchecked") // The compiler only connects steps whose types line up
+    public ValidationPath<Happy, Sad, SadAggregate> validate(Happy happy) {
+        Object[] slotValues = new Object[slots.length];
+        boolean[] extracted = new boolean[slots.length];
+        int[] groupFailureStarts = new int[groups.length];
+        slotValues[TOP_LEVEL] = happy;
+        extracted[TOP_LEVEL] = true;
+        List<Sad> validationFailures = null;
+        int stepIndex = 0;
+        while (stepIndex < steps.length) {
+            Step step = steps[stepIndex];
+            try {
+                if (step.fieldGroup == VALIDATION) {
+                    Object value = slotValues[groups[step.group].slot];
+                    List<Sad> failures = ((Validator<Object, Sad>) step.validator).attempt(value).sadOrNull();
+                    if (failures != null && !failures.isEmpty()) {
+                        if (validationFailures == null) {
+                            validationFailures = new ArrayList<>();
+                        }
+                        validationFailures.addAll(failures);
+                    }
+                } else {
+                    extract(groups[step.fieldGroup].slot, slotValues, extracted);
+                    groupFailureStarts[step.fieldGroup] = validationFailures == null ? 0 : validationFailures.size();
+                }
+                stepIndex++;
+            } catch (Exception technicalFailure) {
+                if (step.group == TOP_LEVEL) {
+                    return ValidationPath.technicalFailure(technicalFailure);
+                }
+                if (validationFailures != null) {
+                    validationFailures.subList(groupFailureStarts[step.group], validationFailures.size()).clear();
+                }
+                stepIndex = groups[step.group].end;
+            }
+        }
+        if (validationFailures == null || validationFailures.isEmpty()) {
+            return ValidationPath.validationPathInto(happy, sadAggregateMapping);
+        }
+        try {
+            return ValidationPath.validationFailure(sadAggregateMapping.map(validationFailures));
+        } catch (Exception technicalFailure) {
+            return ValidationPath.technicalFailure(technicalFailure);
+        }
+    }
+
+    private Object extract(int slot, Object[] slotValues, boolean[] extracted) throws Exception {
+        if (!extracted[slot]) {
+            Slot field = slots[slot];
+            slotValues[slot] = field.fieldExtractor.map(extract(field.input, slotValues, extracted));
+            extracted[slot] = true;
+        }
+        return slotValues[slot];
+    }
+
+    private static final class Step {
+        private final int group;
+        private final Validator<?, ?> validator;
+        private final int fieldGroup;
+
+        Step(int group, Validator<?, ?> validator, int fieldGroup) {
+            this.group = group;
+            this.validator = validator;
+            this.fieldGroup = fieldGroup;
+        }
+    }
+
+    private static final class Group {
+        private final int slot;
+        private int end;
+
+        Group(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    private static final class Slot {
+        private final Mapping<Object, Object> fieldExtractor;
+        private final int input;
+
+        Slot(Mapping<Object, Object> fieldExtractor, int input) {
+            this.fieldExtractor = fieldExtractor;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            Slot slot = (Slot) other;
+            return input == slot.input && Objects.equals(fieldExtractor, slot.fieldExtractor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fieldExtractor, input);
+        }
+    }
+
+    private static final class Compiler {
+        private final List<Step> steps = new ArrayList<>();
+        private final List<Group> groups = new ArrayList<>();
+        private final List<Slot> slots = new ArrayList<>();
+        private final Map<Slot, Integer> slotIndexes = new HashMap<>();
+
+        Compiler() {
+            slots.add(new Slot(null, TOP_LEVEL));
+        }
+
+        @SuppressWarnings("unchecked") // Each field extractor feeds the validators of the same field
+        void compile(int group, List<?> validators) {
+            for (Object validator : validators) {
+                if (validator instanceof FieldValidator) {
+                    FieldValidator<Object, ?, Object> fieldValidator = (FieldValidator<Object, ?, Object>) validator;
+                    int fieldGroup = addGroup(slotFor(fieldValidator.fieldExtractor(), groups.get(group).slot));
+                    steps.add(new Step(group, null, fieldGroup));
+                    compile(fieldGroup, fieldValidator.fieldValidators());
+                } else {
+                    steps.add(new Step(group, (Validator<?, ?>) validator, VALIDATION));
+                }
+            }
+            groups.get(group).end = steps.size();
+        }
+
+        int addGroup(int slot) {
+            groups.add(new Group(slot));
+            return groups.size() - 1;
+        }
+
+        private int slotFor(Mapping<Object, Object> fieldExtractor, int input) {
+            if (fieldExtractor instanceof SharedField) {
+                SharedField<?, ?> sharedField = (SharedField<?, ?>) fieldExtractor;
+                int parentSlot = sharedField.parent() == null ? input : slotFor(sharedField.parent(), input);
+                return slotFor(new Slot(sharedField.fieldExtractor(), parentSlot));
+            }
+            return slotFor(new Slot(fieldExtractor, input));
+        }
+
+        @SuppressWarnings("unchecked") // A shared field maps from the Happy object of the group it is used in
+        private int slotFor(SharedField<?, ?> sharedField, int input) {
+            return slotFor((Mapping<Object, Object>) (Mapping<?, ?>) sharedField, input);
+        }
+
+        private int slotFor(Slot slot) {
+            return slotIndexes.computeIfAbsent(slot, newSlot -> {
+                slots.add(newSlot);
+                return slots.size() - 1;
+            });
+        }
+    }
+}
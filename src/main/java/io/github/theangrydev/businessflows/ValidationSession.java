@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import static io.github.theangrydev.businessflows.Mapping.identity;
+
+/**
+ * Validates successive versions of the same object, e.g. a form that is being edited, re-running only the
+ * {@link FieldValidator}s whose field has changed since the previous validation.
+ * <p>
+ * The session remembers the field and the failures of each top level {@link FieldValidator}. A {@link FieldValidator}
+ * is re-run if its field has changed, either according to the names of the changed fields (for a
+ * {@link FieldValidator} that was given a name) or by comparing the extracted field to the previous one with
+ * {@link Object#equals(Object)}. Fields compared this way should be immutable values. Any other {@link Validator} is
+ * always re-run, since it may depend on the whole object.
+ * </p>
+ * If a validation results in a technical failure, the session forgets everything so that the next validation runs
+ * every validator. A session is not thread safe.
+ *
+ * @param <Happy> The type to validate
+ * @param <Sad> The type of validation failure
+ * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+ */
+public class ValidationSession<Happy, Sad, SadAggregate> {
+    private static final Object NOT_EXTRACTED = new Object();
+
+    private final Mapping<List<Sad>, SadAggregate> sadAggregateMapping;
+    private final List<? extends Validator<Happy, Sad>> validators;
+    private final Object[] previousFields;
+    private final List<List<Sad>> previousFailures;
+
+    private boolean validated;
+
+    private ValidationSession(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        this.sadAggregateMapping = sadAggregateMapping;
+        this.validators = validators;
+        this.previousFields = new Object[validators.size()];
+        this.previousFailures = new ArrayList<>(validators.size());
+        for (int index = 0; index < validators.size(); index++) {
+            previousFailures.add(null);
+        }
+    }
+
+    /**
+     * Start a {@link ValidationSession} that aggregates failures into the {@link SadAggregate}.
+     *
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param validators The validators to run
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return A session that has not validated anything yet
+     */
+    public static <Happy, Sad, SadAggregate> ValidationSession<Happy, Sad, SadAggregate> validationSessionInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<? extends Validator<Happy, Sad>> validators) {
+        return new ValidationSession<>(sadAggregateMapping, validators);
+    }
+
+    /**
+     * Start a {@link ValidationSession} that aggregates failures into a list of {@link Sad}.
+     *
+     * @param validators The validators to run
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return A session that has not validated anything yet
+     */
+    public static <Happy, Sad> ValidationSession<Happy, Sad, List<Sad>> validationSession(List<? extends Validator<Happy, Sad>> validators) {
+        return validationSessionInto(identity(), validators);
+    }
+
+    /**
+     * Validate the given {@link Happy} object, re-running only the {@link FieldValidator}s whose extracted field is not
+     * equal to the one from the previous validation.
+     * The result is the same as {@link ValidationPath#validateInto(Object, Mapping, List)}.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @return The result of applying all the validators
+     */
+    public ValidationPath<Happy, Sad, SadAggregate> validate(Happy happy) {
+        return validate(happy, null);
+    }
+
+    /**
+     * Validate the given {@link Happy} object, which has changed only in the given fields since the previous validation.
+     * A {@link FieldValidator} that was given a name is only re-run if its name is one of the changed fields, and its
+     * field is not even extracted otherwise. A {@link FieldValidator} without a name is re-run if its extracted field
+     * is not equal to the one from the previous validation.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param changedFieldNames The names of the fields that have changed since the previous validation
+     * @return The result of applying all the validators
+     */
+    public ValidationPath<Happy, Sad, SadAggregate> revalidate(Happy happy, Collection<?> changedFieldNames) {
+        return validate(happy, changedFieldNames);
+    }
+
+    @SuppressWarnings("unchecked") // A field validator validates the field that it extracts
+    private ValidationPath<Happy, Sad, SadAggregate> validate(Happy happy, Collection<?> changedFieldNames) {
+        List<Sad> validationFailures = new ArrayList<>();
+        for (int index = 0; index < validators.size(); index++) {
+            Validator<Happy, Sad> validator = validators.get(index);
+            List<Sad> failures;
+            try {
+                if (validator instanceof FieldValidator) {
+                    failures = validateField(index, (FieldValidator<Happy, Sad, Object>) validator, happy, changedFieldNames);
+                } else {
+                    failures = validator.attempt(happy).sadOrNull();
+                }
+            } catch (Exception technicalFailure) {
+                validated = false;
+                return ValidationPath.technicalFailure(technicalFailure);
+            }
+            previousFailures.set(index, failures);
+            if (failures != null) {
+                validationFailures.addAll(failures);
+            }
+        }
+        validated = true;
+        if (validationFailures.isEmpty()) {
+            return ValidationPath.validationPathInto(happy, sadAggregateMapping);
+        }
+        try {
+            return ValidationPath.validationFailure(sadAggregateMapping.map(validationFailures));
+        } catch (Exception technicalFailure) {
+            return ValidationPath.technicalFailure(technicalFailure);
+        }
+    }
+
+    private List<Sad> validateField(int index, FieldValidator<Happy, Sad, Object> fieldValidator, Happy happy, Collection<?> changedFieldNames) throws Exception {
+        if (validated && changedFieldNames != null && fieldValidator.fieldName() != null && !changedFieldNames.contains(fieldValidator.fieldName())) {
+            previousFields[index] = NOT_EXTRACTED;
+            return previousFailures.get(index);
+        }
+        Object field = fieldValidator.fieldExtractor().map(happy);
+        if (validated && previousFields[index] != NOT_EXTRACTED && Objects.equals(field, previousFields[index])) {
+            return previousFailures.get(index);
+        }
+        previousFields[index] = field;
+        return fieldValidator.validateField(field).sadOrNull();
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static io.github.theangrydev.businessflows.Mapping.identity;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * A set of named validators where a validator can declare other validators as its prerequisites.
+ * <p>
+ * A validator only runs if all of its prerequisites ran and passed; otherwise it is skipped without being called. This
+ * is useful when e.g. an expensive lookup only makes sense once a cheap format check has passed. Prerequisites must be
+ * declared before the validators that depend on them, so the graph can never have a cycle.
+ * </p>
+ * Failures are always aggregated in the order that the validators were declared, whether the graph is validated on the
+ * calling thread with {@link #validate(Object)} or with independent validators running concurrently using
+ * {@link #validateAsync(Object, Executor)}. If there are technical failures, the outcome is the technical failure of
+ * the first validator in declaration order that had one.
+ *
+ * @param <Happy> The type to validate
+ * @param <Sad> The type of validation failure
+ * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+ */
+public class ValidatorGraph<Happy, Sad, SadAggregate> {
+    private final Mapping<List<Sad>, SadAggregate> sadAggregateMapping;
+    private final List<Node<Happy, Sad>> nodes;
+    private final Map<String, Integer> nodeIndexes;
+
+    private ValidatorGraph(Mapping<List<Sad>, SadAggregate> sadAggregateMapping, List<Node<Happy, Sad>> nodes, Map<String, Integer> nodeIndexes) {
+        this.sadAggregateMapping = sadAggregateMapping;
+        this.nodes = nodes;
+        this.nodeIndexes = nodeIndexes;
+    }
+
+    /**
+     * Start an empty {@link ValidatorGraph} that aggregates failures into the {@link SadAggregate}.
+     *
+     * @param sadAggregateMapping The list of {@link Sad} validation errors will be mapped to the {@link SadAggregate}
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @param <SadAggregate> The type that the list of {@link Sad} validation errors will be aggregated into
+     * @return A graph with no validators
+     */
+    public static <Happy, Sad, SadAggregate> ValidatorGraph<Happy, Sad, SadAggregate> validatorGraphInto(Mapping<List<Sad>, SadAggregate> sadAggregateMapping) {
+        return new ValidatorGraph<>(sadAggregateMapping, unmodifiableList(new ArrayList<>()), unmodifiableMap(new HashMap<>()));
+    }
+
+    /**
+     * Start an empty {@link ValidatorGraph} that aggregates failures into a list of {@link Sad}.
+     *
+     * @param <Happy> The type to validate
+     * @param <Sad> The type of validation failure
+     * @return A graph with no validators
+     */
+    public static <Happy, Sad> ValidatorGraph<Happy, Sad, List<Sad>> validatorGraph() {
+        return validatorGraphInto(identity());
+    }
+
+    /**
+     * Add a validator to the graph.
+     *
+     * @param name The name of the validator, which must be unique in the graph
+     * @param validator The validator
+     * @param prerequisites The names of validators that must pass before this one runs, which must already be in the
+     *                      graph
+     * @return A new graph with the validator added
+     */
+    public ValidatorGraph<Happy, Sad, SadAggregate> validator(String name, Validator<Happy, Sad> validator, String... prerequisites) {
+        if (nodeIndexes.containsKey(name)) {
+            throw new IllegalArgumentException("The validator '" + name + "' has already been declared");
+        }
+        int[] prerequisiteIndexes = new int[prerequisites.length];
+        for (int index = 0; index < prerequisites.length; index++) {
+            Integer prerequisiteIndex = nodeIndexes.get(prerequisites[index]);
+            if (prerequisiteIndex == null) {
+                throw new IllegalArgumentException("The prerequisite '" + prerequisites[index] + "' of '" + name + "' must be declared before it");
+            }
+            prerequisiteIndexes[index] = prerequisiteIndex;
+        }
+        List<Node<Happy, Sad>> newNodes = new ArrayList<>(nodes);
+        newNodes.add(new Node<>(validator, prerequisiteIndexes));
+        Map<String, Integer> newNodeIndexes = new HashMap<>(nodeIndexes);
+        newNodeIndexes.put(name, nodes.size());
+        return new ValidatorGraph<>(sadAggregateMapping, unmodifiableList(newNodes), unmodifiableMap(newNodeIndexes));
+    }
+
+    /**
+     * Validate the given {@link Happy} object on the calling thread, running the validators in declaration order.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @return The result of applying the validators whose prerequisites passed
+     */
+    public ValidationPath<Happy, Sad, SadAggregate> validate(Happy happy) {
+        List<Outcome<Sad>> outcomes = new ArrayList<>(nodes.size());
+        for (Node<Happy, Sad> node : nodes) {
+            Outcome<Sad> outcome = prerequisitesPassed(node, outcomes) ? attempt(node, happy) : Outcome.skipped();
+            if (outcome.technicalFailure != null) {
+                return ValidationPath.technicalFailure(outcome.technicalFailure);
+            }
+            outcomes.add(outcome);
+        }
+        return aggregate(happy, outcomes);
+    }
+
+    /**
+     * Validate the given {@link Happy} object, running each validator on the given {@link Executor} as soon as all of
+     * its prerequisites have passed, so that independent validators run concurrently.
+     *
+     * @param happy The {@link Happy} object to validate
+     * @param executor Runs the validators
+     * @return A future that is completed with the result of applying the validators whose prerequisites passed
+     */
+    public CompletableFuture<ValidationPath<Happy, Sad, SadAggregate>> validateAsync(Happy happy, Executor executor) {
+        List<CompletableFuture<Outcome<Sad>>> futures = new ArrayList<>(nodes.size());
+        for (Node<Happy, Sad> node : nodes) {
+            List<CompletableFuture<Outcome<Sad>>> prerequisites = new ArrayList<>(node.prerequisites.length);
+            for (int prerequisite : node.prerequisites) {
+                prerequisites.add(futures.get(prerequisite));
+            }
+            futures.add(CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[0])).thenCompose(ignored -> {
+                if (prerequisites.stream().allMatch(prerequisite -> prerequisite.join().passed())) {
+                    return attemptOn(executor, node, happy);
+                }
+                return CompletableFuture.completedFuture(Outcome.skipped());
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<Outcome<Sad>> outcomes = new ArrayList<>(futures.size());
+            for (CompletableFuture<Outcome<Sad>> future : futures) {
+                Outcome<Sad> outcome = future.join();
+                if (outcome.technicalFailure != null) {
+                    return ValidationPath.technicalFailure(outcome.technicalFailure);
+                }
+                outcomes.add(outcome);
+            }
+            return aggregate(happy, outcomes);
+        });
+    }
+
+    private CompletableFuture<Outcome<Sad>> attemptOn(Executor executor, Node<Happy, Sad> node, Happy happy) {
+        try {
+            return CompletableFuture.supplyAsync(() -> attempt(node, happy), executor);
+        } catch (RejectedExecutionException rejected) {
+            return CompletableFuture.completedFuture(Outcome.technicalFailure(rejected));
+        }
+    }
+
+    private boolean prerequisitesPassed(Node<Happy, Sad> node, List<Outcome<Sad>> outcomes) {
+        for (int prerequisite : node.prerequisites) {
+            if (!outcomes.get(prerequisite).passed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Outcome<Sad> attempt(Node<Happy, Sad> node, Happy happy) {
+        try {
+            return Outcome.ran(node.validator.attempt(happy).sadOrNull());
+        } catch (Exception technicalFailure) {
+            return Outcome.technicalFailure(technicalFailure);
+        }
+    }
+
+    private ValidationPath<Happy, Sad, SadAggregate> aggregate(Happy happy, List<Outcome<Sad>> outcomes) {
+        List<Sad> validationFailures = new ArrayList<>();
+        for (Outcome<Sad> outcome : outcomes) {
+            if (outcome.failures != null) {
+                validationFailures.addAll(outcome.failures);
+            }
+        }
+        if (validationFailures.isEmpty()) {
+            return ValidationPath.validationPathInto(happy, sadAggregateMapping);
+        }
+        try {
+            return ValidationPath.validationFailure(sadAggregateMapping.map(validationFailures));
+        } catch (Exception technicalFailure) {
+            return ValidationPath.technicalFailure(technicalFailure);
+        }
+    }
+
+    private static final class Node<Happy, Sad> {
+        private final Validator<Happy, Sad> validator;
+        private final int[] prerequisites;
+
+        Node(Validator<Happy, Sad> validator, int[] prerequisites) {
+            this.validator = validator;
+            this.prerequisites = prerequisites;
+        }
+    }
+
+    private static final class Outcome<Sad> {
+        private final boolean ran;
+        private final List<Sad> failures;
+        private final Exception technicalFailure;
+
+        private Outcome(boolean ran, List<Sad> failures, Exception technicalFailure) {
+            this.ran = ran;
+            this.failures = failures;
+            this.technicalFailure = technicalFailure;
+        }
+
+        static <Sad> Outcome<Sad> ran(List<Sad> failures) {
+            return new Outcome<>(true, failures, null);
+        }
+
+        static <Sad> Outcome<Sad> skipped() {
+            return new Outcome<>(false, null, null);
+        }
+
+        static <Sad> Outcome<Sad> technicalFailure(Exception technicalFailure) {
+            return new Outcome<>(true, null, technicalFailure);
+        }
+
+        boolean passed() {
+            return ran && technicalFailure == null && (failures == null || failures.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import static java.lang.String.format;
+
+/**
+ * An immutable copy of the statistics recorded for a validator by {@link ValidatorStatistics}.
+ */
+public final class ValidatorSnapshot {
+    private final long invocations;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long failures;
+    private final long exceptions;
+
+    ValidatorSnapshot(long invocations, long totalNanos, long maxNanos, long failures, long exceptions) {
+        this.invocations = invocations;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.failures = failures;
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * @return The number of times the validator ran
+     */
+    public long invocations() {
+        return invocations;
+    }
+
+    /**
+     * @return The total time the validator took, in nanoseconds
+     */
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return The longest time a single invocation took, in nanoseconds
+     */
+    public long maxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return The average time an invocation took, in nanoseconds, or 0 if the validator never ran
+     */
+    public double averageNanos() {
+        return invocations == 0 ? 0 : (double) totalNanos / invocations;
+    }
+
+    /**
+     * @return The number of invocations that produced at least one validation failure
+     */
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * @return The fraction of invocations that produced at least one validation failure, or 0 if the validator never ran
+     */
+    public double failureRate() {
+        return invocations == 0 ? 0 : (double) failures / invocations;
+    }
+
+    /**
+     * @return The number of invocations that threw an exception
+     */
+    public long exceptions() {
+        return exceptions;
+    }
+
+    @Override
+    public String toString() {
+        return format("invocations=%d, totalNanos=%d, maxNanos=%d, failures=%d, exceptions=%d", invocations, totalNanos, maxNanos, failures, exceptions);
+    }
+}
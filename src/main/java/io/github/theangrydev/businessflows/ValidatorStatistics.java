@@ -0,0 +1,242 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Records how much each {@link Validator} costs and how often it fails, so that validators that dominate the cost of
+ * validation, or that never fail, can be found and pruned or reordered.
+ * <p>
+ * Validators are instrumented with {@link #instrument(String, Validator)} and identified by name; a
+ * {@link FieldValidator} that was given a field name is identified by that name. For each name the statistics record
+ * the number of invocations, the total and maximum time taken, how many invocations produced validation failures and
+ * how many threw an exception.
+ * </p>
+ * <p>
+ * An instrumented {@link FieldValidator} is still a {@link FieldValidator}, so that e.g. a {@link ValidationPlan} can
+ * still share its field and a {@link FailureBudget} can still limit it. The validators of the field are instrumented
+ * instead of the field as a whole, so its statistics count each of them: an invocation is one validator of the field
+ * validating it. Nested {@link FieldValidator}s that were given a field name are recorded under their own name.
+ * </p>
+ * Each thread records into its own accumulators, which are only merged when a snapshot is taken, so instrumented
+ * validators that run on many threads do not contend with each other. The accumulators of threads that have ended
+ * are folded together when another thread starts recording or a snapshot is taken. The statistics are cumulative.
+ */
+public class ValidatorStatistics {
+    private static final int INVOCATIONS = 0;
+    private static final int TOTAL_NANOS = 1;
+    private static final int MAX_NANOS = 2;
+    private static final int FAILURES = 3;
+    private static final int EXCEPTIONS = 4;
+    private static final int COUNTERS = 5;
+
+    private final ConcurrentMap<String, Accumulators> accumulators = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    ValidatorStatistics(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return New, empty {@link ValidatorStatistics}
+     */
+    public static ValidatorStatistics validatorStatistics() {
+        return new ValidatorStatistics(System::nanoTime);
+    }
+
+    /**
+     * Instrument a validator so that its statistics are recorded under the given name. Validators instrumented with
+     * the same name share their statistics.
+     *
+     * @param name The name to record the statistics under
+     * @param validator The validator to instrument
+     * @param <Happy> The type the validator validates
+     * @param <Sad> The type of validation failure
+     * @return A {@link Validator} that validates the same way and records statistics
+     */
+    public <Happy, Sad> Validator<Happy, Sad> instrument(String name, Validator<Happy, Sad> validator) {
+        if (validator instanceof FieldValidator) {
+            return instrumentField(name, (FieldValidator<Happy, Sad, ?>) validator);
+        }
+        Accumulators validatorAccumulators = accumulators.computeIfAbsent(name, validatorName -> new Accumulators());
+        return happy -> {
+            AtomicLongArray counters = validatorAccumulators.forCurrentThread.get();
+            long start = nanoClock.getAsLong();
+            PotentialFailure<List<Sad>> potentialFailure;
+            try {
+                potentialFailure = validator.attempt(happy);
+            } catch (Exception exception) {
+                record(counters, nanoClock.getAsLong() - start, EXCEPTIONS);
+                throw exception;
+            }
+            List<Sad> validationFailures = potentialFailure.sadOrNull();
+            record(counters, nanoClock.getAsLong() - start, validationFailures == null || validationFailures.isEmpty() ? -1 : FAILURES);
+            return potentialFailure;
+        };
+    }
+
+    /**
+     * Instrument a validator, recording its statistics under its field name if it is a {@link FieldValidator} that
+     * was given one, or else under the name of its class.
+     *
+     * @param validator The validator to instrument
+     * @param <Happy> The type the validator validates
+     * @param <Sad> The type of validation failure
+     * @return A {@link Validator} that validates the same way and records statistics
+     */
+    public <Happy, Sad> Validator<Happy, Sad> instrument(Validator<Happy, Sad> validator) {
+        return instrument(nameOf(validator), validator);
+    }
+
+    /**
+     * Instrument each of a list of validators, naming them as {@link #instrument(Validator)} does.
+     *
+     * @param validators The validators to instrument
+     * @param <Happy> The type the validators validate
+     * @param <Sad> The type of validation failure
+     * @return The instrumented validators, in the same order, e.g. to pass to {@link ValidationPath#validate(Object, List)}
+     */
+    public <Happy, Sad> List<Validator<Happy, Sad>> instrument(List<? extends Validator<Happy, Sad>> validators) {
+        List<Validator<Happy, Sad>> instrumented = new ArrayList<>(validators.size());
+        for (Validator<Happy, Sad> validator : validators) {
+            instrumented.add(instrument(validator));
+        }
+        return instrumented;
+    }
+
+    private <Happy, Sad, Field> FieldValidator<Happy, Sad, Field> instrumentField(String name, FieldValidator<Happy, Sad, Field> fieldValidator) {
+        List<Validator<Field, Sad>> instrumented = new ArrayList<>(fieldValidator.fieldValidators().size());
+        for (Validator<Field, Sad> validator : fieldValidator.fieldValidators()) {
+            instrumented.add(instrument(hasFieldName(validator) ? nameOf(validator) : name, validator));
+        }
+        return fieldValidator.withFieldValidators(instrumented);
+    }
+
+    /**
+     * @param name The name the statistics were recorded under
+     * @return How many threads have accumulators for the name, including threads that have ended since they were
+     * last folded together
+     */
+    int threadsRecording(String name) {
+        Accumulators validatorAccumulators = accumulators.get(name);
+        return validatorAccumulators == null ? 0 : validatorAccumulators.allThreads.size();
+    }
+
+    /**
+     * @param name The name the statistics were recorded under
+     * @return The statistics recorded so far, which are all zero if nothing was recorded under the name
+     */
+    public ValidatorSnapshot snapshot(String name) {
+        Accumulators validatorAccumulators = accumulators.get(name);
+        return validatorAccumulators == null ? new ValidatorSnapshot(0, 0, 0, 0, 0) : validatorAccumulators.merge();
+    }
+
+    /**
+     * @return The statistics recorded so far for every name, by name
+     */
+    public Map<String, ValidatorSnapshot> snapshot() {
+        Map<String, ValidatorSnapshot> snapshot = new TreeMap<>();
+        accumulators.forEach((name, validatorAccumulators) -> snapshot.put(name, validatorAccumulators.merge()));
+        return snapshot;
+    }
+
+    private static String nameOf(Validator<?, ?> validator) {
+        if (hasFieldName(validator)) {
+            return String.valueOf(((FieldValidator<?, ?, ?>) validator).fieldName());
+        }
+        return validator.getClass().getName();
+    }
+
+    private static boolean hasFieldName(Validator<?, ?> validator) {
+        return validator instanceof FieldValidator && ((FieldValidator<?, ?, ?>) validator).fieldName() != null;
+    }
+
+    // Each array is only written by its own thread, so lazySet is enough to publish the counts to a snapshot
+    private static void record(AtomicLongArray counters, long nanos, int outcome) {
+        counters.lazySet(INVOCATIONS, counters.get(INVOCATIONS) + 1);
+        counters.lazySet(TOTAL_NANOS, counters.get(TOTAL_NANOS) + nanos);
+        if (nanos > counters.get(MAX_NANOS)) {
+            counters.lazySet(MAX_NANOS, nanos);
+        }
+        if (outcome >= 0) {
+            counters.lazySet(outcome, counters.get(outcome) + 1);
+        }
+    }
+
+    private static final class Accumulators {
+        private final Queue<ThreadCounters> allThreads = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<AtomicLongArray> forCurrentThread = ThreadLocal.withInitial(this::newThreadCounters);
+        // The counts of the threads that have ended, guarded by this
+        private final long[] endedThreads = new long[COUNTERS];
+
+        private AtomicLongArray newThreadCounters() {
+            foldEndedThreads();
+            ThreadCounters threadCounters = new ThreadCounters(Thread.currentThread());
+            allThreads.add(threadCounters);
+            return threadCounters.counters;
+        }
+
+        synchronized ValidatorSnapshot merge() {
+            foldEndedThreads();
+            long[] merged = endedThreads.clone();
+            for (ThreadCounters threadCounters : allThreads) {
+                add(merged, threadCounters.counters);
+            }
+            return new ValidatorSnapshot(merged[INVOCATIONS], merged[TOTAL_NANOS], merged[MAX_NANOS], merged[FAILURES], merged[EXCEPTIONS]);
+        }
+
+        // A thread that has ended will not write to its counters again, and seeing that it has ended also makes its writes visible
+        private synchronized void foldEndedThreads() {
+            for (Iterator<ThreadCounters> iterator = allThreads.iterator(); iterator.hasNext(); ) {
+                ThreadCounters threadCounters = iterator.next();
+                if (!threadCounters.thread.isAlive()) {
+                    add(endedThreads, threadCounters.counters);
+                    iterator.remove();
+                }
+            }
+        }
+
+        private static void add(long[] merged, AtomicLongArray counters) {
+            merged[INVOCATIONS] += counters.get(INVOCATIONS);
+            merged[TOTAL_NANOS] += counters.get(TOTAL_NANOS);
+            merged[MAX_NANOS] = Math.max(merged[MAX_NANOS], counters.get(MAX_NANOS));
+            merged[FAILURES] += counters.get(FAILURES);
+            merged[EXCEPTIONS] += counters.get(EXCEPTIONS);
+        }
+    }
+
+    private static final class ThreadCounters {
+        private final Thread thread;
+        private final AtomicLongArray counters = new AtomicLongArray(COUNTERS);
+
+        ThreadCounters(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+/**
+ * Emits JDK Flight Recorder events for flow stages, technical failures and validation rounds.
+ * <p>
+ * Each event is only timed and committed if it is enabled in a running recording, so when nothing is recording the
+ * cost is an {@code isEnabled()} check on an event that escape analysis can remove.
+ * </p>
+ */
+final class FlowEvents {
+
+    private FlowEvents() {
+    }
+
+    static Object stageStarted() {
+        FlowStageEvent event = new FlowStageEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static <Flow> Flow stageEnded(Object stage, FlowOperation operation, BusinessFlow<?, ?, ?> before, Flow after) {
+        if (stage != null) {
+            FlowStageEvent event = (FlowStageEvent) stage;
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation.name();
+                event.outcome = outcome(after);
+                event.commit();
+            }
+        }
+        if (after instanceof TechnicalFailureCase && isNewTechnicalFailure(before, (TechnicalFailureCase<?, ?>) after)) {
+            technicalFailure(operation, ((TechnicalFailureCase<?, ?>) after).technicalFailure);
+        }
+        return after;
+    }
+
+    static Object validationStarted() {
+        ValidationEvent event = new ValidationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static <Flow> Flow validationEnded(Object validation, int validators, int failures, Flow after) {
+        if (validation != null) {
+            ValidationEvent event = (ValidationEvent) validation;
+            event.end();
+            if (event.shouldCommit()) {
+                event.validators = validators;
+                event.failures = failures;
+                event.outcome = outcome(after);
+                event.commit();
+            }
+        }
+        if (after instanceof TechnicalFailureCase) {
+            technicalFailure(FlowOperation.VALIDATE, ((TechnicalFailureCase<?, ?>) after).technicalFailure);
+        }
+        return after;
+    }
+
+    private static boolean isNewTechnicalFailure(BusinessFlow<?, ?, ?> before, TechnicalFailureCase<?, ?> after) {
+        return !(before instanceof TechnicalFailureCase) || ((TechnicalFailureCase<?, ?>) before).technicalFailure != after.technicalFailure;
+    }
+
+    private static void technicalFailure(FlowOperation operation, Exception technicalFailure) {
+        TechnicalFailureEvent event = new TechnicalFailureEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation.name();
+            event.exceptionClass = technicalFailure.getClass();
+            event.message = technicalFailure.getMessage();
+            event.commit();
+        }
+    }
+
+    private static String outcome(Object flow) {
+        if (flow instanceof HappyCase) {
+            return "happy";
+        }
+        if (flow instanceof SadCase) {
+            return "sad";
+        }
+        return "technical failure";
+    }
+}
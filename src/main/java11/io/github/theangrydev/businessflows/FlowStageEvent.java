@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for an operation that ran on a flow, e.g. {@link HappyPath#map}, spanning the user code it ran.
+ */
+@Name("io.github.theangrydev.businessflows.FlowStage")
+@Label("Flow Stage")
+@Category("Business Flows")
+@Description("An operation that ran on a business flow")
+class FlowStageEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    @Description("The track the flow is on after the operation")
+    String outcome;
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for a round of validation on a {@link ValidationPath}.
+ */
+@Name("io.github.theangrydev.businessflows.Validation")
+@Label("Validation")
+@Category("Business Flows")
+@Description("A round of validation on a validation path")
+class ValidationEvent extends jdk.jfr.Event {
+    @Label("Validators")
+    @Description("The number of validators that ran")
+    int validators;
+
+    @Label("Failures")
+    @Description("The number of validation failures")
+    int failures;
+
+    @Label("Outcome")
+    @Description("The track the flow is on after the validation")
+    String outcome;
+}
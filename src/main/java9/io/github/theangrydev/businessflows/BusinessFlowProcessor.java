@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Flow.Processor} that applies a flow to each element it receives and publishes the outcome of each flow as a
+ * {@link BusinessCase}, in the same order as the elements arrived. The outcomes can be joined, or routed by track with
+ * an {@link OutcomeRouter}.
+ * <p>
+ * Elements are only requested from upstream when there is demand downstream, so a slow subscriber throttles the
+ * publisher rather than causing outcomes to be buffered without limit. At most {@code maxConcurrency} elements are
+ * requested from upstream but not yet published downstream at any one time.
+ * </p>
+ * Any {@link Exception} thrown by the flow for an element becomes a technical failure outcome for that element only.
+ * Only one {@link Flow.Subscriber} may subscribe.
+ *
+ * @param <In> The type of the elements
+ * @param <Out> The type of happy object each flow may produce
+ * @param <Sad> The type of sad object each flow may produce
+ */
+public class BusinessFlowProcessor<In, Out, Sad> implements Flow.Processor<In, BusinessCase<Out, Sad>> {
+    private final Mapping<In, HappyPath<Out, Sad>> flow;
+    private final Executor executor;
+    private final int maxConcurrency;
+
+    private final Queue<CompletableFuture<HappyPath<Out, Sad>>> outcomes = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscriber<? super BusinessCase<Out, Sad>>> downstream = new AtomicReference<>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    // Only accessed while draining
+    private int outstanding;
+
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile Throwable invalidRequest;
+    private volatile boolean cancelled;
+
+    private BusinessFlowProcessor(Mapping<In, HappyPath<Out, Sad>> flow, Executor executor, int maxConcurrency) {
+        this.flow = flow;
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Produces a {@link BusinessFlowProcessor} that applies the flow on the thread that delivers each element.
+     *
+     * @param flow The flow to apply to each element
+     * @param <In> The type of the elements
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return The processor
+     */
+    public static <In, Out, Sad> BusinessFlowProcessor<In, Out, Sad> businessFlowProcessor(Mapping<In, HappyPath<Out, Sad>> flow) {
+        return new BusinessFlowProcessor<>(flow, Runnable::run, 1);
+    }
+
+    /**
+     * Produces a {@link BusinessFlowProcessor} that applies the flow asynchronously on the given {@link Executor},
+     * with up to {@code maxConcurrency} flows running at the same time.
+     *
+     * @param flow The flow to apply to each element
+     * @param executor The executor to apply the flow on
+     * @param maxConcurrency The maximum number of elements that are requested but not yet published
+     * @param <In> The type of the elements
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return The processor
+     */
+    public static <In, Out, Sad> BusinessFlowProcessor<In, Out, Sad> businessFlowProcessor(Mapping<In, HappyPath<Out, Sad>> flow, Executor executor, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency must be at least 1 but was " + maxConcurrency);
+        }
+        return new BusinessFlowProcessor<>(flow, executor, maxConcurrency);
+    }
+
+    /**
+     * Subscribes a new {@link BusinessFlowProcessor} to the given publisher.
+     *
+     * @param publisher The publisher of the elements
+     * @param flow The flow to apply to each element
+     * @param <In> The type of the elements
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return A publisher of the outcome of applying the flow to each element
+     */
+    public static <In, Out, Sad> Flow.Publisher<BusinessCase<Out, Sad>> mapPublisher(Flow.Publisher<In> publisher, Mapping<In, HappyPath<Out, Sad>> flow) {
+        BusinessFlowProcessor<In, Out, Sad> processor = businessFlowProcessor(flow);
+        publisher.subscribe(processor);
+        return processor;
+    }
+
+    /**
+     * Subscribes a new asynchronous {@link BusinessFlowProcessor} to the given publisher.
+     *
+     * @param publisher The publisher of the elements
+     * @param flow The flow to apply to each element
+     * @param executor The executor to apply the flow on
+     * @param maxConcurrency The maximum number of elements that are requested but not yet published
+     * @param <In> The type of the elements
+     * @param <Out> The type of happy object each flow may produce
+     * @param <Sad> The type of sad object each flow may produce
+     * @return A publisher of the outcome of applying the flow to each element
+     */
+    public static <In, Out, Sad> Flow.Publisher<BusinessCase<Out, Sad>> mapPublisher(Flow.Publisher<In> publisher, Mapping<In, HappyPath<Out, Sad>> flow, Executor executor, int maxConcurrency) {
+        BusinessFlowProcessor<In, Out, Sad> processor = businessFlowProcessor(flow, executor, maxConcurrency);
+        publisher.subscribe(processor);
+        return processor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BusinessCase<Out, Sad>> subscriber) {
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new CancelledSubscription());
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+            return;
+        }
+        subscriber.onSubscribe(new DownstreamSubscription());
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(In item) {
+        CompletableFuture<HappyPath<Out, Sad>> outcome = new CompletableFuture<>();
+        outcomes.add(outcome);
+        try {
+            executor.execute(() -> {
+                outcome.complete(HappyPath.happyPathAttempt(() -> flow.map(item)));
+                drain();
+            });
+        } catch (RuntimeException rejected) {
+            outcome.complete(HappyPath.technicalFailure(rejected));
+            drain();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super BusinessCase<Out, Sad>> subscriber = downstream.get();
+            if (cancelled) {
+                outcomes.clear();
+            } else if (subscriber != null && invalidRequest != null) {
+                cancelUpstream();
+                outcomes.clear();
+                subscriber.onError(invalidRequest);
+            } else if (subscriber != null) {
+                publishCompletedOutcomes(subscriber);
+                requestMoreFromUpstream();
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void publishCompletedOutcomes(Flow.Subscriber<? super BusinessCase<Out, Sad>> subscriber) {
+        CompletableFuture<HappyPath<Out, Sad>> head = outcomes.peek();
+        while (head != null && head.isDone() && demand.get() > 0 && !cancelled) {
+            outcomes.poll();
+            outstanding--;
+            demand.decrementAndGet();
+            subscriber.onNext(head.join());
+            head = outcomes.peek();
+        }
+        if (head == null && upstreamDone && !cancelled) {
+            cancelled = true;
+            Throwable error = upstreamError;
+            if (error == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(error);
+            }
+        }
+    }
+
+    private void cancelUpstream() {
+        cancelled = true;
+        Flow.Subscription subscription = upstream.get();
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private void requestMoreFromUpstream() {
+        Flow.Subscription subscription = upstream.get();
+        if (subscription == null || upstreamDone || cancelled) {
+            return;
+        }
+        long wanted = Math.min(demand.get(), maxConcurrency) - outstanding;
+        if (wanted > 0) {
+            outstanding += (int) wanted;
+            subscription.request(wanted);
+        }
+    }
+
+    private final class DownstreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The number of elements requested must be positive but was " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, extra) -> current + extra < 0 ? Long.MAX_VALUE : current + extra);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelUpstream();
+                drain();
+            }
+        }
+    }
+
+    private static final class CancelledSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            // Nothing to do
+        }
+
+        @Override
+        public void cancel() {
+            // Nothing to do
+        }
+    }
+}
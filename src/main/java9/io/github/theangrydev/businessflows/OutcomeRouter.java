@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Flow.Subscriber} of outcomes that routes each outcome to one of three subscribers, depending on whether it
+ * is happy, sad or a technical failure.
+ * <p>
+ * Each route has a buffer of at most {@code bufferSize} outcomes. Outcomes are only requested from upstream while
+ * every route has room in its buffer, so the slowest subscriber throttles the publisher.
+ * If a route is cancelled then the outcomes for that route are dropped; if every route is cancelled then so is the
+ * subscription to the publisher.
+ * </p>
+ *
+ * @param <Happy> The type of happy object the outcomes may contain
+ * @param <Sad> The type of sad object the outcomes may contain
+ */
+public class OutcomeRouter<Happy, Sad> implements Flow.Subscriber<BusinessCase<Happy, Sad>> {
+    private final Route<Happy> happyRoute;
+    private final Route<Sad> sadRoute;
+    private final Route<Exception> technicalFailureRoute;
+    private final int bufferSize;
+
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    // Only accessed while draining
+    private int outstanding;
+    private boolean upstreamCancelled;
+
+    // Only written by upstream signals
+    private int received;
+
+    private volatile int receivedPublished;
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+
+    private OutcomeRouter(Flow.Subscriber<? super Happy> happySubscriber, Flow.Subscriber<? super Sad> sadSubscriber, Flow.Subscriber<? super Exception> technicalFailureSubscriber, int bufferSize) {
+        this.happyRoute = new Route<>(happySubscriber);
+        this.sadRoute = new Route<>(sadSubscriber);
+        this.technicalFailureRoute = new Route<>(technicalFailureSubscriber);
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Produces an {@link OutcomeRouter} that routes outcomes to the given subscribers.
+     *
+     * @param happySubscriber Receives the happy objects
+     * @param sadSubscriber Receives the sad objects
+     * @param technicalFailureSubscriber Receives the technical failures
+     * @param bufferSize The maximum number of outcomes that will be buffered for each route
+     * @param <Happy> The type of happy object the outcomes may contain
+     * @param <Sad> The type of sad object the outcomes may contain
+     * @return The router
+     */
+    public static <Happy, Sad> OutcomeRouter<Happy, Sad> outcomeRouter(Flow.Subscriber<? super Happy> happySubscriber, Flow.Subscriber<? super Sad> sadSubscriber, Flow.Subscriber<? super Exception> technicalFailureSubscriber, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be at least 1 but was " + bufferSize);
+        }
+        return new OutcomeRouter<>(happySubscriber, sadSubscriber, technicalFailureSubscriber, bufferSize);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        happyRoute.subscribe();
+        sadRoute.subscribe();
+        technicalFailureRoute.subscribe();
+        drain();
+    }
+
+    @Override
+    public void onNext(BusinessCase<Happy, Sad> outcome) {
+        outcome.join(happyRoute::offer, sadRoute::offer, technicalFailureRoute::offer);
+        receivedPublished = ++received;
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            boolean done = upstreamDone;
+            Throwable error = upstreamError;
+            happyRoute.publish(done, error);
+            sadRoute.publish(done, error);
+            technicalFailureRoute.publish(done, error);
+            requestMoreFromUpstream();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void requestMoreFromUpstream() {
+        Flow.Subscription subscription = upstream.get();
+        if (subscription == null || upstreamDone || upstreamCancelled) {
+            return;
+        }
+        if (happyRoute.cancelled && sadRoute.cancelled && technicalFailureRoute.cancelled) {
+            upstreamCancelled = true;
+            subscription.cancel();
+            return;
+        }
+        int inFlight = outstanding - receivedPublished;
+        int buffered = Math.max(happyRoute.buffer.size(), Math.max(sadRoute.buffer.size(), technicalFailureRoute.buffer.size()));
+        int wanted = bufferSize - buffered - inFlight;
+        if (wanted > 0) {
+            outstanding += wanted;
+            subscription.request(wanted);
+        }
+    }
+
+    private final class Route<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        Route(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void subscribe() {
+            subscriber.onSubscribe(this);
+        }
+
+        Route<T> offer(T value) {
+            if (!cancelled) {
+                buffer.add(value);
+            }
+            return this;
+        }
+
+        void publish(boolean upstreamDone, Throwable upstreamError) {
+            if (cancelled) {
+                buffer.clear();
+                return;
+            }
+            if (invalidRequest != null) {
+                cancelled = true;
+                buffer.clear();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            while (demand.get() > 0 && !buffer.isEmpty() && !cancelled) {
+                demand.decrementAndGet();
+                subscriber.onNext(buffer.poll());
+            }
+            if (buffer.isEmpty() && upstreamDone && !cancelled) {
+                cancelled = true;
+                if (upstreamError == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(upstreamError);
+                }
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The number of elements requested must be positive but was " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, extra) -> current + extra < 0 ? Long.MAX_VALUE : current + extra);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static java.util.Arrays.asList;
+
+public class AdaptiveValidatorsTest implements WithAssertions {
+
+    private final List<String> ran = new ArrayList<>();
+    private long now;
+
+    @Test
+    public void cheapValidatorsThatOftenFailEndUpRunningFirst() {
+        AdaptiveValidators<Integer, String> adaptiveValidators = new AdaptiveValidators<>(asList(
+                validator("expensive, never fails", 1000, false),
+                validator("cheap, sometimes fails", 1, true)
+        ), 1, () -> now);
+
+        for (int input = 0; input < 10; input++) {
+            ValidationPath.validateFirst(input, adaptiveValidators.inExecutionOrder());
+        }
+        ran.clear();
+        ValidationPath.validateFirst(1, adaptiveValidators.inExecutionOrder());
+
+        assertThat(ran).containsExactly("cheap, sometimes fails");
+    }
+
+    @Test
+    public void declarationOrderIsKeptForAccumulatingFailures() {
+        AdaptiveValidators<Integer, String> adaptiveValidators = new AdaptiveValidators<>(asList(
+                validator("expensive", 1000, true),
+                validator("cheap", 1, true)
+        ), 1, () -> now);
+        for (int input = 0; input < 10; input++) {
+            ValidationPath.validateFirst(1, adaptiveValidators.inExecutionOrder());
+        }
+
+        List<String> failures = ValidationPath.validate(1, adaptiveValidators.inDeclarationOrder()).ifSad().get();
+
+        assertThat(failures).containsExactly("expensive", "cheap");
+    }
+
+    @Test
+    public void validatorsThatHaveNotRunYetKeepTheirDeclarationOrder() {
+        AdaptiveValidators<Integer, String> adaptiveValidators = new AdaptiveValidators<>(asList(
+                validator("first", 1, true),
+                validator("second", 1, true)
+        ), 1, () -> now);
+
+        ValidationPath.validate(1, adaptiveValidators.inExecutionOrder());
+
+        assertThat(ran).containsExactly("first", "second");
+    }
+
+    @Test
+    public void reorderIntervalMustBePositive() {
+        assertThatThrownBy(() -> AdaptiveValidators.adaptiveValidators(new ArrayList<Validator<Integer, String>>(), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The reorder interval must be at least 1 but was 0");
+    }
+
+    private Validator<Integer, String> validator(String name, long cost, boolean failsOnOddInputs) {
+        return input -> {
+            ran.add(name);
+            now += cost;
+            return failsOnOddInputs && input % 2 == 1 ? failures(name) : success();
+        };
+    }
+}
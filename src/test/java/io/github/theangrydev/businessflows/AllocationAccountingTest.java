@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assume.assumeTrue;
+
+public class AllocationAccountingTest implements WithAssertions {
+
+    private static final int ONE_MEGABYTE = 1024 * 1024;
+
+    @Before
+    public void enable() {
+        assumeTrue(AllocationAccounting.supported());
+        AllocationAccounting.reset();
+        AllocationAccounting.enable();
+    }
+
+    @After
+    public void disable() {
+        AllocationAccounting.disable();
+        AllocationAccounting.reset();
+    }
+
+    @Test
+    public void recordsTheBytesAllocatedByAFlow() {
+        AllocationAccounting.measureFlow("allocating", () -> HappyPath.happyPath(new byte[ONE_MEGABYTE]));
+        AllocationAccounting.measureFlow("allocating", () -> HappyPath.happyPath(new byte[ONE_MEGABYTE]));
+
+        AllocationSnapshot snapshot = AllocationAccounting.flowSnapshots().get("allocating");
+        assertThat(snapshot.count()).isEqualTo(2);
+        assertThat(snapshot.totalBytes()).isGreaterThanOrEqualTo(2L * ONE_MEGABYTE);
+        assertThat(snapshot.maxBytes()).isGreaterThanOrEqualTo(ONE_MEGABYTE);
+        assertThat(snapshot.averageBytes()).isGreaterThanOrEqualTo(ONE_MEGABYTE);
+    }
+
+    @Test
+    public void recordsTheBytesAllocatedByANamedStage() {
+        HappyPath.happyPath(ONE_MEGABYTE)
+                .map("allocate", size -> new byte[size])
+                .map("measure", bytes -> bytes.length);
+
+        AllocationSnapshot allocate = AllocationAccounting.stageSnapshots().get("allocate");
+        AllocationSnapshot measure = AllocationAccounting.stageSnapshots().get("measure");
+        assertThat(allocate.count()).isEqualTo(1);
+        assertThat(allocate.totalBytes()).isGreaterThanOrEqualTo(ONE_MEGABYTE);
+        assertThat(measure.totalBytes()).isLessThan(ONE_MEGABYTE);
+    }
+
+    @Test
+    public void nothingIsRecordedWhileDisabled() {
+        AllocationAccounting.disable();
+
+        AllocationAccounting.measureFlow("allocating", () -> HappyPath.happyPath(1).map("stage", happy -> happy));
+
+        assertThat(AllocationAccounting.enabled()).isFalse();
+        assertThat(AllocationAccounting.flowSnapshots()).isEmpty();
+        assertThat(AllocationAccounting.stageSnapshots()).isEmpty();
+    }
+}
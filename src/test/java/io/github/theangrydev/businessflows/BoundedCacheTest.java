@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class BoundedCacheTest implements WithAssertions {
+
+    private long now;
+
+    @Test
+    public void neverHoldsMoreThanTheMaximumSize() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(100, 0, () -> now);
+
+        for (int key = 0; key < 1000; key++) {
+            cache.put(key, "value " + key);
+        }
+
+        assertThat(cache.size()).isEqualTo(100);
+        assertThat(cache.evictions()).isEqualTo(900L);
+    }
+
+    @Test
+    public void frequentlyUsedEntriesSurviveAScanOfOneOffEntries() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(100, 0, () -> now);
+        for (int key = 0; key < 50; key++) {
+            cache.put(key, "popular");
+        }
+        for (int round = 0; round < 100; round++) {
+            for (int key = 0; key < 50; key++) {
+                cache.getIfPresent(key);
+            }
+        }
+
+        for (int key = 1000; key < 2000; key++) {
+            cache.put(key, "one off");
+        }
+
+        int popularStillCached = 0;
+        for (int key = 0; key < 50; key++) {
+            if (cache.getIfPresent(key) != null) {
+                popularStillCached++;
+            }
+        }
+        assertThat(popularStillCached).isGreaterThanOrEqualTo(45);
+    }
+
+    @Test
+    public void entriesExpireAfterTheTimeToLive() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10, 100, () -> now);
+        cache.put(1, "value");
+
+        now += 99;
+        assertThat(cache.getIfPresent(1)).isEqualTo("value");
+        now += 1;
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void puttingAnExistingKeyReplacesTheValue() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10, 0, () -> now);
+        cache.put(1, "old");
+
+        cache.put(1, "new");
+
+        assertThat(cache.getIfPresent(1)).isEqualTo("new");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.github.theangrydev.businessflows.BoundedFlowExecutor.boundedFlowExecutor;
+
+public class BoundedFlowExecutorTest implements WithAssertions {
+
+    private static final String REJECTED = "rejected";
+
+    private final List<Runnable> pendingDrainers = new ArrayList<>();
+    private long now;
+
+    @Test
+    public void runsSubmittedFlows() {
+        BoundedFlowExecutor<String> executor = boundedFlowExecutor(Runnable::run, 1, 1, 1, 1, TimeUnit.SECONDS, REJECTED);
+
+        CompletableFuture<HappyPath<String, String>> outcome = executor.submit(() -> HappyPath.happyPath("ran"));
+
+        assertThat(outcome.join().get()).isEqualTo("ran");
+    }
+
+    @Test
+    public void exceptionsThrownByAFlowBecomeTechnicalFailures() {
+        Exception technicalFailure = new Exception();
+        BoundedFlowExecutor<String> executor = boundedFlowExecutor(Runnable::run, 1, 1, 1, 1, TimeUnit.SECONDS, REJECTED);
+
+        CompletableFuture<HappyPath<String, String>> outcome = executor.submit(() -> {
+            throw technicalFailure;
+        });
+
+        assertThat(outcome.join().ifTechnicalFailure().get()).isSameAs(technicalFailure);
+    }
+
+    @Test
+    public void flowsSubmittedWhenTheQueueIsFullAreRejectedAsSad() {
+        BoundedFlowExecutor<String> executor = executorWithManualTime(2, 1000, 1000);
+        executor.submit(() -> HappyPath.happyPath("first"));
+        executor.submit(() -> HappyPath.happyPath("second"));
+
+        CompletableFuture<HappyPath<String, String>> rejected = executor.submit(() -> HappyPath.happyPath("third"));
+
+        assertThat(rejected.join().ifSad().get()).isEqualTo(REJECTED);
+        assertThat(executor.queueDepth()).isEqualTo(2);
+        assertThat(executor.rejectedWhenFull()).isEqualTo(1L);
+    }
+
+    @Test
+    public void flowsSubmittedWhileTheQueueDelayHasStayedAboveTheTargetForAnIntervalAreRejectedAsSad() {
+        BoundedFlowExecutor<String> executor = executorWithManualTime(10, 10, 100);
+        AtomicReference<CompletableFuture<HappyPath<String, String>>> submittedDuringOverload = new AtomicReference<>();
+        executor.submit(this::slowFlow);
+        executor.submit(this::slowFlow);
+        executor.submit(() -> {
+            submittedDuringOverload.set(executor.submit(() -> HappyPath.happyPath("never ran")));
+            return HappyPath.happyPath("ran");
+        });
+
+        now = 50;
+        runPendingDrainers();
+
+        assertThat(submittedDuringOverload.get().join().ifSad().get()).isEqualTo(REJECTED);
+        assertThat(executor.rejectedWhenOverloaded()).isEqualTo(1L);
+    }
+
+    @Test
+    public void aBurstThatDrainsWithinTheIntervalIsNotOverload() {
+        BoundedFlowExecutor<String> executor = executorWithManualTime(10, 10, 100);
+        executor.submit(this::slowFlow);
+        executor.submit(() -> HappyPath.happyPath("quick"));
+        executor.submit(() -> HappyPath.happyPath("quick"));
+
+        now = 50;
+        runPendingDrainers();
+
+        assertThat(executor.rejectedWhenOverloaded()).isEqualTo(0L);
+        assertThat(executor.isOverloaded()).isFalse();
+    }
+
+    @Test
+    public void theOverloadEndsWhenTheQueueIsEmpty() {
+        BoundedFlowExecutor<String> executor = executorWithManualTime(10, 10, 100);
+        executor.submit(this::slowFlow);
+        executor.submit(this::slowFlow);
+        executor.submit(this::slowFlow);
+
+        now = 50;
+        runPendingDrainers();
+
+        assertThat(executor.isOverloaded()).isFalse();
+        assertThat(executor.queueDepth()).isEqualTo(0);
+    }
+
+    @Test
+    public void anErrorThrownByAFlowFailsItsFutureAndAnotherDrainerCarriesOn() {
+        AssertionError error = new AssertionError("thrown by the flow on purpose");
+        BoundedFlowExecutor<String> executor = executorWithManualTime(10, 1000, 1000);
+        CompletableFuture<HappyPath<String, String>> failed = executor.submit(() -> {
+            throw error;
+        });
+        CompletableFuture<HappyPath<String, String>> next = executor.submit(() -> HappyPath.happyPath("next"));
+
+        assertThatThrownBy(() -> pendingDrainers.remove(0).run()).isSameAs(error);
+        runPendingDrainers();
+
+        assertThatThrownBy(failed::join).hasCause(error);
+        assertThat(next.isDone()).isTrue();
+        assertThat(next.join().get()).isEqualTo("next");
+        assertThat(executor.queueDepth()).isEqualTo(0);
+    }
+
+    private HappyPath<String, String> slowFlow() {
+        now += 60;
+        return HappyPath.happyPath("slow");
+    }
+
+    private BoundedFlowExecutor<String> executorWithManualTime(int capacity, long targetDelay, long interval) {
+        return new BoundedFlowExecutor<>(pendingDrainers::add, capacity, 1, targetDelay, interval, REJECTED, () -> now);
+    }
+
+    private void runPendingDrainers() {
+        while (!pendingDrainers.isEmpty()) {
+            pendingDrainers.remove(0).run();
+        }
+    }
+}
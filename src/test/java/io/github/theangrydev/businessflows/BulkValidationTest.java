@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static io.github.theangrydev.businessflows.ValidationPath.validators;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+public class BulkValidationTest implements WithAssertions {
+
+    private final List<String> ran = new ArrayList<>();
+    private final Set<Integer> existingIds = new HashSet<>(asList(1, 2, 3));
+    private final List<List<Integer>> queries = new ArrayList<>();
+
+    @Test
+    public void eachValidatorRunsOverTheWholeBatchBeforeTheNextOne() {
+        ValidationPath.validateAll(asList(1, 2), validators(recording("first"), recording("second")));
+
+        assertThat(ran).containsExactly("first 1", "first 2", "second 1", "second 2");
+    }
+
+    @Test
+    public void outcomesAreTheSameAsValidatingEachObject() {
+        List<Integer> batch = asList(1, -2, 4, -5);
+        List<Validator<Integer, String>> validators = validators(positive(), exists(), failsOnFour());
+
+        List<String> bulk = outcomes(ValidationPath.validateAll(batch, validators));
+
+        List<String> oneByOne = outcomes(batch.stream().map(id -> ValidationPath.validate(id, validators)).collect(toList()));
+        assertThat(bulk).isEqualTo(oneByOne);
+        assertThat(bulk).containsExactly("happy 1", "sad [negative, missing]", "technical failure", "sad [negative, missing]");
+    }
+
+    @Test
+    public void batchValidatorsValidateTheWholeBatchAtOnce() {
+        ValidationPath.validateAll(asList(1, 2, 3, 4), validators(exists()));
+
+        assertThat(queries).isEqualTo(singletonList(asList(1, 2, 3, 4)));
+    }
+
+    @Test
+    public void objectsWithATechnicalFailureAreNotPassedToLaterValidators() {
+        ValidationPath.validateAll(asList(1, 4, 2), validators(failsOnFour(), exists()));
+
+        assertThat(queries).isEqualTo(singletonList(asList(1, 2)));
+    }
+
+    @Test
+    public void aTechnicalFailureFromABatchValidatorAppliesToTheWholeBatch() {
+        BatchValidator<Integer, String> brokenQuery = batch -> {
+            throw new IllegalStateException("database down");
+        };
+
+        List<String> outcomes = outcomes(ValidationPath.validateAll(asList(1, 2), validators(brokenQuery)));
+
+        assertThat(outcomes).containsExactly("technical failure", "technical failure");
+    }
+
+    @Test
+    public void batchValidatorsCanValidateASingleObject() throws Exception {
+        assertThat(exists().attempt(1).sadOrNull()).isNull();
+        assertThat(queries).isEqualTo(singletonList(asList(1)));
+    }
+
+    @Test
+    public void failuresAreMappedIntoTheAggregate() {
+        List<ValidationPath<Integer, String, Integer>> outcomes = ValidationPath.validateAllInto(asList(-7, 1), List::size, validators(positive(), exists()));
+
+        assertThat(outcomes.get(0).ifSad().get()).isEqualTo(2);
+        assertThat(outcomes.get(1).get()).isEqualTo(1);
+    }
+
+    private Validator<Integer, String> recording(String name) {
+        return id -> {
+            ran.add(name + " " + id);
+            return success();
+        };
+    }
+
+    private Validator<Integer, String> positive() {
+        return id -> id > 0 ? success() : failures("negative");
+    }
+
+    private Validator<Integer, String> failsOnFour() {
+        return id -> {
+            if (id == 4) {
+                throw new IllegalStateException("four");
+            }
+            return success();
+        };
+    }
+
+    private BatchValidator<Integer, String> exists() {
+        return batch -> {
+            queries.add(new ArrayList<>(batch));
+            return batch.stream()
+                    .map(id -> existingIds.contains(id) ? PotentialFailure.<List<String>>success() : failures("missing"))
+                    .collect(toList());
+        };
+    }
+
+    private String outcome(HappyPath<Integer, List<String>> outcome) {
+        return outcome.join(happy -> "happy " + happy, sads -> "sad " + sads, technicalFailure -> "technical failure");
+    }
+
+    private List<String> outcomes(List<? extends HappyPath<Integer, List<String>>> outcomes) {
+        return outcomes.stream().map(this::outcome).collect(toList());
+    }
+}
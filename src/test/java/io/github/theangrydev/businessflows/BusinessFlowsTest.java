@@ -90,4 +90,45 @@ public class BusinessFlowsTest implements WithAssertions {
 
         assertThat(actualHappy).isSameAs(originalHappy);
     }
+
+    @Test
+    public void validateFirstStopsAtTheFirstFailure() {
+        Sad firstSad = new Sad();
+        Sad secondSad = new Sad();
+
+        List<Sad> actualSads = ValidationPath.validateFirst(new Happy(), happy -> success(), happy -> failures(firstSad, secondSad), happy -> {throw new IllegalStateException("should not run");})
+                .ifSad().get();
+
+        assertThat(actualSads).containsExactly(firstSad, secondSad);
+    }
+
+    @Test
+    public void validateFirstWithMultiplePassesStaysHappy() {
+        Happy originalHappy = new Happy();
+
+        Happy actualHappy = ValidationPath.validateFirst(originalHappy, happy -> success(), happy -> failures())
+                .get();
+
+        assertThat(actualHappy).isSameAs(originalHappy);
+    }
+
+    @Test
+    public void validateFirstIntoMapsTheFirstFailureIntoTheAggregate() {
+        Sad sad = new Sad();
+
+        Integer actualAggregate = ValidationPath.validateFirstInto(new Happy(), List::size, happy -> failures(sad), happy -> failures(sad, sad))
+                .ifSad().get();
+
+        assertThat(actualAggregate).isEqualTo(1);
+    }
+
+    @Test
+    public void validateFirstWithATechnicalFailureIsATechnicalFailure() {
+        Exception technicalFailure = new Exception();
+
+        Exception actualTechnicalFailure = ValidationPath.<Happy, Sad>validateFirst(new Happy(), happy -> {throw technicalFailure;})
+                .ifTechnicalFailure().get();
+
+        assertThat(actualTechnicalFailure).isSameAs(technicalFailure);
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.List;
+
+import static io.github.theangrydev.businessflows.CachingAction.cachingAction;
+import static io.github.theangrydev.businessflows.CachingValidator.cachingValidator;
+import static io.github.theangrydev.businessflows.FieldValidator.fieldValidator;
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+
+public class CachingActionTest implements WithAssertions {
+
+    private int calls;
+    private long now;
+
+    @Test
+    public void repeatedInputsUseTheCachedResult() throws Exception {
+        CachingAction<String, String> action = cachingAction(this::lookup, 10);
+
+        PotentialFailure<String> first = action.attempt("unknown.example");
+        PotentialFailure<String> second = action.attempt("unknown.example");
+
+        assertThat(second).isSameAs(first);
+        assertThat(calls).isEqualTo(1);
+        assertThat(action.hits()).isEqualTo(1L);
+        assertThat(action.misses()).isEqualTo(1L);
+        assertThat(action.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void exceptionsAreNotCached() {
+        CachingAction<String, String> action = cachingAction(this::lookup, 10);
+
+        assertThatThrownBy(() -> action.attempt("timeout")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> action.attempt("timeout")).isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls).isEqualTo(2);
+        assertThat(action.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void resultsExpireAfterTheTimeToLive() throws Exception {
+        CachingAction<String, String> action = new CachingAction<>(this::lookup, 10, 1000, () -> now);
+        action.attempt("known.example");
+
+        now += 1000;
+        action.attempt("known.example");
+
+        assertThat(calls).isEqualTo(2);
+    }
+
+    @Test
+    public void nullIsNeverCached() throws Exception {
+        CachingAction<String, String> action = cachingAction(domain -> {
+            calls++;
+            return success();
+        }, 10);
+
+        action.attempt(null);
+        action.attempt(null);
+
+        assertThat(calls).isEqualTo(2);
+    }
+
+    @Test
+    public void validatorsCanBeCachedByFieldValue() {
+        CachingValidator<String, String> domainValidator = cachingValidator(domain -> {
+            calls++;
+            return domain.endsWith(".example") ? success() : failures("unknown domain");
+        }, 10);
+        FieldValidator<String, String, String> emailValidator = fieldValidator(email -> email.substring(email.indexOf('@') + 1), domainValidator);
+
+        ValidationPath.validate("a@test.example", emailValidator);
+        List<String> failures = ValidationPath.validate("b@other", emailValidator).ifSad().get();
+        ValidationPath.validate("c@test.example", emailValidator);
+
+        assertThat(failures).containsExactly("unknown domain");
+        assertThat(calls).isEqualTo(2);
+        assertThat(domainValidator.hits()).isEqualTo(1L);
+    }
+
+    @Test
+    public void maximumSizeMustBePositive() {
+        assertThatThrownBy(() -> cachingAction(this::lookup, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The maximum size must be at least 1 but was 0");
+    }
+
+    private PotentialFailure<String> lookup(String domain) {
+        calls++;
+        if (domain.equals("timeout")) {
+            throw new IllegalStateException("timeout");
+        }
+        return domain.startsWith("known") ? success() : failure("unknown domain");
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.theangrydev.businessflows.FailureBudget.failureBudget;
+import static io.github.theangrydev.businessflows.FieldValidator.fieldValidator;
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+
+public class FailureBudgetTest implements WithAssertions {
+
+    private static final String TRUNCATED = "truncated";
+
+    @Test
+    public void keepsEveryFailureWhenTheBudgetIsNotUsedUp() {
+        List<String> failures = ValidationPath.validateWithin("input", failureBudget(3, TRUNCATED), input -> failures("a"), input -> success(), input -> failures("b"))
+                .ifSad().get();
+
+        assertThat(failures).containsExactly("a", "b");
+    }
+
+    @Test
+    public void usingUpTheBudgetOnTheLastValidatorIsNotTruncated() {
+        List<String> failures = ValidationPath.validateWithin("input", failureBudget(2, TRUNCATED), input -> failures("a"), input -> failures("b"))
+                .ifSad().get();
+
+        assertThat(failures).containsExactly("a", "b");
+    }
+
+    @Test
+    public void stopsRunningValidatorsOnceTheBudgetIsUsedUp() {
+        List<String> failures = ValidationPath.validateWithin("input", failureBudget(2, TRUNCATED), input -> failures("a", "b"), input -> {throw new IllegalStateException("should not run");})
+                .ifSad().get();
+
+        assertThat(failures).containsExactly("a", "b", TRUNCATED);
+    }
+
+    @Test
+    public void dropsTheFailuresThatDoNotFitInTheBudget() {
+        List<String> failures = ValidationPath.validateWithin("input", failureBudget(3, TRUNCATED), input -> failures("a", "b"), input -> PotentialFailure.failure(manyFailures(100_000)))
+                .ifSad().get();
+
+        assertThat(failures).containsExactly("a", "b", "0", TRUNCATED);
+    }
+
+    @Test
+    public void limitsTheFailuresKeptFromEachValidator() {
+        List<String> failures = ValidationPath.validateWithin("input", failureBudget(10, 2, TRUNCATED), input -> failures("a", "b", "c"), input -> failures("d"))
+                .ifSad().get();
+
+        assertThat(failures).containsExactly("a", "b", "d", TRUNCATED);
+    }
+
+    @Test
+    public void aLargeFieldValidatorOnlyCreatesTheFailuresThereIsRoomFor() {
+        AtomicInteger failuresCreated = new AtomicInteger();
+        FieldValidator<String, String, String> elementsValidator = fieldValidator(input -> input, elementValidators(10_000, failuresCreated));
+
+        List<String> failures = ValidationPath.validateWithin("input", failureBudget(5, TRUNCATED), input -> failures("a"), elementsValidator)
+                .ifSad().get();
+
+        assertThat(failures).containsExactly("a", "0", "1", "2", "3", TRUNCATED);
+        assertThat(failuresCreated.get()).isEqualTo(5);
+    }
+
+    @Test
+    public void nestedFieldValidatorsShareWhatIsLeftOfTheBudget() {
+        AtomicInteger failuresCreated = new AtomicInteger();
+        FieldValidator<String, String, String> nestedValidator = fieldValidator(input -> input,
+                fieldValidator(field -> field, elementValidators(10_000, failuresCreated)),
+                fieldValidator(field -> field, elementValidators(10_000, failuresCreated)));
+
+        List<String> failures = ValidationPath.validateWithin("input", failureBudget(100, 3, TRUNCATED), nestedValidator)
+                .ifSad().get();
+
+        assertThat(failures).containsExactly("0", "1", "2", TRUNCATED);
+        assertThat(failuresCreated.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void staysHappyWhenEveryValidatorPasses() {
+        String happy = ValidationPath.validateWithin("input", failureBudget(1, TRUNCATED), input -> success(), input -> failures())
+                .get();
+
+        assertThat(happy).isEqualTo("input");
+    }
+
+    @Test
+    public void mapsTheKeptFailuresAndTheTruncatedMarkerIntoTheAggregate() {
+        Integer aggregate = ValidationPath.validateWithinInto("input", List::size, failureBudget(1, TRUNCATED), input -> failures("a", "b"))
+                .ifSad().get();
+
+        assertThat(aggregate).isEqualTo(2);
+    }
+
+    @Test
+    public void aTechnicalFailureIsATechnicalFailure() {
+        Exception technicalFailure = new Exception();
+
+        Exception actualTechnicalFailure = ValidationPath.<String, String>validateWithin("input", failureBudget(1, TRUNCATED), input -> {throw technicalFailure;})
+                .ifTechnicalFailure().get();
+
+        assertThat(actualTechnicalFailure).isSameAs(technicalFailure);
+    }
+
+    @Test
+    public void theBudgetMustAllowAtLeastOneFailure() {
+        assertThatThrownBy(() -> failureBudget(0, TRUNCATED))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The max failures must be at least 1 but was 0");
+        assertThatThrownBy(() -> failureBudget(1, 0, TRUNCATED))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The max failures per validator must be at least 1 but was 0");
+    }
+
+    private List<Validator<String, String>> elementValidators(int count, AtomicInteger failuresCreated) {
+        List<Validator<String, String>> validators = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String failure = String.valueOf(i);
+            validators.add(input -> {
+                failuresCreated.incrementAndGet();
+                return failures(failure);
+            });
+        }
+        return validators;
+    }
+
+    private List<String> manyFailures(int count) {
+        List<String> failures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            failures.add(String.valueOf(i));
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.ContextKey.contextKey;
+import static io.github.theangrydev.businessflows.FlowContext.emptyContext;
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+public class FlowContextTest implements WithAssertions {
+
+    private static final ContextKey<String> TENANT = contextKey("tenant");
+    private static final ContextKey<Integer> LIMIT = contextKey("limit");
+
+    @Test
+    public void stagesCanReadTheContextOfTheFlow() {
+        FlowContext context = emptyContext().with(TENANT, "acme").with(LIMIT, 10);
+
+        String outcome = HappyPath.<Integer, String>happyPath(5, context)
+                .attemptWithContext((flowContext, amount) -> amount <= flowContext.get(LIMIT) ? success() : failure("over limit"))
+                .map(amount -> amount * 2)
+                .mapWithContext((flowContext, amount) -> flowContext.get(TENANT) + ":" + amount)
+                .join(happy -> happy, sad -> sad);
+
+        assertThat(outcome).isEqualTo("acme:10");
+    }
+
+    @Test
+    public void theContextIsCarriedThroughEveryViewAndOutcome() {
+        FlowContext context = emptyContext().with(TENANT, "acme");
+
+        HappyPath<Integer, String> flow = HappyPath.<Integer, String>happyPath(1, context)
+                .attempt(number -> failure("sad"))
+                .ifSad().map(sad -> sad + "!")
+                .ifTechnicalFailure().ifSad().recover(sad -> 2)
+                .map(number -> {
+                    throw new IllegalStateException();
+                });
+
+        assertThat(flow.ifTechnicalFailure().get()).isInstanceOf(IllegalStateException.class);
+        assertThat(flow.context()).isSameAs(context);
+    }
+
+    @Test
+    public void aFlowProducedByThenCarriesOnInTheContextUnlessItHasItsOwn() {
+        FlowContext context = emptyContext().with(TENANT, "acme");
+        FlowContext otherContext = emptyContext().with(TENANT, "other");
+
+        HappyPath<String, String> carriedOn = HappyPath.<Integer, String>happyPath(1, context)
+                .then(number -> HappyPath.happyPath(number + 1))
+                .mapWithContext((flowContext, number) -> flowContext.get(TENANT) + ":" + number);
+        HappyPath<Integer, String> ownContext = HappyPath.<Integer, String>happyPath(1, context)
+                .thenWithContext((flowContext, number) -> HappyPath.happyPath(number, otherContext));
+
+        assertThat(carriedOn.get()).isEqualTo("acme:2");
+        assertThat(ownContext.context()).isSameAs(otherContext);
+    }
+
+    @Test
+    public void theContextIsCarriedToStagesThatRunOnOtherThreads() throws Exception {
+        FlowContext context = emptyContext().with(TENANT, "acme");
+        HappyPath<Integer, String> flow = HappyPath.happyPath(1, context);
+
+        String async = supplyAsync(() -> flow.mapWithContext((flowContext, number) -> flowContext.get(TENANT) + ":" + number).get()).get();
+
+        assertThat(async).isEqualTo("acme:1");
+    }
+
+    @Test
+    public void aParallelFlowRunnerRunsTheBatchInTheContext() {
+        FlowContext context = emptyContext().with(TENANT, "acme");
+        ParallelFlowRunner<Integer, String, String> runner = ParallelFlowRunner.parallelFlowRunner((flowContext, number) -> HappyPath.<Integer, String>happyPath(number, flowContext)
+                .mapWithContext((stageContext, happy) -> stageContext.get(TENANT) + ":" + happy), 1);
+
+        List<HappyPath<String, String>> outcomes = runner.runOrdered(context, asList(1, 2));
+
+        assertThat(outcomes.get(0).get()).isEqualTo("acme:1");
+        assertThat(outcomes.get(1).get()).isEqualTo("acme:2");
+    }
+
+    @Test
+    public void anOutcomeOfAParallelFlowRunnerIsInTheContextEvenIfTheFlowDidNotStartInIt() {
+        FlowContext context = emptyContext().with(TENANT, "acme");
+        ParallelFlowRunner<Integer, Integer, String> runner = ParallelFlowRunner.parallelFlowRunner(number -> {
+            throw new IllegalStateException();
+        }, 1);
+
+        List<HappyPath<Integer, String>> outcomes = runner.runUnordered(context, asList(1, 2));
+
+        assertThat(outcomes).extracting(HappyPath::context).containsExactly(context, context);
+    }
+
+    @Test
+    public void aPipelineRunsItsInputsInTheContext() throws Exception {
+        FlowContext context = emptyContext().with(LIMIT, 2);
+        PipelinedFlowRunner<Integer, String, String> pipeline = PipelinedFlowRunner.<Integer, String>pipeline()
+                .attemptWithContext((flowContext, number) -> number <= flowContext.get(LIMIT) ? success() : failure("over limit"))
+                .mapWithContext((flowContext, number) -> number + "/" + flowContext.get(LIMIT));
+
+        List<HappyPath<String, String>> outcomes = pipeline.run(context, asList(1, 3));
+
+        assertThat(outcomes.get(0).get()).isEqualTo("1/2");
+        assertThat(outcomes.get(1).ifSad().get()).isEqualTo("over limit");
+        assertThat(outcomes.get(1).context()).isSameAs(context);
+    }
+
+    @Test
+    public void theOutcomeOfAFlowSubmittedToAnExecutorIsInTheContext() throws Exception {
+        FlowContext context = emptyContext().with(TENANT, "acme");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            KeyedFlowExecutor<Integer, String> keyedFlowExecutor = KeyedFlowExecutor.keyedFlowExecutor(executor, 1, 1, "rejected");
+            BoundedFlowExecutor<String> boundedFlowExecutor = BoundedFlowExecutor.boundedFlowExecutor(executor, 1, 1, 1, 1, TimeUnit.SECONDS, "rejected");
+
+            HappyPath<String, String> ran = keyedFlowExecutor.<String>submit(1, context, () -> HappyPath.happyPath("ran")).get(5, TimeUnit.SECONDS);
+            HappyPath<String, String> failed = boundedFlowExecutor.<String>submit(context, () -> {
+                throw new IllegalStateException();
+            }).get(5, TimeUnit.SECONDS);
+
+            assertThat(ran.context()).isSameAs(context);
+            assertThat(failed.context()).isSameAs(context);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void aRejectedFlowIsInTheContext() throws Exception {
+        FlowContext context = emptyContext().with(TENANT, "acme");
+        BoundedFlowExecutor<String> neverRuns = BoundedFlowExecutor.boundedFlowExecutor(runnable -> { }, 1, 1, 1, 1, TimeUnit.SECONDS, "rejected");
+        neverRuns.submit(context, () -> HappyPath.happyPath("queued"));
+
+        HappyPath<String, String> rejected = neverRuns.<String>submit(context, () -> HappyPath.happyPath("rejected")).get(5, TimeUnit.SECONDS);
+
+        assertThat(rejected.ifSad().get()).isEqualTo("rejected");
+        assertThat(rejected.context()).isSameAs(context);
+    }
+
+    @Test
+    public void addingAValueLeavesTheOriginalContextUnchanged() {
+        FlowContext original = emptyContext().with(TENANT, "acme");
+
+        FlowContext changed = original.with(TENANT, "other").with(LIMIT, 1);
+
+        assertThat(original.get(TENANT)).isEqualTo("acme");
+        assertThat(original.contains(LIMIT)).isFalse();
+        assertThat(changed.get(TENANT)).isEqualTo("other");
+        assertThat(changed.get(LIMIT)).isEqualTo(1);
+    }
+
+    @Test
+    public void keysWithTheSameNameAreDifferentSlots() {
+        ContextKey<String> otherTenant = contextKey("tenant");
+
+        FlowContext context = emptyContext().with(TENANT, "acme");
+
+        assertThat(context.contains(otherTenant)).isFalse();
+    }
+
+    @Test
+    public void getOrElseUsesTheAlternativeWhenThereIsNoValue() {
+        assertThat(emptyContext().getOrElse(LIMIT, 7)).isEqualTo(7);
+    }
+
+    @Test
+    public void getFailsWhenThereIsNoValue() {
+        assertThatThrownBy(() -> emptyContext().get(TENANT))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Context did not contain a 'tenant'");
+    }
+
+    @Test
+    public void valuesMustNotBeNull() {
+        assertThatThrownBy(() -> emptyContext().with(TENANT, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The value for 'tenant' must not be null");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+
+public class FlowHistoryTest implements WithAssertions {
+
+    @After
+    public void disable() {
+        FlowHistory.disable();
+    }
+
+    @Test
+    public void theHistoryIsAttachedToATechnicalFailure() {
+        FlowHistory.enable(10, 0);
+
+        Exception technicalFailure = FlowHistory.record("checkout", () -> HappyPath.<Integer, String>happyPath(1)
+                .map("parse", happy -> happy + 1)
+                .attempt("check stock", happy -> success())
+                .map("charge", happy -> {
+                    throw new IllegalStateException("card declined");
+                }))
+                .ifTechnicalFailure().get();
+
+        String history = history(technicalFailure);
+        assertThat(history).startsWith("History of flow 'checkout':");
+        assertThat(history).contains("parse HAPPY");
+        assertThat(history).contains("check stock HAPPY");
+        assertThat(history).contains("charge TECHNICAL_FAILURE");
+    }
+
+    @Test
+    public void stagesThatProduceAFailureAreSad() {
+        FlowHistory.enable(10, 0);
+
+        Exception technicalFailure = FlowHistory.record("checkout", () -> HappyPath.<Integer, String>happyPath(1)
+                .attempt("check stock", happy -> failure("out of stock"))
+                .ifSad()
+                .map("explain", sad -> sad + "!")
+                .then(sad -> SadPath.technicalFailure(new IllegalStateException())))
+                .ifTechnicalFailure().get();
+
+        String history = history(technicalFailure);
+        assertThat(history).contains("check stock SAD");
+        assertThat(history).contains("explain SAD");
+    }
+
+    @Test
+    public void onlyTheMostRecentStagesAreKept() {
+        FlowHistory.enable(2, 0);
+
+        Exception technicalFailure = FlowHistory.record("counting", () -> HappyPath.<Integer, String>happyPath(1)
+                .map("first", happy -> happy + 1)
+                .map("second", happy -> happy + 1)
+                .map("third", happy -> happy + 1)
+                .then(happy -> HappyPath.technicalFailure(new IllegalStateException())))
+                .ifTechnicalFailure().get();
+
+        String history = history(technicalFailure);
+        assertThat(history).startsWith("History of flow 'counting' (the last 2 of 3 stages):");
+        assertThat(history).doesNotContain("first");
+        assertThat(history).contains("second");
+        assertThat(history).contains("third");
+    }
+
+    @Test
+    public void valuesAreTruncated() {
+        FlowHistory.enable(10, 3);
+
+        Exception technicalFailure = FlowHistory.record("values", () -> HappyPath.<String, String>happyPath("ab")
+                .map("short", happy -> happy)
+                .map("long", happy -> happy + "cdef")
+                .then(happy -> HappyPath.technicalFailure(new IllegalStateException())))
+                .ifTechnicalFailure().get();
+
+        String history = history(technicalFailure);
+        assertThat(history).contains("short HAPPY");
+        assertThat(history).contains("ns ab");
+        assertThat(history).contains("ns abc...");
+    }
+
+    @Test
+    public void eachFlowHasItsOwnHistory() {
+        FlowHistory.enable(10, 0);
+        FlowHistory.record("earlier", () -> HappyPath.happyPath(1).map("earlier stage", happy -> happy));
+
+        Exception technicalFailure = FlowHistory.record("later", () -> HappyPath.happyPath(1)
+                .map("later stage", happy -> {
+                    throw new IllegalStateException();
+                }))
+                .ifTechnicalFailure().get();
+
+        assertThat(history(technicalFailure)).doesNotContain("earlier stage");
+    }
+
+    @Test
+    public void nothingIsAttachedWhenDisabled() {
+        Exception technicalFailure = FlowHistory.record("disabled", () -> HappyPath.happyPath(1)
+                .map("stage", happy -> {
+                    throw new IllegalStateException();
+                }))
+                .ifTechnicalFailure().get();
+
+        assertThat(technicalFailure.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    public void theCapacityMustBeAtLeastOne() {
+        assertThatThrownBy(() -> FlowHistory.enable(0, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The capacity must be at least 1 but was 0");
+    }
+
+    private String history(Exception technicalFailure) {
+        assertThat(technicalFailure.getSuppressed()).hasSize(1);
+        assertThat(technicalFailure.getSuppressed()[0]).isInstanceOf(FlowHistoryException.class);
+        return technicalFailure.getSuppressed()[0].getMessage();
+    }
+}
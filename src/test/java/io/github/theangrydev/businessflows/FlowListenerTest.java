@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+
+public class FlowListenerTest implements WithAssertions {
+
+    private final RecordingListener listener = new RecordingListener();
+
+    @After
+    public void unregister() {
+        FlowListener.unregister(listener);
+    }
+
+    @Test
+    public void listenersAreEnabledForTheTests() {
+        assertThat(FlowListener.enabled()).isTrue();
+    }
+
+    @Test
+    public void reportsCreationTransitionsOutcomeChangesAndJoin() {
+        String result = FlowListener.listen(listener, () -> HappyPath.<Integer, String>happyPath(1)
+                .map(happy -> happy + 1)
+                .attempt(happy -> failure("sad"))
+                .ifSad()
+                .map(sad -> sad + "!")
+                .join(happy -> "happy", sad -> sad, technicalFailure -> "technical failure"));
+
+        assertThat(result).isEqualTo("sad!");
+        assertThat(listener.events).containsExactly(
+                "created Happy: 1",
+                "MAP Happy: 1 -> Happy: 2",
+                "ATTEMPT Happy: 2 -> Sad: sad",
+                "ATTEMPT changed Happy: 2 -> Sad: sad",
+                "MAP Sad: sad -> Sad: sad!",
+                "joined Sad: sad!");
+    }
+
+    @Test
+    public void reportsATechnicalFailureAsAnOutcomeChange() {
+        IllegalStateException technicalFailure = new IllegalStateException("broken");
+
+        FlowListener.listen(listener, () -> HappyPath.<Integer, String>happyPath(1).peek(happy -> {throw technicalFailure;}));
+
+        assertThat(listener.events).containsExactly(
+                "created Happy: 1",
+                "PEEK Happy: 1 -> Technical Failure: " + technicalFailure,
+                "PEEK changed Happy: 1 -> Technical Failure: " + technicalFailure);
+    }
+
+    @Test
+    public void operationsThatDoNotRunAreNotReported() {
+        FlowListener.listen(listener, () -> HappyPath.<Integer, String>sadPath("sad").map(happy -> happy + 1).peek(happy -> {}));
+
+        assertThat(listener.events).containsExactly("created Sad: sad");
+    }
+
+    @Test
+    public void reportsARoundOfValidation() {
+        FlowListener.listen(listener, () -> ValidationPath.validate(1, happy -> failures("invalid")));
+
+        assertThat(listener.events).containsExactly(
+                "created Happy: 1",
+                "VALIDATE Happy: 1 -> Sad: [invalid]",
+                "VALIDATE changed Happy: 1 -> Sad: [invalid]");
+    }
+
+    @Test
+    public void aScopedListenerOnlyHearsAboutThePipelineItWasRegisteredFor() {
+        FlowListener.listen(listener, () -> HappyPath.happyPath(1));
+        HappyPath.happyPath(2);
+
+        assertThat(listener.events).containsExactly("created Happy: 1");
+    }
+
+    @Test
+    public void aGlobalListenerHearsAboutEveryFlowUntilItIsUnregistered() {
+        FlowListener.register(listener);
+        HappyPath.happyPath(1);
+        FlowListener.unregister(listener);
+        HappyPath.happyPath(2);
+
+        assertThat(listener.events).containsExactly("created Happy: 1");
+    }
+
+    @Test
+    public void exceptionsThrownByAListenerAreIgnored() {
+        FlowListener faultyListener = new FlowListener() {
+            @Override
+            public void transitioned(FlowOperation operation, BusinessFlow<?, ?, ?> before, BusinessFlow<?, ?, ?> after) {
+                throw new IllegalStateException("faulty listener");
+            }
+        };
+
+        Integer result = FlowListener.listen(faultyListener, () -> HappyPath.<Integer, String>happyPath(1).map(happy -> happy + 1).get());
+
+        assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    public void operationsPerformedByAListenerAreNotReported() {
+        FlowListener joiningListener = new FlowListener() {
+            @Override
+            public void joined(BusinessFlow<?, ?, ?> flow) {
+                listener.events.add("joined " + flow.join(happy -> "happy", sad -> "sad", technicalFailure -> "technical failure"));
+            }
+        };
+
+        FlowListener.listen(listener, () -> FlowListener.listen(joiningListener, () -> HappyPath.happyPath(1).join(happy -> happy, sad -> sad)));
+
+        assertThat(listener.events).containsExactly("created Happy: 1", "joined Happy: 1", "joined happy");
+    }
+
+    private static class RecordingListener implements FlowListener {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void created(BusinessFlow<?, ?, ?> flow) {
+            events.add("created " + flow);
+        }
+
+        @Override
+        public void transitioned(FlowOperation operation, BusinessFlow<?, ?, ?> before, BusinessFlow<?, ?, ?> after) {
+            events.add(operation + " " + before + " -> " + after);
+        }
+
+        @Override
+        public void outcomeChanged(FlowOperation operation, BusinessFlow<?, ?, ?> before, BusinessFlow<?, ?, ?> after) {
+            events.add(operation + " changed " + before + " -> " + after);
+        }
+
+        @Override
+        public void joined(BusinessFlow<?, ?, ?> flow) {
+            events.add("joined " + flow);
+        }
+    }
+}
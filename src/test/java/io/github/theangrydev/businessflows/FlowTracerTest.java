@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.FlowOperation.ATTEMPT;
+import static io.github.theangrydev.businessflows.FlowOperation.MAP;
+import static io.github.theangrydev.businessflows.FlowOutcome.HAPPY;
+import static io.github.theangrydev.businessflows.FlowOutcome.SAD;
+import static io.github.theangrydev.businessflows.FlowOutcome.TECHNICAL_FAILURE;
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assume.assumeTrue;
+
+public class FlowTracerTest implements WithAssertions {
+
+    private long now;
+
+    @Test
+    public void sampledFlowsRecordEveryStep() {
+        assumeTrue(FlowListener.enabled());
+        FlowTracer flowTracer = new FlowTracer(1, 0, false, 10, () -> now);
+
+        flowTracer.trace("checkout", () -> HappyPath.<Integer, String>happyPath(1)
+                .map("parse", happy -> happy + 1)
+                .attempt(happy -> {
+                    now += 5;
+                    return failure("out of stock");
+                }));
+
+        FlowTrace trace = flowTracer.dump().get(0);
+        assertThat(trace.flowName()).isEqualTo("checkout");
+        assertThat(trace.sampled()).isTrue();
+        assertThat(trace.outcome()).isEqualTo(SAD);
+        assertThat(trace.durationNanos()).isEqualTo(5);
+        assertThat(trace.steps()).hasSize(2);
+        TraceStep parse = trace.steps().get(0);
+        assertThat(parse.name()).isEqualTo("parse");
+        assertThat(parse.operation()).isEqualTo(MAP);
+        assertThat(parse.outcome()).isEqualTo(HAPPY);
+        TraceStep attempt = trace.steps().get(1);
+        assertThat(attempt.name()).isEqualTo("ATTEMPT");
+        assertThat(attempt.operation()).isEqualTo(ATTEMPT);
+        assertThat(attempt.nanos()).isEqualTo(5);
+        assertThat(attempt.outcome()).isEqualTo(SAD);
+    }
+
+    @Test
+    public void technicalFailuresRecordTheExceptionClass() {
+        assumeTrue(FlowListener.enabled());
+        FlowTracer flowTracer = new FlowTracer(1, 0, false, 10, () -> now);
+
+        flowTracer.trace("checkout", () -> HappyPath.<Integer, String>happyPath(1)
+                .map(happy -> {
+                    throw new IllegalStateException();
+                }));
+
+        FlowTrace trace = flowTracer.dump().get(0);
+        assertThat(trace.outcome()).isEqualTo(TECHNICAL_FAILURE);
+        assertThat(trace.exceptionClass()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(trace.steps().get(0).exceptionClass()).isEqualTo(IllegalStateException.class.getName());
+    }
+
+    @Test
+    public void oneInEverySampleIntervalFlowsIsSampled() {
+        FlowTracer flowTracer = new FlowTracer(3, 0, false, 10, () -> now);
+
+        for (int flow = 0; flow < 9; flow++) {
+            flowTracer.trace("flow", () -> HappyPath.happyPath(1));
+        }
+
+        assertThat(flowTracer.dump()).hasSize(3);
+    }
+
+    @Test
+    public void unsampledFlowsThatAreSlowAreRecordedWithoutSteps() {
+        FlowTracer flowTracer = new FlowTracer(Integer.MAX_VALUE, 100, true, 10, () -> now);
+
+        flowTracer.trace("fast", () -> HappyPath.happyPath(1).peek(happy -> now += 99));
+        flowTracer.trace("slow", () -> HappyPath.happyPath(1).peek(happy -> now += 100));
+
+        List<FlowTrace> traces = flowTracer.dump();
+        assertThat(traces).hasSize(1);
+        assertThat(traces.get(0).flowName()).isEqualTo("slow");
+        assertThat(traces.get(0).durationNanos()).isEqualTo(100);
+        assertThat(traces.get(0).sampled()).isFalse();
+        assertThat(traces.get(0).steps()).isEmpty();
+    }
+
+    @Test
+    public void onlyTheMostRecentTracesAreKept() {
+        FlowTracer flowTracer = new FlowTracer(1, 0, false, 2, () -> now);
+
+        flowTracer.trace("first", () -> HappyPath.happyPath(1));
+        flowTracer.trace("second", () -> HappyPath.happyPath(2));
+        flowTracer.trace("third", () -> HappyPath.happyPath(3));
+
+        assertThat(flowNames(flowTracer.dump())).containsExactly("second", "third");
+    }
+
+    @Test
+    public void tracesAreDumpedWhenAFlowEndsInATechnicalFailure() {
+        FlowTracer flowTracer = new FlowTracer(1, 0, false, 10, () -> now);
+        List<List<FlowTrace>> dumps = new ArrayList<>();
+        flowTracer.dumpOnTechnicalFailure(dumps::add);
+
+        flowTracer.trace("happy", () -> HappyPath.happyPath(1));
+        flowTracer.trace("failed", () -> HappyPath.technicalFailure(new IllegalStateException()));
+
+        assertThat(dumps).hasSize(1);
+        assertThat(flowNames(dumps.get(0))).containsExactly("happy", "failed");
+    }
+
+    @Test
+    public void theSampleIntervalMustBeAtLeastOne() {
+        assertThatThrownBy(() -> FlowTracer.flowTracer(0, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The sample interval must be at least 1 but was 0");
+    }
+
+    @Test
+    public void theCapacityMustBeAtLeastOne() {
+        assertThatThrownBy(() -> FlowTracer.flowTracer(1, 1, TimeUnit.MILLISECONDS, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The capacity must be at least 1 but was 0");
+    }
+
+    private static List<String> flowNames(List<FlowTrace> traces) {
+        return traces.stream().map(FlowTrace::flowName).collect(toList());
+    }
+}
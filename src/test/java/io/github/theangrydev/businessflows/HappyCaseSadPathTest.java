@@ -28,7 +28,7 @@ public class HappyCaseSadPathTest {
     }
 
     private final Happy happy = new Happy();
-    private final HappyCaseSadPath<Happy, Object> happyCaseSadPath = new HappyCaseSadPath<>(happy);
+    private final HappyCaseSadPath<Happy, Object> happyCaseSadPath = new HappyCaseSadPath<>(happy, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsEmpty() {
@@ -28,7 +28,7 @@ public class HappyCaseTechnicalFailureTest {
     }
 
     private final Happy happy = new Happy();
-    private final HappyCaseTechnicalFailure<Happy, Object> happyCaseTechnicalFailure = new HappyCaseTechnicalFailure<>(happy);
+    private final HappyCaseTechnicalFailure<Happy, Object> happyCaseTechnicalFailure = new HappyCaseTechnicalFailure<>(happy, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsEmpty() {
@@ -25,7 +25,7 @@ public class HappyCaseTest {
 
     private final Exception technicalFailure = new Exception("technical failure");
     private final Happy happy = new Happy();
-    private final HappyCase<Happy, ?> happyCase = new HappyCase<>(happy);
+    private final HappyCase<Happy, ?> happyCase = new HappyCase<>(happy, FlowContext.emptyContext());
 
     class Happy {
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.KeyedFlowExecutor.keyedFlowExecutor;
+
+public class KeyedFlowExecutorTest implements WithAssertions {
+
+    private static final String REJECTED = "rejected";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final KeyedFlowExecutor<Integer, String> keyedFlowExecutor = keyedFlowExecutor(executor, 2, 1000, REJECTED);
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void flowsForTheSameKeyRunInSubmissionOrder() {
+        List<Integer> ran = new ArrayList<>();
+        List<CompletableFuture<HappyPath<Integer, String>>> outcomes = new ArrayList<>();
+
+        for (int flow = 0; flow < 500; flow++) {
+            int flowNumber = flow;
+            outcomes.add(keyedFlowExecutor.submit(1, () -> {
+                ran.add(flowNumber);
+                return HappyPath.happyPath(flowNumber);
+            }));
+        }
+
+        for (int flow = 0; flow < 500; flow++) {
+            assertThat(outcomes.get(flow).join().get()).isEqualTo(flow);
+            assertThat(ran.get(flow)).isEqualTo(flow);
+        }
+    }
+
+    @Test
+    public void flowsForKeysInDifferentLanesRunInParallel() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<HappyPath<String, String>> blocked = keyedFlowExecutor.submit(0, () -> {
+            release.await();
+            return HappyPath.happyPath("first");
+        });
+
+        HappyPath<String, String> otherLane = keyedFlowExecutor.<String>submit(1, () -> HappyPath.happyPath("second")).get(5, TimeUnit.SECONDS);
+
+        assertThat(otherLane.get()).isEqualTo("second");
+        assertThat(blocked.isDone()).isFalse();
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS).get()).isEqualTo("first");
+    }
+
+    @Test
+    public void flowsSubmittedToAFullLaneAreRejectedAsSad() throws Exception {
+        KeyedFlowExecutor<Integer, String> smallLanes = keyedFlowExecutor(executor, 2, 1, REJECTED);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<HappyPath<String, String>> running = smallLanes.submit(0, () -> {
+            release.await();
+            return HappyPath.happyPath("ran");
+        });
+
+        HappyPath<String, String> rejected = smallLanes.<String>submit(2, () -> HappyPath.happyPath("never ran")).get(5, TimeUnit.SECONDS);
+
+        assertThat(rejected.ifSad().get()).isEqualTo(REJECTED);
+        assertThat(smallLanes.laneDepths()).containsExactly(1, 0);
+        assertThat(smallLanes.laneRejections(0)).isEqualTo(1L);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).get()).isEqualTo("ran");
+        assertThat(smallLanes.laneDepth(0)).isEqualTo(0);
+    }
+
+    @Test
+    public void concurrentRejectionsDoNotLeaveTheLaneRunning() throws Exception {
+        ThreadPoolExecutor laneExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        try {
+            KeyedFlowExecutor<Integer, String> oneSlot = keyedFlowExecutor(laneExecutor, 1, 1, REJECTED);
+            List<CompletableFuture<HappyPath<Integer, String>>> outcomes = new CopyOnWriteArrayList<>();
+            List<Future<?>> submitted = new ArrayList<>();
+            for (int producer = 0; producer < 4; producer++) {
+                submitted.add(producers.submit(() -> {
+                    for (int flow = 0; flow < 10000; flow++) {
+                        int flowNumber = flow;
+                        outcomes.add(oneSlot.submit(1, () -> HappyPath.happyPath(flowNumber)));
+                    }
+                }));
+            }
+            for (Future<?> producer : submitted) {
+                producer.get(10, TimeUnit.SECONDS);
+            }
+            for (CompletableFuture<HappyPath<Integer, String>> outcome : outcomes) {
+                outcome.get(10, TimeUnit.SECONDS);
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (laneExecutor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertThat(laneExecutor.getActiveCount()).isEqualTo(0);
+            assertThat(oneSlot.laneDepth(0)).isEqualTo(0);
+        } finally {
+            producers.shutdownNow();
+            laneExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void exceptionsThrownByAFlowBecomeTechnicalFailures() throws Exception {
+        Exception technicalFailure = new Exception();
+
+        HappyPath<String, String> outcome = keyedFlowExecutor.<String>submit(1, () -> {
+            throw technicalFailure;
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(outcome.ifTechnicalFailure().get()).isSameAs(technicalFailure);
+    }
+
+    @Test
+    public void anErrorThrownByAFlowFailsItsFutureAndTheLaneCarriesOn() throws Exception {
+        AssertionError error = new AssertionError("thrown by the flow on purpose");
+
+        CompletableFuture<HappyPath<String, String>> failed = keyedFlowExecutor.submit(1, () -> {
+            throw error;
+        });
+        CompletableFuture<HappyPath<String, String>> next = keyedFlowExecutor.submit(1, () -> HappyPath.happyPath("next"));
+
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasCause(error);
+        assertThat(next.get(5, TimeUnit.SECONDS).get()).isEqualTo("next");
+    }
+
+    @Test
+    public void keysAreHashedToALane() {
+        assertThat(keyedFlowExecutor.lanes()).isEqualTo(2);
+        assertThat(keyedFlowExecutor.laneFor(0)).isEqualTo(0);
+        assertThat(keyedFlowExecutor.laneFor(1)).isEqualTo(1);
+        assertThat(keyedFlowExecutor.laneFor(null)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.OutcomeCounters.globalOutcomeCounters;
+import static io.github.theangrydev.businessflows.OutcomeCounters.outcomeCounters;
+
+public class OutcomeCountersTest implements WithAssertions {
+
+    private final OutcomeCounters counters = outcomeCounters(2);
+
+    @Test
+    public void countsEachTrackByFlowName() {
+        counters.count("checkout", HappyPath.happyPath(1));
+        counters.count("checkout", HappyPath.happyPath(2));
+        counters.count("checkout", HappyPath.sadPath("sad"));
+        counters.count("checkout", HappyPath.technicalFailure(new IllegalStateException()));
+        counters.count("refund", HappyPath.happyPath(3));
+
+        OutcomeCounts checkout = counters.snapshot("checkout");
+        assertThat(checkout.happy()).isEqualTo(2);
+        assertThat(checkout.sad()).isEqualTo(1);
+        assertThat(checkout.technicalFailures()).isEqualTo(1);
+        assertThat(checkout.total()).isEqualTo(4);
+        assertThat(checkout.technicalFailureRatio()).isEqualTo(0.25);
+        assertThat(counters.snapshot("refund").happy()).isEqualTo(1);
+    }
+
+    @Test
+    public void countsSadObjectsAndTechnicalFailuresByClass() {
+        counters.count("checkout", HappyPath.sadPath("sad"));
+        counters.count("checkout", HappyPath.sadPath(1));
+        counters.count("checkout", HappyPath.sadPath("another sad"));
+        counters.count("checkout", HappyPath.technicalFailure(new IllegalStateException()));
+
+        OutcomeCounts checkout = counters.snapshot("checkout");
+        assertThat(checkout.sadByClass()).containsEntry("java.lang.String", 2L).containsEntry("java.lang.Integer", 1L).hasSize(2);
+        assertThat(checkout.technicalFailuresByClass()).containsEntry("java.lang.IllegalStateException", 1L).hasSize(1);
+    }
+
+    @Test
+    public void classesBeyondTheCapAreCountedAsOther() {
+        counters.count("checkout", HappyPath.sadPath("sad"));
+        counters.count("checkout", HappyPath.sadPath(1));
+        counters.count("checkout", HappyPath.sadPath(2L));
+        counters.count("checkout", HappyPath.sadPath(3.0));
+
+        OutcomeCounts checkout = counters.snapshot("checkout");
+        assertThat(checkout.sadByClass()).containsEntry(OutcomeCounts.OTHER, 2L).hasSize(3);
+        assertThat(checkout.sad()).isEqualTo(4);
+    }
+
+    @Test
+    public void returnsTheFlowSoThatItCanBeCountedInline() {
+        HappyPath<Integer, String> flow = HappyPath.happyPath(1);
+
+        assertThat(counters.count("checkout", flow)).isSameAs(flow);
+    }
+
+    @Test
+    public void snapshotsEveryFlowByName() {
+        counters.count("refund", HappyPath.happyPath(1));
+        counters.count("checkout", SadPath.sadPath("sad"));
+
+        assertThat(counters.snapshot().keySet()).containsExactly("checkout", "refund");
+    }
+
+    @Test
+    public void snapshotAndResetStartsCountingAgain() {
+        counters.count("checkout", HappyPath.happyPath(1));
+
+        Map<String, OutcomeCounts> first = counters.snapshotAndReset();
+        counters.count("checkout", HappyPath.sadPath("sad"));
+        Map<String, OutcomeCounts> second = counters.snapshotAndReset();
+
+        assertThat(first.get("checkout").happy()).isEqualTo(1);
+        assertThat(first.get("checkout").sad()).isEqualTo(0);
+        assertThat(second.get("checkout").happy()).isEqualTo(0);
+        assertThat(second.get("checkout").sad()).isEqualTo(1);
+    }
+
+    @Test
+    public void anUnknownFlowHasNoCounts() {
+        OutcomeCounts unknown = counters.snapshot("unknown");
+
+        assertThat(unknown.total()).isEqualTo(0);
+        assertThat(unknown.technicalFailureRatio()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void countsConcurrentFlowsWithoutLosingAny() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int task = 0; task < 4; task++) {
+            executor.execute(() -> {
+                for (int flow = 0; flow < 10_000; flow++) {
+                    globalOutcomeCounters().count("OutcomeCountersTest.concurrent", flow % 2 == 0 ? HappyPath.happyPath(flow) : HappyPath.sadPath("sad"));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        OutcomeCounts counts = globalOutcomeCounters().snapshot("OutcomeCountersTest.concurrent");
+        assertThat(counts.happy()).isEqualTo(20_000);
+        assertThat(counts.sad()).isEqualTo(20_000);
+    }
+
+    @Test
+    public void theCapMustBeAtLeastOne() {
+        assertThatThrownBy(() -> outcomeCounters(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The max classes per flow must be at least 1 but was 0");
+    }
+}
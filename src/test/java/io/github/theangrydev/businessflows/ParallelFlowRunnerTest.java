@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static io.github.theangrydev.businessflows.ParallelFlowRunner.parallelFlowRunner;
+import static java.util.stream.Collectors.toList;
+
+public class ParallelFlowRunnerTest implements WithAssertions {
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    private final Exception technicalFailure = new Exception();
+
+    private final ParallelFlowRunner<Integer, Integer, String> runner = parallelFlowRunner(this::flow, forkJoinPool, 7);
+
+    @After
+    public void shutdownPool() {
+        forkJoinPool.shutdownNow();
+    }
+
+    @Test
+    public void runOrderedKeepsTheOrderOfTheInputs() {
+        List<Integer> inputs = inputs(1000);
+
+        List<HappyPath<Integer, String>> outcomes = runner.runOrdered(inputs);
+
+        assertThat(outcomes).hasSize(1000);
+        for (int index = 0; index < inputs.size(); index++) {
+            assertThat(describe(outcomes.get(index))).isEqualTo(expectedDescription(inputs.get(index)));
+        }
+    }
+
+    @Test
+    public void runOrderedWorksOnArrays() {
+        List<HappyPath<Integer, String>> outcomes = runner.runOrdered(new Integer[]{1, 2, 3});
+
+        assertThat(outcomes.stream().map(this::describe).collect(toList())).containsExactly("happy 2", "sad 2", "happy 6");
+    }
+
+    @Test
+    public void runUnorderedProducesAnOutcomeForEveryInput() {
+        List<Integer> inputs = inputs(1000);
+
+        List<HappyPath<Integer, String>> outcomes = runner.runUnordered(inputs);
+
+        List<String> expected = inputs.stream().map(this::expectedDescription).collect(toList());
+        assertThat(outcomes.stream().map(this::describe).collect(toList())).containsExactlyInAnyOrder(expected.toArray(new String[0]));
+    }
+
+    @Test
+    public void runInWindowsHandsOverAtMostTheMaximumNumberOfOutcomesAtATime() throws Exception {
+        List<List<HappyPath<Integer, String>>> windows = new ArrayList<>();
+
+        runner.runInWindows(inputs(25), 10, windows::add);
+
+        assertThat(windows.stream().map(List::size).collect(toList())).containsExactly(10, 10, 5);
+        assertThat(describe(windows.get(2).get(4))).isEqualTo(expectedDescription(24));
+    }
+
+    @Test
+    public void exceptionsThrownByTheFlowBecomeTechnicalFailures() {
+        List<HappyPath<Integer, String>> outcomes = runner.runOrdered(new Integer[]{5});
+
+        assertThat(outcomes.get(0).ifTechnicalFailure().get()).isSameAs(technicalFailure);
+    }
+
+    @Test
+    public void splitThresholdMustBePositive() {
+        assertThatThrownBy(() -> parallelFlowRunner(this::flow, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The split threshold must be at least 1 but was 0");
+    }
+
+    private HappyPath<Integer, String> flow(Integer input) throws Exception {
+        if (input % 5 == 0) {
+            throw technicalFailure;
+        }
+        if (input % 2 == 0) {
+            return HappyPath.sadPath("sad " + input);
+        }
+        return HappyPath.happyPath(input * 2);
+    }
+
+    private String expectedDescription(int input) {
+        if (input % 5 == 0) {
+            return "technical failure";
+        }
+        if (input % 2 == 0) {
+            return "sad " + input;
+        }
+        return "happy " + input * 2;
+    }
+
+    private String describe(HappyPath<Integer, String> outcome) {
+        return outcome.join(happy -> "happy " + happy, sad -> sad, failure -> "technical failure");
+    }
+
+    private List<Integer> inputs(int size) {
+        return IntStream.range(0, size).boxed().collect(toList());
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+
+public class PipelinedFlowRunnerTest implements WithAssertions {
+
+    private final Exception technicalFailure = new Exception();
+
+    @Test
+    public void runsEveryStageOverEveryInputKeepingTheOrder() throws InterruptedException {
+        PipelinedFlowRunner<Integer, String, String> pipeline = PipelinedFlowRunner.<Integer, String>pipeline()
+                .map(input -> input * 2)
+                .then(doubled -> HappyPath.happyPath(doubled + 1))
+                .map(String::valueOf);
+
+        List<HappyPath<String, String>> outcomes = pipeline.run(inputs(10_000), Executors.defaultThreadFactory(), 2);
+
+        assertThat(outcomes).hasSize(10_000);
+        for (int index = 0; index < outcomes.size(); index++) {
+            assertThat(outcomes.get(index).get()).isEqualTo(String.valueOf(index * 2 + 1));
+        }
+    }
+
+    @Test
+    public void sadInputsSkipTheRemainingStages() throws InterruptedException {
+        AtomicInteger lastStageInvocations = new AtomicInteger();
+        PipelinedFlowRunner<Integer, Integer, String> pipeline = PipelinedFlowRunner.<Integer, String>pipeline()
+                .attempt(input -> input % 2 == 0 ? failure("even " + input) : success())
+                .map(input -> {
+                    lastStageInvocations.incrementAndGet();
+                    return input;
+                });
+
+        List<HappyPath<Integer, String>> outcomes = pipeline.run(asList(1, 2, 3, 4));
+
+        assertThat(outcomes.stream().map(this::describe).collect(toList())).containsExactly("happy 1", "sad even 2", "happy 3", "sad even 4");
+        assertThat(lastStageInvocations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void technicalFailuresSkipTheRemainingStages() throws InterruptedException {
+        PipelinedFlowRunner<Integer, Integer, String> pipeline = PipelinedFlowRunner.<Integer, String>pipeline()
+                .map(input -> {
+                    if (input == 2) {
+                        throw technicalFailure;
+                    }
+                    return input;
+                })
+                .map(input -> input * 10);
+
+        List<HappyPath<Integer, String>> outcomes = pipeline.run(asList(1, 2, 3));
+
+        assertThat(outcomes.stream().map(this::describe).collect(toList())).containsExactly("happy 10", "technical failure", "happy 30");
+        assertThat(outcomes.get(1).ifTechnicalFailure().get()).isSameAs(technicalFailure);
+    }
+
+    @Test
+    public void aNullHappyObjectCarriesOnToTheNextStage() throws InterruptedException {
+        PipelinedFlowRunner<Integer, Integer, String> pipeline = PipelinedFlowRunner.<Integer, String>pipeline()
+                .map(input -> input == 2 ? null : input)
+                .map(input -> input == null ? 0 : input * 10);
+
+        List<HappyPath<Integer, String>> outcomes = pipeline.run(asList(1, 2, 3));
+
+        assertThat(outcomes.stream().map(this::describe).collect(toList())).containsExactly("happy 10", "happy 0", "happy 30");
+    }
+
+    @Test
+    public void aPipelineWithNoStagesReturnsTheInputsAsHappy() throws InterruptedException {
+        List<HappyPath<Integer, String>> outcomes = PipelinedFlowRunner.<Integer, String>pipeline().run(asList(1, 2));
+
+        assertThat(outcomes.stream().map(this::describe).collect(toList())).containsExactly("happy 1", "happy 2");
+    }
+
+    @Test(timeout = 10_000)
+    public void anErrorThrownByAStageIsRethrownOnceTheOtherStagesHaveFinished() {
+        StackOverflowError stackOverflowError = new StackOverflowError();
+        List<Thread> stageThreads = new CopyOnWriteArrayList<>();
+        PipelinedFlowRunner<Integer, Integer, String> pipeline = PipelinedFlowRunner.<Integer, String>pipeline()
+                .map(input -> input)
+                .map(input -> {
+                    if (input == 100) {
+                        throw stackOverflowError;
+                    }
+                    return input;
+                })
+                .map(input -> input);
+
+        assertThatThrownBy(() -> pipeline.run(inputs(10_000), recordingThreadFactory(stageThreads), 2)).isSameAs(stackOverflowError);
+        assertThat(stageThreads.stream().noneMatch(Thread::isAlive)).isTrue();
+    }
+
+    @Test(timeout = 10_000)
+    public void interruptingTheCallerStopsTheStageThreads() throws InterruptedException {
+        List<Thread> stageThreads = new CopyOnWriteArrayList<>();
+        CountDownLatch stageStarted = new CountDownLatch(1);
+        CountDownLatch neverReleased = new CountDownLatch(1);
+        PipelinedFlowRunner<Integer, Integer, String> pipeline = PipelinedFlowRunner.<Integer, String>pipeline()
+                .map(input -> {
+                    stageStarted.countDown();
+                    neverReleased.await();
+                    return input;
+                })
+                .map(input -> input);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                pipeline.run(inputs(100), recordingThreadFactory(stageThreads), 2);
+            } catch (Throwable throwable) {
+                thrown.set(throwable);
+            }
+        });
+        caller.start();
+
+        stageStarted.await();
+        caller.interrupt();
+        caller.join();
+
+        assertThat(thrown.get()).isInstanceOf(InterruptedException.class);
+        assertThat(stageThreads).hasSize(2);
+        assertThat(stageThreads.stream().noneMatch(Thread::isAlive)).isTrue();
+    }
+
+    private ThreadFactory recordingThreadFactory(List<Thread> stageThreads) {
+        return runnable -> {
+            Thread thread = new Thread(runnable);
+            stageThreads.add(thread);
+            return thread;
+        };
+    }
+
+    private String describe(HappyPath<Integer, String> outcome) {
+        return outcome.join(happy -> "happy " + happy, sad -> "sad " + sad, failure -> "technical failure");
+    }
+
+    private List<Integer> inputs(int size) {
+        return IntStream.range(0, size).boxed().collect(toList());
+    }
+}
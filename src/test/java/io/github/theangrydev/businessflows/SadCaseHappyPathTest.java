@@ -28,7 +28,7 @@ public class SadCaseHappyPathTest {
     }
 
     private final Sad sad = new Sad();
-    private final SadCaseHappyPath<Object, Sad> sadCaseHappyPath = new SadCaseHappyPath<>(sad);
+    private final SadCaseHappyPath<Object, Sad> sadCaseHappyPath = new SadCaseHappyPath<>(sad, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsEmpty() {
@@ -32,7 +32,7 @@ public class SadCaseSadPathTest {
     }
 
     private final Sad sad = new Sad();
-    private final SadCaseSadPath<Object, Sad> sadSadCaseSadPath = new SadCaseSadPath<>(sad);
+    private final SadCaseSadPath<Object, Sad> sadSadCaseSadPath = new SadCaseSadPath<>(sad, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsPresent() {
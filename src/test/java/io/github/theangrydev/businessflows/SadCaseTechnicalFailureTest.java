@@ -28,7 +28,7 @@ public class SadCaseTechnicalFailureTest {
     }
 
     private final Sad sad = new Sad();
-    private final SadCaseTechnicalFailure<Object, Sad> sadCaseTechnicalFailure = new SadCaseTechnicalFailure<>(sad);
+    private final SadCaseTechnicalFailure<Object, Sad> sadCaseTechnicalFailure = new SadCaseTechnicalFailure<>(sad, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsEmpty() {
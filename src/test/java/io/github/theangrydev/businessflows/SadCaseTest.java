@@ -25,7 +25,7 @@ public class SadCaseTest {
 
     private final Exception technicalFailure = new Exception("technical failure");
     private final Sad sad = new Sad();
-    private final SadCase<?, Sad> sadCase = new SadCase<>(sad);
+    private final SadCase<?, Sad> sadCase = new SadCase<>(sad, FlowContext.emptyContext());
 
     class Sad {
 
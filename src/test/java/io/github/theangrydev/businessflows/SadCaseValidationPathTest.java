@@ -24,13 +24,33 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class SadCaseValidationPathTest {
 
-    private SadCaseValidationPath<Object, Object, Object> sadCaseValidationPath = new SadCaseValidationPath<>(singletonList(new Object()));
+    private SadCaseValidationPath<Object, Object, Object> sadCaseValidationPath = new SadCaseValidationPath<>(singletonList(new Object()), FlowContext.emptyContext());
 
     @Test
     public void validateReturnsThis() {
         assertThat(sadCaseValidationPath.validate(null)).isSameAs(sadCaseValidationPath);
     }
 
+    @Test
+    public void validateFirstReturnsThis() {
+        assertThat(sadCaseValidationPath.validateFirst(null)).isSameAs(sadCaseValidationPath);
+    }
+
+    @Test
+    public void validateFirstIntoReturnsThis() {
+        assertThat(sadCaseValidationPath.validateFirstInto(null, null)).isSameAs(sadCaseValidationPath);
+    }
+
+    @Test
+    public void validateWithinReturnsThis() {
+        assertThat(sadCaseValidationPath.validateWithin(null, null)).isSameAs(sadCaseValidationPath);
+    }
+
+    @Test
+    public void validateWithinIntoReturnsThis() {
+        assertThat(sadCaseValidationPath.validateWithinInto(null, null, null)).isSameAs(sadCaseValidationPath);
+    }
+
     @Test
     public void isASadCaseHappyPath() {
         assertThat(sadCaseValidationPath).isInstanceOf(SadCaseHappyPath.class);
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import static io.github.theangrydev.businessflows.SharedField.sharedField;
+
+public class SharedFieldTest implements WithAssertions {
+
+    @Test
+    public void extractsTheFieldFromTheHappyObject() throws Exception {
+        SharedField<String, Integer> length = sharedField("length", String::length);
+
+        assertThat(length.map("four")).isEqualTo(4);
+    }
+
+    @Test
+    public void derivedFieldsExtractTheirParentFirst() throws Exception {
+        SharedField<String, Integer> length = sharedField("length", String::length);
+        SharedField<String, Boolean> even = length.derive("even", value -> value % 2 == 0);
+
+        assertThat(even.map("four")).isTrue();
+        assertThat(even.map("three")).isFalse();
+    }
+
+    @Test
+    public void isNamed() {
+        SharedField<String, Integer> length = sharedField("length", String::length);
+
+        assertThat(length.name()).isEqualTo("length");
+        assertThat(length.toString()).isEqualTo("length");
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+public class StageDiagnosticsTest implements WithAssertions {
+
+    @After
+    public void disable() {
+        FlowHistory.disable();
+        AllocationAccounting.disable();
+    }
+
+    @Test
+    public void activeWhileFlowHistoryIsEnabled() {
+        assertThat(StageDiagnostics.active()).isFalse();
+
+        FlowHistory.enable(8, 0);
+        FlowHistory.enable(16, 0);
+        assertThat(StageDiagnostics.active()).isTrue();
+
+        FlowHistory.disable();
+        FlowHistory.disable();
+        assertThat(StageDiagnostics.active()).isFalse();
+    }
+
+    @Test
+    public void activeWhileAllocationAccountingIsEnabled() {
+        AllocationAccounting.enable();
+        AllocationAccounting.enable();
+        assertThat(StageDiagnostics.active()).isEqualTo(AllocationAccounting.supported());
+
+        AllocationAccounting.disable();
+        AllocationAccounting.disable();
+        assertThat(StageDiagnostics.active()).isFalse();
+    }
+
+    @Test
+    public void activeWhileAFlowIsBeingTraced() {
+        FlowTracer flowTracer = FlowTracer.flowTracer(1, 10);
+
+        boolean activeWhileTraced = flowTracer.trace("checkout", StageDiagnostics::active);
+
+        assertThat(activeWhileTraced).isTrue();
+        assertThat(StageDiagnostics.active()).isFalse();
+    }
+}
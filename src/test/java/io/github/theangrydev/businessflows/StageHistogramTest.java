@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StageHistogramTest implements WithAssertions {
+
+    private final StageHistogram histogram = new StageHistogram();
+
+    @Test
+    public void smallValuesAreExact() {
+        for (long value = 0; value < 32; value++) {
+            assertThat(StageHistogram.highestValueInBucket(StageHistogram.bucket(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void everyValueIsWithinOneSixteenthOfTheHighestValueInItsBucket() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            long highestEquivalentValue = StageHistogram.highestValueInBucket(StageHistogram.bucket(value));
+
+            assertThat(highestEquivalentValue).isGreaterThanOrEqualTo(value);
+            assertThat(highestEquivalentValue - value).isLessThanOrEqualTo(value / 16);
+        }
+    }
+
+    @Test
+    public void theLargestValueFitsInTheLastBucket() {
+        assertThat(StageHistogram.bucket(Long.MAX_VALUE)).isEqualTo(StageHistogram.BUCKETS - 1);
+        assertThat(StageHistogram.highestValueInBucket(StageHistogram.BUCKETS - 1)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void percentilesComeFromTheRecordedValues() {
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.valueAtPercentile(50)).isBetween(500L, 500L + 500 / 16);
+        assertThat(snapshot.valueAtPercentile(99)).isBetween(990L, 990L + 990 / 16);
+        assertThat(snapshot.valueAtPercentile(99.9)).isBetween(999L, 999L + 999 / 16);
+        assertThat(snapshot.max()).isBetween(1000L, 1000L + 1000 / 16);
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() {
+        histogram.record(-5);
+
+        assertThat(histogram.snapshot().max()).isEqualTo(0);
+        assertThat(histogram.snapshot().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void snapshotsCanBeMerged() {
+        StageHistogram other = new StageHistogram();
+        histogram.record(10);
+        other.record(20);
+        other.record(30);
+
+        HistogramSnapshot merged = histogram.snapshot().merge(other.snapshot());
+
+        assertThat(merged.count()).isEqualTo(3);
+        assertThat(merged.valueAtPercentile(0)).isEqualTo(10);
+        assertThat(merged.max()).isEqualTo(30);
+    }
+
+    @Test
+    public void anEmptySnapshotHasNoValues() {
+        HistogramSnapshot snapshot = HistogramSnapshot.emptySnapshot();
+
+        assertThat(snapshot.count()).isEqualTo(0);
+        assertThat(snapshot.valueAtPercentile(99)).isEqualTo(0);
+        assertThat(snapshot.max()).isEqualTo(0);
+    }
+
+    @Test
+    public void resettingForgetsTheRecordedValues() {
+        histogram.record(10);
+
+        histogram.reset();
+
+        assertThat(histogram.snapshot().count()).isEqualTo(0);
+    }
+
+    @Test
+    public void thePercentileMustBeBetweenZeroAndOneHundred() {
+        assertThatThrownBy(() -> histogram.snapshot().valueAtPercentile(101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The percentile must be between 0 and 100 but was 101.0");
+    }
+
+    @Test
+    public void theNumberOfStripesIsThePowerOfTwoAtLeastTheNumberOfProcessorsUpToACap() {
+        assertThat(StageHistogram.stripes(1)).isEqualTo(1);
+        assertThat(StageHistogram.stripes(2)).isEqualTo(2);
+        assertThat(StageHistogram.stripes(3)).isEqualTo(4);
+        assertThat(StageHistogram.stripes(8)).isEqualTo(8);
+        assertThat(StageHistogram.stripes(1000)).isEqualTo(StageHistogram.MAX_STRIPES);
+    }
+
+    @Test
+    public void aStripeIsOnlyAllocatedOnceAThreadRecordsIntoIt() {
+        assertThat(histogram.stripesInUse()).isEqualTo(0);
+
+        histogram.record(10);
+        histogram.record(20);
+
+        assertThat(histogram.stripesInUse()).isEqualTo(1);
+    }
+
+    @Test
+    public void valuesRecordedOnDifferentThreadsAreAddedTogether() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            threads.add(new Thread(() -> {
+                for (long value = 1; value <= 1000; value++) {
+                    histogram.record(value);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(8000);
+        assertThat(snapshot.max()).isBetween(1000L, 1000L + 1000 / 16);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static io.github.theangrydev.businessflows.StageRegistry.globalStageRegistry;
+import static io.github.theangrydev.businessflows.StageRegistry.stageRegistry;
+
+public class StageRegistryTest implements WithAssertions {
+
+    private final StageRegistry registry = stageRegistry();
+
+    @Test
+    public void namedOperationsRecordIntoTheGlobalRegistry() {
+        HappyPath.<Integer, String>happyPath(1)
+                .map("StageRegistryTest.map", happy -> happy + 1)
+                .attempt("StageRegistryTest.attempt", happy -> success())
+                .then("StageRegistryTest.then", happy -> HappyPath.sadPath("sad"))
+                .ifSad()
+                .map("StageRegistryTest.sadMap", sad -> sad + "!");
+
+        assertThat(globalStageRegistry().snapshot("StageRegistryTest.map").count()).isEqualTo(1);
+        assertThat(globalStageRegistry().snapshot("StageRegistryTest.attempt").count()).isEqualTo(1);
+        assertThat(globalStageRegistry().snapshot("StageRegistryTest.then").count()).isEqualTo(1);
+        assertThat(globalStageRegistry().snapshot("StageRegistryTest.sadMap").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void stagesThatDoNotRunAreNotRecorded() {
+        HappyPath.<Integer, String>sadPath("sad").map("StageRegistryTest.skipped", happy -> happy + 1);
+
+        assertThat(globalStageRegistry().snapshot("StageRegistryTest.skipped").count()).isEqualTo(0);
+    }
+
+    @Test
+    public void namedStagesThatDoNotRunLeaveTheFlowAsItWas() {
+        HappyPath<Integer, String> sadPath = HappyPath.sadPath("sad");
+        SadPath<Integer, String> happyPath = SadPath.happyPath(1);
+        TechnicalFailure<Integer, String> sadTechnicalFailure = TechnicalFailure.sadPath("sad");
+
+        assertThat(sadPath.map("StageRegistryTest.skipped", happy -> happy + 1)).isSameAs(sadPath);
+        assertThat(sadPath.attempt("StageRegistryTest.skipped", happy -> success())).isSameAs(sadPath);
+        assertThat(happyPath.map("StageRegistryTest.skipped", sad -> sad + "!")).isSameAs(happyPath);
+        assertThat(sadTechnicalFailure.map("StageRegistryTest.skipped", exception -> exception)).isSameAs(sadTechnicalFailure);
+    }
+
+    @Test
+    public void namedStagesThatThrowAreRecordedAndBecomeTechnicalFailures() {
+        IllegalStateException exception = new IllegalStateException();
+
+        HappyPath<Integer, String> technicalFailure = HappyPath.<Integer, String>happyPath(1)
+                .<Integer>map("StageRegistryTest.throws", happy -> {throw exception;})
+                .ifTechnicalFailure()
+                .map("StageRegistryTest.technicalFailureMap", e -> e)
+                .ifHappy();
+
+        assertThat(technicalFailure.ifTechnicalFailure().get()).isSameAs(exception);
+        assertThat(globalStageRegistry().snapshot("StageRegistryTest.throws").count()).isEqualTo(1);
+        assertThat(globalStageRegistry().snapshot("StageRegistryTest.technicalFailureMap").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void recordsStagesThatThrow() {
+        HappyPath<Integer, String> technicalFailure = HappyPath.<Integer, String>happyPath(1)
+                .map(registry.timedMapping("fails", happy -> {throw new IllegalStateException();}));
+
+        assertThat(technicalFailure.ifTechnicalFailure().get()).isInstanceOf(IllegalStateException.class);
+        assertThat(registry.snapshot("fails").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void recordsConcurrentExecutionsWithoutLosingAny() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Mapping<Integer, Integer> stage = registry.timedMapping("concurrent", happy -> happy + 1);
+        for (int task = 0; task < 4; task++) {
+            executor.execute(() -> {
+                for (int execution = 0; execution < 10_000; execution++) {
+                    HappyPath.<Integer, String>happyPath(execution).map(stage);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(registry.snapshot("concurrent").count()).isEqualTo(40_000);
+    }
+
+    @Test
+    public void timesASampleOfExecutions() {
+        registry.sampleOneIn(10);
+        Mapping<Integer, Integer> stage = registry.timedMapping("sampled", happy -> happy + 1);
+
+        for (int execution = 0; execution < 10_000; execution++) {
+            HappyPath.<Integer, String>happyPath(execution).map(stage);
+        }
+
+        assertThat(registry.snapshot("sampled").count()).isBetween(500L, 1500L);
+    }
+
+    @Test
+    public void snapshotsEveryStageByName() {
+        HappyPath.<Integer, String>happyPath(1)
+                .map(registry.timedMapping("b", happy -> happy))
+                .attempt(registry.timedAction("a", happy -> success()));
+
+        assertThat(registry.snapshots().keySet()).containsExactly("a", "b");
+    }
+
+    @Test
+    public void resettingForgetsTheRecordedTimes() {
+        HappyPath.<Integer, String>happyPath(1).map(registry.timedMapping("reset", happy -> happy));
+
+        registry.reset();
+
+        assertThat(registry.snapshot("reset").count()).isEqualTo(0);
+    }
+
+    @Test
+    public void theSampleIntervalMustBeAtLeastOne() {
+        assertThatThrownBy(() -> registry.sampleOneIn(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The sample interval must be at least 1 but was 0");
+    }
+}
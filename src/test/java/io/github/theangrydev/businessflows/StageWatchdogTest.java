@@ -0,0 +1,207 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+public class StageWatchdogTest implements WithAssertions {
+
+    private final List<SlowStage> reports = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile long now;
+
+    @After
+    public void releaseStuckStages() {
+        release.countDown();
+    }
+
+    @Test
+    public void reportsAStageThatRunsPastItsThresholdWithItsStack() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 0, reports::add, () -> now);
+        Thread thread = runStuck(watchdog, "charge", "stuck-flow");
+
+        now += 99;
+        watchdog.scan();
+        assertThat(reports).isEmpty();
+
+        now += 1;
+        watchdog.scan();
+        assertThat(reports).hasSize(1);
+        SlowStage slowStage = reports.get(0);
+        assertThat(slowStage.stageName()).isEqualTo("charge");
+        assertThat(slowStage.threadName()).isEqualTo("stuck-flow");
+        assertThat(slowStage.elapsedNanos()).isEqualTo(100);
+        assertThat(slowStage.thresholdNanos()).isEqualTo(100);
+        assertThat(stackClasses(slowStage)).contains(StageWatchdogTest.class.getName());
+
+        release.countDown();
+        thread.join();
+    }
+
+    @Test
+    public void eachExecutionIsOnlyReportedOnce() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 0, reports::add, () -> now);
+        runStuck(watchdog, "charge", "stuck-flow");
+
+        now += 1000;
+        watchdog.scan();
+        watchdog.scan();
+
+        assertThat(reports).hasSize(1);
+    }
+
+    @Test
+    public void aStageNameIsReportedAtMostOncePerMinimumReportInterval() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 1000, reports::add, () -> now);
+        runStuck(watchdog, "charge", "first");
+        runStuck(watchdog, "charge", "second");
+        runStuck(watchdog, "ship", "third");
+
+        now += 100;
+        watchdog.scan();
+
+        assertThat(reports).hasSize(2);
+        assertThat(reports.get(0).stageName()).isNotEqualTo(reports.get(1).stageName());
+    }
+
+    @Test
+    public void stagesCanHaveTheirOwnThreshold() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 0, reports::add, () -> now);
+        watchdog.threshold("slow is fine", 1000, NANOSECONDS);
+        runStuck(watchdog, "slow is fine", "stuck-flow");
+
+        now += 999;
+        watchdog.scan();
+
+        assertThat(reports).isEmpty();
+    }
+
+    @Test
+    public void finishedStagesAreNotReported() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 0, reports::add, () -> now);
+
+        String result = watchdog.watchedMapping("quick", (String old) -> old + "!").map("done");
+        now += 1000;
+        watchdog.scan();
+
+        assertThat(result).isEqualTo("done!");
+        assertThat(reports).isEmpty();
+    }
+
+    @Test
+    public void theOuterStageIsWatchedAgainWhenANestedStageFinishes() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 0, reports::add, () -> now);
+        Attempt<String> outer = watchdog.watchedAttempt("outer", () -> {
+            watchdog.watchedMapping("inner", (String old) -> old).map("inner");
+            now += 100;
+            watchdog.scan();
+            return "outer";
+        });
+
+        outer.attempt();
+
+        assertThat(reports).hasSize(1);
+        assertThat(reports.get(0).stageName()).isEqualTo("outer");
+    }
+
+    @Test
+    public void anOuterStageThatWasReportedIsNotReportedAgainWhenANestedStageFinishes() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 0, reports::add, () -> now);
+        Attempt<String> outer = watchdog.watchedAttempt("outer", () -> {
+            now += 100;
+            watchdog.scan();
+            watchdog.watchedMapping("inner", (String old) -> old).map("inner");
+            watchdog.scan();
+            return "outer";
+        });
+
+        outer.attempt();
+
+        assertThat(reports).hasSize(1);
+        assertThat(reports.get(0).stageName()).isEqualTo("outer");
+    }
+
+    @Test
+    public void theSlotsOfThreadsThatHaveEndedArePrunedWithoutStartingTheWatchdog() throws Exception {
+        StageWatchdog watchdog = new StageWatchdog(100, 0, reports::add, () -> now);
+        Mapping<String, String> watched = watchdog.watchedMapping("quick", old -> old);
+        for (int i = 0; i < 10; i++) {
+            Thread thread = new Thread(() -> HappyPath.<String, String>happyPath("order").map(watched));
+            thread.start();
+            thread.join();
+        }
+
+        watched.map("order");
+
+        assertThat(watchdog.watchedThreads()).isEqualTo(1);
+    }
+
+    @Test
+    public void scansOnABackgroundThreadOnceStarted() throws Exception {
+        CountDownLatch reported = new CountDownLatch(1);
+        StageWatchdog watchdog = StageWatchdog.stageWatchdog(1, 1, MILLISECONDS, slowStage -> reported.countDown());
+        runStuck(watchdog, "charge", "stuck-flow");
+
+        watchdog.start(1, MILLISECONDS);
+        try {
+            assertThat(reported.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            watchdog.stop();
+        }
+    }
+
+    @Test
+    public void theDefaultThresholdMustBeAtLeastOne() {
+        assertThatThrownBy(() -> StageWatchdog.stageWatchdog(0, 1, MILLISECONDS, slowStage -> {}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The default threshold must be at least 1 but was 0");
+    }
+
+    private Thread runStuck(StageWatchdog watchdog, String stageName, String threadName) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        ActionThatMightFail<String, String> stuck = watchdog.watchedAction(stageName, happy -> {
+            started.countDown();
+            release.await();
+            return PotentialFailure.success();
+        });
+        Thread thread = new Thread(() -> HappyPath.<String, String>happyPath("order").attempt(stuck), threadName);
+        thread.setDaemon(true);
+        thread.start();
+        started.await();
+        return thread;
+    }
+
+    private static List<String> stackClasses(SlowStage slowStage) {
+        List<String> classes = new ArrayList<>();
+        for (StackTraceElement element : slowStage.stackTrace()) {
+            classes.add(element.getClassName());
+        }
+        return classes;
+    }
+}
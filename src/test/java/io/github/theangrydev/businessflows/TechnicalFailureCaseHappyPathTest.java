@@ -24,7 +24,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class TechnicalFailureCaseHappyPathTest {
 
     private final Exception technicalFailure = new Exception();
-    private final TechnicalFailureCaseHappyPath<Object, Object> technicalFailureCaseHappyPath = new TechnicalFailureCaseHappyPath<>(technicalFailure);
+    private final TechnicalFailureCaseHappyPath<Object, Object> technicalFailureCaseHappyPath = new TechnicalFailureCaseHappyPath<>(technicalFailure, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsEmpty() {
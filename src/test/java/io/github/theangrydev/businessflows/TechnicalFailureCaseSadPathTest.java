@@ -24,7 +24,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class TechnicalFailureCaseSadPathTest {
 
     private final Exception technicalFailure = new Exception();
-    private final TechnicalFailureCaseSadPath<Object, Object> happyCaseSadPath = new TechnicalFailureCaseSadPath<>(technicalFailure);
+    private final TechnicalFailureCaseSadPath<Object, Object> happyCaseSadPath = new TechnicalFailureCaseSadPath<>(technicalFailure, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsEmpty() {
@@ -31,7 +31,7 @@ public class TechnicalFailureCaseTechnicalFailureTest {
     }
 
     private final Exception technicalFailure = new Exception();
-    private final TechnicalFailureCaseTechnicalFailure<Happy, Sad> technicalFailureCaseTechnicalFailure = new TechnicalFailureCaseTechnicalFailure<>(technicalFailure);
+    private final TechnicalFailureCaseTechnicalFailure<Happy, Sad> technicalFailureCaseTechnicalFailure = new TechnicalFailureCaseTechnicalFailure<>(technicalFailure, FlowContext.emptyContext());
 
     @Test
     public void toOptionalIsPresent() {
@@ -25,7 +25,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 public class TechnicalFailureCaseTest {
 
     private final Exception technicalFailure = new Exception("technical failure");
-    private final TechnicalFailureCase<?, ?> technicalFailureCase = new TechnicalFailureCase<>(technicalFailure);
+    private final TechnicalFailureCase<?, ?> technicalFailureCase = new TechnicalFailureCase<>(technicalFailure, FlowContext.emptyContext());
 
     @Test
     public void toStringIsSad() {
@@ -23,7 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class TechnicalFailureCaseValidationPathTest {
 
-    private TechnicalFailureCaseValidationPath<Object, Object, Object> sadCaseValidationPath = new TechnicalFailureCaseValidationPath<>(new Exception());
+    private TechnicalFailureCaseValidationPath<Object, Object, Object> sadCaseValidationPath = new TechnicalFailureCaseValidationPath<>(new Exception(), FlowContext.emptyContext());
 
     @Test
     public void validateReturnsThis() {
@@ -35,6 +35,26 @@ public class TechnicalFailureCaseValidationPathTest {
         assertThat(sadCaseValidationPath.validateInto(null, null)).isSameAs(sadCaseValidationPath);
     }
 
+    @Test
+    public void validateFirstReturnsThis() {
+        assertThat(sadCaseValidationPath.validateFirst(null)).isSameAs(sadCaseValidationPath);
+    }
+
+    @Test
+    public void validateFirstIntoReturnsThis() {
+        assertThat(sadCaseValidationPath.validateFirstInto(null, null)).isSameAs(sadCaseValidationPath);
+    }
+
+    @Test
+    public void validateWithinReturnsThis() {
+        assertThat(sadCaseValidationPath.validateWithin(null, null)).isSameAs(sadCaseValidationPath);
+    }
+
+    @Test
+    public void validateWithinIntoReturnsThis() {
+        assertThat(sadCaseValidationPath.validateWithinInto(null, null, null)).isSameAs(sadCaseValidationPath);
+    }
+
     @Test
     public void isATechnicalFailureCaseHappyPath() {
         assertThat(sadCaseValidationPath).isInstanceOf(TechnicalFailureCaseHappyPath.class);
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.List;
+
+import static io.github.theangrydev.businessflows.FieldValidator.fieldValidator;
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static io.github.theangrydev.businessflows.SharedField.sharedField;
+import static io.github.theangrydev.businessflows.ValidationPath.validators;
+import static io.github.theangrydev.businessflows.ValidationPlan.validationPlan;
+import static io.github.theangrydev.businessflows.ValidationPlan.validationPlanInto;
+
+public class ValidationPlanTest implements WithAssertions {
+
+    private static class Address {
+        private final String street;
+        private final String postcode;
+
+        private Address(String street, String postcode) {
+            this.street = street;
+            this.postcode = postcode;
+        }
+    }
+
+    private static class Person {
+        private final String name;
+        private final Address address;
+
+        private Person(String name, Address address) {
+            this.name = name;
+            this.address = address;
+        }
+    }
+
+    private final Person valid = new Person("Liam", new Address("High Street", "E1 6AN"));
+    private final Person invalid = new Person("", new Address("", ""));
+    private int extractions;
+
+    @Test
+    public void validPersonIsHappy() {
+        assertSameOutcomeAsValidate(personValidators(), valid);
+        assertThat(validationPlan(personValidators()).validate(valid).get()).isSameAs(valid);
+    }
+
+    @Test
+    public void failuresFromNestedFieldsAreInTheSameOrderAsValidate() {
+        assertSameOutcomeAsValidate(personValidators(), invalid);
+        assertThat(validationPlan(personValidators()).validate(invalid).ifSad().get())
+                .containsExactly("name blank", "street blank", "postcode blank", "postcode format", "not in London");
+    }
+
+    @Test
+    public void failuresAreMappedIntoTheAggregate() {
+        Integer aggregate = validationPlanInto(List::size, personValidators()).validate(invalid).ifSad().get();
+
+        assertThat(aggregate).isEqualTo(5);
+    }
+
+    @Test
+    public void technicalFailureInATopLevelValidatorIsATechnicalFailure() {
+        List<Validator<Person, String>> validators = validators(
+                fieldValidator(person -> person.name, notBlank("name")),
+                failing("top level")
+        );
+
+        assertSameOutcomeAsValidate(validators, invalid);
+    }
+
+    @Test
+    public void technicalFailureInAFieldValidatorIsTreatedAsValidLikeValidate() {
+        List<Validator<Person, String>> validators = validators(
+                fieldValidator(person -> person.name, notBlank("name")),
+                fieldValidator(person -> person.address,
+                        fieldValidator(address -> address.street, notBlank("street")),
+                        failing("nested")),
+                person -> failures("after")
+        );
+
+        assertSameOutcomeAsValidate(validators, invalid);
+    }
+
+    @Test
+    public void technicalFailureInANestedFieldExtractorIsTreatedAsValidLikeValidate() {
+        List<Validator<Person, String>> validators = validators(
+                fieldValidator(person -> person.address,
+                        fieldValidator(address -> address.street, notBlank("street")),
+                        fieldValidator(failingExtractor(), notBlank("postcode"))),
+                fieldValidator(person -> person.name, notBlank("name"))
+        );
+
+        assertSameOutcomeAsValidate(validators, invalid);
+    }
+
+    @Test
+    public void technicalFailureInATopLevelFieldExtractorIsATechnicalFailure() {
+        List<Validator<Person, String>> validators = validators(
+                fieldValidator(failingExtractor(), notBlank("name"))
+        );
+
+        assertSameOutcomeAsValidate(validators, invalid);
+    }
+
+    @Test
+    public void fieldValidatorsWithTheSameExtractorShareTheExtractedValue() {
+        Mapping<Person, String> name = countingExtractor(person -> person.name);
+        List<Validator<Person, String>> validators = validators(
+                fieldValidator(name, notBlank("name")),
+                fieldValidator(name, notBlank("name again"))
+        );
+
+        ValidationPath<Person, String, List<String>> outcome = validationPlan(validators).validate(invalid);
+
+        assertThat(outcome.ifSad().get()).containsExactly("name blank", "name again blank");
+        assertThat(extractions).isEqualTo(1);
+    }
+
+    @Test
+    public void sharedFieldsAreExtractedOnceIncludingWhenTheyFeedDerivedFields() {
+        SharedField<Person, Address> address = sharedField("address", countingExtractor(person -> person.address));
+        SharedField<Person, String> postcode = address.derive("postcode", countingExtractor(value -> value.postcode.trim()));
+        SharedField<Person, String> outwardCode = postcode.derive("outward code", value -> value.split(" ")[0]);
+        List<Validator<Person, String>> validators = validators(
+                fieldValidator(address, fieldValidator(value -> value.street, notBlank("street"))),
+                fieldValidator(postcode, postcodeFormat()),
+                fieldValidator(outwardCode, notBlank("outward code"))
+        );
+
+        assertSameOutcomeAsValidate(validators, valid);
+        extractions = 0;
+        ValidationPath<Person, String, List<String>> outcome = validationPlan(validators).validate(invalid);
+
+        assertThat(outcome.ifSad().get()).containsExactly("street blank", "postcode format", "outward code blank");
+        assertThat(extractions).isEqualTo(2);
+    }
+
+    private <From, To> Mapping<From, To> countingExtractor(Mapping<From, To> extractor) {
+        return value -> {
+            extractions++;
+            return extractor.map(value);
+        };
+    }
+
+    private List<Validator<Person, String>> personValidators() {
+        return validators(
+                fieldValidator(person -> person.name, notBlank("name")),
+                fieldValidator(person -> person.address,
+                        fieldValidator(address -> address.street, notBlank("street")),
+                        fieldValidator(address -> address.postcode, notBlank("postcode"), postcodeFormat())),
+                person -> person.address.postcode.startsWith("E") ? success() : failures("not in London")
+        );
+    }
+
+    private Validator<String, String> postcodeFormat() {
+        return postcode -> postcode.contains(" ") ? success() : failures("postcode format");
+    }
+
+    private Validator<String, String> notBlank(String fieldName) {
+        return field -> field.trim().isEmpty() ? failures(fieldName + " blank") : success();
+    }
+
+    private <T> Validator<T, String> failing(String message) {
+        return value -> {
+            throw new IllegalStateException(message);
+        };
+    }
+
+    private <T> Mapping<T, String> failingExtractor() {
+        return value -> {
+            throw new IllegalStateException("extractor");
+        };
+    }
+
+    private void assertSameOutcomeAsValidate(List<Validator<Person, String>> validators, Person person) {
+        assertThat(outcome(validationPlan(validators).validate(person))).isEqualTo(outcome(ValidationPath.validate(person, validators)));
+    }
+
+    private String outcome(HappyPath<Person, List<String>> outcome) {
+        return outcome.join(happy -> "happy", sads -> "sad " + sads, technicalFailure -> "technical failure " + technicalFailure.getMessage());
+    }
+}
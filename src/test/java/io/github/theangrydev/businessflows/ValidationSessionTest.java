@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static io.github.theangrydev.businessflows.FieldValidator.fieldValidator;
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static io.github.theangrydev.businessflows.ValidationPath.validators;
+import static io.github.theangrydev.businessflows.ValidationSession.validationSession;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+
+public class ValidationSessionTest implements WithAssertions {
+
+    private static class Form {
+        private final String name;
+        private final String email;
+
+        private Form(String name, String email) {
+            this.name = name;
+            this.email = email;
+        }
+    }
+
+    private final List<String> ran = new ArrayList<>();
+
+    @Test
+    public void firstValidationRunsEveryValidator() {
+        ValidationSession<Form, String, List<String>> session = validationSession(formValidators());
+
+        List<String> failures = session.validate(new Form("", "")).ifSad().get();
+
+        assertThat(failures).containsExactly("name blank", "email blank", "form");
+        assertThat(ran).containsExactly("name", "email", "form");
+    }
+
+    @Test
+    public void onlyFieldsThatAreNotEqualToLastTimeAreValidatedAgain() {
+        ValidationSession<Form, String, List<String>> session = validationSession(formValidators());
+        session.validate(new Form("", ""));
+        ran.clear();
+
+        List<String> failures = session.validate(new Form("Liam", "")).ifSad().get();
+
+        assertThat(failures).containsExactly("email blank", "form");
+        assertThat(ran).containsExactly("name", "form");
+    }
+
+    @Test
+    public void namedFieldsThatAreNotInTheChangedFieldsAreNotValidatedAgain() {
+        ValidationSession<Form, String, List<String>> session = validationSession(formValidators());
+        session.validate(new Form("", ""));
+        ran.clear();
+
+        Form form = new Form("", "liam@example.com");
+        List<String> failures = session.revalidate(form, singleton("email")).ifSad().get();
+
+        assertThat(failures).containsExactly("name blank", "form");
+        assertThat(ran).containsExactly("email", "form");
+    }
+
+    @Test
+    public void resultIsTheSameAsValidate() {
+        ValidationSession<Form, String, List<String>> session = validationSession(formValidators());
+        session.validate(new Form("", ""));
+        Form form = new Form("Liam", "liam@example.com");
+
+        Form validated = session.revalidate(form, asList("name", "email")).get();
+
+        assertThat(validated).isSameAs(ValidationPath.validate(form, formValidators()).get());
+    }
+
+    @Test
+    public void everythingIsValidatedAgainAfterATechnicalFailure() {
+        ValidationSession<Form, String, List<String>> session = validationSession(validators(
+                fieldValidator(form -> form.name, "name", notBlank()),
+                form -> {
+                    ran.add("form");
+                    if (form.email == null) {
+                        throw new IllegalStateException();
+                    }
+                    return success();
+                }
+        ));
+        session.validate(new Form("", ""));
+        assertThat(session.validate(new Form("", null)).ifTechnicalFailure().get()).isInstanceOf(IllegalStateException.class);
+        ran.clear();
+
+        session.validate(new Form("", ""));
+
+        assertThat(ran).containsExactly("name", "form");
+    }
+
+    private List<Validator<Form, String>> formValidators() {
+        return validators(
+                fieldValidator(form -> form.name, "name", notBlank()),
+                fieldValidator(form -> form.email, "email", notBlank()),
+                form -> {
+                    ran.add("form");
+                    return form.name.equals("Liam") && form.email.contains("example") ? success() : failures("form");
+                }
+        );
+    }
+
+    private Function<String, Validator<String, String>> notBlank() {
+        return fieldName -> field -> {
+            ran.add(fieldName);
+            return field.isEmpty() ? failures(fieldName + " blank") : success();
+        };
+    }
+}
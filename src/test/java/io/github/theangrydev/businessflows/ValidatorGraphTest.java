@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static io.github.theangrydev.businessflows.ValidatorGraph.validatorGraph;
+
+public class ValidatorGraphTest implements WithAssertions {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void dependentsOfAFailedValidatorAreSkipped() {
+        List<String> failures = usernameGraph().validate("no spaces").ifSad().get();
+
+        assertThat(failures).containsExactly("format", "length");
+        assertThat(ran).containsExactly("format", "length");
+    }
+
+    @Test
+    public void dependentsRunWhenAllTheirPrerequisitesPass() {
+        List<String> failures = usernameGraph().validate("taken").ifSad().get();
+
+        assertThat(failures).containsExactly("exists");
+        assertThat(ran).containsExactly("format", "length", "exists", "reserved");
+    }
+
+    @Test
+    public void skippingIsTransitive() {
+        ValidatorGraph<String, String, List<String>> graph = ValidatorGraph.<String, String>validatorGraph()
+                .validator("first", validator("first", true))
+                .validator("second", validator("second", false), "first")
+                .validator("third", validator("third", false), "second");
+
+        graph.validate("input");
+
+        assertThat(ran).containsExactly("first");
+    }
+
+    @Test
+    public void asyncValidationHasTheSameFailureOrder() throws Exception {
+        List<String> failures = usernameGraph().validateAsync("no spaces", executor).get(5, TimeUnit.SECONDS).ifSad().get();
+
+        assertThat(failures).containsExactly("format", "length");
+        assertThat(ran).containsExactlyInAnyOrder("format", "length");
+    }
+
+    @Test
+    public void independentValidatorsRunConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Validator<String, String> waitsForTheOther = input -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS) ? success() : failures("ran one at a time");
+        };
+        ValidatorGraph<String, String, List<String>> graph = ValidatorGraph.<String, String>validatorGraph()
+                .validator("one", waitsForTheOther)
+                .validator("two", waitsForTheOther);
+
+        String validated = graph.validateAsync("input", executor).get(10, TimeUnit.SECONDS).get();
+
+        assertThat(validated).isEqualTo("input");
+    }
+
+    @Test
+    public void theFirstTechnicalFailureInDeclarationOrderWins() throws Exception {
+        Exception first = new Exception();
+        Exception second = new Exception();
+        ValidatorGraph<String, String, List<String>> graph = ValidatorGraph.<String, String>validatorGraph()
+                .validator("first", input -> {
+                    throw first;
+                })
+                .validator("second", input -> {
+                    throw second;
+                });
+
+        assertThat(graph.validate("input").ifTechnicalFailure().get()).isSameAs(first);
+        assertThat(graph.validateAsync("input", executor).get(5, TimeUnit.SECONDS).ifTechnicalFailure().get()).isSameAs(first);
+    }
+
+    @Test
+    public void failuresAreMappedIntoTheAggregate() {
+        ValidatorGraph<String, String, Integer> graph = ValidatorGraph.<String, String, Integer>validatorGraphInto(List::size)
+                .validator("one", validator("one", true))
+                .validator("two", validator("two", true));
+
+        assertThat(graph.validate("input").ifSad().get()).isEqualTo(2);
+    }
+
+    @Test
+    public void prerequisitesMustBeDeclaredFirst() {
+        assertThatThrownBy(() -> validatorGraph().validator("exists", input -> success(), "format"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The prerequisite 'format' of 'exists' must be declared before it");
+    }
+
+    @Test
+    public void namesMustBeUnique() {
+        assertThatThrownBy(() -> ValidatorGraph.<String, String>validatorGraph().validator("format", input -> success()).validator("format", input -> success()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The validator 'format' has already been declared");
+    }
+
+    private ValidatorGraph<String, String, List<String>> usernameGraph() {
+        return ValidatorGraph.<String, String>validatorGraph()
+                .validator("format", validator("format", input -> input.contains(" ")))
+                .validator("length", validator("length", input -> input.length() > 5))
+                .validator("exists", validator("exists", input -> input.equals("taken")), "format", "length")
+                .validator("reserved", validator("reserved", input -> input.equals("admin")), "format");
+    }
+
+    private Validator<String, String> validator(String name, boolean fails) {
+        return validator(name, input -> fails);
+    }
+
+    private Validator<String, String> validator(String name, Predicate<String> failsWhen) {
+        return input -> {
+            ran.add(name);
+            return failsWhen.test(input) ? failures(name) : success();
+        };
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static io.github.theangrydev.businessflows.FieldValidator.fieldValidator;
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static io.github.theangrydev.businessflows.PotentialFailure.success;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+public class ValidatorStatisticsTest implements WithAssertions {
+
+    private long now;
+    private final ValidatorStatistics validatorStatistics = new ValidatorStatistics(() -> now);
+
+    @Test
+    public void recordsInvocationsTimeAndFailures() {
+        Validator<Integer, String> positive = validatorStatistics.instrument("positive", number -> {
+            now += number < 0 ? 10 : 30;
+            return number > 0 ? success() : failures("not positive");
+        });
+
+        ValidationPath.validate(1, singletonList(positive));
+        ValidationPath.validate(-1, singletonList(positive));
+        ValidationPath.validate(2, singletonList(positive));
+        ValidationPath.validate(3, singletonList(positive));
+
+        ValidatorSnapshot snapshot = validatorStatistics.snapshot("positive");
+        assertThat(snapshot.invocations()).isEqualTo(4);
+        assertThat(snapshot.totalNanos()).isEqualTo(100);
+        assertThat(snapshot.maxNanos()).isEqualTo(30);
+        assertThat(snapshot.averageNanos()).isEqualTo(25);
+        assertThat(snapshot.failures()).isEqualTo(1);
+        assertThat(snapshot.failureRate()).isEqualTo(0.25);
+        assertThat(snapshot.exceptions()).isEqualTo(0);
+    }
+
+    @Test
+    public void anEmptyListOfFailuresIsNotAFailure() {
+        Validator<Integer, String> validator = validatorStatistics.instrument("empty", number -> failures());
+
+        ValidationPath.validate(1, singletonList(validator));
+
+        assertThat(validatorStatistics.snapshot("empty").failures()).isEqualTo(0);
+    }
+
+    @Test
+    public void exceptionsAreCountedAndStillBecomeTechnicalFailures() {
+        IllegalStateException exception = new IllegalStateException();
+        Validator<Integer, String> throwing = validatorStatistics.instrument("throwing", number -> {
+            throw exception;
+        });
+
+        Exception technicalFailure = ValidationPath.validate(1, singletonList(throwing)).ifTechnicalFailure().get();
+
+        assertThat(technicalFailure).isSameAs(exception);
+        assertThat(validatorStatistics.snapshot("throwing").exceptions()).isEqualTo(1);
+        assertThat(validatorStatistics.snapshot("throwing").invocations()).isEqualTo(1);
+    }
+
+    @Test
+    public void fieldValidatorsAreNamedByTheirFieldName() {
+        Function<String, Validator<String, String>> notEmpty = fieldName -> field -> field.isEmpty() ? failures(fieldName + " is empty") : success();
+        Validator<String, String> unnamed = field -> success();
+        List<Validator<String, String>> validators = validatorStatistics.instrument(asList(
+                fieldValidator(string -> string, "name", notEmpty),
+                unnamed
+        ));
+
+        ValidationPath.validate("", validators);
+
+        Map<String, ValidatorSnapshot> snapshot = validatorStatistics.snapshot();
+        assertThat(snapshot.keySet()).containsExactly(unnamed.getClass().getName(), "name");
+        assertThat(snapshot.get("name").failures()).isEqualTo(1);
+    }
+
+    @Test
+    public void anInstrumentedFieldValidatorIsStillLimitedByTheFailureBudget() {
+        List<Validator<String, String>> elementValidators = new ArrayList<>();
+        for (int element = 0; element < 1000; element++) {
+            elementValidators.add(field -> failures("invalid"));
+        }
+        Validator<String, String> instrumented = validatorStatistics.instrument("elements", fieldValidator(string -> string, elementValidators));
+
+        List<String> failures = ValidationPath.validateWithin("input", FailureBudget.failureBudget(3, "truncated"), instrumented).ifSad().get();
+
+        assertThat(instrumented).isInstanceOf(FieldValidator.class);
+        assertThat(failures).containsExactly("invalid", "invalid", "invalid", "truncated");
+        assertThat(validatorStatistics.snapshot("elements").invocations()).isEqualTo(4);
+    }
+
+    @Test
+    public void theCountsOfThreadsThatHaveEndedAreKeptWithoutKeepingTheirAccumulators() throws Exception {
+        Validator<Integer, String> validator = validatorStatistics.instrument("short lived", number -> success());
+        for (int thread = 0; thread < 10; thread++) {
+            Thread shortLived = new Thread(() -> ValidationPath.validate(1, singletonList(validator)));
+            shortLived.start();
+            shortLived.join();
+        }
+
+        ValidationPath.validate(1, singletonList(validator));
+
+        assertThat(validatorStatistics.threadsRecording("short lived")).isEqualTo(1);
+        assertThat(validatorStatistics.snapshot("short lived").invocations()).isEqualTo(11);
+    }
+
+    @Test
+    public void aNameThatWasNeverRecordedHasNoStatistics() {
+        assertThat(validatorStatistics.snapshot("unknown").invocations()).isEqualTo(0);
+        assertThat(validatorStatistics.snapshot("unknown").failureRate()).isEqualTo(0);
+    }
+
+    @Test
+    public void countsFromDifferentThreadsAreMerged() throws Exception {
+        ValidatorStatistics statistics = ValidatorStatistics.validatorStatistics();
+        Validator<Integer, String> validator = statistics.instrument("odd", number -> number % 2 == 1 ? success() : failures("even"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int number = 0; number < 1000; number++) {
+                        ValidationPath.validate(number, singletonList(validator));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(statistics.snapshot("odd").invocations()).isEqualTo(4000);
+        assertThat(statistics.snapshot("odd").failures()).isEqualTo(2000);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.github.theangrydev.businessflows.PotentialFailure.failure;
+import static io.github.theangrydev.businessflows.PotentialFailure.failures;
+import static java.util.stream.Collectors.toList;
+
+public class FlowEventsTest implements WithAssertions {
+
+    private static final String FLOW_STAGE = "io.github.theangrydev.businessflows.FlowStage";
+    private static final String TECHNICAL_FAILURE = "io.github.theangrydev.businessflows.TechnicalFailure";
+    private static final String VALIDATION = "io.github.theangrydev.businessflows.Validation";
+
+    @Test
+    public void recordsAStageEventForEachOperationThatRuns() throws IOException {
+        List<RecordedEvent> events = record(() -> HappyPath.<Integer, String>happyPath(1)
+                .map(happy -> happy + 1)
+                .attempt(happy -> failure("sad"))
+                .map(happy -> happy + 1)
+                .ifSad()
+                .peek(sad -> {}));
+
+        List<RecordedEvent> stages = named(events, FLOW_STAGE);
+        assertThat(stages.stream().map(event -> event.getString("operation") + " " + event.getString("outcome")).collect(toList()))
+                .containsExactly("MAP happy", "ATTEMPT sad", "PEEK sad");
+        assertThat(stages.get(0).getDuration().isNegative()).isFalse();
+    }
+
+    @Test
+    public void recordsATechnicalFailureEventWithTheExceptionClass() throws IOException {
+        List<RecordedEvent> events = record(() -> HappyPath.<Integer, String>happyPath(1)
+                .map(happy -> {throw new IllegalStateException("broken");})
+                .ifTechnicalFailure()
+                .peek(technicalFailure -> {}));
+
+        List<RecordedEvent> technicalFailures = named(events, TECHNICAL_FAILURE);
+        assertThat(technicalFailures).hasSize(1);
+        assertThat(technicalFailures.get(0).getString("operation")).isEqualTo("MAP");
+        assertThat(technicalFailures.get(0).getClass("exceptionClass").getName()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(technicalFailures.get(0).getString("message")).isEqualTo("broken");
+    }
+
+    @Test
+    public void recordsAValidationEventWithTheValidatorAndFailureCounts() throws IOException {
+        List<RecordedEvent> events = record(() -> ValidationPath.validate(1, happy -> failures("a", "b"), happy -> failures(), happy -> failures("c")));
+
+        List<RecordedEvent> validations = named(events, VALIDATION);
+        assertThat(validations).hasSize(1);
+        assertThat(validations.get(0).getInt("validators")).isEqualTo(3);
+        assertThat(validations.get(0).getInt("failures")).isEqualTo(3);
+        assertThat(validations.get(0).getString("outcome")).isEqualTo("sad");
+    }
+
+    private List<RecordedEvent> record(Runnable flow) throws IOException {
+        Path recordingFile = Files.createTempFile("flow-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FLOW_STAGE).withoutThreshold();
+            recording.enable(TECHNICAL_FAILURE).withoutThreshold();
+            recording.enable(VALIDATION).withoutThreshold();
+            recording.start();
+            flow.run();
+            recording.stop();
+            recording.dump(recordingFile);
+            return RecordingFile.readAllEvents(recordingFile);
+        } finally {
+            Files.delete(recordingFile);
+        }
+    }
+
+    private List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((first, second) -> first.getStartTime().compareTo(second.getStartTime()))
+                .collect(toList());
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.theangrydev.businessflows.BusinessFlowProcessor.businessFlowProcessor;
+import static io.github.theangrydev.businessflows.BusinessFlowProcessor.mapPublisher;
+import static java.util.stream.Collectors.toList;
+
+public class BusinessFlowProcessorTest implements WithAssertions {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final Exception technicalFailure = new Exception();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void publishesTheOutcomeOfTheFlowForEachElementInOrder() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+
+        mapPublisher(new CountingPublisher(6), this::flow, executor, 3).subscribe(subscriber);
+
+        subscriber.awaitCompletion();
+        assertThat(subscriber.outcomes()).containsExactly("happy 1", "sad 2", "happy 3", "technical failure", "happy 5", "sad 6");
+    }
+
+    @Test
+    public void theOutcomesCanBeRoutedByTrack() {
+        List<Object> happy = new CopyOnWriteArrayList<>();
+        List<Object> sad = new CopyOnWriteArrayList<>();
+        List<Object> technicalFailures = new CopyOnWriteArrayList<>();
+
+        mapPublisher(new CountingPublisher(4), this::flow).subscribe(OutcomeRouter.outcomeRouter(new ListSubscriber(happy), new ListSubscriber(sad), new ListSubscriber(technicalFailures), 1));
+
+        assertThat(happy).containsExactly(1, 3);
+        assertThat(sad).containsExactly("sad 2");
+        assertThat(technicalFailures).containsExactly(technicalFailure);
+    }
+
+    @Test
+    public void onlyRequestsFromUpstreamWhatHasBeenRequestedDownstream() {
+        CountingPublisher publisher = new CountingPublisher(100);
+        RecordingSubscriber subscriber = new RecordingSubscriber(2);
+
+        mapPublisher(publisher, this::flow).subscribe(subscriber);
+
+        assertThat(publisher.requested.get()).isEqualTo(2L);
+        assertThat(subscriber.outcomes()).containsExactly("happy 1", "sad 2");
+    }
+
+    @Test
+    public void neverRequestsMoreThanTheMaximumConcurrencyFromUpstream() {
+        CountingPublisher publisher = new CountingPublisher(100);
+        BusinessFlowProcessor<Integer, Integer, String> processor = businessFlowProcessor(input -> HappyPath.happyPath(input), command -> { }, 3);
+        publisher.subscribe(processor);
+
+        processor.subscribe(new RecordingSubscriber(50));
+
+        assertThat(publisher.requested.get()).isEqualTo(3L);
+    }
+
+    @Test
+    public void rejectsASecondSubscriber() throws InterruptedException {
+        BusinessFlowProcessor<Integer, Integer, String> processor = businessFlowProcessor(this::flow);
+        processor.subscribe(new RecordingSubscriber(1));
+        RecordingSubscriber secondSubscriber = new RecordingSubscriber(1);
+
+        processor.subscribe(secondSubscriber);
+
+        secondSubscriber.awaitCompletion();
+        assertThat(secondSubscriber.error).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void cancellingDownstreamCancelsUpstream() {
+        CountingPublisher publisher = new CountingPublisher(100);
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        mapPublisher(publisher, this::flow).subscribe(subscriber);
+
+        subscriber.subscription.cancel();
+
+        assertThat(publisher.cancelled).isTrue();
+    }
+
+    private HappyPath<Integer, String> flow(Integer input) throws Exception {
+        if (input % 4 == 0) {
+            throw technicalFailure;
+        }
+        if (input % 2 == 0) {
+            return HappyPath.sadPath("sad " + input);
+        }
+        return HappyPath.happyPath(input);
+    }
+
+    private class CountingPublisher implements Flow.Publisher<Integer> {
+        private final int elements;
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean cancelled;
+
+        private CountingPublisher(int elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int next = 1;
+
+                @Override
+                public synchronized void request(long n) {
+                    requested.addAndGet(n);
+                    for (long i = 0; i < n && next <= elements; i++) {
+                        subscriber.onNext(next++);
+                    }
+                    if (next > elements) {
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static class ListSubscriber implements Flow.Subscriber<Object> {
+        private final List<Object> received;
+
+        private ListSubscriber(List<Object> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private class RecordingSubscriber implements Flow.Subscriber<BusinessCase<Integer, String>> {
+        private final long initialRequest;
+        private final List<BusinessCase<Integer, String>> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(BusinessCase<Integer, String> item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            terminated.countDown();
+        }
+
+        void awaitCompletion() throws InterruptedException {
+            assertThat(terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        List<String> outcomes() {
+            return received.stream()
+                    .map(outcome -> outcome.join(happy -> "happy " + happy, sad -> sad, failure -> "technical failure"))
+                    .collect(toList());
+        }
+    }
+}
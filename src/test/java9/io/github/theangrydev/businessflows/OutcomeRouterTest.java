@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 Liam Williams <liam.williams@zoho.com>.
+ *
+ * This file is part of business-flows.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.theangrydev.businessflows;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static io.github.theangrydev.businessflows.OutcomeRouter.outcomeRouter;
+import static java.util.Arrays.asList;
+
+public class OutcomeRouterTest implements WithAssertions {
+
+    private final Exception technicalFailure = new Exception();
+
+    @Test
+    public void routesEachOutcomeToTheSubscriberForItsTrack() {
+        RecordingSubscriber<Integer> happySubscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        RecordingSubscriber<String> sadSubscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        RecordingSubscriber<Exception> technicalFailureSubscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+        new ListPublisher(outcomes()).subscribe(outcomeRouter(happySubscriber, sadSubscriber, technicalFailureSubscriber, 2));
+
+        assertThat(happySubscriber.received).containsExactly(1, 3);
+        assertThat(sadSubscriber.received).containsExactly("sad");
+        assertThat(technicalFailureSubscriber.received).containsExactly(technicalFailure);
+        assertThat(happySubscriber.completed).isTrue();
+        assertThat(sadSubscriber.completed).isTrue();
+        assertThat(technicalFailureSubscriber.completed).isTrue();
+    }
+
+    @Test
+    public void aSlowSubscriberThrottlesTheUpstreamPublisher() {
+        RecordingSubscriber<Integer> slowHappySubscriber = new RecordingSubscriber<>(0);
+        ListPublisher publisher = new ListPublisher(asList(HappyPath.happyPath(1), HappyPath.happyPath(2), HappyPath.happyPath(3)));
+
+        publisher.subscribe(outcomeRouter(slowHappySubscriber, new RecordingSubscriber<>(Long.MAX_VALUE), new RecordingSubscriber<>(Long.MAX_VALUE), 1));
+
+        assertThat(publisher.requested).isEqualTo(1L);
+        slowHappySubscriber.subscription.request(1);
+        assertThat(publisher.requested).isEqualTo(2L);
+        assertThat(slowHappySubscriber.received).containsExactly(1);
+    }
+
+    @Test
+    public void cancellingEveryRouteCancelsUpstream() {
+        RecordingSubscriber<Integer> happySubscriber = new RecordingSubscriber<>(0);
+        RecordingSubscriber<String> sadSubscriber = new RecordingSubscriber<>(0);
+        RecordingSubscriber<Exception> technicalFailureSubscriber = new RecordingSubscriber<>(0);
+        ListPublisher publisher = new ListPublisher(outcomes());
+        publisher.subscribe(outcomeRouter(happySubscriber, sadSubscriber, technicalFailureSubscriber, 1));
+
+        happySubscriber.subscription.cancel();
+        sadSubscriber.subscription.cancel();
+        assertThat(publisher.cancelled).isFalse();
+        technicalFailureSubscriber.subscription.cancel();
+
+        assertThat(publisher.cancelled).isTrue();
+    }
+
+    private List<HappyPath<Integer, String>> outcomes() {
+        return asList(HappyPath.happyPath(1), HappyPath.sadPath("sad"), HappyPath.technicalFailure(technicalFailure), HappyPath.happyPath(3));
+    }
+
+    private class ListPublisher implements Flow.Publisher<HappyPath<Integer, String>> {
+        private final List<HappyPath<Integer, String>> elements;
+        private long requested;
+        private boolean cancelled;
+
+        private ListPublisher(List<HappyPath<Integer, String>> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super HappyPath<Integer, String>> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int next;
+
+                @Override
+                public void request(long n) {
+                    requested += n;
+                    for (long i = 0; i < n && next < elements.size(); i++) {
+                        subscriber.onNext(elements.get(next++));
+                    }
+                    if (next == elements.size()) {
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+        private final long initialRequest;
+        private final List<T> received = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed = true;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}